@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Time from the start to the first answered request, and resident memory (RSS) then, for the jar
+# built with -Pfast-start or the native executable built with -Pnative.
+#   scripts/time-to-first-request.sh target/back-end-0.0.1-SNAPSHOT.jar [url]
+#   scripts/time-to-first-request.sh target/back-end [url]
+# The JVM options are taken from JAVA_OPTS (e.g. -XX:SharedArchiveFile=... -Dspring.aot.enabled=true),
+# the profiles from SPRING_PROFILES_ACTIVE (default prod).
+set -euo pipefail
+
+APP="${1:?jar or native executable}"
+URL="${2:-http://localhost:8080/doctor}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+export SPRING_PROFILES_ACTIVE="${SPRING_PROFILES_ACTIVE:-prod}"
+
+start=$(date +%s%N)
+if [[ "$APP" == *.jar ]]; then
+	# shellcheck disable=SC2086
+	java ${JAVA_OPTS:-} -jar "$APP" > target/time-to-first-request.log 2>&1 &
+else
+	"$APP" > target/time-to-first-request.log 2>&1 &
+fi
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+status=000
+while [ "$status" = "000" ]; do
+	if ! kill -0 "$pid" 2>/dev/null; then
+		echo "The application stopped, see target/time-to-first-request.log" >&2
+		tail -n 50 target/time-to-first-request.log >&2
+		exit 1
+	fi
+	if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+		echo "No answer from $URL after ${TIMEOUT_SECONDS}s" >&2
+		exit 1
+	fi
+	status=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+	if [ "$status" = "000" ]; then
+		sleep 0.05
+	fi
+done
+elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+rss=$(( $(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status") / 1024 ))
+
+echo "Time to first request: ${elapsed} ms, RSS ${rss} MB (HTTP $status, $URL)"
+if [ -n "${GITHUB_STEP_SUMMARY:-}" ]; then
+	echo "| ${STARTUP_LABEL:-startup} | ${elapsed} ms | ${rss} MB |" >> "$GITHUB_STEP_SUMMARY"
+fi
@@ -0,0 +1,24 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// Body of PATCH /appointments/{id}/{token}: only the non-null fields are changed.
+// A patient may move the appointment; the doctor may also change its status.
+public class AppointmentPatch {
+
+	private LocalDateTime appointmentTime;
+	private Integer status;
+
+	public LocalDateTime getAppointmentTime() {
+		return appointmentTime;
+	}
+	public void setAppointmentTime(LocalDateTime appointmentTime) {
+		this.appointmentTime = appointmentTime;
+	}
+	public Integer getStatus() {
+		return status;
+	}
+	public void setStatus(Integer status) {
+		this.status = status;
+	}
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+// Body of the batch status update: the appointments of the calling doctor and their new status.
+public class AppointmentStatusBatch {
+
+	private List<Long> ids;
+	private Integer status;
+
+	public List<Long> getIds() {
+		return ids;
+	}
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+	public Integer getStatus() {
+		return status;
+	}
+	public void setStatus(Integer status) {
+		this.status = status;
+	}
+}
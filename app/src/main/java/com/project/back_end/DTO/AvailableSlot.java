@@ -0,0 +1,47 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// A free one-hour slot returned by the "next available appointment" search.
+public class AvailableSlot {
+
+	private Long doctorId;
+	private String doctorName;
+	private String specialty;
+	private LocalDateTime slotTime;
+
+	public AvailableSlot(Long doctorId, String doctorName, String specialty, LocalDateTime slotTime) {
+		this.doctorId = doctorId;
+		this.doctorName = doctorName;
+		this.specialty = specialty;
+		this.slotTime = slotTime;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+	public String getDoctorName() {
+		return doctorName;
+	}
+	public void setDoctorName(String doctorName) {
+		this.doctorName = doctorName;
+	}
+	public String getSpecialty() {
+		return specialty;
+	}
+	public void setSpecialty(String specialty) {
+		this.specialty = specialty;
+	}
+	public LocalDateTime getSlotTime() {
+		return slotTime;
+	}
+	public void setSlotTime(LocalDateTime slotTime) {
+		this.slotTime = slotTime;
+	}
+	public LocalDateTime getEndTime() {
+		return slotTime.plusHours(1);
+	}
+}
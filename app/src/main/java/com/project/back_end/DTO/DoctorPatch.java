@@ -0,0 +1,47 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// Body of PATCH /doctor/{id}/{token}: only the non-null fields are changed.
+// `availableTimes` is the complete new list of slots; only the added and removed ones are written.
+public class DoctorPatch {
+
+	@Size(min = 3, max = 100)
+	private String name;
+
+	@Size(min = 3, max = 50)
+	private String specialty;
+
+	@Pattern(regexp = "^[0-9]{10}$")
+	private String phone;
+
+	private List<String> availableTimes;
+
+	public String getName() {
+		return name;
+	}
+	public void setName(String name) {
+		this.name = name;
+	}
+	public String getSpecialty() {
+		return specialty;
+	}
+	public void setSpecialty(String specialty) {
+		this.specialty = specialty;
+	}
+	public String getPhone() {
+		return phone;
+	}
+	public void setPhone(String phone) {
+		this.phone = phone;
+	}
+	public List<String> getAvailableTimes() {
+		return availableTimes;
+	}
+	public void setAvailableTimes(List<String> availableTimes) {
+		this.availableTimes = availableTimes;
+	}
+}
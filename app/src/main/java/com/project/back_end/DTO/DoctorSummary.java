@@ -0,0 +1,50 @@
+package com.project.back_end.DTO;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.project.back_end.models.Doctor;
+
+// A doctor of the directory (`/doctor`, `/doctor/filter`): the same fields as the Doctor entity
+// had in the JSON, copied while the entity is loaded, so nothing lazy is left for the serialization.
+@JsonSerialize(using = DoctorSummary.Writer.class)
+public record DoctorSummary(Long id, String name, String specialty, String email, String phone,
+		List<String> availableTimes) {
+
+	public static DoctorSummary of(Doctor doctor) {
+		List<String> times = doctor.getAvailableTimes();
+		return new DoctorSummary(doctor.getId(), doctor.getName(), doctor.getSpecialty(), doctor.getEmail(),
+				doctor.getPhone(), times == null ? null : List.copyOf(times));
+	}
+
+	public static class Writer extends StdSerializer<DoctorSummary> {
+
+		private static final SerializedString ID = JsonFields.name("id");
+		private static final SerializedString NAME = JsonFields.name("name");
+		private static final SerializedString SPECIALTY = JsonFields.name("specialty");
+		private static final SerializedString EMAIL = JsonFields.name("email");
+		private static final SerializedString PHONE = JsonFields.name("phone");
+		private static final SerializedString AVAILABLE_TIMES = JsonFields.name("availableTimes");
+
+		public Writer() {
+			super(DoctorSummary.class);
+		}
+
+		@Override
+		public void serialize(DoctorSummary doctor, JsonGenerator g, SerializerProvider provider) throws IOException {
+			g.writeStartObject(doctor);
+			JsonFields.number(g, ID, doctor.id());
+			JsonFields.string(g, NAME, doctor.name());
+			JsonFields.string(g, SPECIALTY, doctor.specialty());
+			JsonFields.string(g, EMAIL, doctor.email());
+			JsonFields.string(g, PHONE, doctor.phone());
+			JsonFields.strings(g, AVAILABLE_TIMES, doctor.availableTimes());
+			g.writeEndObject();
+		}
+	}
+}
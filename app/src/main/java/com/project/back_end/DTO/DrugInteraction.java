@@ -0,0 +1,11 @@
+package com.project.back_end.DTO;
+
+// A known interaction between a drug of the new prescription and one of the patient's active prescriptions.
+// - `drug`, `interactsWith`: the names of the interaction reference, not the free text of the prescriptions.
+// - `prescriptionId`: the active prescription holding `interactsWith`.
+public record DrugInteraction(String drug, String interactsWith, Severity severity, String description, String prescriptionId) {
+
+	public enum Severity {
+		MINOR, MODERATE, MAJOR, CONTRAINDICATED
+	}
+}
@@ -0,0 +1,76 @@
+package com.project.back_end.DTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+// An appointment of a patient's history (`/patient/{id}/{token}`), hot or archived: the
+// AppointmentDTO fields without the patient's contact details, the same on every row.
+@JsonSerialize(using = HistoryEntry.Writer.class)
+public record HistoryEntry(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+		LocalDateTime appointmentTime, int status) {
+
+	public static HistoryEntry of(Long id, Doctor doctor, Patient patient, LocalDateTime appointmentTime, int status) {
+		return new HistoryEntry(id,
+				doctor == null ? null : doctor.getId(),
+				doctor == null ? null : doctor.getName(),
+				patient == null ? null : patient.getId(),
+				patient == null ? null : patient.getName(),
+				appointmentTime, status);
+	}
+
+	public LocalDate appointmentDate() {
+		return appointmentTime == null ? null : appointmentTime.toLocalDate();
+	}
+
+	public LocalTime appointmentTimeOnly() {
+		return appointmentTime == null ? null : appointmentTime.toLocalTime();
+	}
+
+	public LocalDateTime endTime() {
+		return appointmentTime == null ? null : appointmentTime.plusHours(1);
+	}
+
+	public static class Writer extends StdSerializer<HistoryEntry> {
+
+		private static final SerializedString ID = JsonFields.name("id");
+		private static final SerializedString DOCTOR_ID = JsonFields.name("doctorId");
+		private static final SerializedString DOCTOR_NAME = JsonFields.name("doctorName");
+		private static final SerializedString PATIENT_ID = JsonFields.name("patientId");
+		private static final SerializedString PATIENT_NAME = JsonFields.name("patientName");
+		private static final SerializedString APPOINTMENT_TIME = JsonFields.name("appointmentTime");
+		private static final SerializedString APPOINTMENT_DATE = JsonFields.name("appointmentDate");
+		private static final SerializedString APPOINTMENT_TIME_ONLY = JsonFields.name("appointmentTimeOnly");
+		private static final SerializedString END_TIME = JsonFields.name("endTime");
+		private static final SerializedString STATUS = JsonFields.name("status");
+
+		public Writer() {
+			super(HistoryEntry.class);
+		}
+
+		@Override
+		public void serialize(HistoryEntry entry, JsonGenerator g, SerializerProvider provider) throws IOException {
+			g.writeStartObject(entry);
+			JsonFields.number(g, ID, entry.id());
+			JsonFields.number(g, DOCTOR_ID, entry.doctorId());
+			JsonFields.string(g, DOCTOR_NAME, entry.doctorName());
+			JsonFields.number(g, PATIENT_ID, entry.patientId());
+			JsonFields.string(g, PATIENT_NAME, entry.patientName());
+			JsonFields.dateTime(g, APPOINTMENT_TIME, entry.appointmentTime());
+			JsonFields.date(g, APPOINTMENT_DATE, entry.appointmentDate());
+			JsonFields.time(g, APPOINTMENT_TIME_ONLY, entry.appointmentTimeOnly());
+			JsonFields.dateTime(g, END_TIME, entry.endTime());
+			JsonFields.number(g, STATUS, entry.status());
+			g.writeEndObject();
+		}
+	}
+}
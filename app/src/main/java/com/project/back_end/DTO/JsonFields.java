@@ -0,0 +1,143 @@
+package com.project.back_end.DTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+// Field writing for the hand-written serializers of the response records: the names are
+// SerializedString constants (quoted and encoded once), nulls are written as null and java.time
+// values as ISO strings, as the application's ObjectMapper does (dates not as timestamps), formatted
+// into a char array instead of through DateTimeFormatter.
+final class JsonFields {
+
+	private JsonFields() {
+	}
+
+	static SerializedString name(String name) {
+		return new SerializedString(name);
+	}
+
+	static void number(JsonGenerator g, SerializedString name, Long value) throws IOException {
+		g.writeFieldName(name);
+		if( value == null ) {
+			g.writeNull();
+		} else {
+			g.writeNumber(value.longValue());
+		}
+	}
+
+	static void number(JsonGenerator g, SerializedString name, int value) throws IOException {
+		g.writeFieldName(name);
+		g.writeNumber(value);
+	}
+
+	static void string(JsonGenerator g, SerializedString name, String value) throws IOException {
+		g.writeFieldName(name);
+		if( value == null ) {
+			g.writeNull();
+		} else {
+			g.writeString(value);
+		}
+	}
+
+	static void strings(JsonGenerator g, SerializedString name, List<String> values) throws IOException {
+		g.writeFieldName(name);
+		if( values == null ) {
+			g.writeNull();
+			return;
+		}
+		g.writeStartArray(values, values.size());
+		for(String value : values) {
+			g.writeString(value);
+		}
+		g.writeEndArray();
+	}
+
+	static void dateTime(JsonGenerator g, SerializedString name, LocalDateTime value) throws IOException {
+		g.writeFieldName(name);
+		if( value == null ) {
+			g.writeNull();
+			return;
+		}
+		char[] chars = new char[29];
+		int length = date(chars, 0, value.toLocalDate());
+		if( length < 0 ) {
+			g.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+			return;
+		}
+		chars[length++] = 'T';
+		g.writeString(chars, 0, time(chars, length, value.toLocalTime()));
+	}
+
+	static void date(JsonGenerator g, SerializedString name, LocalDate value) throws IOException {
+		g.writeFieldName(name);
+		if( value == null ) {
+			g.writeNull();
+			return;
+		}
+		char[] chars = new char[10];
+		int length = date(chars, 0, value);
+		if( length < 0 ) {
+			g.writeString(DateTimeFormatter.ISO_LOCAL_DATE.format(value));
+		} else {
+			g.writeString(chars, 0, length);
+		}
+	}
+
+	static void time(JsonGenerator g, SerializedString name, LocalTime value) throws IOException {
+		g.writeFieldName(name);
+		if( value == null ) {
+			g.writeNull();
+			return;
+		}
+		char[] chars = new char[18];
+		g.writeString(chars, 0, time(chars, 0, value));
+	}
+
+	// yyyy-MM-dd, -1 for the years ISO_LOCAL_DATE writes otherwise (signed or more than 4 digits)
+	private static int date(char[] chars, int at, LocalDate date) {
+		int year = date.getYear();
+		if( year < 0 || year > 9999 ) {
+			return -1;
+		}
+		at = digits(chars, at, year, 4);
+		chars[at++] = '-';
+		at = digits(chars, at, date.getMonthValue(), 2);
+		chars[at++] = '-';
+		return digits(chars, at, date.getDayOfMonth(), 2);
+	}
+
+	// HH:mm:ss and the fraction of second without its trailing zeros, as ISO_LOCAL_TIME
+	private static int time(char[] chars, int at, LocalTime time) {
+		at = digits(chars, at, time.getHour(), 2);
+		chars[at++] = ':';
+		at = digits(chars, at, time.getMinute(), 2);
+		chars[at++] = ':';
+		at = digits(chars, at, time.getSecond(), 2);
+		int nano = time.getNano();
+		if( nano != 0 ) {
+			chars[at++] = '.';
+			int width = 9;
+			while( nano % 10 == 0 ) {
+				nano /= 10;
+				width--;
+			}
+			at = digits(chars, at, nano, width);
+		}
+		return at;
+	}
+
+	private static int digits(char[] chars, int at, int value, int width) {
+		for(int i = at + width - 1; i >= at; i--) {
+			chars[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return at + width;
+	}
+}
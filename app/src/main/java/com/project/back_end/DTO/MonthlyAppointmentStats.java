@@ -0,0 +1,35 @@
+package com.project.back_end.DTO;
+
+// One line of the admin monthly usage report: number of appointments in a month,
+// optionally restricted to a specialty.
+public class MonthlyAppointmentStats {
+
+	private int year;
+	private int month;
+	private long appointments;
+
+	public MonthlyAppointmentStats(Integer year, Integer month, Long appointments) {
+		this.year = year;
+		this.month = month;
+		this.appointments = appointments == null ? 0 : appointments;
+	}
+
+	public int getYear() {
+		return year;
+	}
+	public void setYear(int year) {
+		this.year = year;
+	}
+	public int getMonth() {
+		return month;
+	}
+	public void setMonth(int month) {
+		this.month = month;
+	}
+	public long getAppointments() {
+		return appointments;
+	}
+	public void setAppointments(long appointments) {
+		this.appointments = appointments;
+	}
+}
@@ -0,0 +1,73 @@
+package com.project.back_end.DTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.project.back_end.models.Appointment;
+
+// An appointment of a doctor's daily schedule (`/appointments/{date}/{patientName}/{token}`): the
+// fields of the dashboard rows, flat like the live updates (AppointmentDTO), without the doctor
+// the schedule belongs to.
+@JsonSerialize(using = ScheduleEntry.Writer.class)
+public record ScheduleEntry(Long id, Long doctorId, Long patientId, String patientName, String patientEmail,
+		String patientPhone, LocalDateTime appointmentTime, int status) {
+
+	public static ScheduleEntry of(Appointment appointment) {
+		return new ScheduleEntry(appointment.getId(),
+				appointment.getDoctor() == null ? null : appointment.getDoctor().getId(),
+				appointment.getPatient() == null ? null : appointment.getPatient().getId(),
+				appointment.getPatient() == null ? null : appointment.getPatient().getName(),
+				appointment.getPatient() == null ? null : appointment.getPatient().getEmail(),
+				appointment.getPatient() == null ? null : appointment.getPatient().getPhone(),
+				appointment.getAppointmentTime(), appointment.getStatus());
+	}
+
+	public LocalDate appointmentDate() {
+		return appointmentTime == null ? null : appointmentTime.toLocalDate();
+	}
+
+	public LocalTime appointmentTimeOnly() {
+		return appointmentTime == null ? null : appointmentTime.toLocalTime();
+	}
+
+	public static class Writer extends StdSerializer<ScheduleEntry> {
+
+		private static final SerializedString ID = JsonFields.name("id");
+		private static final SerializedString DOCTOR_ID = JsonFields.name("doctorId");
+		private static final SerializedString PATIENT_ID = JsonFields.name("patientId");
+		private static final SerializedString PATIENT_NAME = JsonFields.name("patientName");
+		private static final SerializedString PATIENT_EMAIL = JsonFields.name("patientEmail");
+		private static final SerializedString PATIENT_PHONE = JsonFields.name("patientPhone");
+		private static final SerializedString APPOINTMENT_TIME = JsonFields.name("appointmentTime");
+		private static final SerializedString APPOINTMENT_DATE = JsonFields.name("appointmentDate");
+		private static final SerializedString APPOINTMENT_TIME_ONLY = JsonFields.name("appointmentTimeOnly");
+		private static final SerializedString STATUS = JsonFields.name("status");
+
+		public Writer() {
+			super(ScheduleEntry.class);
+		}
+
+		@Override
+		public void serialize(ScheduleEntry entry, JsonGenerator g, SerializerProvider provider) throws IOException {
+			g.writeStartObject(entry);
+			JsonFields.number(g, ID, entry.id());
+			JsonFields.number(g, DOCTOR_ID, entry.doctorId());
+			JsonFields.number(g, PATIENT_ID, entry.patientId());
+			JsonFields.string(g, PATIENT_NAME, entry.patientName());
+			JsonFields.string(g, PATIENT_EMAIL, entry.patientEmail());
+			JsonFields.string(g, PATIENT_PHONE, entry.patientPhone());
+			JsonFields.dateTime(g, APPOINTMENT_TIME, entry.appointmentTime());
+			JsonFields.date(g, APPOINTMENT_DATE, entry.appointmentDate());
+			JsonFields.time(g, APPOINTMENT_TIME_ONLY, entry.appointmentTimeOnly());
+			JsonFields.number(g, STATUS, entry.status());
+			g.writeEndObject();
+		}
+	}
+}
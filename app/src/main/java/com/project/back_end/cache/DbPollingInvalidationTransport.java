@@ -0,0 +1,95 @@
+package com.project.back_end.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.repo.CacheInvalidationRepository;
+
+// Invalidations through the cache_invalidation table: publishing inserts a row, and every node
+// reads the rows past the highest id it has seen.
+//
+// Auto increment ids are allocated before the commit, so a row can become visible after rows with
+// greater ids: an id skipped over is remembered as a gap and looked up again on the next polls, for
+// `gapWaitMillis` (after that it was a rollback or an unused id). Rows older than `retentionMillis`
+// are purged by whichever node gets there first.
+public class DbPollingInvalidationTransport implements InvalidationTransport {
+
+	static final int MAX_GAPS = 1000;
+	private static final int PURGE_BATCH = 1000;
+
+	private final CacheInvalidationRepository repository;
+	private final TransactionTemplate newTransaction;
+	private final long gapWaitMillis;
+	private final long retentionMillis;
+
+	private long cursor = -1;
+	private final Map<Long, Long> gaps = new HashMap<>();
+	private long nextPurge;
+
+	public DbPollingInvalidationTransport(CacheInvalidationRepository repository, TransactionTemplate transactionTemplate,
+			long gapWaitMillis, long retentionMillis) {
+		this.repository = repository;
+		this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		// publish is called after the caller's commit, when its transaction can not write anymore
+		this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.gapWaitMillis = gapWaitMillis;
+		this.retentionMillis = retentionMillis;
+	}
+
+	@Override
+	public void publish(Invalidation invalidation) {
+		CacheInvalidation row = new CacheInvalidation();
+		row.setEntityType(invalidation.entityType());
+		row.setEntityId(invalidation.id());
+		row.setVersion(invalidation.version());
+		row.setOrigin(invalidation.origin());
+		row.setPublishedAt(invalidation.publishedAt());
+		newTransaction.executeWithoutResult(status -> repository.save(row));
+	}
+
+	@Override
+	public synchronized List<Invalidation> receive() {
+		long now = System.currentTimeMillis();
+		if( cursor < 0 ) {
+			// what was published before this node started is already in the database it will read
+			Long max = repository.findMaxId();
+			cursor = max == null ? 0 : max;
+			nextPurge = now;
+			return List.of();
+		}
+		List<CacheInvalidation> rows = new ArrayList<>();
+		if( !gaps.isEmpty() ) {
+			for(CacheInvalidation row : repository.findByIdIn(new ArrayList<>(gaps.keySet()))) {
+				gaps.remove(row.getId());
+				rows.add(row);
+			}
+			gaps.values().removeIf(since -> now - since > gapWaitMillis);
+		}
+		for(CacheInvalidation row : repository.findTop500ByIdGreaterThanOrderByIdAsc(cursor)) {
+			for(long missing = cursor + 1; missing < row.getId() && gaps.size() < MAX_GAPS; missing++) {
+				gaps.put(missing, now);
+			}
+			cursor = row.getId();
+			rows.add(row);
+		}
+		if( now >= nextPurge ) {
+			repository.deletePublishedBefore(now - retentionMillis, PURGE_BATCH);
+			nextPurge = now + Math.max(1000, retentionMillis / 10);
+		}
+		List<Invalidation> received = new ArrayList<>(rows.size());
+		for(CacheInvalidation row : rows) {
+			received.add(new Invalidation(row.getEntityType(), row.getEntityId(), row.getVersion(), row.getOrigin(), row.getPublishedAt()));
+		}
+		return received;
+	}
+
+	synchronized int getPendingGaps() {
+		return gaps.size();
+	}
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Invalidations between the "nodes" of one JVM: a single instance, or tests running several
+// CacheInvalidationService instances. `join()` gives another node of the same group.
+public class InJvmInvalidationTransport implements InvalidationTransport {
+
+	private final List<InJvmInvalidationTransport> group;
+	private final Queue<Invalidation> inbox = new ConcurrentLinkedQueue<>();
+
+	public InJvmInvalidationTransport() {
+		this(new CopyOnWriteArrayList<>());
+	}
+
+	private InJvmInvalidationTransport(List<InJvmInvalidationTransport> group) {
+		this.group = group;
+		group.add(this);
+	}
+
+	public InJvmInvalidationTransport join() {
+		return new InJvmInvalidationTransport(group);
+	}
+
+	@Override
+	public void publish(Invalidation invalidation) {
+		for(InJvmInvalidationTransport node : group) {
+			node.inbox.add(invalidation);
+		}
+	}
+
+	@Override
+	public List<Invalidation> receive() {
+		List<Invalidation> received = new ArrayList<>();
+		Invalidation next;
+		while( (next = inbox.poll()) != null ) {
+			received.add(next);
+		}
+		return received;
+	}
+}
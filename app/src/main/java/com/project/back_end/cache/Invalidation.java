@@ -0,0 +1,6 @@
+package com.project.back_end.cache;
+
+// "Entity `entityType` #`id` changed": what a node tells the others after a commit.
+// `version` comes from the publisher's VersionClock, `publishedAt` (epoch millis) gives the lag.
+public record Invalidation(String entityType, long id, long version, String origin, long publishedAt) {
+}
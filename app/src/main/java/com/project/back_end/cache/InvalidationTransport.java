@@ -0,0 +1,13 @@
+package com.project.back_end.cache;
+
+import java.util.List;
+
+// Carries the invalidations between the nodes (see CacheInvalidationService). The default one is the
+// cache_invalidation table (DbPollingInvalidationTransport); another one can be plugged in as a bean.
+public interface InvalidationTransport {
+
+	void publish(Invalidation invalidation);
+
+	// The invalidations published since the previous call, by any node including this one.
+	List<Invalidation> receive();
+}
@@ -0,0 +1,34 @@
+package com.project.back_end.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Hybrid logical clock giving the cache versions: epoch millis, but strictly increasing on a node and
+// moved forward past every version received from another node (witness). So a version taken after
+// an invalidation was received is always greater than it, whatever the clock skew between the nodes.
+public class VersionClock {
+
+	private final AtomicLong last = new AtomicLong();
+	private final LongSupplier millis;
+
+	public VersionClock() {
+		this(System::currentTimeMillis);
+	}
+
+	public VersionClock(LongSupplier millis) {
+		this.millis = millis;
+	}
+
+	public long tick() {
+		long now = millis.getAsLong();
+		return last.updateAndGet(v -> Math.max(v + 1, now));
+	}
+
+	public void witness(long version) {
+		last.accumulateAndGet(version, Math::max);
+	}
+
+	public long current() {
+		return Math.max(last.get(), millis.getAsLong());
+	}
+}
@@ -0,0 +1,131 @@
+package com.project.back_end.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+// Local LRU cache kept coherent by the invalidations (see CacheInvalidationService).
+//
+// A value read from the database before an invalidation and stored after it would bring the old
+// state back until its TTL. So a load first takes a version (beginLoad), an invalidation leaves a
+// tombstone with a later version, and `put` drops the value when the key was invalidated after its
+// load began. Tombstones are forgotten `TOMBSTONE_MILLIS` later, much longer than any load.
+// The TTL only bounds the staleness when an invalidation is lost.
+public class VersionedCache<K, V> {
+
+	static final long TOMBSTONE_MILLIS = 60_000;
+
+	private record Entry<V>(V value, long expiresAt) {
+	}
+
+	private final String name;
+	private final int maxEntries;
+	private final long ttlMillis;
+	private final VersionClock clock;
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<K, Long> tombstones = new HashMap<>();
+	private long clearedAt;
+	private long hits;
+	private long misses;
+	private long invalidations;
+	private long rejectedPuts;
+
+	public VersionedCache(String name, int maxEntries, long ttlMillis, VersionClock clock) {
+		this.name = name;
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+		this.clock = clock;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if( entry == null || entry.expiresAt() < System.currentTimeMillis() ) {
+			if( entry != null ) {
+				entries.remove(key);
+			}
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.value();
+	}
+
+	// Returns the cached value, or loads and caches it; null values are not cached.
+	public V get(K key, Function<K, V> loader) {
+		V value = get(key);
+		if( value != null ) {
+			return value;
+		}
+		long version = beginLoad();
+		value = loader.apply(key);
+		if( value != null ) {
+			put(key, value, version);
+		}
+		return value;
+	}
+
+	public long beginLoad() {
+		return clock.tick();
+	}
+
+	// False when the key was invalidated after the load began: the value may predate the change.
+	public synchronized boolean put(K key, V value, long loadVersion) {
+		Long tombstone = tombstones.get(key);
+		if( loadVersion < clearedAt || (tombstone != null && loadVersion < tombstone) ) {
+			rejectedPuts++;
+			return false;
+		}
+		entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+		if( entries.size() > maxEntries ) {
+			Iterator<K> eldest = entries.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+		return true;
+	}
+
+	public synchronized void invalidate(K key) {
+		long version = clock.tick();
+		entries.remove(key);
+		tombstones.put(key, version);
+		invalidations++;
+		if( tombstones.size() > maxEntries ) {
+			tombstones.values().removeIf(v -> v < version - TOMBSTONE_MILLIS);
+		}
+	}
+
+	// For the entries that can not be found by key: the loads running now are dropped whatever their key.
+	public synchronized void invalidateIf(BiPredicate<K, V> matches) {
+		clearedAt = clock.tick();
+		entries.entrySet().removeIf(e -> matches.test(e.getKey(), e.getValue().value()));
+		invalidations++;
+	}
+
+	public synchronized void invalidateAll() {
+		clearedAt = clock.tick();
+		entries.clear();
+		tombstones.clear();
+		invalidations++;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", entries.size());
+		stats.put("hits", hits);
+		stats.put("misses", misses);
+		stats.put("invalidations", invalidations);
+		stats.put("rejectedPuts", rejectedPuts);
+		return stats;
+	}
+}
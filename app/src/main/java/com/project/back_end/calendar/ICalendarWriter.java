@@ -0,0 +1,87 @@
+package com.project.back_end.calendar;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Writes an iCalendar (RFC 5545) feed event by event to a Writer, nothing is kept in memory:
+// - lines end with CRLF and are folded at 75 octets of UTF-8 (a continuation line starts with a space),
+//   never inside a character;
+// - text values are escaped (backslash, ';', ',' and new lines);
+// - times are written in UTC ("Z"), so no VTIMEZONE is needed.
+public final class ICalendarWriter {
+
+	private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+	private static final int MAX_OCTETS = 75;
+
+	private final Writer out;
+
+	public ICalendarWriter(Writer out) {
+		this.out = out;
+	}
+
+	public void begin(String productId, String name) throws IOException {
+		line("BEGIN:VCALENDAR");
+		line("VERSION:2.0");
+		line("PRODID:" + productId);
+		line("CALSCALE:GREGORIAN");
+		line("METHOD:PUBLISH");
+		line("X-WR-CALNAME:" + escape(name));
+	}
+
+	public void event(String uid, Instant stamp, Instant start, Instant end, String summary, String description,
+			boolean cancelled) throws IOException {
+		line("BEGIN:VEVENT");
+		line("UID:" + uid);
+		line("DTSTAMP:" + UTC.format(stamp));
+		line("DTSTART:" + UTC.format(start));
+		line("DTEND:" + UTC.format(end));
+		line("SUMMARY:" + escape(summary));
+		if( description != null && !description.isEmpty() ) {
+			line("DESCRIPTION:" + escape(description));
+		}
+		line("STATUS:" + (cancelled ? "CANCELLED" : "CONFIRMED"));
+		line("END:VEVENT");
+	}
+
+	public void end() throws IOException {
+		line("END:VCALENDAR");
+		out.flush();
+	}
+
+	static String escape(String text) {
+		if( text == null ) {
+			return "";
+		}
+		StringBuilder escaped = new StringBuilder(text.length() + 8);
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch( c ) {
+				case '\\', ';', ',' -> escaped.append('\\').append(c);
+				case '\n' -> escaped.append("\\n");
+				case '\r' -> {
+				}
+				default -> escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	private void line(String content) throws IOException {
+		int octets = 0;
+		for(int i = 0; i < content.length(); ) {
+			int codePoint = content.codePointAt(i);
+			int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+			if( octets + size > MAX_OCTETS ) {
+				out.write("\r\n ");
+				octets = 1;
+			}
+			out.write(content, i, Character.charCount(codePoint));
+			octets += size;
+			i += Character.charCount(codePoint);
+		}
+		out.write("\r\n");
+	}
+}
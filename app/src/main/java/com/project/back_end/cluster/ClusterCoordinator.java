@@ -0,0 +1,14 @@
+package com.project.back_end.cluster;
+
+import java.util.List;
+
+// Membership of the booking cluster (see ClusterService). The default implementation is the
+// cluster_member lease table (DbLeaseCoordinator); another one can be plugged in as a bean.
+public interface ClusterCoordinator {
+
+	// Renews this node's membership and returns the live members, ordered by node id.
+	List<Member> heartbeat(Member self);
+
+	// Gives the node's partitions away now instead of when its lease expires.
+	void leave(Member self);
+}
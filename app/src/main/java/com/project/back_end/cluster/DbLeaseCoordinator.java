@@ -0,0 +1,34 @@
+package com.project.back_end.cluster;
+
+import java.util.List;
+
+import com.project.back_end.repo.ClusterMemberRepository;
+
+// Membership through the cluster_member table: each node upserts its row with a lease end every
+// heartbeat, and the live members are the rows whose lease has not ended. A node that stops
+// heartbeating (crash, lost database) drops out once its lease ends.
+public class DbLeaseCoordinator implements ClusterCoordinator {
+
+	private final ClusterMemberRepository repository;
+	private final long leaseMillis;
+
+	public DbLeaseCoordinator(ClusterMemberRepository repository, long leaseMillis) {
+		this.repository = repository;
+		this.leaseMillis = leaseMillis;
+	}
+
+	@Override
+	public List<Member> heartbeat(Member self) {
+		long now = System.currentTimeMillis();
+		repository.renew(self.nodeId(), self.baseUrl(), now + leaseMillis);
+		repository.deleteExpired(now - 10 * leaseMillis);
+		return repository.findByLeaseUntilGreaterThanOrderByNodeIdAsc(now).stream()
+				.map(m -> new Member(m.getNodeId(), m.getBaseUrl()))
+				.toList();
+	}
+
+	@Override
+	public void leave(Member self) {
+		repository.deleteById(self.nodeId());
+	}
+}
@@ -0,0 +1,5 @@
+package com.project.back_end.cluster;
+
+// A live application node: its id and the base url other nodes forward requests to.
+public record Member(String nodeId, String baseUrl) {
+}
@@ -0,0 +1,73 @@
+package com.project.back_end.cluster;
+
+import java.util.List;
+
+// Which member owns which partition of the doctor ids.
+//
+// Doctor ids are hashed to `partitions` partitions, and each partition goes to the member with the
+// highest hash of (node id, partition) (rendezvous hashing). Every node computes the same table from
+// the same member list, without any exchange, and a member joining or leaving only moves the
+// partitions it gains or loses: about 1/n of them.
+public final class PartitionTable {
+
+	private final List<Member> members;
+	private final Member[] owners;
+
+	private PartitionTable(List<Member> members, Member[] owners) {
+		this.members = members;
+		this.owners = owners;
+	}
+
+	public static PartitionTable of(List<Member> members, int partitions) {
+		Member[] owners = new Member[partitions];
+		for(int p = 0; p < partitions; p++) {
+			long best = Long.MIN_VALUE;
+			for(Member m : members) {
+				long weight = mix(m.nodeId().hashCode() * 0x9E3779B97F4A7C15L + p);
+				if( owners[p] == null || weight > best ) {
+					best = weight;
+					owners[p] = m;
+				}
+			}
+		}
+		return new PartitionTable(List.copyOf(members), owners);
+	}
+
+	public static int partition(long doctorId, int partitions) {
+		return (int) Math.floorMod(mix(doctorId), (long) partitions);
+	}
+
+	// null when there is no member
+	public Member owner(long doctorId) {
+		return owners[partition(doctorId, owners.length)];
+	}
+
+	public Member ownerOf(int partition) {
+		return owners[partition];
+	}
+
+	public int partitions() {
+		return owners.length;
+	}
+
+	public List<Member> members() {
+		return members;
+	}
+
+	public int countOwnedBy(Member member) {
+		int n = 0;
+		for(Member owner : owners) {
+			if( member.equals(owner) ) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	// splitmix64 finalizer
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,32 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.cache.DbPollingInvalidationTransport;
+import com.project.back_end.cache.InJvmInvalidationTransport;
+import com.project.back_end.cache.InvalidationTransport;
+import com.project.back_end.repo.CacheInvalidationRepository;
+
+// Cache invalidation transport: the cache_invalidation table when several nodes run (`auto` with
+// cluster.enabled=true, or `db`), in memory otherwise, unless another InvalidationTransport bean is defined.
+@Configuration
+public class CacheConfig {
+
+	@Bean
+	@ConditionalOnMissingBean(InvalidationTransport.class)
+	public InvalidationTransport invalidationTransport(CacheInvalidationRepository repository,
+			TransactionTemplate transactionTemplate,
+			@Value("${cache.invalidation.transport:auto}") String transport,
+			@Value("${cluster.enabled:false}") boolean clustered,
+			@Value("${cache.invalidation.gap-wait-ms:10000}") long gapWaitMillis,
+			@Value("${cache.invalidation.retention-ms:600000}") long retentionMillis) {
+		if( "db".equals(transport) || ("auto".equals(transport) && clustered) ) {
+			return new DbPollingInvalidationTransport(repository, transactionTemplate, gapWaitMillis, retentionMillis);
+		}
+		return new InJvmInvalidationTransport();
+	}
+}
@@ -0,0 +1,22 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.back_end.cluster.ClusterCoordinator;
+import com.project.back_end.cluster.DbLeaseCoordinator;
+import com.project.back_end.repo.ClusterMemberRepository;
+
+// Booking cluster membership: the cluster_member lease table, unless another ClusterCoordinator bean is defined.
+@Configuration
+public class ClusterConfig {
+
+	@Bean
+	@ConditionalOnMissingBean(ClusterCoordinator.class)
+	public ClusterCoordinator clusterCoordinator(ClusterMemberRepository repository,
+			@Value("${cluster.lease-ms:10000}") long leaseMillis) {
+		return new DbLeaseCoordinator(repository, leaseMillis);
+	}
+}
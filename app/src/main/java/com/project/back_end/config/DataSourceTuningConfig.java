@@ -0,0 +1,68 @@
+package com.project.back_end.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.project.back_end.datasource.PoolMetrics;
+import com.project.back_end.datasource.SlowQueryLog;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Instrumentation of the JDBC datasources:
+// - every Hikari pool (primary, and replica when configured) reports to PoolMetrics,
+//   shown by the admin `/db/stats/{token}` endpoint;
+// - the `dataSource` bean is wrapped in a SlowQueryLog when `db.slow-query.threshold-ms` > 0.
+// The pool and driver settings themselves are in application-prod.properties.
+@Configuration
+public class DataSourceTuningConfig {
+
+	private final PoolMetrics metrics;
+
+	public DataSourceTuningConfig(PoolMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Bean
+	public static PoolMetrics poolMetrics(@Value("${db.pool.headroom:0.25}") double headroom) {
+		return new PoolMetrics(headroom);
+	}
+
+	@Bean
+	public static BeanPostProcessor dataSourceInstrumentation(PoolMetrics poolMetrics,
+			@Value("${db.slow-query.threshold-ms:0}") long slowQueryMillis,
+			@Value("${db.slow-query.max-parameter-length:100}") int maxParameterLength) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+				if( bean instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null ) {
+					hikari.setMetricsTrackerFactory(poolMetrics);
+				}
+				return bean;
+			}
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if( slowQueryMillis > 0 && "dataSource".equals(beanName) && bean instanceof DataSource ds ) {
+					return new SlowQueryLog(ds, slowQueryMillis, maxParameterLength);
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Scheduled(fixedDelayString = "${db.pool.sample-ms:1000}")
+	public void samplePools() {
+		metrics.sample();
+	}
+
+	// The recommended pool size is computed over the current window.
+	@Scheduled(cron = "${db.pool.window-cron:0 0 * * * *}")
+	public void newWindow() {
+		metrics.reset();
+	}
+}
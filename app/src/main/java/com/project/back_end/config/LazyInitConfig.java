@@ -0,0 +1,44 @@
+package com.project.back_end.config;
+
+import java.lang.reflect.Method;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// With spring.main.lazy-initialization=true (application-prod.properties) a bean is only created
+// when first used, except:
+// - the beans doing background work (@Scheduled, @EventListener, @PostConstruct methods): the
+//   @Scheduled methods of a bean created later would never be scheduled;
+// - the connection pools and the JPA EntityManagerFactory, so that the first request does not wait for them.
+@Configuration
+public class LazyInitConfig {
+
+	@Bean
+	public static LazyInitializationExcludeFilter eagerBeans() {
+		return (beanName, definition, type) -> type != null
+				&& (DataSource.class.isAssignableFrom(type)
+						|| EntityManagerFactory.class.isAssignableFrom(type)
+						|| hasStartupWork(type));
+	}
+
+	static boolean hasStartupWork(Class<?> type) {
+		for(Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+			if( AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+					|| AnnotatedElementUtils.hasAnnotation(method, EventListener.class)
+					|| method.isAnnotationPresent(PostConstruct.class) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,108 @@
+package com.project.back_end.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.util.ClassUtils;
+
+import ch.qos.logback.classic.filter.ThresholdFilter;
+
+import com.project.back_end.logging.MongoLogAppender;
+
+// Reachability metadata for the native image (mvn -Pnative native:compile), for what Spring AOT
+// can not find by itself:
+// - the models, DTOs and events serialized by Jackson inside Map responses, the outbox and the cluster forwarding;
+// - jjwt, which loads its implementation classes by name;
+// - the JDBC proxies of SlowQueryLog and of the read replica routing (LazyConnectionDataSourceProxy);
+// - the Mongo log appender instantiated by logback-spring.xml;
+// - the templates, static files, SQL scripts and the drug interaction reference.
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+	static final String[] BINDING_PACKAGES = { "com.project.back_end.models", "com.project.back_end.DTO",
+			"com.project.back_end.events" };
+
+	static final String[] JJWT_CLASSES = {
+			"io.jsonwebtoken.impl.DefaultClaimsBuilder",
+			"io.jsonwebtoken.impl.DefaultJwtBuilder",
+			"io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+			"io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+			"io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+			"io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+			"io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+			"io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+			"io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+			"io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+			"io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+			"io.jsonwebtoken.impl.security.JwksBridge",
+			"io.jsonwebtoken.impl.security.KeysBridge",
+			"io.jsonwebtoken.impl.security.StandardCurves",
+			"io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardKeyOperations",
+			"io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+			"io.jsonwebtoken.jackson.io.JacksonSerializer",
+			"io.jsonwebtoken.jackson.io.JacksonDeserializer" };
+
+	static class Hints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+			for(Class<?> type : bindingTypes(classLoader)) {
+				bindings.registerReflectionHints(hints.reflection(), type);
+				// JPQL constructor expressions and Hibernate instantiate them too
+				hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+						MemberCategory.DECLARED_FIELDS);
+			}
+
+			for(String name : JJWT_CLASSES) {
+				hints.reflection().registerType(TypeReference.of(name), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+						MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+			}
+			hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+			hints.proxies().registerJdkProxy(Connection.class);
+			hints.proxies().registerJdkProxy(Statement.class);
+			hints.proxies().registerJdkProxy(PreparedStatement.class);
+			hints.proxies().registerJdkProxy(CallableStatement.class);
+			hints.proxies().registerJdkProxy(ConnectionProxy.class);
+
+			hints.reflection().registerType(MongoLogAppender.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+					MemberCategory.INVOKE_PUBLIC_METHODS);
+			hints.reflection().registerType(ThresholdFilter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+					MemberCategory.INVOKE_PUBLIC_METHODS);
+
+			hints.resources().registerPattern("templates/*/*.html");
+			hints.resources().registerPattern("static/**");
+			hints.resources().registerPattern("db/*.sql");
+			hints.resources().registerPattern("interactions/*.txt");
+		}
+	}
+
+	static List<Class<?>> bindingTypes(ClassLoader classLoader) {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter((reader, factory) -> !reader.getClassMetadata().isInterface());
+		List<Class<?>> types = new ArrayList<>();
+		for(String pkg : BINDING_PACKAGES) {
+			scanner.findCandidateComponents(pkg).forEach(
+					definition -> types.add(ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader)));
+		}
+		return types;
+	}
+}
@@ -0,0 +1,72 @@
+package com.project.back_end.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.project.back_end.datasource.ReadWriteRoutingDataSource;
+import com.project.back_end.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Primary/replica routing, enabled by setting `app.datasource.replica.url`.
+// The primary pool is still configured by `spring.datasource.*` (and `spring.datasource.hikari.*`),
+// the replica pool by `app.datasource.replica.*` (and `app.datasource.replica.hikari.*`).
+// Without a replica url the application keeps the single auto-configured datasource.
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		ds.setPoolName("primary");
+		return ds;
+	}
+
+	@Bean
+	@ConfigurationProperties("app.datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+			@Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+		HikariDataSource ds = DataSourceBuilder.create().type(HikariDataSource.class)
+				.url(url).username(username).password(password).build();
+		ds.setPoolName("replica");
+		ds.setReadOnly(true);
+		return ds;
+	}
+
+	@Bean
+	public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+			HikariDataSource replicaDataSource,
+			@Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+			@Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+			@Value("${app.datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+			@Value("${app.datasource.replica.check-ms:2000}") long checkMillis) {
+		return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, maxLagSeconds, lagQuery, lagColumn, checkMillis);
+	}
+
+	// The datasource used by JPA and the transaction manager.
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	@Bean
+	public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+			@Value("${app.datasource.replica.sticky-ms:5000}") long stickyMillis) {
+		FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMillis));
+		registration.addUrlPatterns("/*");
+		return registration;
+	}
+}
@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.back_end.reminders.LoggingReminderSender;
+import com.project.back_end.reminders.ReminderSender;
+
+// Appointment reminders: falls back to the logging sender when no other ReminderSender bean is defined.
+@Configuration
+public class ReminderConfig {
+
+	@Bean
+	@ConditionalOnMissingBean(ReminderSender.class)
+	public ReminderSender reminderSender() {
+		return new LoggingReminderSender();
+	}
+}
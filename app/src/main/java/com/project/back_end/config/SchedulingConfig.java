@@ -0,0 +1,11 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables the @Scheduled background tasks (e.g. the appointment stream heartbeats).
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
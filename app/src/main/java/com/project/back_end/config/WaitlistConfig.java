@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.back_end.waitlist.LoggingWaitlistNotifier;
+import com.project.back_end.waitlist.WaitlistNotifier;
+
+// Waitlist offers: falls back to the logging notifier when no other WaitlistNotifier bean is defined.
+@Configuration
+public class WaitlistConfig {
+
+	@Bean
+	@ConditionalOnMissingBean(WaitlistNotifier.class)
+	public WaitlistNotifier waitlistNotifier() {
+		return new LoggingWaitlistNotifier();
+	}
+}
@@ -1,21 +1,56 @@
 package com.project.back_end.config;
 
 
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.lang.NonNull; 
+import org.springframework.http.CacheControl;
+import org.springframework.lang.NonNull;
 
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.project.back_end.ratelimit.RateLimitInterceptor;
+import com.project.back_end.ratelimit.RateLimitProperties;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class WebConfig implements WebMvcConfigurer {
 
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         // Allow CORS for all endpoints
         registry.addMapping("/**")
                 .allowedOrigins("*")  // Add your frontend URL here
-                .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")  // Specify allowed methods
                 .allowedHeaders("*");  // You can restrict headers if needed
     }
+
+    @Override
+    public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
+        // Page bundles built by the closure-compiler plugin (see pom.xml).
+        // Thymeleaf's @{/dist/...} links are rewritten to content-hashed names
+        // (e.g. /dist/common-<md5>.js), so they can be cached forever.
+        registry.addResourceHandler("/dist/**")
+                .addResourceLocations("classpath:/static/dist/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Per-route request budgets (ratelimit.routes.* properties)
+        registry.addInterceptor(rateLimitInterceptor);
+    }
 }
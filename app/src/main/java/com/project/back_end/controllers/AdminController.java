@@ -1,18 +1,37 @@
 
 package com.project.back_end.controllers;
 
+import java.time.LocalDate;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.datasource.PoolMetrics;
+import com.project.back_end.datasource.SlowQueryLog;
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.AppointmentArchiveService;
+import com.project.back_end.services.AppointmentStatsService;
+import com.project.back_end.services.CacheInvalidationService;
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.InteractionService;
+import com.project.back_end.services.OutboxRelay;
+import com.project.back_end.services.RateLimitService;
+import com.project.back_end.services.ReminderScheduler;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.WaitlistService;
 
 @RestController
 @RequestMapping("${api.path}" + "admin")
@@ -26,6 +45,39 @@ public class AdminController {
 	@Autowired
 	Service service;
 
+	@Autowired
+	AppointmentStatsService statsService;
+
+	@Autowired
+	OutboxRelay outboxRelay;
+
+	@Autowired
+	AppointmentArchiveService archiveService;
+
+	@Autowired
+	ReminderScheduler reminderScheduler;
+
+	@Autowired
+	PoolMetrics poolMetrics;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	RateLimitService rateLimitService;
+
+	@Autowired
+	ClusterService clusterService;
+
+	@Autowired
+	CacheInvalidationService cacheInvalidationService;
+
+	@Autowired
+	InteractionService interactionService;
+
+	@Autowired
+	WaitlistService waitlistService;
+
 // 2. Autowire Service Dependency:
 //    - Use constructor injection to autowire the `Service` class.
 //    - The service handles core logic related to admin validation and token checking.
@@ -42,6 +94,169 @@ public class AdminController {
 		return service.validateAdmin(admin.getUsername(), admin.getPassword());
 	}
 
+// 4. Appointment statistics (read from the appointment_daily_stats aggregate):
+//    - `/stats/monthly/{from}/{to}/{specialty}/{token}`: appointments per month, `all` for every specialty.
+//    - `/stats/daily/{from}/{to}/{token}`: the raw per doctor/day/status buckets.
+//    - `/stats/backfill/{from}/{to}/{token}`: rebuilds the aggregate from the appointment table, `all` for the whole history.
+	@GetMapping("/stats/monthly/{from}/{to}/{specialty}/{token}")
+	public ResponseEntity<Map<String, Object>> monthlyStats(@PathVariable String from,
+			@PathVariable String to,
+			@PathVariable String specialty,
+			@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		try {
+			return ResponseEntity.ok(Map.of("success",true,
+					"months",statsService.getMonthly(LocalDate.parse(from), LocalDate.parse(to), specialty)));
+		} catch(Exception e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("success",false,"message","Invalid period"));
+		}
+	}
+
+	@GetMapping("/stats/daily/{from}/{to}/{token}")
+	public ResponseEntity<Map<String, Object>> dailyStats(@PathVariable String from,
+			@PathVariable String to,
+			@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		try {
+			return ResponseEntity.ok(Map.of("success",true,
+					"stats",statsService.getDaily(LocalDate.parse(from), LocalDate.parse(to), null)));
+		} catch(Exception e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("success",false,"message","Invalid period"));
+		}
+	}
 
-}
+	@PostMapping("/stats/backfill/{from}/{to}/{token}")
+	public ResponseEntity<Map<String, Object>> backfillStats(@PathVariable String from,
+			@PathVariable String to,
+			@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		try {
+			return ResponseEntity.ok(statsService.backfill(
+					"all".equals(from) ? null : LocalDate.parse(from),
+					"all".equals(to) ? null : LocalDate.parse(to)));
+		} catch(Exception e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success",false,"message","Can not rebuild statistics"));
+		}
+	}
+
+// 5. Appointment events outbox:
+//    - `/outbox/stats/{token}`: backlog, relay lag and throughput of the appointment events relay.
+	@GetMapping("/outbox/stats/{token}")
+	public ResponseEntity<Map<String, Object>> outboxStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"outbox",outboxRelay.getStats()));
+	}
+
+// 6. Appointment archive:
+//    - `/archive/{token}`: moves the old completed/cancelled appointments to the archive now instead of waiting for the nightly run.
+	@PostMapping("/archive/{token}")
+	public ResponseEntity<Map<String, Object>> archiveAppointments(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		try {
+			return ResponseEntity.ok(archiveService.archive());
+		} catch(Exception e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success",false,"message","Can not archive appointments"));
+		}
+	}
+
+// 7. Appointment reminders:
+//    - `/reminders/stats/{token}`: pending reminders, loaded horizon, sent and failed counts.
+	@GetMapping("/reminders/stats/{token}")
+	public ResponseEntity<Map<String, Object>> reminderStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"reminders",reminderScheduler.getStats()));
+	}
+
+// 8. Database connections:
+//    - `/db/stats/{token}`: connection pool usage, acquire latency, recommended pool size and slow query count.
+	@GetMapping("/db/stats/{token}")
+	public ResponseEntity<Map<String, Object>> databaseStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("success", true);
+		result.put("pools", poolMetrics.getStats());
+		try {
+			if( dataSource.isWrapperFor(SlowQueryLog.class) ) {
+				result.put("slowQueries", dataSource.unwrap(SlowQueryLog.class).getSlowQueries());
+			}
+		} catch(SQLException e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not read the slow query log"));
+		}
+		return ResponseEntity.ok(result);
+	}
 
+// 9. Rate limiting:
+//    - `/ratelimit/stats/{token}`: allowed and rejected requests per limited route.
+	@GetMapping("/ratelimit/stats/{token}")
+	public ResponseEntity<Map<String, Object>> rateLimitStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"ratelimit",rateLimitService.getStats()));
+	}
+
+// 10. Booking cluster:
+//    - `/cluster/{token}`: this node, the live members and how many doctor partitions each owns.
+	@GetMapping("/cluster/{token}")
+	public ResponseEntity<Map<String, Object>> clusterStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"cluster",clusterService.getStats()));
+	}
+
+// 11. Caches:
+//    - `/cache/{token}`: invalidations published and received, their lag, and the hits of each cache.
+	@GetMapping("/cache/{token}")
+	public ResponseEntity<Map<String, Object>> cacheStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"cache",cacheInvalidationService.getStats()));
+	}
+
+// 12. Drug interactions:
+//    - `/interactions/{token}`: the loaded interaction reference (drugs, interactions, when, last load error).
+//    - `/interactions/reload/{token}`: loads the dataset again, e.g. after replacing it, without waiting for the change check.
+	@GetMapping("/interactions/{token}")
+	public ResponseEntity<Map<String, Object>> interactionStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"interactions",interactionService.getStats()));
+	}
+
+	@PostMapping("/interactions/reload/{token}")
+	public ResponseEntity<Map<String, Object>> reloadInteractions(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		boolean loaded = interactionService.reload();
+		return ResponseEntity.status(loaded ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY)
+				.body(Map.of("success",loaded,"interactions",interactionService.getStats()));
+	}
+
+// 13. Waitlist:
+//    - `/waitlist/{token}`: patients waiting in memory, and the slots offered, booked from an offer and expired.
+	@GetMapping("/waitlist/{token}")
+	public ResponseEntity<Map<String, Object>> waitlistStats(@PathVariable String token) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"waitlist",waitlistService.getStats()));
+	}
+}
@@ -4,23 +4,42 @@ import java.time.LocalDate;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.project.back_end.DTO.AppointmentPatch;
+import com.project.back_end.DTO.AppointmentStatusBatch;
+import com.project.back_end.DTO.ScheduleEntry;
+import com.project.back_end.idempotency.StoredResponse;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.CalendarService;
+import com.project.back_end.services.ClusterService;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.DoctorUpdatesHub;
+import com.project.back_end.services.IdempotencyService;
 import com.project.back_end.services.Service;
 import com.project.back_end.services.TokenService;
+import com.project.back_end.services.WaitlistService;
 
 @RestController
 @RequestMapping("/appointments")
@@ -48,6 +67,24 @@ public class AppointmentController {
 	@Autowired
 	TokenService  tokenService ;
 
+	@Autowired
+	DoctorUpdatesHub  updatesHub ;
+
+	@Autowired
+	IdempotencyService  idempotencyService ;
+
+	@Autowired
+	PatientRepository  patientRepository ;
+
+	@Autowired
+	ClusterService  clusterService ;
+
+	@Autowired
+	CalendarService  calendarService ;
+
+	@Autowired
+	WaitlistService  waitlistService ;
+
     AppointmentController(DoctorRepository doctorRepository, DoctorService doctorService) {
         this.doctorRepository = doctorRepository;
         this.doctorService = doctorService;
@@ -60,7 +97,7 @@ public class AppointmentController {
 //    - If the token is valid, returns appointments for the given patient on the specified date.
 //    - If the token is invalid or expired, responds with the appropriate message and status code.
 	@GetMapping("/{date}/{patientName}/{token}")
-	public ResponseEntity<Map<String,Object>> getAppointments(@PathVariable String date, 
+	public ResponseEntity<Map<String,ScheduleEntry>> getAppointments(@PathVariable String date, 
 			@PathVariable String patientName, 
 			@PathVariable String token ) {
 		try {
@@ -80,15 +117,50 @@ public class AppointmentController {
 //    - Validates the token for the `"patient"` role.
 //    - Uses service logic to validate the appointment data (e.g., check for doctor availability and time conflicts).
 //    - Returns success if booked, or appropriate error messages if the doctor ID is invalid or the slot is already taken.
+//    - With an `Idempotency-Key` header, retries of the same booking get the first response back instead of booking again (see `IdempotencyService`).
+//    - In a cluster, the booking runs on the node owning the doctor's partition; the other nodes forward it there (see `ClusterService`).
+//    - A freed slot held for a waitlisted patient is refused to the others until the hold expires (see `WaitlistService`).
 	@PostMapping("/{token}")
 	public ResponseEntity<String> bookAppointment(
 			@PathVariable String token,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+			@RequestHeader(value = ClusterService.FORWARDED_HEADER, required = false) String forwarded,
 			@RequestBody Appointment appointment ) {
 		
+		Long doctorId = appointment.getDoctor() == null ? null : appointment.getDoctor().getId();
+		ClusterService.Route route = clusterService.route(doctorId, clusterService.isForwarded(forwarded));
+		if( route.kind() == ClusterService.RouteKind.FORWARD ) {
+			return clusterService.forwardBooking(route.owner(), token, idempotencyKey, appointment);
+		}
+		if( route.kind() == ClusterService.RouteKind.UNAVAILABLE ) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body("Booking temporarily unavailable, retry");
+		}
+		if( idempotencyKey == null ) {
+			return clusterService.withDoctorLock(doctorId, () -> book(token, appointment));
+		}
+		IdempotencyService.Outcome outcome = idempotencyService.execute("book:" + token, idempotencyKey,
+				IdempotencyService.fingerprint(bookingRequest(appointment)), () -> {
+					ResponseEntity<String> response = clusterService.withDoctorLock(doctorId, () -> book(token, appointment));
+					return new StoredResponse(response.getStatusCode().value(), response.getBody());
+				});
+		return ResponseEntity.status(outcome.response().status())
+				.header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+				.body(outcome.response().body());
+	}
+
+	// Must run under the doctor's booking lock: the slot check and the insert are not atomic otherwise.
+	private ResponseEntity<String> book(String token, Appointment appointment) {
 		try {
 			if( service.validateToken(token, "patient") ) {
 				
 				if( service.validateAppointment(appointment) == 1 ) {
+					if( appointmentService.isSlotTaken(appointment.getDoctor().getId(), appointment.getAppointmentTime()) ) {
+						return ResponseEntity.status(HttpStatus.CONFLICT).body("This time is not available");
+					}
+					if( waitlistService.isHeld(appointment.getDoctor().getId(), appointment.getAppointmentTime(),
+							appointment.getPatient() == null ? null : appointment.getPatient().getId()) ) {
+						return ResponseEntity.status(HttpStatus.CONFLICT).body("This time is held for a waitlisted patient");
+					}
 					if( appointmentService.bookAppointment(appointment) ) {
 						return ResponseEntity.status(HttpStatus.CREATED).body("Appointment created");
 					}
@@ -101,6 +173,14 @@ public class AppointmentController {
 
 	}
 
+	// What identifies a booking request, to detect an Idempotency-Key reused for another booking.
+	private static String bookingRequest(Appointment appointment) {
+		return (appointment.getDoctor() == null ? null : appointment.getDoctor().getId())
+				+ "|" + (appointment.getPatient() == null ? null : appointment.getPatient().getId())
+				+ "|" + appointment.getAppointmentTime();
+	}
+
+
 
 // 5. Define the `updateAppointment` Method:
 //    - Handles HTTP PUT requests to modify an existing appointment.
@@ -108,6 +188,7 @@ public class AppointmentController {
 //    - Validates the token for `"patient"` role.
 //    - Delegates the update logic to the `AppointmentService`.
 //    - Returns an appropriate success or failure response based on the update result.
+//    - A slot held for a waitlisted patient is refused to the others; the check and the update run under the doctor's booking lock.
 	@PutMapping("/{token}")
 	public ResponseEntity<Map<String, String>> updateAppointment(
 			@PathVariable String token,
@@ -117,7 +198,15 @@ public class AppointmentController {
 			if( service.validateToken(token, "patient") ) {
 				
 				if( service.validateAppointment(appointment) == 1 ) {
-					return appointmentService.updateAppointment(appointment);
+					Long doctorId = appointment.getDoctor().getId();
+					return clusterService.withDoctorLock(doctorId, () -> {
+						if( waitlistService.isHeld(doctorId, appointment.getAppointmentTime(),
+								appointment.getPatient() == null ? null : appointment.getPatient().getId()) ) {
+							return ResponseEntity.status(HttpStatus.CONFLICT)
+									.body(Map.of("success","false","message","This time is held for a waitlisted patient"));
+						}
+						return appointmentService.updateAppointment(appointment);
+					});
 				}
 			}
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -132,18 +221,186 @@ public class AppointmentController {
 //    - Accepts the appointment ID and a token as path variables.
 //    - Validates the token for `"patient"` role to ensure the user is authorized to cancel the appointment.
 //    - Calls `AppointmentService` to handle the cancellation process and returns the result.
-	@PutMapping("/{token}")
+	@DeleteMapping("/{id}/{token}")
 	public ResponseEntity<Map<String, String>> cancelAppointment(
-			@PathVariable String token,
-			@RequestBody Appointment appointment ) {
+			@PathVariable long id,
+			@PathVariable String token ) {
 		
 		try {
 			if( service.validateToken(token, "patient") ) {
-				return appointmentService.cancelAppointment(appointment.getId());
+				return appointmentService.cancelAppointment(id);
 			}
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 		} catch(Exception e) {
 			return ResponseEntity.status(500).build();
 		}
 	}
+
+// 7. Define the `streamAppointments` Method:
+//    - Handles HTTP GET requests opening the doctor's live appointment stream (Server-Sent Events).
+//    - Validates the token for the `"doctor"` role once, when the stream is opened.
+//    - Then pushes `booked`, `updated` and `cancelled` deltas, or `resync` when the dashboard should reload.
+	@GetMapping(path = "/stream/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamAppointments(@PathVariable String token) {
+		try {
+			if( !service.validateToken(token, "doctor") ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+			}
+			Doctor doctor = doctorRepository.findByEmail(tokenService.extractEmail(token));
+			if( doctor == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+			}
+			SseEmitter emitter = updatesHub.subscribe(doctor.getId());
+			if( emitter == null ) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+			}
+			return ResponseEntity.ok(emitter);
+		} catch(Exception e) {
+			return ResponseEntity.status(500).build();
+		}
+	}
+
+// 8. Define the `updateStatuses` Method:
+//    - Handles HTTP PUT requests setting the status of several of the doctor's appointments at once (e.g. completed at the end of the day).
+//    - Validates the token for the `"doctor"` role once; the ownership of each appointment is checked by the update itself.
+//    - Returns the result of each id: `updated`, `unchanged` or `not_found`.
+	@PutMapping("/status/{token}")
+	public ResponseEntity<Map<String, Object>> updateStatuses(
+			@PathVariable String token,
+			@RequestBody AppointmentStatusBatch batch ) {
+		try {
+			if( !service.validateToken(token, "doctor") ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			Doctor doctor = doctorRepository.findByEmail(tokenService.extractEmail(token));
+			if( doctor == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			if( batch.getStatus() == null ) {
+				return ResponseEntity.badRequest().body(Map.of("success",false,"message","Missing status"));
+			}
+			Map<String, Object> result = appointmentService.updateStatuses(doctor.getId(), batch.getIds(), batch.getStatus());
+			return Boolean.TRUE.equals(result.get("success")) ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not update the appointments"));
+		}
+	}
+
+// 9. Define the `patchAppointment` Method:
+//    - Handles HTTP PATCH requests changing the time (patient or doctor) or the status (doctor) of an appointment.
+//    - The token must belong to the appointment's patient or doctor.
+//    - Only the changed columns are written; the full-entity PUT stays for the existing clients.
+//    - Runs like a booking: on the node owning the doctor's partition and under the doctor's booking lock,
+//      so that a move and a booking can not both take the same free slot.
+//    - A slot held for a waitlisted patient is refused to the others, as for a booking.
+	@PatchMapping("/{id}/{token}")
+	public ResponseEntity<Map<String, Object>> patchAppointment(
+			@PathVariable Long id,
+			@PathVariable String token,
+			@RequestHeader(value = ClusterService.FORWARDED_HEADER, required = false) String forwarded,
+			@RequestBody AppointmentPatch patch ) {
+		try {
+			Long patientId = null;
+			Long doctorId = null;
+			if( service.validateToken(token, "patient") ) {
+				Patient patient = patientRepository.findByEmail(tokenService.extractEmail(token));
+				patientId = patient == null ? null : patient.getId();
+			} else if( service.validateToken(token, "doctor") ) {
+				Doctor doctor = doctorRepository.findByEmail(tokenService.extractEmail(token));
+				doctorId = doctor == null ? null : doctor.getId();
+			}
+			if( patientId == null && doctorId == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			Appointment appointment = appointmentService.findAppointment(id);
+			if( appointment == null
+					|| (patientId != null && !patientId.equals(appointment.getPatient().getId()))
+					|| (doctorId != null && !doctorId.equals(appointment.getDoctor().getId())) ) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Appointment not found"));
+			}
+			Long appointmentDoctorId = appointment.getDoctor().getId();
+			Long appointmentPatientId = appointment.getPatient().getId();
+			ClusterService.Route route = clusterService.route(appointmentDoctorId, clusterService.isForwarded(forwarded));
+			if( route.kind() == ClusterService.RouteKind.FORWARD ) {
+				return clusterService.forward(route.owner(), "PATCH", "/appointments/" + id + "/" + token, patch);
+			}
+			if( route.kind() == ClusterService.RouteKind.UNAVAILABLE ) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+						.body(Map.of("success",false,"message","Booking temporarily unavailable, retry"));
+			}
+			Long callerPatientId = patientId;
+			Long callerDoctorId = doctorId;
+			return clusterService.withDoctorLock(appointmentDoctorId, () -> {
+				if( patch.getAppointmentTime() != null
+						&& waitlistService.isHeld(appointmentDoctorId, patch.getAppointmentTime(), appointmentPatientId) ) {
+					return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","This time is held for a waitlisted patient"));
+				}
+				return appointmentService.patchAppointment(id, patch, callerPatientId, callerDoctorId);
+			});
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not update the appointment"));
+		}
+	}
+
+// 10. Define the `calendar` Method:
+//    - Handles HTTP GET requests for the iCalendar feed of the token's owner: the doctor's or the patient's appointments,
+//      to subscribe to from a calendar application.
+//    - Conditional: an `If-None-Match` with the current ETag answers 304 Not Modified, before anything is read but the version.
+//    - The feed itself is streamed from the database to the response (see `CalendarService`).
+	@GetMapping("/calendar/{token}")
+	public ResponseEntity<StreamingResponseBody> calendar(
+			@PathVariable String token,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch ) {
+		try {
+			String etag;
+			StreamingResponseBody body;
+			if( service.validateToken(token, "doctor") ) {
+				Doctor doctor = doctorRepository.findByEmail(tokenService.extractEmail(token));
+				if( doctor == null ) {
+					return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+				}
+				etag = "\"" + calendarService.doctorVersion(doctor.getId()) + "\"";
+				body = out -> calendarService.writeDoctorCalendar(doctor.getId(), doctor.getName(), out);
+			} else if( service.validateToken(token, "patient") ) {
+				Patient patient = patientRepository.findByEmail(tokenService.extractEmail(token));
+				if( patient == null ) {
+					return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+				}
+				etag = "\"" + calendarService.patientVersion(patient.getId()) + "\"";
+				body = out -> calendarService.writePatientCalendar(patient.getId(), out);
+			} else {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+			}
+			CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+			if( etagMatches(ifNoneMatch, etag) ) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+			}
+			return ResponseEntity.ok()
+					.eTag(etag)
+					.cacheControl(cacheControl)
+					.contentType(MediaType.parseMediaType("text/calendar; charset=UTF-8"))
+					.header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"appointments.ics\"")
+					.body(body);
+		} catch(Exception e) {
+			return ResponseEntity.status(500).build();
+		}
+	}
+
+	// If-None-Match: a list of (possibly weak) ETags, or "*"
+	private static boolean etagMatches(String ifNoneMatch, String etag) {
+		if( ifNoneMatch == null ) {
+			return false;
+		}
+		for(String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if( tag.startsWith("W/") ) {
+				tag = tag.substring(2);
+			}
+			if( tag.equals("*") || tag.equals(etag) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 }
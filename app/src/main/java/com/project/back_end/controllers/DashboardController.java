@@ -26,7 +26,7 @@ public class DashboardController {
 	@GetMapping("/doctorDashboard/{token}")
 	public String doctorDashboard(@PathVariable String token) {
 		if( service.validateToken(token, "doctor") ) {
-			return "admin/doctorDashboard";
+			return "doctor/doctorDashboard";
 		}
 		return "redirect:/login";
 	}
@@ -1,5 +1,6 @@
 package com.project.back_end.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -8,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,11 +18,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.function.EntityResponse;
 
+import com.project.back_end.DTO.DoctorPatch;
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorOffboardingService;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.SlotSearchService;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("${api.path}" + "doctor") 
@@ -35,6 +45,14 @@ public class DoctorController {
 	DoctorService doctorService;
 	@Autowired
 	Service service;
+	@Autowired
+	DoctorOffboardingService offboardingService;
+	@Autowired
+	SlotSearchService slotSearchService;
+	@Autowired
+	TokenService tokenService;
+	@Autowired
+	DoctorRepository doctorRepository;
 
 // 2. Autowire Dependencies:
 //    - Inject `DoctorService` for handling the core logic related to doctors (e.g., CRUD operations, authentication).
@@ -86,10 +104,8 @@ public class DoctorController {
 	@GetMapping
 	public ResponseEntity<Map<String,Object>> getDoctors() {
 		try {
-			List<Doctor> doctors = doctorService.getDoctors();
-			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-					Map.of("success",true,"doctors",doctors)
-					);
+			List<DoctorSummary> doctors = doctorService.getDoctors();
+			return ResponseEntity.ok(Map.of("success",true,"doctors",doctors));
 		} catch(Exception e) {
 			return ResponseEntity.status(500).build();
 		}
@@ -156,31 +172,81 @@ public class DoctorController {
 //    - If the doctor exists, deletes the record and returns a success message; otherwise, responds with a not found or error message.
 	@DeleteMapping("/{id}/{token}")
 	public ResponseEntity<Map<String,Object>> deleteDoctor(
-			@RequestBody Long id,
+			@PathVariable long id,
 			@PathVariable String token
 			) {
-		if( service.validateToken(token, "doctor") ) {
+		if( service.validateToken(token, "admin") ) {
 			try {
-				if( doctorService.deleteDoctor(id) == 1 ) {
-					return ResponseEntity.status(HttpStatus.OK).body(Map.of( "success","true") );
+				int result = doctorService.deleteDoctor(id);
+				if( result == 1 ) {
+					// runs in the background, progress at /offboarding/{id}/{token}
+					return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of( "success","true","message","Doctor deletion started") );
 				}
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of( "success","true") );
+				if( result == -1 ) {
+					return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of( "success","false","message","Doctor not found") );
+				}
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of( "success","false") );
 			} catch(Exception e) {
 				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of( "success","false") );
 			}
 		}
 		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of( "success","false") );
 	}
+
+// 8b. Define the `deletionProgress` Method:
+//    - Handles HTTP GET requests for the progress of the last deletion job of a doctor (admin token).
+	@GetMapping("/offboarding/{id}/{token}")
+	public ResponseEntity<Map<String,Object>> deletionProgress(
+			@PathVariable long id,
+			@PathVariable String token
+			) {
+		if( !service.validateToken(token, "admin") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of( "success","false") );
+		}
+		Map<String,Object> progress = offboardingService.getProgress(id);
+		if( progress == null ) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of( "success","false","message","No deletion job for this doctor") );
+		}
+		return ResponseEntity.ok(Map.of( "success","true","job",progress) );
+	}
  	
 
 
+// 8c. Define the `nextAvailableSlots` Method:
+//    - Handles HTTP GET requests for the earliest free slots across all the doctors of a specialty.
+//    - Accepts the specialty, a date range, a period (`AM`, `PM` or `all`) and the number of slots wanted (at most 50).
+//    - Answered from the in-memory slot index (`SlotSearchService`), replacing one availability probe per doctor and day.
+	@GetMapping("/slots/{specialty}/{from}/{to}/{period}/{count}/{token}")
+	public ResponseEntity<Map<String,Object>> nextAvailableSlots(
+			@PathVariable String specialty,
+			@PathVariable String from,
+			@PathVariable String to,
+			@PathVariable String period,
+			@PathVariable int count,
+			@PathVariable String token
+			) {
+		if( !service.validateToken(token, "patient") ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of( "success","false") );
+		}
+		try {
+			LocalDate start = LocalDate.parse(from);
+			LocalDate end = LocalDate.parse(to);
+			if( end.isBefore(start) || end.isAfter(start.plusDays(90)) || count < 1 ) {
+				return ResponseEntity.badRequest().body(Map.of( "success","false","message","Invalid range") );
+			}
+			return ResponseEntity.ok(Map.of( "success","true",
+					"slots",slotSearchService.findEarliest(specialty, start, end, period, Math.min(count, 50))) );
+		} catch(Exception e) {
+			return ResponseEntity.badRequest().body(Map.of( "success","false","message","Invalid range") );
+		}
+	}
+
 // 9. Define the `filter` Method:
 //    - Handles HTTP GET requests to filter doctors based on name, time, and specialty.
 //    - Accepts `name`, `time`, and `speciality` as path variables.
 //    - Calls the shared `Service` to perform filtering logic and returns matching doctors in the response.
 	@GetMapping("/filter/{name}/{time}/{speciality}")
-	public ResponseEntity<Map<String,Object>> filter( @PathVariable String user,
-			@PathVariable String name,
+	public ResponseEntity<Map<String,Object>> filter( @PathVariable String name,
 			@PathVariable String time,
 			@PathVariable String speciality
 			) {
@@ -190,7 +256,33 @@ public class DoctorController {
 			return ResponseEntity.status(500).build();
 		}
 	}
- 	
 
+// 10. Define the `patchDoctor` Method:
+//    - Handles HTTP PATCH requests changing some fields of a doctor (name, specialty, phone, available times).
+//    - Allowed for an admin token, or the doctor's own token.
+//    - Only the changed columns and the added or removed time slots are written.
+	@PatchMapping("/{id}/{token}")
+	public ResponseEntity<Map<String,Object>> patchDoctor(
+			@PathVariable long id,
+			@PathVariable String token,
+			@Valid @RequestBody DoctorPatch patch
+			) {
+		boolean allowed = service.validateToken(token, "admin");
+		if( !allowed && service.validateToken(token, "doctor") ) {
+			Doctor self = doctorRepository.findByEmail(tokenService.extractEmail(token));
+			allowed = self != null && self.getId() == id;
+		}
+		if( !allowed ) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of( "success","false") );
+		}
+		try {
+			if( doctorService.patchDoctor(id, patch) == -1 ) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of( "success","false","message","Doctor not found") );
+			}
+			return ResponseEntity.ok(Map.of( "success","true") );
+		} catch(Exception e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of( "success","false") );
+		}
+	}
 
 }
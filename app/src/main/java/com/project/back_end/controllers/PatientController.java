@@ -7,10 +7,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
@@ -55,15 +57,15 @@ public class PatientController {
 //    - Accepts a validated `Patient` object in the request body.
 //    - First checks if the patient already exists using the shared service.
 //    - If validation passes, attempts to create the patient and returns success or error messages based on the outcome.
-	@GetMapping("/{token}")
-	public ResponseEntity<Map<String,Object>> createPatient(@PathVariable String token,
-			@RequestBody Patient patient) {
-		if( service.validateToken(token, "admin")) {
-			if( patientService.createPatient(patient) == 1 ) {
-				return ResponseEntity.ok(Map.of("success","true"));
-			}
+	@PostMapping
+	public ResponseEntity<Map<String,Object>> createPatient(@RequestBody Patient patient) {
+		if( !service.validatePatient(patient) ) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success","false","message","Patient already exists"));
 		}
-		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		if( patientService.createPatient(patient) == 1 ) {
+			return ResponseEntity.ok(Map.of("success","true"));
+		}
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 	}
 
 
@@ -72,24 +74,25 @@ public class PatientController {
 //    - Accepts a `Login` DTO containing email/username and password.
 //    - Delegates authentication to the `validatePatientLogin` method in the shared service.
 //    - Returns a response with a token or an error message depending on login success.
-	@GetMapping("/{token}")
-	public ResponseEntity<Map<String,Object>> login(@PathVariable String token) {
-		if( service.validateToken(token, "patient")) {
-			
-		}
-		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	@PostMapping("/login")
+	public ResponseEntity<Map<String,String>> login(@RequestBody Login login) {
+		return service.validatePatientLogin(login);
 	}
 
 
 // 6. Define the `getPatientAppointment` Method:
-//    - Handles HTTP GET requests to fetch appointment details for a specific patient.
-//    - Requires the patient ID, token, and user role as path variables.
-//    - Validates the token using the shared service.
-//    - If valid, retrieves the patient's appointment data from `PatientService`; otherwise, returns a validation error.
-	@GetMapping("/{token}")
-	public ResponseEntity<Map<String,Object>> getPatientAppointment(@PathVariable String token) {
+//    - Handles HTTP GET requests to fetch the appointments of a patient, current and archived.
+//    - The caller is taken from the token, never from the path: a patient gets only their own appointments
+//      (another patient's `id` is refused with 403), and a doctor only their own appointments with that patient.
+//    - Any other token is refused with 401.
+	@GetMapping("/{id}/{token}")
+	public ResponseEntity<Map<String,Object>> getPatientAppointment(@PathVariable Long id,
+			@PathVariable String token) {
 		if( service.validateToken(token, "patient")) {
-			
+			return patientService.getPatientAppointment(id, token);
+		}
+		if( service.validateToken(token, "doctor")) {
+			return patientService.getDoctorPatientAppointment(id, token);
 		}
 		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 	}
@@ -100,16 +103,17 @@ public class PatientController {
 //    - Accepts filtering parameters: `condition`, `name`, and a token.
 //    - Token must be valid for a `"patient"` role.
 //    - If valid, delegates filtering logic to the shared service and returns the filtered result.
-	@GetMapping("/{token}")
-	public ResponseEntity<Map<String,Object>> filterPatientAppointment(@PathVariable String token) {
+	@GetMapping("/filter/{condition}/{name}/{token}")
+	public ResponseEntity<Map<String,Object>> filterPatientAppointment(@PathVariable String condition,
+			@PathVariable String name,
+			@PathVariable String token) {
 		if( service.validateToken(token, "patient")) {
-			
+			return service.filterPatient(condition, name, token);
 		}
 		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 	}
 
 
-
 }
 
 
@@ -43,19 +43,19 @@ public class PrescriptionController {
 //    - Accepts a validated `Prescription` object in the request body and a doctor’s token as a path variable.
 //    - Validates the token for the `"doctor"` role.
 //    - If the token is valid, updates the status of the corresponding appointment to reflect that a prescription has been added.
-//    - Delegates the saving logic to `PrescriptionService` and returns a response indicating success or failure.
+//    - Delegates the saving logic to `PrescriptionService` and returns a response indicating success or failure,
+//      with the interactions found with the patient's active prescriptions.
 	@PostMapping("/{token}")
-	public ResponseEntity<String> savePrescription(@RequestBody Prescription presription,
+	public ResponseEntity<Map<String, Object>> savePrescription(@RequestBody Prescription presription,
 		@PathVariable String token) {
 		if( service.validateToken(token, "doctor")) {
 			try {
-				prescriptionService.savePrescription(presription);
-				return ResponseEntity.status(HttpStatus.CREATED).body("Prescription created");
+				return prescriptionService.savePrescription(presription);
 			} catch(Exception e) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Can not save!");
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success",false,"message","Can not save!"));
 			}
 		}
-		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not Authorized!");
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized!"));
 	}
 
 // 4. Define the `getPrescription` Method:
@@ -70,7 +70,7 @@ public class PrescriptionController {
 		if( service.validateToken(token, "doctor")) {
 			try {
 				ResponseEntity<Map<String, Object>> res = prescriptionService.getPrescription(appointmentId);
-				if( "true".equals(res.getBody().get("success"))) {
+				if( Boolean.TRUE.equals(res.getBody().get("success"))) {
 					return res;
 				}
 				return ResponseEntity.status(HttpStatus.CREATED).body( Map.of("success","false","message","No prescriptions found"));
@@ -81,5 +81,21 @@ public class PrescriptionController {
 		return ResponseEntity.status(HttpStatus.CREATED).body( Map.of("success","false","message","Not Authorized"));
 	}
 
+// 5. Define the `getMedicationTimeline` Method:
+//    - Handles HTTP GET requests for a patient's past prescriptions, latest first, one page at a time.
+//    - Accepts the patient ID, a search text (`null` for all), the page number and size, and a doctor’s token as path variables.
+//    - Validates the token for the `"doctor"` role using the shared service.
+	@GetMapping("/patient/{patientId}/{text}/{page}/{size}/{token}")
+	public ResponseEntity<Map<String, Object>> getMedicationTimeline(@PathVariable Long patientId,
+		@PathVariable String text,
+		@PathVariable int page,
+		@PathVariable int size,
+		@PathVariable String token) {
+		if( service.validateToken(token, "doctor")) {
+			return prescriptionService.getMedicationTimeline(patientId, "null".equals(text) ? null : text, page, size);
+		}
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body( Map.of("success","false","message","Not Authorized"));
+	}
+
 
 }
@@ -0,0 +1,179 @@
+package com.project.back_end.controllers;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.WaitlistEntryRepository;
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import com.project.back_end.services.WaitlistOffersHub;
+import com.project.back_end.services.WaitlistService;
+
+@RestController
+@RequestMapping("${api.path}" + "waitlist")
+public class WaitlistController {
+
+// 1. Set Up the Controller Class:
+//    - Annotate the class with `@RestController` to define it as a REST API controller.
+//    - Use `@RequestMapping("${api.path}waitlist")` to set the base path for the waitlist endpoints.
+//    - A patient who can not get a slot with a doctor registers here, and is notified when a freed slot is held for them.
+
+
+// 2. Autowire Dependencies:
+//    - Inject `WaitlistService` for the waitlist itself and the shared `Service` for token validation.
+//    - Inject `ClusterService` to accept an offer on the doctor's node and under the doctor's booking lock.
+//    - Inject `WaitlistOffersHub` for the patients' live offer streams.
+	@Autowired
+	WaitlistService waitlistService;
+
+	@Autowired
+	WaitlistEntryRepository waitlistRepository;
+
+	@Autowired
+	Service service;
+
+	@Autowired
+	TokenService tokenService;
+
+	@Autowired
+	PatientRepository patientRepository;
+
+	@Autowired
+	ClusterService clusterService;
+
+	@Autowired
+	WaitlistOffersHub offersHub;
+
+	@Value("${api.path}")
+	String apiPath;
+
+// 3. Define the `joinWaitlist` Method:
+//    - Handles HTTP POST requests registering the patient for the slots of a doctor freed between two days (yyyy-MM-dd).
+//    - Validates the token for the `"patient"` role.
+//    - Returns 201 with the entry id, or 409 when the patient is already waiting for this doctor.
+	@PostMapping("/{doctorId}/{from}/{to}/{token}")
+	public ResponseEntity<Map<String, Object>> joinWaitlist(@PathVariable Long doctorId,
+			@PathVariable String from,
+			@PathVariable String to,
+			@PathVariable String token) {
+		try {
+			Patient patient = patient(token);
+			if( patient == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			return waitlistService.join(patient.getId(), doctorId, LocalDate.parse(from), LocalDate.parse(to));
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not join the waitlist"));
+		}
+	}
+
+// 4. Define the `getWaitlist` Method:
+//    - Handles HTTP GET requests listing the patient's waiting entries and the slots held for them (`offeredTime`, `offerExpiresAt`).
+	@GetMapping("/{token}")
+	public ResponseEntity<Map<String, Object>> getWaitlist(@PathVariable String token) {
+		try {
+			Patient patient = patient(token);
+			if( patient == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			return ResponseEntity.ok(Map.of("success",true,"entries",waitlistService.getEntries(patient.getId())));
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not read the waitlist"));
+		}
+	}
+
+// 5. Define the `acceptOffer` Method:
+//    - Handles HTTP POST requests booking the slot held for a waitlist entry of the patient.
+//    - Returns 201 with the appointment id, 410 when the offer has expired, or 409 when the slot was taken meanwhile.
+//    - Runs like a booking: on the node owning the doctor's partition, which the other nodes forward it to, and under the doctor's booking lock.
+	@PostMapping("/accept/{id}/{token}")
+	public ResponseEntity<Map<String, Object>> acceptOffer(@PathVariable Long id,
+			@PathVariable String token,
+			@RequestHeader(value = ClusterService.FORWARDED_HEADER, required = false) String forwarded) {
+		try {
+			Patient patient = patient(token);
+			if( patient == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			Long doctorId = waitlistRepository.findById(id)
+					.filter(entry -> patient.getId().equals(entry.getPatientId()))
+					.map(WaitlistEntry::getDoctorId)
+					.orElse(null);
+			if( doctorId == null ) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Waitlist entry not found"));
+			}
+			ClusterService.Route route = clusterService.route(doctorId, clusterService.isForwarded(forwarded));
+			if( route.kind() == ClusterService.RouteKind.FORWARD ) {
+				return clusterService.forward(route.owner(), "POST", apiPath + "waitlist/accept/" + id + "/" + token, null);
+			}
+			if( route.kind() == ClusterService.RouteKind.UNAVAILABLE ) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+						.body(Map.of("success",false,"message","Booking temporarily unavailable, retry"));
+			}
+			return clusterService.withDoctorLock(doctorId, () -> waitlistService.accept(patient.getId(), id));
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not book the held slot"));
+		}
+	}
+
+// 6. Define the `leaveWaitlist` Method:
+//    - Handles HTTP DELETE requests removing a waitlist entry of the patient; a slot held for it goes to the next patient.
+	@DeleteMapping("/{id}/{token}")
+	public ResponseEntity<Map<String, Object>> leaveWaitlist(@PathVariable Long id, @PathVariable String token) {
+		try {
+			Patient patient = patient(token);
+			if( patient == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			return waitlistService.leave(patient.getId(), id);
+		} catch(Exception e) {
+			return ResponseEntity.status(500).body(Map.of("success",false,"message","Can not leave the waitlist"));
+		}
+	}
+
+// 7. Define the `streamOffers` Method:
+//    - Handles HTTP GET requests opening the patient's live offer stream (Server-Sent Events).
+//    - Validates the token for the `"patient"` role once, when the stream is opened.
+//    - Then pushes an `offers` event with the slots currently held for the patient, at once and on every change.
+	@GetMapping(path = "/stream/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamOffers(@PathVariable String token) {
+		try {
+			Patient patient = patient(token);
+			if( patient == null ) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+			}
+			SseEmitter emitter = offersHub.subscribe(patient.getId());
+			if( emitter == null ) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+			}
+			return ResponseEntity.ok(emitter);
+		} catch(Exception e) {
+			return ResponseEntity.status(500).build();
+		}
+	}
+
+	private Patient patient(String token) {
+		if( !service.validateToken(token, "patient") ) {
+			return null;
+		}
+		return patientRepository.findByEmail(tokenService.extractEmail(token));
+	}
+}
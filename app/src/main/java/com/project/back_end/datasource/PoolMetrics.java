@@ -0,0 +1,128 @@
+package com.project.back_end.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+// Hikari pool metrics: acquire latency, connection usage time and timeouts from the pool's
+// callbacks, and the demand (active + pending) from a periodic sample of the pool state.
+//
+// The pool size is derived from what is measured over the current window (Little's law):
+// connections needed = acquires per second * mean usage time, and at least the sampled peak
+// demand, plus `headroom`. It is reported, not applied: maximum-pool-size stays a deployment setting.
+public class PoolMetrics implements MetricsTrackerFactory {
+
+	private final double headroom;
+	private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+	public PoolMetrics(double headroom) {
+		this.headroom = headroom;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		Pool pool = new Pool(poolStats);
+		pools.put(poolName, pool);
+		return pool;
+	}
+
+	static final class Pool implements IMetricsTracker {
+		private final PoolStats stats;
+		private final AtomicLong acquires = new AtomicLong();
+		private final AtomicLong acquireNanos = new AtomicLong();
+		private final AtomicLong maxAcquireNanos = new AtomicLong();
+		private final AtomicLong usages = new AtomicLong();
+		private final AtomicLong usageMillis = new AtomicLong();
+		private final AtomicLong timeouts = new AtomicLong();
+		private final AtomicInteger peakDemand = new AtomicInteger();
+		private volatile long windowStart = System.nanoTime();
+
+		Pool(PoolStats stats) {
+			this.stats = stats;
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			acquires.incrementAndGet();
+			acquireNanos.addAndGet(elapsedAcquiredNanos);
+			maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			usages.incrementAndGet();
+			usageMillis.addAndGet(elapsedBorrowedMillis);
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			timeouts.incrementAndGet();
+		}
+
+		void sample() {
+			peakDemand.accumulateAndGet(stats.getActiveConnections() + stats.getPendingThreads(), Math::max);
+		}
+
+		void reset() {
+			acquires.set(0);
+			acquireNanos.set(0);
+			maxAcquireNanos.set(0);
+			usages.set(0);
+			usageMillis.set(0);
+			timeouts.set(0);
+			peakDemand.set(0);
+			windowStart = System.nanoTime();
+		}
+	}
+
+	// Called every second or so (see DataSourceTuningConfig).
+	public void sample() {
+		pools.values().forEach(Pool::sample);
+	}
+
+	// Starts a new measurement window.
+	public void reset() {
+		pools.values().forEach(Pool::reset);
+	}
+
+	static int recommendedSize(long acquires, double windowSeconds, double meanUsageMillis, int peakDemand, double headroom) {
+		double rate = windowSeconds > 0 ? acquires / windowSeconds : 0;
+		double busy = rate * meanUsageMillis / 1000.0;
+		double needed = Math.max(busy, peakDemand) * (1 + headroom);
+		return (int) Math.max(2, Math.ceil(needed));
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		pools.forEach((name, pool) -> {
+			long acquires = pool.acquires.get();
+			long usages = pool.usages.get();
+			double windowSeconds = (System.nanoTime() - pool.windowStart) / 1e9;
+			double meanUsage = usages == 0 ? 0 : (double) pool.usageMillis.get() / usages;
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("active", pool.stats.getActiveConnections());
+			stats.put("idle", pool.stats.getIdleConnections());
+			stats.put("pending", pool.stats.getPendingThreads());
+			stats.put("total", pool.stats.getTotalConnections());
+			stats.put("max", pool.stats.getMaxConnections());
+			stats.put("windowSeconds", Math.round(windowSeconds));
+			stats.put("acquires", acquires);
+			stats.put("acquireMeanMicros", acquires == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(pool.acquireNanos.get() / acquires));
+			stats.put("acquireMaxMicros", TimeUnit.NANOSECONDS.toMicros(pool.maxAcquireNanos.get()));
+			stats.put("usageMeanMillis", Math.round(meanUsage * 10) / 10.0);
+			stats.put("timeouts", pool.timeouts.get());
+			stats.put("peakDemand", pool.peakDemand.get());
+			stats.put("recommendedMaxPoolSize",
+					recommendedSize(acquires, windowSeconds, meanUsage, pool.peakDemand.get(), headroom));
+			result.put(name, stats);
+		});
+		return result;
+	}
+}
@@ -0,0 +1,139 @@
+package com.project.back_end.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends the connections of read-only transactions (`@Transactional(readOnly = true)`) to the replica
+// and everything else to the primary.
+// - Must sit behind a LazyConnectionDataSourceProxy: the routing decision needs the transaction's
+//   read-only flag, which is only set once the transaction has begun.
+// - The replica is skipped while its lag (probed every `checkMillis` with `lagQuery`) is above
+//   `maxLagSeconds` or unknown, and for clients that wrote recently (ReadYourWrites).
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+	private final static Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	public enum Route { PRIMARY, REPLICA }
+
+	private final DataSource replica;
+	private final long maxLagSeconds;
+	private final String lagQuery;
+	private final String lagColumn;
+	private final long checkMillis;
+	private ScheduledExecutorService checker;
+
+	private volatile boolean replicaUsable = true;
+	private volatile Long replicaLagSeconds;
+	private final AtomicLong replicaConnections = new AtomicLong();
+	private final AtomicLong primaryConnections = new AtomicLong();
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+			long maxLagSeconds, String lagQuery, String lagColumn, long checkMillis) {
+		this.replica = replica;
+		this.maxLagSeconds = maxLagSeconds;
+		this.lagQuery = lagQuery;
+		this.lagColumn = lagColumn;
+		this.checkMillis = checkMillis;
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		if( checkMillis > 0 ) {
+			checker = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "replica-lag-check");
+				t.setDaemon(true);
+				return t;
+			});
+			checker.scheduleWithFixedDelay(this::checkReplica, 0, checkMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if( checker != null ) {
+			checker.shutdownNow();
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Route route = route();
+		(route == Route.REPLICA ? replicaConnections : primaryConnections).incrementAndGet();
+		return route;
+	}
+
+	Route route() {
+		if( !TransactionSynchronizationManager.isCurrentTransactionReadOnly() ) {
+			if( TransactionSynchronizationManager.isActualTransactionActive() ) {
+				ReadYourWrites.markWrite();
+			}
+			return Route.PRIMARY;
+		}
+		if( !replicaUsable || ReadYourWrites.isSticky() ) {
+			return Route.PRIMARY;
+		}
+		return Route.REPLICA;
+	}
+
+	void checkReplica() {
+		boolean usable;
+		Long lag = null;
+		try( Connection c = replica.getConnection() ) {
+			if( lagQuery == null || lagQuery.isBlank() ) {
+				usable = c.isValid(2);
+				lag = 0L;
+			} else {
+				try( Statement st = c.createStatement(); ResultSet rs = st.executeQuery(lagQuery) ) {
+					if( rs.next() ) {
+						long value = rs.getLong(lagColumn);
+						lag = rs.wasNull() ? null : value; // null: replication stopped
+					}
+				}
+				usable = lag != null && lag <= maxLagSeconds;
+			}
+		} catch(Exception e) {
+			usable = false;
+			if( replicaUsable ) {
+				log.warn("Replica check failed, reads go to the primary", e);
+			}
+		}
+		replicaLagSeconds = lag;
+		if( usable != replicaUsable ) {
+			log.warn("Replica {} (lag {}s, tolerance {}s)", usable ? "back in use" : "out of use", lag, maxLagSeconds);
+		}
+		replicaUsable = usable;
+	}
+
+	public boolean isReplicaUsable() {
+		return replicaUsable;
+	}
+
+	public Long getReplicaLagSeconds() {
+		return replicaLagSeconds;
+	}
+
+	public long getReplicaConnections() {
+		return replicaConnections.get();
+	}
+
+	public long getPrimaryConnections() {
+		return primaryConnections.get();
+	}
+}
@@ -0,0 +1,94 @@
+package com.project.back_end.datasource;
+
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Read-your-writes stickiness for the replica routing.
+// When a request writes to the primary, a short-lived cookie is set so that the same client's
+// following requests (within `stickyMillis`) read from the primary too, and do not miss their own
+// change on a lagging replica. The current request is sticky from its first write on.
+// Only requests going through ReadYourWritesFilter have a context; background threads have none.
+// Bookkeeping writes that are not the client's data (the shared rate limit buckets) run `untracked`.
+public final class ReadYourWrites {
+
+	public static final String COOKIE = "rw-primary-until";
+
+	private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+	private static final class Context {
+		private final HttpServletResponse response;
+		private final long stickyMillis;
+		private boolean sticky;
+		private boolean marked;
+		private boolean untracked;
+
+		private Context(HttpServletResponse response, long stickyMillis, boolean sticky) {
+			this.response = response;
+			this.stickyMillis = stickyMillis;
+			this.sticky = sticky;
+		}
+	}
+
+	private ReadYourWrites() {
+	}
+
+	static void begin(HttpServletRequest request, HttpServletResponse response, long stickyMillis) {
+		boolean sticky = false;
+		Cookie[] cookies = request.getCookies();
+		if( cookies != null ) {
+			for(Cookie cookie : cookies) {
+				if( COOKIE.equals(cookie.getName()) ) {
+					try {
+						sticky = Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+					} catch(NumberFormatException e) {
+						// ignored: not sticky
+					}
+				}
+			}
+		}
+		CURRENT.set(new Context(response, stickyMillis, sticky));
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	public static boolean isSticky() {
+		Context context = CURRENT.get();
+		return context != null && context.sticky;
+	}
+
+	// Runs `work` without making the request (and the client's next requests) sticky to the primary.
+	public static <T> T untracked(Supplier<T> work) {
+		Context context = CURRENT.get();
+		if( context == null || context.untracked ) {
+			return work.get();
+		}
+		context.untracked = true;
+		try {
+			return work.get();
+		} finally {
+			context.untracked = false;
+		}
+	}
+
+	// Called when a read-write transaction gets a primary connection.
+	public static void markWrite() {
+		Context context = CURRENT.get();
+		if( context == null || context.marked || context.untracked ) {
+			return;
+		}
+		context.marked = true;
+		context.sticky = true;
+		if( !context.response.isCommitted() ) {
+			Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis() + context.stickyMillis));
+			cookie.setPath("/");
+			cookie.setHttpOnly(true);
+			cookie.setMaxAge((int) Math.max(1, (context.stickyMillis + 999) / 1000));
+			context.response.addCookie(cookie);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.datasource;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Binds the read-your-writes context (see ReadYourWrites) to the request thread.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	private final long stickyMillis;
+
+	public ReadYourWritesFilter(long stickyMillis) {
+		this.stickyMillis = stickyMillis;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		ReadYourWrites.begin(request, response, stickyMillis);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			ReadYourWrites.end();
+		}
+	}
+}
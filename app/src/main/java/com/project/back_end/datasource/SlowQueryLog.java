@@ -0,0 +1,137 @@
+package com.project.back_end.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// DataSource wrapper logging the statements slower than `thresholdMillis`, with their bound parameters.
+// Only `execute*` calls are timed; the set* calls of prepared statements are recorded (long values
+// truncated to `maxParameterLength`) so they can be logged with the statement.
+// Logged under `com.project.back_end.datasource.SlowQueryLog`, at WARN.
+public class SlowQueryLog extends DelegatingDataSource {
+
+	private final static Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private final long thresholdNanos;
+	private final int maxParameterLength;
+	private final AtomicLong slowQueries = new AtomicLong();
+
+	public SlowQueryLog(DataSource target, long thresholdMillis, int maxParameterLength) {
+		super(target);
+		this.thresholdNanos = thresholdMillis * 1_000_000L;
+		this.maxParameterLength = maxParameterLength;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return connection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return connection(super.getConnection(username, password));
+	}
+
+	public long getSlowQueries() {
+		return slowQueries.get();
+	}
+
+	private Connection connection(Connection target) {
+		return proxy(Connection.class, target, (proxy, method, args) -> {
+			Object result = invoke(target, method, args);
+			if( result instanceof PreparedStatement ps && args != null && args[0] instanceof String sql ) {
+				return proxy(method.getReturnType(), ps, new StatementHandler(ps, sql));
+			}
+			if( result instanceof Statement st && !(result instanceof PreparedStatement) ) {
+				return proxy(Statement.class, st, new StatementHandler(st, null));
+			}
+			return result;
+		});
+	}
+
+	private final class StatementHandler implements InvocationHandler {
+		private final Statement target;
+		private final String sql;
+		private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+		private int batched;
+
+		StatementHandler(Statement target, String sql) {
+			this.target = target;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if( name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index ) {
+				parameters.put(index, name.equals("setNull") ? null : args[1]);
+			} else if( name.equals("clearParameters") ) {
+				parameters.clear();
+			} else if( name.equals("addBatch") ) {
+				batched++;
+			} else if( name.equals("clearBatch") ) {
+				batched = 0;
+			} else if( name.startsWith("execute") ) {
+				long start = System.nanoTime();
+				try {
+					return SlowQueryLog.invoke(target, method, args);
+				} finally {
+					long elapsed = System.nanoTime() - start;
+					if( elapsed >= thresholdNanos ) {
+						slow(elapsed, args != null && args.length > 0 && args[0] instanceof String s ? s : sql);
+					}
+					if( name.equals("executeBatch") || name.equals("executeLargeBatch") ) {
+						batched = 0;
+					}
+				}
+			}
+			return SlowQueryLog.invoke(target, method, args);
+		}
+
+		private void slow(long elapsedNanos, String statement) {
+			slowQueries.incrementAndGet();
+			if( batched > 0 ) {
+				log.warn("Slow query ({} ms, batch of {}): {} last parameters {}", elapsedNanos / 1_000_000, batched, statement, parameters());
+			} else {
+				log.warn("Slow query ({} ms): {} parameters {}", elapsedNanos / 1_000_000, statement, parameters());
+			}
+		}
+
+		private List<String> parameters() {
+			List<String> values = new ArrayList<>(parameters.size());
+			for(Object value : parameters.values()) {
+				String s = String.valueOf(value);
+				values.add(s.length() > maxParameterLength ? s.substring(0, maxParameterLength) + "..." : s);
+			}
+			return values;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch(InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.project.back_end.events;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.back_end.models.Appointment;
+
+// Published by AppointmentService whenever an appointment is booked, updated or cancelled.
+// It carries a snapshot of the appointment taken at publication time (a cancelled appointment is
+// already deleted when listeners run), and the previous doctor and time for updates that move it.
+// It is stored as JSON in the outbox and relayed to the AppointmentEventSubscribers after commit.
+public class AppointmentChangedEvent {
+
+	public enum Kind { BOOKED, UPDATED, CANCELLED }
+
+	private final Kind kind;
+	private final Long appointmentId;
+	private final Long doctorId;
+	private final Long previousDoctorId;
+	private final LocalDateTime previousAppointmentTime;
+	private final Long patientId;
+	private final LocalDateTime appointmentTime;
+	private final int status;
+	private final LocalDateTime occurredAt;
+
+	@JsonCreator
+	public AppointmentChangedEvent(@JsonProperty("kind") Kind kind,
+			@JsonProperty("appointmentId") Long appointmentId,
+			@JsonProperty("doctorId") Long doctorId,
+			@JsonProperty("previousDoctorId") Long previousDoctorId,
+			@JsonProperty("previousAppointmentTime") LocalDateTime previousAppointmentTime,
+			@JsonProperty("patientId") Long patientId,
+			@JsonProperty("appointmentTime") LocalDateTime appointmentTime,
+			@JsonProperty("status") int status,
+			@JsonProperty("occurredAt") LocalDateTime occurredAt) {
+		this.kind = kind;
+		this.appointmentId = appointmentId;
+		this.doctorId = doctorId;
+		this.previousDoctorId = previousDoctorId;
+		this.previousAppointmentTime = previousAppointmentTime;
+		this.patientId = patientId;
+		this.appointmentTime = appointmentTime;
+		this.status = status;
+		this.occurredAt = occurredAt;
+	}
+
+	public static AppointmentChangedEvent of(Kind kind, Appointment appointment, Long previousDoctorId,
+			LocalDateTime previousAppointmentTime) {
+		return new AppointmentChangedEvent(kind, appointment.getId(),
+				appointment.getDoctor() == null ? null : appointment.getDoctor().getId(),
+				previousDoctorId, previousAppointmentTime,
+				appointment.getPatient() == null ? null : appointment.getPatient().getId(),
+				appointment.getAppointmentTime(), appointment.getStatus(), LocalDateTime.now());
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public Long getAppointmentId() {
+		return appointmentId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public Long getPreviousDoctorId() {
+		return previousDoctorId;
+	}
+
+	public LocalDateTime getPreviousAppointmentTime() {
+		return previousAppointmentTime;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public LocalDateTime getAppointmentTime() {
+		return appointmentTime;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public LocalDateTime getOccurredAt() {
+		return occurredAt;
+	}
+}
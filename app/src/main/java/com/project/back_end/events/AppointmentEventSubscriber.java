@@ -0,0 +1,15 @@
+package com.project.back_end.events;
+
+import java.util.List;
+
+// In-process consumer of the appointment events relayed from the outbox (see OutboxRelay).
+// - Called off the request thread, after the change is committed, with batches in commit order.
+// - The events of one appointment always arrive in order, also when one of them is retried; the events
+//   of different appointments may not (a retried event comes after later events of other appointments).
+// - Delivery is at-least-once: after a failure or a crash the same event may be delivered again,
+//   so implementations must tolerate duplicates (e.g. by appointment id and kind).
+// - Throwing makes the relay retry the failed events later.
+public interface AppointmentEventSubscriber {
+
+	void onAppointmentEvents(List<AppointmentChangedEvent> events);
+}
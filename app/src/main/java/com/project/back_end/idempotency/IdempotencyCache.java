@@ -0,0 +1,117 @@
+package com.project.back_end.idempotency;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// In-memory Idempotency-Key store: at most `maxEntries` keys, each kept `ttlMillis` after it was first seen.
+//
+// A key is claimed by the first request (`claim` returns null) which later completes or abandons it.
+// Concurrent duplicates get the in-flight entry and wait on its future instead of executing again.
+// Keys are evicted oldest first; with a single TTL this is also expiry order. In-flight keys are
+// never evicted, so the store can briefly go over `maxEntries` under a burst of slow requests.
+public class IdempotencyCache {
+
+	public static final class Entry {
+		private final String key;
+		private final String fingerprint;
+		private final long expiresAt;
+		private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+		Entry(String key, String fingerprint, long expiresAt) {
+			this.key = key;
+			this.fingerprint = fingerprint;
+			this.expiresAt = expiresAt;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		public CompletableFuture<StoredResponse> getResponse() {
+			return response;
+		}
+	}
+
+	private final int maxEntries;
+	private final long ttlMillis;
+	private final LongSupplier clock;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public IdempotencyCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+		this.clock = clock;
+	}
+
+	// Returns null when the caller now owns the key and must complete or abandon it,
+	// or the existing live entry to wait on.
+	public Entry claim(String key, String fingerprint) {
+		long now = clock.getAsLong();
+		Entry created = new Entry(key, fingerprint, now + ttlMillis);
+		for(;;) {
+			Entry existing = entries.putIfAbsent(key, created);
+			if( existing == null ) {
+				order.add(created);
+				evict(now);
+				return null;
+			}
+			if( existing.expiresAt > now || !existing.response.isDone() ) {
+				return existing;
+			}
+			entries.remove(key, existing); // expired, not evicted yet
+		}
+	}
+
+	public void complete(String key, StoredResponse response) {
+		Entry entry = entries.get(key);
+		if( entry != null ) {
+			entry.response.complete(response);
+		}
+	}
+
+	// The request failed without a response worth replaying: the key is released so that a retry
+	// executes again, and the waiting duplicates are released with `response` (which may be null).
+	public void abandon(String key, StoredResponse response) {
+		Entry entry = entries.remove(key);
+		if( entry != null ) {
+			entry.response.complete(response);
+		}
+	}
+
+	private void evict(long now) {
+		Entry oldest;
+		while( (oldest = order.peek()) != null ) {
+			boolean expired = oldest.expiresAt <= now;
+			boolean gone = entries.get(oldest.key) != oldest;
+			if( !gone && !expired && entries.size() <= maxEntries ) {
+				return;
+			}
+			if( !gone && !oldest.response.isDone() ) {
+				return; // in flight
+			}
+			if( order.remove(oldest) && !gone ) {
+				entries.remove(oldest.key, oldest);
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	public void purgeExpired() {
+		evict(clock.getAsLong());
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+}
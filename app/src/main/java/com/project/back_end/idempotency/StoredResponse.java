@@ -0,0 +1,5 @@
+package com.project.back_end.idempotency;
+
+// The response given to the first request carrying an Idempotency-Key, replayed to its retries.
+public record StoredResponse(int status, String body) {
+}
@@ -0,0 +1,275 @@
+package com.project.back_end.interactions;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.project.back_end.DTO.DrugInteraction;
+import com.project.back_end.DTO.DrugInteraction.Severity;
+
+// The drug interaction reference, immutable, built once per load of the dataset (see InteractionService).
+// - Every drug name and alias is interned to an int id; a prescription's free text is matched against them
+//   word by word, longest name first ("acetylsalicylic acid" before "acid").
+// - The interactions are an adjacency in compressed rows: the neighbours of drug d are
+//   neighbours[offsets[d] .. offsets[d + 1]), sorted, with the severity and description of each edge at the
+//   same index. A pair is checked with a binary search in the row of one drug, without allocating.
+//
+// Dataset format, one record per line, fields separated by ';', '#' starts a comment:
+//   D;<drug>;<alias>;<alias>...                      a drug and its other names (brands, abbreviations)
+//   I;<drug>;<drug>;<severity>;<description>         an interaction, both ways
+// A drug named in an interaction without a D line has no alias.
+public final class InteractionGraph {
+
+	public static final InteractionGraph EMPTY = new InteractionGraph(Map.of(), new String[0], 1,
+			new int[] { 0 }, new int[0], new byte[0], new int[0], new String[0]);
+
+	private static final Severity[] SEVERITIES = Severity.values();
+
+	private final Map<String, Integer> ids;
+	private final String[] names;
+	private final int maxNameWords;
+	private final int[] offsets;
+	private final int[] neighbours;
+	private final byte[] severities;
+	private final int[] descriptionIds;
+	private final String[] descriptions;
+
+	private InteractionGraph(Map<String, Integer> ids, String[] names, int maxNameWords, int[] offsets,
+			int[] neighbours, byte[] severities, int[] descriptionIds, String[] descriptions) {
+		this.ids = ids;
+		this.names = names;
+		this.maxNameWords = maxNameWords;
+		this.offsets = offsets;
+		this.neighbours = neighbours;
+		this.severities = severities;
+		this.descriptionIds = descriptionIds;
+		this.descriptions = descriptions;
+	}
+
+	public int drugCount() {
+		return names.length;
+	}
+
+	public int interactionCount() {
+		return neighbours.length / 2;
+	}
+
+	public String name(int drug) {
+		return names[drug];
+	}
+
+	// The ids of the drugs named in a prescription's medication, without duplicates; empty when none is known.
+	public int[] drugsIn(String medication) {
+		if( medication == null ) {
+			return new int[0];
+		}
+		String text = normalize(medication);
+		// word boundaries: words are separated by exactly one space, so words i..j are text[starts[i], ends[j])
+		int[] starts = new int[text.length() / 2 + 1];
+		int[] ends = new int[starts.length];
+		int words = 0;
+		for(int i = 0; i < text.length(); i++) {
+			if( i == 0 || text.charAt(i - 1) == ' ' ) {
+				starts[words] = i;
+			}
+			if( i == text.length() - 1 || text.charAt(i + 1) == ' ' ) {
+				ends[words++] = i + 1;
+			}
+		}
+		int[] found = new int[4];
+		int count = 0;
+		for(int i = 0; i < words; ) {
+			int matched = 0;
+			for(int n = Math.min(maxNameWords, words - i); n > 0 && matched == 0; n--) {
+				Integer id = ids.get(text.substring(starts[i], ends[i + n - 1]));
+				if( id != null ) {
+					matched = n;
+					if( indexOf(found, count, id) < 0 ) {
+						if( count == found.length ) {
+							found = Arrays.copyOf(found, count * 2);
+						}
+						found[count++] = id;
+					}
+				}
+			}
+			i += Math.max(matched, 1);
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	// The severity of the interaction between two drugs, null when there is none.
+	public Severity severity(int a, int b) {
+		int edge = edge(a, b);
+		return edge < 0 ? null : SEVERITIES[severities[edge]];
+	}
+
+	// The interactions between the drugs of a new prescription and those of an active one.
+	public List<DrugInteraction> between(int[] drugs, int[] others, String prescriptionId) {
+		List<DrugInteraction> found = null;
+		for(int a : drugs) {
+			for(int b : others) {
+				int edge = edge(a, b);
+				if( edge >= 0 ) {
+					if( found == null ) {
+						found = new ArrayList<>();
+					}
+					found.add(new DrugInteraction(names[a], names[b], SEVERITIES[severities[edge]],
+							descriptions[descriptionIds[edge]], prescriptionId));
+				}
+			}
+		}
+		return found == null ? List.of() : found;
+	}
+
+	private int edge(int a, int b) {
+		int i = Arrays.binarySearch(neighbours, offsets[a], offsets[a + 1], b);
+		return i < 0 ? -1 : i;
+	}
+
+	private static int indexOf(int[] values, int count, int value) {
+		for(int i = 0; i < count; i++) {
+			if( values[i] == value ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Lower case letters and digits, every other run of characters as one space, trimmed.
+	static String normalize(String name) {
+		StringBuilder normalized = new StringBuilder(name.length());
+		boolean space = false;
+		for(int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if( Character.isLetterOrDigit(c) ) {
+				if( space && normalized.length() > 0 ) {
+					normalized.append(' ');
+				}
+				normalized.append(Character.toLowerCase(c));
+				space = false;
+			} else {
+				space = true;
+			}
+		}
+		return normalized.toString();
+	}
+
+	// Parses a dataset; an invalid line fails the whole load, with its number.
+	public static InteractionGraph parse(Reader reader) throws IOException {
+		Map<String, Integer> ids = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		List<long[]> edges = new ArrayList<>(); // drug, drug, severity, description
+		Map<String, Integer> descriptionIds = new HashMap<>();
+		List<String> descriptions = new ArrayList<>();
+		int maxNameWords = 1;
+
+		BufferedReader lines = new BufferedReader(reader);
+		String line;
+		int number = 0;
+		while( (line = lines.readLine()) != null ) {
+			number++;
+			int comment = line.indexOf('#');
+			String record = (comment < 0 ? line : line.substring(0, comment)).trim();
+			if( record.isEmpty() ) {
+				continue;
+			}
+			String[] fields = record.split(";");
+			switch( fields[0].trim() ) {
+				case "D" -> {
+					if( fields.length < 2 ) {
+						throw new IOException("Line " + number + ": no drug name");
+					}
+					int drug = intern(fields[1], ids, names, number);
+					for(int i = 2; i < fields.length; i++) {
+						String alias = normalize(fields[i]);
+						if( !alias.isEmpty() ) {
+							Integer previous = ids.putIfAbsent(alias, drug);
+							if( previous != null && previous != drug ) {
+								throw new IOException("Line " + number + ": " + alias + " already names " + names.get(previous));
+							}
+						}
+					}
+				}
+				case "I" -> {
+					if( fields.length < 4 ) {
+						throw new IOException("Line " + number + ": expected I;<drug>;<drug>;<severity>;<description>");
+					}
+					int a = intern(fields[1], ids, names, number);
+					int b = intern(fields[2], ids, names, number);
+					if( a == b ) {
+						throw new IOException("Line " + number + ": a drug interacting with itself");
+					}
+					Severity severity;
+					try {
+						severity = Severity.valueOf(fields[3].trim().toUpperCase(Locale.ROOT));
+					} catch(IllegalArgumentException e) {
+						throw new IOException("Line " + number + ": unknown severity " + fields[3].trim());
+					}
+					String description = fields.length > 4 ? String.join(";", Arrays.asList(fields).subList(4, fields.length)).trim() : "";
+					int d = descriptionIds.computeIfAbsent(description, k -> {
+						descriptions.add(k);
+						return descriptions.size() - 1;
+					});
+					edges.add(new long[] { a, b, severity.ordinal(), d });
+					edges.add(new long[] { b, a, severity.ordinal(), d });
+				}
+				default -> throw new IOException("Line " + number + ": unknown record " + fields[0].trim());
+			}
+		}
+		for(String name : ids.keySet()) {
+			maxNameWords = Math.max(maxNameWords, name.split(" ").length);
+		}
+
+		// compressed rows: count, prefix sum, fill, then sort each row
+		int n = names.size();
+		int[] offsets = new int[n + 1];
+		for(long[] e : edges) {
+			offsets[(int) e[0] + 1]++;
+		}
+		for(int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		long[] rows = new long[edges.size()]; // neighbour << 32 | edge index, sorted per row by neighbour
+		int[] next = Arrays.copyOf(offsets, n);
+		for(int i = 0; i < edges.size(); i++) {
+			long[] e = edges.get(i);
+			rows[next[(int) e[0]]++] = e[1] << 32 | i;
+		}
+		int[] neighbours = new int[rows.length];
+		byte[] severities = new byte[rows.length];
+		int[] edgeDescriptions = new int[rows.length];
+		for(int d = 0; d < n; d++) {
+			Arrays.sort(rows, offsets[d], offsets[d + 1]);
+			int previous = -1;
+			for(int i = offsets[d]; i < offsets[d + 1]; i++) {
+				long[] e = edges.get((int) rows[i]);
+				if( e[1] == previous ) {
+					throw new IOException("Duplicate interaction " + names.get(d) + " / " + names.get((int) e[1]));
+				}
+				previous = (int) e[1];
+				neighbours[i] = (int) e[1];
+				severities[i] = (byte) e[2];
+				edgeDescriptions[i] = (int) e[3];
+			}
+		}
+		return new InteractionGraph(Map.copyOf(ids), names.toArray(String[]::new), maxNameWords, offsets,
+				neighbours, severities, edgeDescriptions, descriptions.toArray(String[]::new));
+	}
+
+	private static int intern(String name, Map<String, Integer> ids, List<String> names, int number) throws IOException {
+		String key = normalize(name);
+		if( key.isEmpty() ) {
+			throw new IOException("Line " + number + ": empty drug name");
+		}
+		return ids.computeIfAbsent(key, k -> {
+			names.add(k);
+			return names.size() - 1;
+		});
+	}
+}
@@ -0,0 +1,98 @@
+package com.project.back_end.logging;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free ring buffer for many producers (the application threads
+// that log) and a single consumer (the flusher thread).
+//
+// Each slot carries a sequence number telling whether it is free for the
+// producer at position `pos` (sequence == pos) or holds a published element
+// for the consumer (sequence == pos + 1). Producers claim a position with a
+// CAS on `tail`, so `offer` never blocks and simply returns false when full.
+public class LogRingBuffer<E> {
+
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+
+	public LogRingBuffer(int requestedCapacity) {
+		if( requestedCapacity < 2 ) {
+			throw new IllegalArgumentException("capacity must be at least 2");
+		}
+		this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+		this.mask = capacity - 1;
+		this.elements = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for(int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	public boolean offer(E e) {
+		long pos = tail.get();
+		for(;;) {
+			int index = (int) (pos & mask);
+			long diff = sequences.get(index) - pos;
+			if( diff == 0 ) {
+				if( tail.compareAndSet(pos, pos + 1) ) {
+					elements.lazySet(index, e);
+					sequences.lazySet(index, pos + 1);
+					return true;
+				}
+				pos = tail.get();
+			} else if( diff < 0 ) {
+				return false; // full
+			} else {
+				pos = tail.get(); // another producer got this slot
+			}
+		}
+	}
+
+	// Must only be called from the single consumer thread.
+	public E poll() {
+		long pos = head.get();
+		int index = (int) (pos & mask);
+		if( sequences.get(index) != pos + 1 ) {
+			return null; // empty, or the producer has not published yet
+		}
+		E e = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.lazySet(index, pos + capacity);
+		head.lazySet(pos + 1);
+		return e;
+	}
+
+	// Must only be called from the single consumer thread.
+	public int drainTo(Collection<? super E> target, int max) {
+		int n = 0;
+		E e;
+		while( n < max && (e = poll()) != null ) {
+			target.add(e);
+			n++;
+		}
+		return n;
+	}
+
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, capacity));
+	}
+
+	public int remainingCapacity() {
+		return capacity - size();
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,343 @@
+package com.project.back_end.logging;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.bson.Document;
+import org.slf4j.Marker;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+// Logback appender writing to the Mongo `logs` collection described in schema-design.md.
+//
+// The logging thread only copies the event fields into a LogEntry and offers it to a
+// lock-free ring buffer: the message pattern and its arguments are kept unformatted and
+// are only turned into the stored {text, parameters} document by the flusher thread,
+// which bulk-inserts them in batches.
+//
+// Logging never waits on Mongo:
+// - when the buffer is nearly full (less than `discardingThreshold` free slots),
+//   events below WARN are dropped so that warnings and errors still get through;
+// - when the buffer is full, every new event is dropped;
+// - when an insert fails, the batch is dropped and the flusher backs off
+//   (up to `maxBackoffMillis`) while the buffer keeps absorbing new events;
+// - an entry that can not be formatted (an argument's toString() throws) is dropped alone,
+//   and no other failure stops the flusher thread.
+// Dropped events are counted and reported through the logback status manager.
+//
+// Configured in logback-spring.xml from the `logging.mongo.*` properties.
+public class MongoLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+	private static final String FLUSHER_THREAD = "mongo-log-flusher";
+	private static final String DRIVER_LOGGER = "org.mongodb.driver";
+
+	private boolean enabled = true;
+	private String uri;
+	private String collection = "logs";
+	private int retentionDays = 30;
+	private int bufferSize = 8192;
+	private int batchSize = 256;
+	private long flushIntervalMillis = 1000;
+	private int discardingThreshold = -1;
+	private long maxBackoffMillis = 30_000;
+	private int timeoutMillis = 2000;
+
+	private LogRingBuffer<LogEntry> buffer;
+	private MongoClient client;
+	private MongoCollection<Document> logs;
+	private Thread flusher;
+	private volatile boolean running;
+	private boolean indexesCreated;
+	private boolean failing;
+
+	private final AtomicLong droppedEvents = new AtomicLong();
+	private final AtomicLong writtenEvents = new AtomicLong();
+	private final AtomicLong failedBatches = new AtomicLong();
+	private long reportedDrops;
+
+	// What the logging thread captures: no formatting, no string building.
+	record LogEntry(long timestamp, Level level, String logger, String thread,
+			String pattern, Object[] arguments, Map<String, String> mdc,
+			List<Marker> markers, IThrowableProxy throwable) {
+	}
+
+	@Override
+	public void start() {
+		if( !enabled ) {
+			addInfo("Mongo log appender disabled");
+			return;
+		}
+		if( uri == null || uri.isBlank() ) {
+			addError("No uri set for the Mongo log appender [" + name + "]");
+			return;
+		}
+		ConnectionString connection;
+		try {
+			connection = new ConnectionString(uri);
+		} catch(IllegalArgumentException e) {
+			addError("Invalid uri for the Mongo log appender [" + name + "]", e);
+			return;
+		}
+		String database = connection.getDatabase() != null ? connection.getDatabase() : "logs";
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(connection)
+				.applyToClusterSettings(b -> b.serverSelectionTimeout(timeoutMillis, TimeUnit.MILLISECONDS))
+				.applyToSocketSettings(b -> b.connectTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+						.readTimeout(timeoutMillis, TimeUnit.MILLISECONDS))
+				.build());
+		startFlusher(client.getDatabase(database).getCollection(collection));
+	}
+
+	// Starts writing to `logs` (a test collection when called directly).
+	void startFlusher(MongoCollection<Document> logs) {
+		this.logs = logs;
+		buffer = new LogRingBuffer<>(bufferSize);
+		if( discardingThreshold < 0 ) {
+			discardingThreshold = buffer.capacity() / 5;
+		}
+		running = true;
+		flusher = new Thread(this::flushLoop, FLUSHER_THREAD);
+		flusher.setDaemon(true);
+		flusher.start();
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		if( !isStarted() ) {
+			return;
+		}
+		super.stop();
+		running = false;
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join(flushIntervalMillis + timeoutMillis);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if( client != null ) {
+			client.close();
+		}
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		// the driver's own logs and the flusher's logs would feed back into Mongo
+		if( event.getLoggerName().startsWith(DRIVER_LOGGER) || FLUSHER_THREAD.equals(event.getThreadName()) ) {
+			return;
+		}
+		boolean important = event.getLevel().isGreaterOrEqual(Level.WARN);
+		if( !important && buffer.remainingCapacity() <= discardingThreshold ) {
+			droppedEvents.incrementAndGet();
+			return;
+		}
+		LogEntry entry = new LogEntry(event.getTimeStamp(), event.getLevel(), event.getLoggerName(),
+				event.getThreadName(), event.getMessage(), event.getArgumentArray(),
+				event.getMDCPropertyMap(), event.getMarkerList(), event.getThrowableProxy());
+		if( !buffer.offer(entry) ) {
+			droppedEvents.incrementAndGet();
+		}
+	}
+
+	private void flushLoop() {
+		List<LogEntry> batch = new ArrayList<>(batchSize);
+		long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		long deadline = System.nanoTime() + intervalNanos;
+		long backoff = 0;
+		while( running || !buffer.isEmpty() ) {
+			buffer.drainTo(batch, batchSize - batch.size());
+			long now = System.nanoTime();
+			if( running && batch.size() < batchSize && now < deadline ) {
+				LockSupport.parkNanos(Math.min(deadline - now, TimeUnit.MILLISECONDS.toNanos(50)));
+				continue;
+			}
+			if( !batch.isEmpty() ) {
+				boolean written;
+				try {
+					written = write(batch);
+				} catch(RuntimeException e) {
+					// not a Mongo failure (e.g. a document the driver can not encode): the thread must not die
+					droppedEvents.addAndGet(batch.size());
+					failedBatches.incrementAndGet();
+					addWarn("Can not write " + batch.size() + " log entries to Mongo", e);
+					written = true;
+				}
+				if( written ) {
+					backoff = 0;
+				} else if( running ) {
+					backoff = backoff == 0 ? 100 : Math.min(backoff * 2, maxBackoffMillis);
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+				}
+				batch.clear();
+			}
+			reportDrops();
+			deadline = System.nanoTime() + intervalNanos;
+		}
+	}
+
+	private boolean write(List<LogEntry> batch) {
+		try {
+			if( !indexesCreated ) {
+				// TTL index: Mongo removes the entries once they are older than the retention
+				logs.createIndex(Indexes.ascending("logtime"),
+						new IndexOptions().name("logtime_ttl").expireAfter((long) retentionDays, TimeUnit.DAYS));
+				indexesCreated = true;
+			}
+			List<Document> docs = new ArrayList<>(batch.size());
+			for(LogEntry entry : batch) {
+				try {
+					docs.add(toDocument(entry));
+				} catch(RuntimeException e) {
+					// an argument's toString() threw: only this entry is lost
+					droppedEvents.incrementAndGet();
+					addWarn("Log entry of " + entry.logger() + " skipped, it can not be formatted: " + entry.pattern(), e);
+				}
+			}
+			if( docs.isEmpty() ) {
+				return true;
+			}
+			logs.insertMany(docs, new InsertManyOptions().ordered(false));
+			writtenEvents.addAndGet(docs.size());
+			if( failing ) {
+				addInfo("Mongo log appender writes again");
+				failing = false;
+			}
+			return true;
+		} catch(MongoException e) {
+			droppedEvents.addAndGet(batch.size());
+			failedBatches.incrementAndGet();
+			if( !failing ) {
+				addWarn("Can not write " + batch.size() + " log entries to Mongo", e);
+				failing = true;
+			}
+			return false;
+		}
+	}
+
+	static Document toDocument(LogEntry entry) {
+		List<String> tags = new ArrayList<>();
+		tags.add(entry.level().toString().toLowerCase());
+		if( entry.markers() != null ) {
+			for(Marker marker : entry.markers()) {
+				tags.add(marker.getName());
+			}
+		}
+		List<String> context = new ArrayList<>();
+		if( entry.mdc() != null ) {
+			entry.mdc().forEach((k, v) -> context.add(k + "=" + v));
+		}
+		List<String> parameters = new ArrayList<>();
+		if( entry.arguments() != null ) {
+			for(Object arg : entry.arguments()) {
+				parameters.add(String.valueOf(arg));
+			}
+		}
+		Document doc = new Document("logtime", new Date(entry.timestamp()))
+				.append("level", entry.level().toString().toLowerCase())
+				.append("tags", tags)
+				.append("logger", entry.logger())
+				.append("thread", entry.thread())
+				.append("context", context)
+				.append("message", new Document("text", numberPlaceholders(entry.pattern()))
+						.append("parameters", parameters));
+		if( entry.throwable() != null ) {
+			doc.append("exception", ThrowableProxyUtil.asString(entry.throwable()));
+		}
+		return doc;
+	}
+
+	// "File {} not found in {}" -> "File $1 not found in $2", the format of schema-design.md
+	static String numberPlaceholders(String pattern) {
+		if( pattern == null || pattern.indexOf("{}") < 0 ) {
+			return pattern;
+		}
+		StringBuilder sb = new StringBuilder(pattern.length() + 8);
+		int n = 0;
+		int from = 0;
+		int at;
+		while( (at = pattern.indexOf("{}", from)) >= 0 ) {
+			sb.append(pattern, from, at).append('$').append(++n);
+			from = at + 2;
+		}
+		return sb.append(pattern, from, pattern.length()).toString();
+	}
+
+	private void reportDrops() {
+		long dropped = droppedEvents.get();
+		if( dropped != reportedDrops ) {
+			addWarn("Mongo log appender dropped " + (dropped - reportedDrops) + " events (" + dropped + " in total)");
+			reportedDrops = dropped;
+		}
+	}
+
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	public long getWrittenEvents() {
+		return writtenEvents.get();
+	}
+
+	public long getFailedBatches() {
+		return failedBatches.get();
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public void setUri(String uri) {
+		this.uri = uri;
+	}
+
+	public void setCollection(String collection) {
+		this.collection = collection;
+	}
+
+	public void setRetentionDays(int retentionDays) {
+		this.retentionDays = retentionDays;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public void setFlushIntervalMillis(long flushIntervalMillis) {
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	public void setDiscardingThreshold(int discardingThreshold) {
+		this.discardingThreshold = discardingThreshold;
+	}
+
+	public void setMaxBackoffMillis(long maxBackoffMillis) {
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	public void setTimeoutMillis(int timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+}
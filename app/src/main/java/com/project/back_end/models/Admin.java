@@ -1,10 +1,12 @@
 package com.project.back_end.models;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.back_end.services.PrincipalChangeListener;
 
 import jakarta.annotation.Generated;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -13,8 +15,9 @@ import jakarta.validation.constraints.NotNull;
 //@Entity annotation:
 //- Marks the class as a JPA entity, which means it represents a table in the database.
 //- It is required for persistence frameworks like Hibernate to map the class to a database table.
-
+//- A change or deletion drops the cached principal on every node (PrincipalChangeListener).
 @Entity
+@EntityListeners(PrincipalChangeListener.class)
 public class Admin {
 
 // 1. 'id' field:
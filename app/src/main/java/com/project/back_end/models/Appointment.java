@@ -4,19 +4,27 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 
 // @Entity annotation:
 //- Marks the class as a JPA entity, meaning it represents a table in the database.
 //- Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+// @DynamicUpdate: an update only writes the columns that changed.
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_appointment_time", columnList = "appointment_time"))
 public class Appointment {
 
 
@@ -73,7 +81,15 @@ public class Appointment {
 	@Column(nullable = false)
 	private int status;
 
-// 6. 'getEndTime' method:
+// 6. 'updatedAt' field:
+//    - Type: private LocalDateTime
+//    - Description:
+//      - When the appointment was last inserted or updated, set by Hibernate (and by the bulk status update).
+//      - The calendar feeds derive their ETag from it.
+	@UpdateTimestamp
+	private LocalDateTime updatedAt;
+
+// 7. 'getEndTime' method:
 //    - Type: private LocalDateTime
 //    - Description:
 //      - This method is a transient field (not persisted in the database).
@@ -83,7 +99,7 @@ public class Appointment {
 	public LocalDateTime getEndTime() {
 		return appointmentTime.plusHours(1);
 	}
-// 7. 'getAppointmentDate' method:
+// 8. 'getAppointmentDate' method:
 //    - Type: private LocalDate
 //    - Description:
 //      - This method extracts only the date part from the appointmentTime field.
@@ -92,7 +108,7 @@ public class Appointment {
 		return appointmentTime.toLocalDate();
 	}
 
-// 8. 'getAppointmentTimeOnly' method:
+// 9. 'getAppointmentTimeOnly' method:
 //    - Type: private LocalTime
 //    - Description:
 //      - This method extracts only the time part from the appointmentTime field.
@@ -100,11 +116,11 @@ public class Appointment {
 	public LocalTime getAppointmentTimeOnly() {
 		return appointmentTime.toLocalTime();
 	}
-// 9. Constructor(s):
+// 10. Constructor(s):
 //    - A no-argument constructor is implicitly provided by JPA for entity creation.
 //    - A parameterized constructor can be added as needed to initialize fields.
 
-// 10. Getters and Setters:
+// 11. Getters and Setters:
 //    - Standard getter and setter methods are provided for accessing and modifying the fields: id, doctor, patient, appointmentTime, status, etc.
 	public Long getId() {
 		return id;
@@ -136,6 +152,9 @@ public class Appointment {
 	public void setStatus(int status) {
 		this.status = status;
 	}
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
 
 }
 
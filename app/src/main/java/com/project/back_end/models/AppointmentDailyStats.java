@@ -0,0 +1,90 @@
+package com.project.back_end.models;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Pre-aggregated number of appointments per doctor, day and status.
+// - Kept up to date by AppointmentStatsService whenever an appointment is booked, updated or cancelled.
+// - Rebuilt from the `appointment` table by the backfill job (AppointmentStatsService.backfill).
+// - The specialty is copied from the doctor so that reports can group by it without a join.
+@Entity
+@Table(name = "appointment_daily_stats",
+	uniqueConstraints = @UniqueConstraint(name = "uk_stats_doctor_day_status", columnNames = { "doctor_id", "stats_day", "status" }),
+	indexes = @Index(name = "idx_stats_day", columnList = "stats_day"))
+public class AppointmentDailyStats {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "doctor_id", nullable = false)
+	private Long doctorId;
+
+	@Column(length = 50)
+	private String specialty;
+
+	@Column(name = "stats_day", nullable = false)
+	private LocalDate statsDay;
+
+	@Column(nullable = false)
+	private int status;
+
+	@Column(name = "appointment_count", nullable = false)
+	private long appointmentCount;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public String getSpecialty() {
+		return specialty;
+	}
+
+	public void setSpecialty(String specialty) {
+		this.specialty = specialty;
+	}
+
+	public LocalDate getStatsDay() {
+		return statsDay;
+	}
+
+	public void setStatsDay(LocalDate statsDay) {
+		this.statsDay = statsDay;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public long getAppointmentCount() {
+		return appointmentCount;
+	}
+
+	public void setAppointmentCount(long appointmentCount) {
+		this.appointmentCount = appointmentCount;
+	}
+}
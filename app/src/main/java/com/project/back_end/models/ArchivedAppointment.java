@@ -0,0 +1,89 @@
+package com.project.back_end.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+// Cold tier of the appointments: completed and cancelled appointments older than the archive horizon,
+// moved out of the `appointment` table by AppointmentArchiveService.
+// - Same columns and same id as in `appointment`, so prescriptions keep pointing to their appointment.
+// - Read only: the patient history reads both tiers, bookings and the doctors' days only the hot one.
+@Entity
+@Table(name = "appointment_archive",
+	indexes = {
+		@Index(name = "idx_archive_patient_time", columnList = "patient_id, appointment_time"),
+		@Index(name = "idx_archive_doctor", columnList = "doctor_id")
+	})
+public class ArchivedAppointment {
+
+	@Id
+	private Long id;
+
+	@ManyToOne
+	private Doctor doctor;
+
+	@ManyToOne
+	private Patient patient;
+
+	@Column(name = "appointment_time", nullable = false)
+	private LocalDateTime appointmentTime;
+
+	@Column(nullable = false)
+	private int status;
+
+	@Column(name = "archived_at", nullable = false)
+	private LocalDateTime archivedAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Doctor getDoctor() {
+		return doctor;
+	}
+
+	public void setDoctor(Doctor doctor) {
+		this.doctor = doctor;
+	}
+
+	public Patient getPatient() {
+		return patient;
+	}
+
+	public void setPatient(Patient patient) {
+		this.patient = patient;
+	}
+
+	public LocalDateTime getAppointmentTime() {
+		return appointmentTime;
+	}
+
+	public void setAppointmentTime(LocalDateTime appointmentTime) {
+		this.appointmentTime = appointmentTime;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getArchivedAt() {
+		return archivedAt;
+	}
+
+	public void setArchivedAt(LocalDateTime archivedAt) {
+		this.archivedAt = archivedAt;
+	}
+}
@@ -0,0 +1,85 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// An invalidation published through the database (see DbPollingInvalidationTransport): every node
+// reads the rows past the last id it has seen. Purged after `cache.invalidation.retention-ms`.
+@Entity
+@Table(name = "cache_invalidation",
+	indexes = @Index(name = "idx_cache_invalidation_published", columnList = "published_at"))
+public class CacheInvalidation {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "entity_type", nullable = false, length = 50)
+	private String entityType;
+
+	@Column(name = "entity_id", nullable = false)
+	private long entityId;
+
+	@Column(nullable = false)
+	private long version;
+
+	@Column(nullable = false, length = 100)
+	private String origin;
+
+	// epoch millis
+	@Column(name = "published_at", nullable = false)
+	private long publishedAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(String entityType) {
+		this.entityType = entityType;
+	}
+
+	public long getEntityId() {
+		return entityId;
+	}
+
+	public void setEntityId(long entityId) {
+		this.entityId = entityId;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public String getOrigin() {
+		return origin;
+	}
+
+	public void setOrigin(String origin) {
+		this.origin = origin;
+	}
+
+	public long getPublishedAt() {
+		return publishedAt;
+	}
+
+	public void setPublishedAt(long publishedAt) {
+		this.publishedAt = publishedAt;
+	}
+}
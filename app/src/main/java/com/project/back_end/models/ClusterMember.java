@@ -0,0 +1,47 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// A node of the booking cluster (cluster.enabled=true) and its membership lease (see DbLeaseCoordinator).
+@Entity
+@Table(name = "cluster_member")
+public class ClusterMember {
+
+	@Id
+	@Column(name = "node_id", length = 100)
+	private String nodeId;
+
+	@Column(name = "base_url", nullable = false, length = 255)
+	private String baseUrl;
+
+	// epoch millis
+	@Column(name = "lease_until", nullable = false)
+	private long leaseUntil;
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public void setNodeId(String nodeId) {
+		this.nodeId = nodeId;
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public void setBaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public long getLeaseUntil() {
+		return leaseUntil;
+	}
+
+	public void setLeaseUntil(long leaseUntil) {
+		this.leaseUntil = leaseUntil;
+	}
+}
@@ -1,6 +1,12 @@
 package com.project.back_end.models;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -9,6 +15,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
@@ -19,7 +26,9 @@ import jakarta.validation.constraints.Size;
 //- Marks the class as a JPA entity, meaning it represents a table in the database.
 //- Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
 
+// @DynamicUpdate: an update only writes the columns that changed.
 @Entity
+@DynamicUpdate
 public class Doctor {
 
 // 1. 'id' field:
@@ -92,8 +101,11 @@ public class Doctor {
 //      - Represents the available times for the doctor in a list of time slots.
 //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
 //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
+//      - Mapped as a set, so that a change only inserts or deletes the rows of the slots added or removed,
+//        where a list (bag) is deleted and reinserted entirely; still exposed as a list.
 	@ElementCollection
-	private List<String> availableTimes;
+	@OrderBy
+	private Set<String> availableTimes = new LinkedHashSet<>();
 
 // 8. Getters and Setters:
 //  - Standard getter and setter methods are provided for all fields: id, name, specialty, email, password, phone, and availableTimes.
@@ -139,11 +151,21 @@ public class Doctor {
 	}
 
 	public List<String> getAvailableTimes() {
-		return availableTimes;
+		return availableTimes == null ? null : new ArrayList<>(availableTimes);
 	}
 
 	public void setAvailableTimes(List<String> availableTimes) {
-		this.availableTimes = availableTimes;
+		replaceAvailableTimes(availableTimes == null ? List.of() : availableTimes);
+	}
+
+	// Applies the difference with the current slots to the (possibly persistent) set.
+	public void replaceAvailableTimes(Collection<String> times) {
+		if( availableTimes == null ) {
+			availableTimes = new LinkedHashSet<>();
+		}
+		Set<String> wanted = new LinkedHashSet<>(times);
+		availableTimes.retainAll(wanted);
+		availableTimes.addAll(wanted);
 	}
 
 	public String getSpecialty() {
@@ -0,0 +1,137 @@
+package com.project.back_end.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Progress of a doctor deletion run by DoctorOffboardingService.
+// - The appointments and their prescriptions are deleted in chunks, each chunk committing its progress,
+//   so a job interrupted by a restart resumes where it stopped.
+// - The doctor row itself is deleted last, once no appointment references it anymore.
+@Entity
+@Table(name = "doctor_offboarding_job",
+	indexes = @Index(name = "idx_offboarding_doctor", columnList = "doctor_id"))
+public class DoctorOffboardingJob {
+
+	public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "doctor_id", nullable = false)
+	private Long doctorId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private Status status;
+
+	@Column(name = "total_appointments", nullable = false)
+	private long totalAppointments;
+
+	@Column(name = "appointments_deleted", nullable = false)
+	private long appointmentsDeleted;
+
+	@Column(name = "prescriptions_deleted", nullable = false)
+	private long prescriptionsDeleted;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+
+	@Column(name = "last_error", length = 500)
+	private String lastError;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public long getTotalAppointments() {
+		return totalAppointments;
+	}
+
+	public void setTotalAppointments(long totalAppointments) {
+		this.totalAppointments = totalAppointments;
+	}
+
+	public long getAppointmentsDeleted() {
+		return appointmentsDeleted;
+	}
+
+	public void setAppointmentsDeleted(long appointmentsDeleted) {
+		this.appointmentsDeleted = appointmentsDeleted;
+	}
+
+	public long getPrescriptionsDeleted() {
+		return prescriptionsDeleted;
+	}
+
+	public void setPrescriptionsDeleted(long prescriptionsDeleted) {
+		this.prescriptionsDeleted = prescriptionsDeleted;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(LocalDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public LocalDateTime getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(LocalDateTime finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+}
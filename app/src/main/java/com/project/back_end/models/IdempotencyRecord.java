@@ -0,0 +1,86 @@
+package com.project.back_end.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Shared Idempotency-Key store, used when several instances serve the API (appointments.idempotency.shared=true).
+// - The row is inserted by the instance executing the first request (`status` 0 while in flight).
+// - The response is written once the request is done; the other instances replay it.
+// - Rows are purged once `expiresAt` is past.
+@Entity
+@Table(name = "idempotency_key",
+	indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+	@Id
+	@Column(name = "idempotency_key", length = 200)
+	private String key;
+
+	@Column(nullable = false, length = 64)
+	private String fingerprint;
+
+	@Column(nullable = false)
+	private int status;
+
+	@Column(columnDefinition = "TEXT")
+	private String body;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public void setBody(String body) {
+		this.body = body;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(LocalDateTime expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
@@ -1,8 +1,10 @@
 package com.project.back_end.models;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.back_end.services.PrincipalChangeListener;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -14,7 +16,9 @@ import jakarta.validation.constraints.Size;
 //@Entity annotation:
 //- Marks the class as a JPA entity, meaning it represents a table in the database.
 //- Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+//- A change or deletion drops the cached principal on every node (PrincipalChangeListener).
 @Entity
+@EntityListeners(PrincipalChangeListener.class)
 public class Patient {
 
 // 1. 'id' field:
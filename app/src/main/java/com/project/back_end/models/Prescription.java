@@ -1,16 +1,24 @@
 package com.project.back_end.models;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 //@Document annotation:
 //- Marks the class as a MongoDB document (a collection in MongoDB).
 //- The collection name is specified as "prescriptions" to map this class to the "prescriptions" collection in MongoDB.
-@Entity
+//Indexes (created by the instance running the migrate profile, spring.data.mongodb.auto-index-creation):
+//- patient_timeline: a patient's prescriptions, latest first, read from the index without a sort;
+//- patient_text: text search over medication and doctorNotes within one patient's prescriptions.
+@Document(collection = "prescriptions")
+@CompoundIndex(name = "patient_timeline", def = "{ 'patientId': 1, 'prescribedAt': -1 }")
+@CompoundIndex(name = "patient_text", def = "{ 'patientId': 1, 'medication': 'text', 'doctorNotes': 'text' }")
 public class Prescription {
 
 // 1. 'id' field:
@@ -38,6 +46,7 @@ public class Prescription {
 //      - Represents the ID of the associated appointment where the prescription was given.
 //      - The @NotNull annotation ensures that the appointment ID is required for the prescription.
 	@NotNull
+	@Indexed
 	private Long appointmentId;
 	
 // 4. 'medication' field:
@@ -66,10 +75,24 @@ public class Prescription {
 	@Size( max = 200 )
 	private String doctorNotes;
 
-// 7. Constructors:
+// 7. 'patientId' and 'doctorId' fields:
+//    - Type: private Long
+//    - Description:
+//      - The patient and the doctor of the appointment, set from the appointment when the prescription is saved.
+	private Long patientId;
+
+	private Long doctorId;
+
+// 8. 'prescribedAt' field:
+//    - Type: private LocalDateTime
+//    - Description:
+//      - When the prescription was saved (the appointment time for the prescriptions saved before it existed).
+	private LocalDateTime prescribedAt;
+
+// 9. Constructors:
 //	    - The class includes a no-argument constructor (default constructor) and a parameterized constructor that initializes the fields: patientName, medication, dosage, doctorNotes, and appointmentId.
 
-// 8. Getters and Setters:
+// 10. Getters and Setters:
 //	    - Standard getter and setter methods are provided for all fields: id, patientName, medication, dosage, doctorNotes, and appointmentId.
 //	    - These methods allow access and modification of the fields of the Prescription class.
 
@@ -121,4 +144,28 @@ public class Prescription {
 		this.doctorNotes = doctorNotes;
 	}
 
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDateTime getPrescribedAt() {
+		return prescribedAt;
+	}
+
+	public void setPrescribedAt(LocalDateTime prescribedAt) {
+		this.prescribedAt = prescribedAt;
+	}
+
 }
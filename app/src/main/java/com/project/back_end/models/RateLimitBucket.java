@@ -0,0 +1,36 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Shared rate limit bucket, used when several instances serve the API (ratelimit.shared=true).
+// `tat` is the epoch millisecond at which the bucket is full again (see RateLimiter).
+@Entity
+@Table(name = "rate_limit_bucket")
+public class RateLimitBucket {
+
+	@Id
+	@Column(name = "bucket_key", length = 250)
+	private String key;
+
+	@Column(nullable = false)
+	private long tat;
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public long getTat() {
+		return tat;
+	}
+
+	public void setTat(long tat) {
+		this.tat = tat;
+	}
+}
@@ -0,0 +1,142 @@
+package com.project.back_end.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// A patient waiting for a freed slot of a doctor between two days (see WaitlistService).
+// - WAITING: in the doctor's queue, in registration order (the id).
+// - OFFERED: a freed slot (`offeredTime`) is held for the patient until `offerExpiresAt`; no one else can book it.
+// - BOOKED, EXPIRED (offer not taken in time, or the range is over), CANCELLED (left the waitlist): final.
+@Entity
+@Table(name = "waitlist_entry",
+	indexes = {
+		@Index(name = "idx_waitlist_doctor", columnList = "doctor_id, status"),
+		@Index(name = "idx_waitlist_patient", columnList = "patient_id, status"),
+		@Index(name = "idx_waitlist_offer", columnList = "status, offer_expires_at")
+	})
+public class WaitlistEntry {
+
+	public enum Status { WAITING, OFFERED, BOOKED, EXPIRED, CANCELLED }
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "doctor_id", nullable = false)
+	private Long doctorId;
+
+	@Column(name = "patient_id", nullable = false)
+	private Long patientId;
+
+	@Column(name = "from_date", nullable = false)
+	private LocalDate fromDate;
+
+	@Column(name = "to_date", nullable = false)
+	private LocalDate toDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private Status status;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Column(name = "offered_time")
+	private LocalDateTime offeredTime;
+
+	@Column(name = "offer_expires_at")
+	private LocalDateTime offerExpiresAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public LocalDate getFromDate() {
+		return fromDate;
+	}
+
+	public void setFromDate(LocalDate fromDate) {
+		this.fromDate = fromDate;
+	}
+
+	public LocalDate getToDate() {
+		return toDate;
+	}
+
+	public void setToDate(LocalDate toDate) {
+		this.toDate = toDate;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(LocalDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public LocalDateTime getOfferedTime() {
+		return offeredTime;
+	}
+
+	public void setOfferedTime(LocalDateTime offeredTime) {
+		this.offeredTime = offeredTime;
+	}
+
+	public LocalDateTime getOfferExpiresAt() {
+		return offerExpiresAt;
+	}
+
+	public void setOfferExpiresAt(LocalDateTime offerExpiresAt) {
+		this.offerExpiresAt = offerExpiresAt;
+	}
+}
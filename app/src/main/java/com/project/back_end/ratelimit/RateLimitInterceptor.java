@@ -0,0 +1,74 @@
+package com.project.back_end.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.RateLimitService;
+import com.project.back_end.services.TokenService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Applies the RateLimitService budgets before the controllers: over budget, the request gets a 429
+// with a Retry-After header and never reaches the service layer or the database.
+// The caller is the user of the `{token}` path variable, or the client IP (`server.forward-headers-strategy`
+// decides whether a proxy's X-Forwarded-For is trusted). Bookings forwarded by another cluster node are not counted twice.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	private final RateLimitService rateLimitService;
+	private final TokenService tokenService;
+	private final ClusterService clusterService;
+
+	public RateLimitInterceptor(RateLimitService rateLimitService, TokenService tokenService, ClusterService clusterService) {
+		this.rateLimitService = rateLimitService;
+		this.tokenService = tokenService;
+		this.clusterService = clusterService;
+	}
+
+	@Override
+	public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+			@NonNull Object handler) throws Exception {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		RateLimitService.Rule rule = rateLimitService.match(request.getMethod(), path);
+		if( rule == null || clusterService.isForwarded(request.getHeader(ClusterService.FORWARDED_HEADER)) ) {
+			return true; // a forwarded booking was already counted by the node that received it
+		}
+		long wait = rateLimitService.tryAcquire(rule, caller(request, rule));
+		if( wait == 0 ) {
+			return true;
+		}
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.getWriter().write("{\"success\":false,\"message\":\"Too many requests\"}");
+		return false;
+	}
+
+	private String caller(HttpServletRequest request, RateLimitService.Rule rule) {
+		if( rule.key() == RateLimitProperties.Key.PRINCIPAL ) {
+			@SuppressWarnings("unchecked")
+			Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+			String token = variables == null ? null : variables.get("token");
+			if( token != null ) {
+				try {
+					String email = tokenService.extractEmail(token);
+					if( email != null ) {
+						return "user:" + email;
+					}
+				} catch(Exception e) {
+					// invalid token: limited by IP, the controller rejects it
+				}
+			}
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+}
@@ -0,0 +1,101 @@
+package com.project.back_end.ratelimit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// The `ratelimit.*` properties: one budget per route, e.g.
+//   ratelimit.routes.login.paths=/doctor/login,/admin
+//   ratelimit.routes.login.methods=POST
+//   ratelimit.routes.login.capacity=10
+//   ratelimit.routes.login.per-minute=10
+//   ratelimit.routes.login.key=ip
+@ConfigurationProperties("ratelimit")
+public class RateLimitProperties {
+
+	public enum Key { PRINCIPAL, IP }
+
+	private boolean enabled = true;
+	private boolean shared = false;
+	private Map<String, Route> routes = new LinkedHashMap<>();
+
+	public static class Route {
+		// Spring path patterns, relative to the context path
+		private List<String> paths = new ArrayList<>();
+		// empty for every method
+		private List<String> methods = new ArrayList<>();
+		// the burst a caller may send at once
+		private int capacity = 10;
+		// the sustained rate
+		private double perMinute = 60;
+		// PRINCIPAL: the user of the `{token}` path variable (the IP when there is none)
+		private Key key = Key.PRINCIPAL;
+
+		public List<String> getPaths() {
+			return paths;
+		}
+
+		public void setPaths(List<String> paths) {
+			this.paths = paths;
+		}
+
+		public List<String> getMethods() {
+			return methods;
+		}
+
+		public void setMethods(List<String> methods) {
+			this.methods = methods;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public double getPerMinute() {
+			return perMinute;
+		}
+
+		public void setPerMinute(double perMinute) {
+			this.perMinute = perMinute;
+		}
+
+		public Key getKey() {
+			return key;
+		}
+
+		public void setKey(Key key) {
+			this.key = key;
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isShared() {
+		return shared;
+	}
+
+	public void setShared(boolean shared) {
+		this.shared = shared;
+	}
+
+	public Map<String, Route> getRoutes() {
+		return routes;
+	}
+
+	public void setRoutes(Map<String, Route> routes) {
+		this.routes = routes;
+	}
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process token buckets, one per (rule, caller).
+//
+// Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA): the time at which
+// the bucket would be full again. A request is allowed when that time is at most `tolerance` ahead of
+// now, and pushes it by one emission interval. This is a token bucket of `capacity` tokens refilled
+// one every `interval`, updated with one CAS and no lock; the map only locks on the first request of
+// a caller. Full buckets carry no information and are dropped by `evictIdle`.
+public class RateLimiter {
+
+	private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	// 0 when allowed, otherwise the nanoseconds to wait before a token is available.
+	public long tryAcquire(String bucket, long intervalNanos, int capacity, long nowNanos) {
+		AtomicLong tat = buckets.computeIfAbsent(bucket, k -> new AtomicLong(nowNanos));
+		long tolerance = intervalNanos * (capacity - 1L);
+		for(;;) {
+			long current = tat.get();
+			long start = current - nowNanos < 0 ? nowNanos : current;
+			long wait = start - tolerance - nowNanos;
+			if( wait > 0 ) {
+				return wait;
+			}
+			if( tat.compareAndSet(current, start + intervalNanos) ) {
+				return 0;
+			}
+		}
+	}
+
+	public int evictIdle(long nowNanos) {
+		int before = buckets.size();
+		buckets.values().removeIf(tat -> tat.get() - nowNanos <= 0);
+		return before - buckets.size();
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+}
@@ -0,0 +1,16 @@
+package com.project.back_end.reminders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Default sender until a real channel is configured: only logs the reminder.
+public class LoggingReminderSender implements ReminderSender {
+
+	private final static Logger log = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+	@Override
+	public void send(Reminder reminder) {
+		log.info("Reminder: appointment {} of patient {} with doctor {} at {}",
+				reminder.appointmentId(), reminder.patientId(), reminder.doctorId(), reminder.appointmentTime());
+	}
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.reminders;
+
+import java.time.LocalDateTime;
+
+// A reminder due for an upcoming appointment; only ids, the sender loads what it needs.
+public record Reminder(Long appointmentId, Long doctorId, Long patientId, LocalDateTime appointmentTime) {
+}
@@ -0,0 +1,8 @@
+package com.project.back_end.reminders;
+
+// Delivers the reminders fired by ReminderScheduler (mail, SMS, push...).
+// Called on the scheduler's tick thread: implementations that do slow I/O should hand off to their own executor.
+public interface ReminderSender {
+
+	void send(Reminder reminder);
+}
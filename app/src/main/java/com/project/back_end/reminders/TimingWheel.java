@@ -0,0 +1,156 @@
+package com.project.back_end.reminders;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel (Varghese & Lauck) holding timers keyed by a deadline in milliseconds.
+//
+// Level 0 has `wheelSize` buckets of one tick each, level 1 buckets of `wheelSize` ticks, and so on.
+// A timer goes into the lowest level whose span covers its distance to the current tick; when the
+// wheel enters a higher level bucket, its timers are cascaded down, and the level 0 bucket of the
+// current tick holds exactly the timers that are due. So add and cancel are O(1) (buckets are
+// doubly-linked lists), advancing costs one bucket per tick, and memory is one small node per timer,
+// whatever the number of timers and how far ahead they are (up to wheelSize^levels ticks).
+//
+// Not thread-safe: callers synchronize.
+public class TimingWheel<T> {
+
+	public static final class Timer<T> {
+		private final long deadlineTick;
+		private final T payload;
+		private Timer<T> prev;
+		private Timer<T> next;
+		private Timer<T> bucket; // the bucket's sentinel, null once expired or cancelled
+
+		private Timer(long deadlineTick, T payload) {
+			this.deadlineTick = deadlineTick;
+			this.payload = payload;
+		}
+
+		public T getPayload() {
+			return payload;
+		}
+
+		public boolean isPending() {
+			return bucket != null;
+		}
+	}
+
+	private final long tickMillis;
+	private final int bits;
+	private final int mask;
+	private final int levels;
+	private final Timer<T>[][] buckets;
+	private long currentTick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+		if( tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1 ) {
+			throw new IllegalArgumentException("tick > 0, wheel size a power of 2 and at least one level required");
+		}
+		if( Integer.numberOfTrailingZeros(wheelSize) * levels >= 62 ) {
+			throw new IllegalArgumentException("wheel span too large");
+		}
+		this.tickMillis = tickMillis;
+		this.bits = Integer.numberOfTrailingZeros(wheelSize);
+		this.mask = wheelSize - 1;
+		this.levels = levels;
+		this.buckets = new Timer[levels][wheelSize];
+		for(int level = 0; level < levels; level++) {
+			for(int i = 0; i < wheelSize; i++) {
+				Timer<T> sentinel = new Timer<>(-1, null);
+				sentinel.prev = sentinel;
+				sentinel.next = sentinel;
+				buckets[level][i] = sentinel;
+			}
+		}
+		this.currentTick = startMillis / tickMillis;
+	}
+
+	// Latest deadline accepted, in milliseconds.
+	public long maxDeadline() {
+		return (currentTick + (1L << (bits * levels)) - 1) * tickMillis;
+	}
+
+	// Deadlines already past fire at the next advance. Throws beyond maxDeadline().
+	public Timer<T> add(long deadlineMillis, T payload) {
+		long tick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick + 1);
+		if( tick - currentTick >= (1L << (bits * levels)) ) {
+			throw new IllegalArgumentException("deadline beyond the wheel span");
+		}
+		Timer<T> timer = new Timer<>(tick, payload);
+		place(timer);
+		size++;
+		return timer;
+	}
+
+	public boolean cancel(Timer<T> timer) {
+		if( timer == null || timer.bucket == null ) {
+			return false;
+		}
+		unlink(timer);
+		size--;
+		return true;
+	}
+
+	// Moves the wheel to `nowMillis`, handing every due timer to `expired` in deadline order.
+	public int advance(long nowMillis, Consumer<T> expired) {
+		long target = Math.floorDiv(nowMillis, tickMillis);
+		int fired = 0;
+		while( currentTick < target ) {
+			currentTick++;
+			for(int level = levels - 1; level > 0; level--) {
+				if( (currentTick & ((1L << (bits * level)) - 1)) == 0 ) {
+					cascade(buckets[level][(int) ((currentTick >>> (bits * level)) & mask)]);
+				}
+			}
+			Timer<T> sentinel = buckets[0][(int) (currentTick & mask)];
+			while( sentinel.next != sentinel ) {
+				Timer<T> timer = sentinel.next;
+				unlink(timer);
+				size--;
+				fired++;
+				expired.accept(timer.payload);
+			}
+		}
+		return fired;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long currentMillis() {
+		return currentTick * tickMillis;
+	}
+
+	private void cascade(Timer<T> sentinel) {
+		while( sentinel.next != sentinel ) {
+			Timer<T> timer = sentinel.next;
+			unlink(timer);
+			place(timer);
+		}
+	}
+
+	private void place(Timer<T> timer) {
+		long delta = Math.max(timer.deadlineTick - currentTick, 0);
+		int level = 0;
+		while( level < levels - 1 && delta >= (1L << (bits * (level + 1))) ) {
+			level++;
+		}
+		Timer<T> sentinel = buckets[level][(int) ((timer.deadlineTick >>> (bits * level)) & mask)];
+		timer.bucket = sentinel;
+		timer.prev = sentinel.prev;
+		timer.next = sentinel;
+		sentinel.prev.next = timer;
+		sentinel.prev = timer;
+	}
+
+	private void unlink(Timer<T> timer) {
+		timer.prev.next = timer.next;
+		timer.next.prev = timer.prev;
+		timer.prev = null;
+		timer.next = null;
+		timer.bucket = null;
+	}
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.ArchivedAppointment;
+
+@Repository
+public interface AppointmentArchiveRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+	// Copies a chunk of appointments to the archive, keeping their ids.
+	@Modifying
+	@Transactional
+	@Query(value = "insert into appointment_archive (id, doctor_id, patient_id, appointment_time, status, archived_at) "
+			+ "select id, doctor_id, patient_id, appointment_time, status, :now from appointment "
+			+ "where id in :ids and status in :statuses and appointment_time < :before", nativeQuery = true)
+	public int copyFromAppointments(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<Integer> statuses,
+			@Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
+	@Transactional(readOnly = true)
+	public List<ArchivedAppointment> findByPatientIdOrderByAppointmentTimeDesc(Long patientId);
+
+	@Transactional(readOnly = true)
+	public List<ArchivedAppointment> findByPatientIdAndStatusOrderByAppointmentTimeDesc(Long patientId, int status);
+
+	@Query("select a.id from ArchivedAppointment a where a.doctor.id = :doctorId order by a.id")
+	public List<Long> findIdsByDoctorId(@Param("doctorId") Long doctorId, Pageable page);
+
+	@Modifying
+	@Transactional
+	@Query("delete from ArchivedAppointment a where a.id in :ids")
+	public int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	public long countByDoctorId(Long doctorId);
+
+	// the same as AppointmentRepository.findPrescriptionOwners, for the archived appointments
+	@Transactional(readOnly = true)
+	@Query("select a.id, a.patient.id, a.doctor.id, a.appointmentTime from ArchivedAppointment a where a.id in :ids")
+	public List<Object[]> findPrescriptionOwners(@Param("ids") Collection<Long> ids);
+}
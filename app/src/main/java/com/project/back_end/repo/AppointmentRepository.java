@@ -1,15 +1,22 @@
 package com.project.back_end.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.project.back_end.models.Appointment;
+import com.project.back_end.reminders.Reminder;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.QueryHint;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long>  {
 
@@ -24,21 +31,25 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
 //    - **findByDoctorIdAndAppointmentTimeBetween**:
 //      - This method retrieves a list of appointments for a specific doctor within a given time range.
-//      - The doctor’s available times are eagerly fetched to avoid lazy loading.
+//      - The patients are fetched in the same query (the daily schedule rows), in time order.
 //      - Return type: List<Appointment>
 //      - Parameters: Long doctorId, LocalDateTime start, LocalDateTime end
-//      - It uses a LEFT JOIN to fetch the doctor’s available times along with the appointments.
 
-	@Query("select a from appointment left join fetch doctor, availability")
-	public List<Appointment> findByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+	@Query("select a from Appointment a join fetch a.patient where a.doctor.id = :doctorId"
+			+ " and a.appointmentTime between :start and :end order by a.appointmentTime")
+	public List<Appointment> findByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId,
+			@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 	
 //    - **findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween**:
 //      - This method retrieves appointments for a specific doctor and patient name (ignoring case) within a given time range.
-//      - It performs a LEFT JOIN to fetch both the doctor and patient details along with the appointment times.
+//      - The patients are fetched in the same query, in time order.
 //      - Return type: List<Appointment>
 //      - Parameters: Long doctorId, String patientName, LocalDateTime start, LocalDateTime end
-	@Query("select a from appointment left join fetch doctor, patient")
-	public List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(Long doctorId, String patientName, LocalDateTime start, LocalDateTime end);
+	@Query("select a from Appointment a join fetch a.patient p where a.doctor.id = :doctorId"
+			+ " and lower(p.name) like lower(concat('%', :patientName, '%'))"
+			+ " and a.appointmentTime between :start and :end order by a.appointmentTime")
+	public List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(@Param("doctorId") Long doctorId,
+			@Param("patientName") String patientName, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 	
 //    - **deleteAllByDoctorId**:
 //      - This method deletes all appointments associated with a particular doctor.
@@ -48,12 +59,106 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 	@Modifying
 	@Transactional
 	public void deleteAllByDoctorId(Long Id);
+
+//    - **findIdsByDoctorId** / **deleteByIdIn** / **countByDoctorId**:
+//      - Used by the doctor offboarding job to delete a doctor's appointments in chunks:
+//        the next ids (lowest first), then a single bulk `delete ... where id in (...)` without loading the entities.
+	@Query("select a.id from Appointment a where a.doctor.id = :doctorId order by a.id")
+	public List<Long> findIdsByDoctorId(@Param("doctorId") Long doctorId, Pageable page);
+
+	@Modifying
+	@Transactional
+	@Query("delete from Appointment a where a.id in :ids")
+	public int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	public long countByDoctorId(Long doctorId);
+
+//    - **findEventSnapshots**:
+//      - The id, patient id, time and status of appointments about to be bulk deleted, for their CANCELLED events.
+	@Query("select a.id, a.patient.id, a.appointmentTime, a.status from Appointment a where a.id in :ids order by a.id")
+	public List<Object[]> findEventSnapshots(@Param("ids") Collection<Long> ids);
+
+//    - **findArchivableIds** / **findByPatientIdOrderByAppointmentTimeDesc**:
+//      - The next appointments (lowest ids first) with one of the given statuses that took place before a date, for the archive job.
+//      - A patient's appointments still in the hot table, latest first, for the patient history.
+	@Query("select a.id from Appointment a where a.status in :statuses and a.appointmentTime < :before order by a.id")
+	public List<Long> findArchivableIds(@Param("statuses") Collection<Integer> statuses, @Param("before") LocalDateTime before, Pageable page);
+
+//    - **deleteArchivedByIdIn**:
+//      - Deletes the copied rows, with the same conditions as the copy: a row rescheduled or reopened since it was selected stays.
+	@Modifying
+	@Transactional
+	@Query("delete from Appointment a where a.id in :ids and a.status in :statuses and a.appointmentTime < :before")
+	public int deleteArchivedByIdIn(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<Integer> statuses,
+			@Param("before") LocalDateTime before);
+
+	public List<Appointment> findByPatientIdOrderByAppointmentTimeDesc(Long patientId);
+
+//    - **findReminders**:
+//      - The scheduled appointments in (from, to], as reminders (ids and time only), for the reminder scheduler.
+	@Query("select new com.project.back_end.reminders.Reminder(a.id, a.doctor.id, a.patient.id, a.appointmentTime) "
+			+ "from Appointment a where a.status = 0 and a.appointmentTime > :from and a.appointmentTime <= :to")
+	public List<Reminder> findReminders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+//    - **findPrescriptionOwners**:
+//      - (id, patient id, doctor id, appointment time) of the given appointments, for the prescriptions written for them.
+	@Query("select a.id, a.patient.id, a.doctor.id, a.appointmentTime from Appointment a where a.id in :ids")
+	public List<Object[]> findPrescriptionOwners(@Param("ids") Collection<Long> ids);
+
+//    - **streamDoctorCalendar** / **streamPatientCalendar**:
+//      - (id, appointment time, status, updated at, name, detail) of the appointments from a time on, in time order,
+//        for the iCalendar feeds: the patient's name and phone for a doctor, the doctor's name and specialty for a patient.
+//      - Streamed from the server (MySQL streams a result set with the fetch size Integer.MIN_VALUE):
+//        to be consumed, and closed, inside a transaction.
+//    - **doctorCalendarVersion** / **patientCalendarVersion**: (count, max updated at) of the same rows, for the feeds' ETag.
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+	@Query("select a.id, a.appointmentTime, a.status, a.updatedAt, p.name, p.phone from Appointment a join a.patient p "
+			+ "where a.doctor.id = :doctorId and a.appointmentTime >= :from order by a.appointmentTime")
+	public Stream<Object[]> streamDoctorCalendar(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+	@Query("select a.id, a.appointmentTime, a.status, a.updatedAt, d.name, d.specialty from Appointment a join a.doctor d "
+			+ "where a.patient.id = :patientId and a.appointmentTime >= :from order by a.appointmentTime")
+	public Stream<Object[]> streamPatientCalendar(@Param("patientId") Long patientId, @Param("from") LocalDateTime from);
+
+	@Query("select count(a), max(a.updatedAt) from Appointment a where a.doctor.id = :doctorId and a.appointmentTime >= :from")
+	public List<Object[]> doctorCalendarVersion(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from);
+
+	@Query("select count(a), max(a.updatedAt) from Appointment a where a.patient.id = :patientId and a.appointmentTime >= :from")
+	public List<Object[]> patientCalendarVersion(@Param("patientId") Long patientId, @Param("from") LocalDateTime from);
+
+//    - **findBookedTimes**:
+//      - (doctor id, appointment time) of every appointment from a date on, for the slot search index.
+//      - findBookedTimesOfDoctor: the same for one doctor, when another node changed their bookings.
+	@Query("select a.doctor.id, a.appointmentTime from Appointment a where a.appointmentTime >= :from and a.status <> 2")
+	public List<Object[]> findBookedTimes(@Param("from") LocalDateTime from);
+
+	@Query("select a.appointmentTime from Appointment a where a.doctor.id = :doctorId and a.appointmentTime >= :from and a.status <> 2")
+	public List<LocalDateTime> findBookedTimesOfDoctor(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from);
+	
+//    - **lockStatusRows** / **updateStatus**:
+//      - (id, patient id, appointment time, status) of the given appointments of a doctor, locked until the end of the transaction.
+//      - Sets the status of the given appointments in one statement; only the doctor's own appointments, and only those with another status.
+	@Query(value = "select id, patient_id, appointment_time, status from appointment "
+			+ "where id in :ids and doctor_id = :doctorId for update", nativeQuery = true)
+	public List<Object[]> lockStatusRows(@Param("ids") Collection<Long> ids, @Param("doctorId") Long doctorId);
+
+	@Modifying
+	@Query("update Appointment a set a.status = :status, a.updatedAt = :now where a.id in :ids and a.doctor.id = :doctorId and a.status <> :status")
+	public int updateStatus(@Param("ids") Collection<Long> ids, @Param("doctorId") Long doctorId, @Param("status") int status,
+			@Param("now") LocalDateTime now);
+	
+//    - **existsByDoctorIdAndAppointmentTimeAndStatusNot(AndIdNot)**:
+//      - Whether an appointment (not cancelled), other than the given one when it is moved, takes a doctor's slot.
+	public boolean existsByDoctorIdAndAppointmentTimeAndStatusNotAndIdNot(Long doctorId, LocalDateTime appointmentTime, int status, Long id);
+
+	public boolean existsByDoctorIdAndAppointmentTimeAndStatusNot(Long doctorId, LocalDateTime appointmentTime, int status);
 	
 //    - **findByPatientId**:
 //      - This method retrieves all appointments for a specific patient.
 //      - Return type: List<Appointment>
 //      - Parameters: Long patientId
-	public List<Appointment> findByPatientId(Long patientId, int status);
+	public List<Appointment> findByPatientId(Long patientId);
 	
 //    - **findByPatient_IdAndStatusOrderByAppointmentTimeAsc**:
 //      - This method retrieves all appointments for a specific patient with a given status, ordered by the appointment time.
@@ -65,14 +170,18 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 //      - This method retrieves appointments based on a doctor’s name (using a LIKE query) and the patient’s ID.
 //      - Return type: List<Appointment>
 //      - Parameters: String doctorName, Long patientId
-	@Query("select a from appointment left join fetch doctor, availability")
-	public List<Appointment> filterByDoctorNameAndPatientId(String doctorName,  Long patientId);
+	@Query("select a from Appointment a join fetch a.doctor d where lower(d.name) like lower(concat('%', :doctorName, '%'))"
+			+ " and a.patient.id = :patientId order by a.appointmentTime")
+	public List<Appointment> filterByDoctorNameAndPatientId(@Param("doctorName") String doctorName, @Param("patientId") Long patientId);
 	
 //    - **filterByDoctorNameAndPatientIdAndStatus**:
 //      - This method retrieves appointments based on a doctor’s name (using a LIKE query), patient’s ID, and a specific appointment status.
 //      - Return type: List<Appointment>
 //      - Parameters: String doctorName, Long patientId, int status
-	public List<Appointment> filterByDoctorNameAndPatientIdAndStatus(String doctorName, Long patientId, int status);
+	@Query("select a from Appointment a join fetch a.doctor d where lower(d.name) like lower(concat('%', :doctorName, '%'))"
+			+ " and a.patient.id = :patientId and a.status = :status order by a.appointmentTime")
+	public List<Appointment> filterByDoctorNameAndPatientIdAndStatus(@Param("doctorName") String doctorName,
+			@Param("patientId") Long patientId, @Param("status") int status);
 	
 //    - **updateStatus**:
 //      - This method updates the status of a specific appointment based on its ID.
@@ -0,0 +1,81 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.DTO.MonthlyAppointmentStats;
+import com.project.back_end.models.AppointmentDailyStats;
+
+@Repository
+public interface AppointmentStatsRepository extends JpaRepository<AppointmentDailyStats, Long> {
+
+	// Adds `delta` to the counter of one (doctor, day, status) bucket, creating it if needed.
+	// A single statement, so concurrent bookings on the same bucket do not lose updates.
+	@Modifying
+	@Transactional
+	@Query(value = "insert into appointment_daily_stats (doctor_id, specialty, stats_day, status, appointment_count) "
+			+ "values (:doctorId, :specialty, :day, :status, :delta) "
+			+ "on duplicate key update appointment_count = appointment_count + :delta", nativeQuery = true)
+	public int increment(@Param("doctorId") Long doctorId, @Param("specialty") String specialty,
+			@Param("day") LocalDate day, @Param("status") int status, @Param("delta") long delta);
+
+	@Modifying
+	@Transactional
+	@Query(value = "delete from appointment_daily_stats where stats_day >= :from and stats_day < :to", nativeQuery = true)
+	public int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	// Recomputes the buckets of [from, to) from both appointment tiers (hot table and archive).
+	@Modifying
+	@Transactional
+	@Query(value = "insert into appointment_daily_stats (doctor_id, specialty, stats_day, status, appointment_count) "
+			+ "select a.doctor_id, d.specialty, date(a.appointment_time), a.status, count(*) "
+			+ "from (select doctor_id, appointment_time, status from appointment "
+			+ "where appointment_time >= :from and appointment_time < :to "
+			+ "union all select doctor_id, appointment_time, status from appointment_archive "
+			+ "where appointment_time >= :from and appointment_time < :to) a "
+			+ "join doctor d on d.id = a.doctor_id "
+			+ "group by a.doctor_id, d.specialty, date(a.appointment_time), a.status", nativeQuery = true)
+	public int aggregateAppointments(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+	@Modifying
+	@Transactional
+	@Query(value = "delete from appointment_daily_stats where doctor_id = :doctorId", nativeQuery = true)
+	public int deleteDoctor(@Param("doctorId") Long doctorId);
+
+	@Transactional(readOnly = true)
+	@Query(value = "select min(t) from (select min(appointment_time) t from appointment "
+			+ "union all select min(appointment_time) from appointment_archive) x", nativeQuery = true)
+	public LocalDateTime findFirstAppointmentTime();
+
+	@Transactional(readOnly = true)
+	@Query(value = "select max(t) from (select max(appointment_time) t from appointment "
+			+ "union all select max(appointment_time) from appointment_archive) x", nativeQuery = true)
+	public LocalDateTime findLastAppointmentTime();
+
+	@Transactional(readOnly = true)
+	@Query("select new com.project.back_end.DTO.MonthlyAppointmentStats(year(s.statsDay), month(s.statsDay), sum(s.appointmentCount)) "
+			+ "from AppointmentDailyStats s where s.statsDay between :from and :to "
+			+ "group by year(s.statsDay), month(s.statsDay) order by year(s.statsDay), month(s.statsDay)")
+	public List<MonthlyAppointmentStats> findMonthly(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	@Transactional(readOnly = true)
+	@Query("select new com.project.back_end.DTO.MonthlyAppointmentStats(year(s.statsDay), month(s.statsDay), sum(s.appointmentCount)) "
+			+ "from AppointmentDailyStats s where s.statsDay between :from and :to and lower(s.specialty) = lower(:specialty) "
+			+ "group by year(s.statsDay), month(s.statsDay) order by year(s.statsDay), month(s.statsDay)")
+	public List<MonthlyAppointmentStats> findMonthlyBySpecialty(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("specialty") String specialty);
+
+	@Transactional(readOnly = true)
+	public List<AppointmentDailyStats> findByStatsDayBetweenOrderByStatsDayAsc(LocalDate from, LocalDate to);
+
+	@Transactional(readOnly = true)
+	public List<AppointmentDailyStats> findByDoctorIdAndStatsDayBetweenOrderByStatsDayAsc(Long doctorId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.CacheInvalidation;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+	@Query("select max(i.id) from CacheInvalidation i")
+	public Long findMaxId();
+
+	public List<CacheInvalidation> findTop500ByIdGreaterThanOrderByIdAsc(long id);
+
+	public List<CacheInvalidation> findByIdIn(Collection<Long> ids);
+
+	@Modifying
+	@Transactional
+	@Query(value = "delete from cache_invalidation where published_at < :before limit :limit", nativeQuery = true)
+	public int deletePublishedBefore(@Param("before") long before, @Param("limit") int limit);
+}
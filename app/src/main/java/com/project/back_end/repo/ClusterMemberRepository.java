@@ -0,0 +1,29 @@
+package com.project.back_end.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.ClusterMember;
+
+@Repository
+public interface ClusterMemberRepository extends JpaRepository<ClusterMember, String> {
+
+	@Modifying
+	@Transactional
+	@Query(value = "insert into cluster_member (node_id, base_url, lease_until) values (:nodeId, :baseUrl, :leaseUntil) "
+			+ "on duplicate key update base_url = :baseUrl, lease_until = :leaseUntil", nativeQuery = true)
+	public int renew(@Param("nodeId") String nodeId, @Param("baseUrl") String baseUrl, @Param("leaseUntil") long leaseUntil);
+
+	public List<ClusterMember> findByLeaseUntilGreaterThanOrderByNodeIdAsc(long now);
+
+	@Modifying
+	@Transactional
+	@Query(value = "delete from cluster_member where lease_until < :before", nativeQuery = true)
+	public int deleteExpired(@Param("before") long before);
+}
@@ -0,0 +1,19 @@
+package com.project.back_end.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.DoctorOffboardingJob;
+
+@Repository
+public interface DoctorOffboardingJobRepository extends JpaRepository<DoctorOffboardingJob, Long> {
+
+	public List<DoctorOffboardingJob> findByStatusInOrderByIdAsc(Collection<DoctorOffboardingJob.Status> statuses);
+
+	public DoctorOffboardingJob findFirstByDoctorIdAndStatusIn(Long doctorId, Collection<DoctorOffboardingJob.Status> statuses);
+
+	public DoctorOffboardingJob findFirstByDoctorIdOrderByIdDesc(Long doctorId);
+}
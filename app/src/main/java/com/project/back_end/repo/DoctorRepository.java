@@ -3,6 +3,8 @@ package com.project.back_end.repo;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Doctor;
@@ -49,4 +51,11 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 //    - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
 
-}
\ No newline at end of file
+//    - **findAllWithAvailableTimes**:
+//      - All doctors with their available times loaded in the same query, for the slot search index.
+	@Query("select distinct d from Doctor d left join fetch d.availableTimes")
+	public List<Doctor> findAllWithAvailableTimes();
+
+	@Query("select distinct d from Doctor d left join fetch d.availableTimes where d.id = :id")
+	public Doctor findWithAvailableTimes(@Param("id") Long id);
+}
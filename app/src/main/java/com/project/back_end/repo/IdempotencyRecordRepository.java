@@ -0,0 +1,35 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+	// 1 when this instance claimed the key, 0 when another request already has it.
+	@Modifying
+	@Transactional
+	@Query(value = "insert ignore into idempotency_key (idempotency_key, fingerprint, status, created_at, expires_at) "
+			+ "values (:key, :fingerprint, 0, :now, :expiresAt)", nativeQuery = true)
+	public int claim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+			@Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+	@Modifying
+	@Transactional
+	@Query("update IdempotencyRecord r set r.status = :status, r.body = :body where r.key = :key")
+	public int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+	// Expired keys, and keys whose request never completed (instance crash), so they can be retried.
+	@Modifying
+	@Transactional
+	@Query(value = "delete from idempotency_key where expires_at < :now or (status = 0 and created_at < :stale) limit :limit", nativeQuery = true)
+	public int deleteExpired(@Param("now") LocalDateTime now, @Param("stale") LocalDateTime stale, @Param("limit") int limit);
+}
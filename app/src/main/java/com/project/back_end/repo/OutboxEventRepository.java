@@ -0,0 +1,42 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	// The next events to dispatch, oldest first. The rows stay locked until the relay's transaction
+	// ends, and rows locked by another instance's relay are skipped instead of waited for.
+	// An event waits while an earlier event of the same appointment is waiting for a retry, so the
+	// events of one appointment are delivered in order.
+	@Query(value = "select * from outbox_event e where e.published_at is null "
+			+ "and (e.next_attempt_at is null or e.next_attempt_at <= :now) "
+			+ "and not exists (select 1 from outbox_event p where p.aggregate_id = e.aggregate_id "
+			+ "and p.published_at is null and p.next_attempt_at is not null and p.id < e.id) "
+			+ "order by e.id limit :limit for update skip locked", nativeQuery = true)
+	public List<OutboxEvent> claimBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+	@Transactional(readOnly = true)
+	@Query("select count(e) from OutboxEvent e where e.publishedAt is null")
+	public long countPending();
+
+	@Transactional(readOnly = true)
+	@Query("select min(e.createdAt) from OutboxEvent e where e.publishedAt is null")
+	public LocalDateTime findOldestPending();
+
+	// Purges dispatched events, `limit` rows at a time to keep the delete short.
+	@Modifying
+	@Transactional
+	@Query(value = "delete from outbox_event where published_at is not null and published_at < :before limit :limit", nativeQuery = true)
+	public int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
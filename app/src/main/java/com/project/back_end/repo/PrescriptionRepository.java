@@ -1,7 +1,12 @@
 package com.project.back_end.repo;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.project.back_end.models.Prescription;
@@ -23,6 +28,22 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
 //      - Parameters: Long appointmentId
 //      - MongoRepository automatically derives the query from the method name, in this case, it will find prescriptions by the appointment ID.
 
+//    - **deleteByAppointmentIdIn**:
+	public long deleteByAppointmentIdIn(Collection<Long> appointmentIds);
+//      - Removes the prescriptions of a chunk of appointments with a single `deleteMany` and returns how many were removed.
+
+//    - **findByPatientIdOrderByPrescribedAtDesc**:
+	public Slice<Prescription> findByPatientIdOrderByPrescribedAtDesc(Long patientId, Pageable page);
+//      - A page of a patient's medication timeline, latest first, from the `patient_timeline` index.
+//      - A Slice: no count query, the next page is known from one extra document.
+
+	public Slice<Prescription> findByPatientIdOrderByPrescribedAtDesc(Long patientId, TextCriteria text, Pageable page);
+//      - The same, restricted to the prescriptions whose medication or notes match the text (`patient_text` index).
+
+//    - **findByPatientIdAndPrescribedAtAfter**:
+	public List<Prescription> findByPatientIdAndPrescribedAtAfter(Long patientId, LocalDateTime since);
+//      - A patient's prescriptions since a time (the active ones, for the interaction check), from the `patient_timeline` index.
+
 
 }
 
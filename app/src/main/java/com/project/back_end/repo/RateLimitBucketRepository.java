@@ -0,0 +1,34 @@
+package com.project.back_end.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.RateLimitBucket;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+	// The same GCRA step as RateLimiter, in one statement: 1 when allowed, 0 when over the budget
+	// or when the bucket does not exist yet (see `create`).
+	@Modifying
+	@Transactional
+	@Query(value = "update rate_limit_bucket set tat = greatest(tat, :now) + :interval "
+			+ "where bucket_key = :key and greatest(tat, :now) - :now <= :tolerance", nativeQuery = true)
+	public int tryAcquire(@Param("key") String key, @Param("now") long now,
+			@Param("interval") long interval, @Param("tolerance") long tolerance);
+
+	@Modifying
+	@Transactional
+	@Query(value = "insert ignore into rate_limit_bucket (bucket_key, tat) values (:key, :now)", nativeQuery = true)
+	public int create(@Param("key") String key, @Param("now") long now);
+
+	// Full buckets carry no information.
+	@Modifying
+	@Transactional
+	@Query(value = "delete from rate_limit_bucket where tat < :now limit :limit", nativeQuery = true)
+	public int deleteIdle(@Param("now") long now, @Param("limit") int limit);
+}
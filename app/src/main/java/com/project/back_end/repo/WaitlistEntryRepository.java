@@ -0,0 +1,63 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.models.WaitlistEntry.Status;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+	// The waiting entries whose range is not over, to build the in-memory queues (all doctors, or one).
+	public List<WaitlistEntry> findByStatusAndToDateGreaterThanEqual(Status status, LocalDate today);
+
+	public List<WaitlistEntry> findByDoctorIdAndStatusAndToDateGreaterThanEqual(Long doctorId, Status status, LocalDate today);
+
+	public List<WaitlistEntry> findByPatientIdAndStatusInOrderByIdAsc(Long patientId, Collection<Status> statuses);
+
+	public long countByPatientIdAndStatusIn(Long patientId, Collection<Status> statuses);
+
+	public boolean existsByDoctorIdAndPatientIdAndStatusIn(Long doctorId, Long patientId, Collection<Status> statuses);
+
+	public List<WaitlistEntry> findByStatusAndOfferExpiresAtLessThanEqual(Status status, LocalDateTime now);
+
+	// Whether this slot is held by an offer that has not expired, for another patient than `patientId` (null: any patient).
+	@Query("select count(w) > 0 from WaitlistEntry w where w.doctorId = :doctorId and w.status = :offered "
+			+ "and w.offeredTime = :time and w.offerExpiresAt > :now and (:patientId is null or w.patientId <> :patientId)")
+	public boolean existsHold(@Param("doctorId") Long doctorId, @Param("time") LocalDateTime time, @Param("now") LocalDateTime now,
+			@Param("patientId") Long patientId, @Param("offered") Status offered);
+
+	// The state changes are conditional on the current status: the node (or request) that gets 1 made it.
+	@Modifying
+	@Transactional
+	@Query("update WaitlistEntry w set w.status = :offered, w.offeredTime = :time, w.offerExpiresAt = :expiresAt, w.updatedAt = :now "
+			+ "where w.id = :id and w.status = :waiting")
+	public int offer(@Param("id") Long id, @Param("time") LocalDateTime time, @Param("expiresAt") LocalDateTime expiresAt,
+			@Param("now") LocalDateTime now, @Param("waiting") Status waiting, @Param("offered") Status offered);
+
+	@Modifying
+	@Transactional
+	@Query("update WaitlistEntry w set w.status = :to, w.updatedAt = :now where w.id = :id and w.status = :from")
+	public int transition(@Param("id") Long id, @Param("from") Status from, @Param("to") Status to, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Transactional
+	@Query("update WaitlistEntry w set w.status = :to, w.updatedAt = :now where w.doctorId = :doctorId and w.status in :from")
+	public int closeDoctor(@Param("doctorId") Long doctorId, @Param("from") Collection<Status> from, @Param("to") Status to,
+			@Param("now") LocalDateTime now);
+
+	@Modifying
+	@Transactional
+	@Query("update WaitlistEntry w set w.status = :to, w.updatedAt = :now where w.status = :from and w.toDate < :today")
+	public int expireEnded(@Param("today") LocalDate today, @Param("from") Status from, @Param("to") Status to, @Param("now") LocalDateTime now);
+}
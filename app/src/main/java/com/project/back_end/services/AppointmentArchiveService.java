@@ -0,0 +1,128 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.HistoryEntry;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ArchivedAppointment;
+import com.project.back_end.repo.AppointmentArchiveRepository;
+import com.project.back_end.repo.AppointmentRepository;
+
+// Hot/cold split of the appointments.
+// - The `appointment` table only keeps what bookings and the doctors' days need: upcoming appointments
+//   and the recent past. Completed (1) and cancelled (2) appointments older than `horizon-days` are
+//   moved to `appointment_archive` every night, `chunk-size` rows per short transaction
+//   (copy + bulk delete by id), so the hot table and its indexes stay small enough to remain in memory.
+// - Only past appointments are moved: the horizon never reaches into today, and the copy and the delete repeat
+//   the status and time conditions. Scheduled (0) and upcoming appointments always stay, so moving a row
+//   needs no outbox event: no reminder, dashboard, slot or waitlist refers to it anymore.
+// - The patient history reads both tiers and merges them; the ids are kept so prescriptions still match.
+// - The statistics aggregate is unaffected (the move does not change any count) and its backfill reads both tiers.
+@Service
+public class AppointmentArchiveService {
+
+	private final static Logger log = LoggerFactory.getLogger(AppointmentArchiveService.class);
+	private final static List<Integer> ARCHIVED_STATUSES = List.of(1, 2);
+
+	private final AppointmentRepository appointmentRepository;
+	private final AppointmentArchiveRepository archiveRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int horizonDays;
+	private final int chunkSize;
+	private final AtomicBoolean archiving = new AtomicBoolean();
+
+	public AppointmentArchiveService(AppointmentRepository appointmentRepository,
+			AppointmentArchiveRepository archiveRepository,
+			TransactionTemplate transactionTemplate,
+			@Value("${appointments.archive.horizon-days:90}") int horizonDays,
+			@Value("${appointments.archive.chunk-size:1000}") int chunkSize) {
+		this.appointmentRepository = appointmentRepository;
+		this.archiveRepository = archiveRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.horizonDays = horizonDays;
+		this.chunkSize = chunkSize;
+	}
+
+	@Scheduled(cron = "${appointments.archive.cron:0 0 2 * * *}")
+	public void scheduledArchive() {
+		archive();
+	}
+
+	// Moves the completed/cancelled appointments older than the horizon to the archive.
+	public Map<String, Object> archive() {
+		if( !archiving.compareAndSet(false, true) ) {
+			return Map.of("success", false, "message", "Archival already running");
+		}
+		try {
+			LocalDateTime before = LocalDateTime.now().minusDays(horizonDays);
+			LocalDateTime today = LocalDate.now().atStartOfDay();
+			if( before.isAfter(today) ) {
+				before = today;
+			}
+			LocalDateTime cutoff = before;
+			long moved = 0;
+			int chunks = 0;
+			for(;;) {
+				List<Long> ids = appointmentRepository.findArchivableIds(ARCHIVED_STATUSES, cutoff, PageRequest.of(0, chunkSize));
+				if( ids.isEmpty() ) {
+					break;
+				}
+				Integer n = transactionTemplate.execute(status -> {
+					archiveRepository.copyFromAppointments(ids, ARCHIVED_STATUSES, cutoff, LocalDateTime.now());
+					return appointmentRepository.deleteArchivedByIdIn(ids, ARCHIVED_STATUSES, cutoff);
+				});
+				moved += n == null ? 0 : n;
+				chunks++;
+			}
+			log.info("Archived {} appointments older than {} in {} chunks", moved, before, chunks);
+			return Map.of("success", true, "before", before.toString(), "archived", moved, "chunks", chunks);
+		} finally {
+			archiving.set(false);
+		}
+	}
+
+	// All the appointments of a patient, hot and archived, latest first.
+	@Transactional(readOnly = true)
+	public List<HistoryEntry> getPatientHistory(Long patientId) {
+		List<HistoryEntry> history = new ArrayList<>();
+		for(Appointment a : appointmentRepository.findByPatientIdOrderByAppointmentTimeDesc(patientId)) {
+			history.add(HistoryEntry.of(a.getId(), a.getDoctor(), a.getPatient(), a.getAppointmentTime(), a.getStatus()));
+		}
+		for(ArchivedAppointment a : archiveRepository.findByPatientIdOrderByAppointmentTimeDesc(patientId)) {
+			history.add(HistoryEntry.of(a.getId(), a.getDoctor(), a.getPatient(), a.getAppointmentTime(), a.getStatus()));
+		}
+		history.sort(Comparator.comparing(HistoryEntry::appointmentTime).reversed());
+		return history;
+	}
+
+	// The patient's appointments with a given status, hot and archived, latest first.
+	@Transactional(readOnly = true)
+	public List<HistoryEntry> getPatientHistory(Long patientId, int status) {
+		List<HistoryEntry> history = new ArrayList<>();
+		for(Appointment a : appointmentRepository.findByPatientIdAndStatusOrderByAppointmentTimeAsc(patientId, status)) {
+			history.add(HistoryEntry.of(a.getId(), a.getDoctor(), a.getPatient(), a.getAppointmentTime(), a.getStatus()));
+		}
+		if( ARCHIVED_STATUSES.contains(status) ) {
+			for(ArchivedAppointment a : archiveRepository.findByPatientIdAndStatusOrderByAppointmentTimeDesc(patientId, status)) {
+				history.add(HistoryEntry.of(a.getId(), a.getDoctor(), a.getPatient(), a.getAppointmentTime(), a.getStatus()));
+			}
+		}
+		history.sort(Comparator.comparing(HistoryEntry::appointmentTime).reversed());
+		return history;
+	}
+}
@@ -1,26 +1,35 @@
 package com.project.back_end.services;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.AppointmentPatch;
+import com.project.back_end.DTO.ScheduleEntry;
+import com.project.back_end.events.AppointmentChangedEvent;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 
 //1. **Add @Service Annotation**:
 //- To indicate that this class is a service layer class for handling business logic.
@@ -35,6 +44,9 @@ public class AppointmentService {
     private final PatientRepository patientRepository ; // for accessing patient data
     private final DoctorRepository doctorRepository; // for accessing doctor data
     private final TokenService tokenService; // for extracting tokens from the request
+    private final AppointmentStatsService statsService; // for the admin usage report aggregate
+    private final ApplicationEventPublisher events; // for the doctors' live dashboards
+    private final int maxBatchSize; // appointments per status batch
     
 // 2. **Constructor Injection for Dependencies**:
 //    - The `AppointmentService` class requires several dependencies like `AppointmentRepository`, `Service`, `TokenService`, `PatientRepository`, and `DoctorRepository`.
@@ -43,11 +55,17 @@ public class AppointmentService {
 	public AppointmentService( AppointmentRepository appointmentRepository , // for accessing appointment data
 			PatientRepository patientRepository ,
     		DoctorRepository doctorRepository ,
-    		TokenService tokenService ) {
+    		TokenService tokenService,
+    		AppointmentStatsService statsService,
+    		ApplicationEventPublisher events,
+    		@Value("${appointments.batch.max-ids:200}") int maxBatchSize ) {
 		this.appointmentRepository = appointmentRepository;
 		this.patientRepository = patientRepository;
 		this.doctorRepository = doctorRepository;
 		this.tokenService = tokenService;
+		this.statsService = statsService;
+		this.events = events;
+		this.maxBatchSize = maxBatchSize;
 	}
 	
 // 3. **Add @Transactional Annotation for Methods that Modify Database**:
@@ -62,6 +80,8 @@ public class AppointmentService {
 	public boolean bookAppointment(Appointment appointment) {
 		try {
 			appointmentRepository.save(appointment);
+			statsService.added(appointment);
+			events.publishEvent(AppointmentChangedEvent.of(AppointmentChangedEvent.Kind.BOOKED, appointment, null, null));
 			return true;
 		} catch(Exception e) {
 			return false;
@@ -76,7 +96,15 @@ public class AppointmentService {
 	@Transactional
 	public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
 		try {
+			// read before saving: the save merges into this managed instance
+			Appointment previous = appointment.getId() == null ? null
+					: appointmentRepository.findById(appointment.getId()).orElse(null);
+			AppointmentStatsService.Bucket before = AppointmentStatsService.Bucket.of(previous);
+			LocalDateTime previousTime = previous == null ? null : previous.getAppointmentTime();
 			appointmentRepository.save(appointment);
+			statsService.moved(before, appointment);
+			events.publishEvent(AppointmentChangedEvent.of(AppointmentChangedEvent.Kind.UPDATED, appointment,
+					before == null ? null : before.doctorId(), previousTime));
 			return ResponseEntity.ok().body(Map.of("success","true","message","successfully saved!"));
 		} catch(Exception e) {
 			return ResponseEntity.status(500).body(Map.of("success","false","message",e.getMessage()));
@@ -93,6 +121,8 @@ public class AppointmentService {
 		if( app.isPresent() ) {
 			try {
 				appointmentRepository.delete(app.get());
+				statsService.removed(app.get());
+				events.publishEvent(AppointmentChangedEvent.of(AppointmentChangedEvent.Kind.CANCELLED, app.get(), null, null));
 				return ResponseEntity.ok().body(Map.of("success","true","message","successfully deleted!"));
 			} catch(Exception e) {
 				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success","false","message",e.getMessage()));
@@ -105,14 +135,156 @@ public class AppointmentService {
 //    - This method retrieves a list of appointments for a specific doctor on a particular day, optionally filtered by the patient's name.
 //    - It uses `@Transactional` to ensure that database operations are consistent and handled in a single transaction.
 //    - Instruction: Ensure the correct use of transaction boundaries, especially when querying the database for appointments.
+//    - Keyed by time ("09:00") in time order; a second appointment at the same time (the first one was cancelled) gets "09:00/<id>".
+//    - `null` or an empty name: all the patients.
+	@Transactional(readOnly = true)
+	public Map<String, ScheduleEntry> getAppointment(Long doctorId, String pname, LocalDate date, String token ) {
+		LocalDateTime start = date.atStartOfDay();
+		LocalDateTime end = LocalDateTime.of(date, LocalTime.MAX);
+		List<Appointment> appointments = pname == null || pname.isBlank() || "null".equals(pname)
+				? appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end)
+				: appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(doctorId, pname, start, end);
+		Map<String, ScheduleEntry> schedule = new LinkedHashMap<>();
+		for(Appointment appointment : appointments) {
+			String time = appointment.getAppointmentTimeOnly().toString();
+			if( schedule.putIfAbsent(time, ScheduleEntry.of(appointment)) != null ) {
+				schedule.put(time + "/" + appointment.getId(), ScheduleEntry.of(appointment));
+			}
+		}
+		return schedule;
+	}
+
+
+	// The appointment, null when it does not exist: its doctor is the booking lock to take before changing it.
+	public Appointment findAppointment(Long appointmentId) {
+		return appointmentRepository.findById(appointmentId).orElse(null);
+	}
+
+	// Whether a live (not cancelled) appointment already takes this doctor's slot.
+	public boolean isSlotTaken(Long doctorId, LocalDateTime appointmentTime) {
+		return appointmentRepository.existsByDoctorIdAndAppointmentTimeAndStatusNot(doctorId, appointmentTime, 2);
+	}
+
+// 8. **Batch Status Update Method**:
+//    - Sets the status of several appointments of a doctor at once (end of day: "completed"), in one `UPDATE` statement.
+//    - The rows are read and locked first, for the per-id results, the statistics and the appointment events.
+//    - Each id gets `updated`, `unchanged` (already in that status) or `not_found` (unknown, or another doctor's appointment).
+	@Transactional
+	public Map<String, Object> updateStatuses(Long doctorId, Collection<Long> ids, int status) {
+		if( ids == null || ids.isEmpty() || ids.size() > maxBatchSize ) {
+			return Map.of("success", false, "message", "Between 1 and " + maxBatchSize + " appointment ids are expected");
+		}
+		if( status < 0 || status > 2 ) {
+			return Map.of("success", false, "message", "Invalid status");
+		}
+		Map<Long, String> results = new LinkedHashMap<>();
+		for(Long id : ids) {
+			results.put(id, "not_found");
+		}
+		List<Object[]> changed = new ArrayList<>();
+		for(Object[] row : appointmentRepository.lockStatusRows(results.keySet(), doctorId)) {
+			Long id = ((Number) row[0]).longValue();
+			if( ((Number) row[3]).intValue() == status ) {
+				results.put(id, "unchanged");
+			} else {
+				results.put(id, "updated");
+				changed.add(row);
+			}
+		}
+		if( changed.isEmpty() ) {
+			return Map.of("success", true, "updated", 0, "results", results);
+		}
+		LocalDateTime now = LocalDateTime.now();
+		int updated = appointmentRepository.updateStatus(changed.stream().map(r -> ((Number) r[0]).longValue()).toList(), doctorId, status, now);
+
+		Map<AppointmentStatsService.Bucket, Long> deltas = new HashMap<>();
+		for(Object[] row : changed) {
+			Long id = ((Number) row[0]).longValue();
+			Long patientId = row[1] == null ? null : ((Number) row[1]).longValue();
+			LocalDateTime time = toLocalDateTime(row[2]);
+			int previous = ((Number) row[3]).intValue();
+			if( time != null ) {
+				deltas.merge(new AppointmentStatsService.Bucket(doctorId, time.toLocalDate(), previous), -1L, Long::sum);
+				deltas.merge(new AppointmentStatsService.Bucket(doctorId, time.toLocalDate(), status), 1L, Long::sum);
+			}
+			events.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Kind.UPDATED, id, doctorId,
+					doctorId, time, patientId, time, status, now));
+		}
+		deltas.forEach((bucket, delta) -> {
+			if( delta != 0 ) {
+				statsService.increment(bucket, delta);
+			}
+		});
+		return Map.of("success", true, "updated", updated, "results", results);
+	}
+
+// 9. **Partial Update Method**:
+//    - Applies the non-null fields of the patch to the managed appointment: no merge of a detached copy,
+//      and the UPDATE only contains the changed columns (@DynamicUpdate).
+//    - The caller is the patient (`patientId`) or the doctor (`doctorId`) of the appointment; only the doctor may change the status.
+//    - A new time must be in the future, one of the doctor's slots and not taken by another appointment.
+//    - A move must run under the doctor's booking lock (see `AppointmentController.patchAppointment`).
 	@Transactional
-	public Map<String, Object> getAppointment(Long doctorId, String pname, LocalDate date, String token ) {
-		DateTimeFormatter fmt = new DateTimeFormatterBuilder().toFormatter();
-		return appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
-				doctorId,
-				LocalDateTime.of(date, LocalTime.of(0, 0)),
-				LocalDateTime.of(date, LocalTime.of(23, 59))
-				).stream().collect(Collectors.toMap(o -> o.getAppointmentTimeOnly().format(fmt), o -> o));
+	public ResponseEntity<Map<String, Object>> patchAppointment(Long id, AppointmentPatch patch, Long patientId, Long doctorId) {
+		Appointment appointment = appointmentRepository.findById(id).orElse(null);
+		if( appointment == null
+				|| (patientId != null && !patientId.equals(appointment.getPatient().getId()))
+				|| (doctorId != null && !doctorId.equals(appointment.getDoctor().getId())) ) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Appointment not found"));
+		}
+		if( patch.getStatus() != null && doctorId == null ) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success",false,"message","Only the doctor can change the status"));
+		}
+		if( patch.getStatus() != null && (patch.getStatus() < 0 || patch.getStatus() > 2) ) {
+			return ResponseEntity.badRequest().body(Map.of("success",false,"message","Invalid status"));
+		}
+		AppointmentStatsService.Bucket before = AppointmentStatsService.Bucket.of(appointment);
+		LocalDateTime previousTime = appointment.getAppointmentTime();
+		boolean changed = false;
+		if( patch.getAppointmentTime() != null && !patch.getAppointmentTime().equals(previousTime) ) {
+			if( !patch.getAppointmentTime().isAfter(LocalDateTime.now()) ) {
+				return ResponseEntity.badRequest().body(Map.of("success",false,"message","The new time must be in the future"));
+			}
+			if( !isFreeSlot(appointment.getDoctor(), patch.getAppointmentTime(), id) ) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","This time is not available"));
+			}
+			appointment.setAppointmentTime(patch.getAppointmentTime());
+			changed = true;
+		}
+		if( patch.getStatus() != null && patch.getStatus() != appointment.getStatus() ) {
+			appointment.setStatus(patch.getStatus());
+			changed = true;
+		}
+		if( changed ) {
+			statsService.moved(before, appointment);
+			events.publishEvent(AppointmentChangedEvent.of(AppointmentChangedEvent.Kind.UPDATED, appointment,
+					appointment.getDoctor().getId(), previousTime));
+		}
+		return ResponseEntity.ok(Map.of("success",true,"changed",changed));
+	}
+
+	// One of the doctor's daily slots ("09:00-10:00" starts at 09:00), with no other live appointment.
+	private boolean isFreeSlot(Doctor doctor, LocalDateTime time, Long appointmentId) {
+		boolean slot = false;
+		for(String range : doctor.getAvailableTimes()) {
+			int dash = range.indexOf('-');
+			try {
+				if( LocalTime.parse((dash < 0 ? range : range.substring(0, dash)).trim()).equals(time.toLocalTime()) ) {
+					slot = true;
+					break;
+				}
+			} catch(RuntimeException e) {
+				// malformed slot, ignored as in the slot search
+			}
+		}
+		return slot && !appointmentRepository.existsByDoctorIdAndAppointmentTimeAndStatusNotAndIdNot(doctor.getId(), time, 2, appointmentId);
+	}
+
+	private static LocalDateTime toLocalDateTime(Object value) {
+		if( value instanceof Timestamp ts ) {
+			return ts.toLocalDateTime();
+		}
+		return (LocalDateTime) value;
 	}
 
 }
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.MonthlyAppointmentStats;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.AppointmentDailyStats;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentStatsRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+// Maintains the appointment_daily_stats aggregate used by the admin usage report.
+// - AppointmentService calls added/removed/moved in the same transaction as the appointment change,
+//   so the aggregate always mirrors the appointment table.
+// - backfill rebuilds it from the appointment table one month at a time, each month in its own
+//   short transaction, for existing history or after a manual data fix.
+@Service
+public class AppointmentStatsService {
+
+	private final static Logger log = LoggerFactory.getLogger(AppointmentStatsService.class);
+
+	private final AppointmentStatsRepository statsRepository;
+	private final DoctorRepository doctorRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	public AppointmentStatsService(AppointmentStatsRepository statsRepository,
+			DoctorRepository doctorRepository,
+			TransactionTemplate transactionTemplate) {
+		this.statsRepository = statsRepository;
+		this.doctorRepository = doctorRepository;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	// The aggregate bucket an appointment is counted in.
+	public record Bucket(Long doctorId, LocalDate day, int status) {
+		public static Bucket of(Appointment appointment) {
+			if( appointment == null || appointment.getDoctor() == null || appointment.getAppointmentTime() == null ) {
+				return null;
+			}
+			return new Bucket(appointment.getDoctor().getId(), appointment.getAppointmentDate(), appointment.getStatus());
+		}
+	}
+
+	public void added(Appointment appointment) {
+		increment(Bucket.of(appointment), 1);
+	}
+
+	public void removed(Appointment appointment) {
+		increment(Bucket.of(appointment), -1);
+	}
+
+	// An appointment changed doctor, day or status.
+	public void moved(Bucket before, Appointment after) {
+		Bucket now = Bucket.of(after);
+		if( !Objects.equals(before, now) ) {
+			increment(before, -1);
+			increment(now, 1);
+		}
+	}
+
+	public void increment(Bucket bucket, long delta) {
+		if( bucket == null || bucket.doctorId() == null ) {
+			return;
+		}
+		String specialty = doctorRepository.findById(bucket.doctorId()).map(Doctor::getSpecialty).orElse(null);
+		statsRepository.increment(bucket.doctorId(), specialty, bucket.day(), bucket.status(), delta);
+	}
+
+	// Rebuilds the aggregate for [from, to], or for the whole appointment history when both are null.
+	public Map<String, Object> backfill(LocalDate from, LocalDate to) {
+		if( from == null ) {
+			LocalDateTime first = statsRepository.findFirstAppointmentTime();
+			from = first == null ? LocalDate.now() : first.toLocalDate();
+		}
+		if( to == null ) {
+			LocalDateTime last = statsRepository.findLastAppointmentTime();
+			to = last == null ? LocalDate.now() : last.toLocalDate();
+		}
+		int months = 0;
+		long rows = 0;
+		LocalDate end = to.plusDays(1);
+		for(LocalDate start = from; start.isBefore(end); ) {
+			LocalDate chunkStart = start;
+			LocalDate chunkEnd = start.withDayOfMonth(1).plusMonths(1);
+			if( chunkEnd.isAfter(end) ) {
+				chunkEnd = end;
+			}
+			LocalDate chunkTo = chunkEnd;
+			Integer inserted = transactionTemplate.execute(status -> {
+				statsRepository.deleteDays(chunkStart, chunkTo);
+				return statsRepository.aggregateAppointments(chunkStart.atStartOfDay(), chunkTo.atStartOfDay());
+			});
+			rows += inserted == null ? 0 : inserted;
+			months++;
+			start = chunkEnd;
+		}
+		log.info("Appointment stats rebuilt from {} to {}: {} months, {} rows", from, to, months, rows);
+		return Map.of("success", true, "from", from.toString(), "to", to.toString(), "months", months, "rows", rows);
+	}
+
+	@Transactional(readOnly = true)
+	public List<MonthlyAppointmentStats> getMonthly(LocalDate from, LocalDate to, String specialty) {
+		if( specialty == null || specialty.isBlank() || "all".equalsIgnoreCase(specialty) ) {
+			return statsRepository.findMonthly(from, to);
+		}
+		return statsRepository.findMonthlyBySpecialty(from, to, specialty);
+	}
+
+	@Transactional(readOnly = true)
+	public List<AppointmentDailyStats> getDaily(LocalDate from, LocalDate to, Long doctorId) {
+		if( doctorId == null ) {
+			return statsRepository.findByStatsDayBetweenOrderByStatsDayAsc(from, to);
+		}
+		return statsRepository.findByDoctorIdAndStatsDayBetweenOrderByStatsDayAsc(doctorId, from, to);
+	}
+}
@@ -0,0 +1,181 @@
+package com.project.back_end.services;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.cache.Invalidation;
+import com.project.back_end.cache.InvalidationTransport;
+import com.project.back_end.cache.VersionClock;
+import com.project.back_end.cache.VersionedCache;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+
+// Keeps the per-node caches coherent when several instances run (doctor list, token principals,
+// slot search index).
+// - A write calls publish(entity type, id): after the commit, the local caches are invalidated and an
+//   Invalidation (type, id, version, node) goes to the other nodes through the InvalidationTransport
+//   (the cache_invalidation table with cluster.enabled=true, in memory otherwise).
+// - Every `poll-ms` the invalidations of the other nodes are received and handed to the listeners of
+//   their type, which evict. Versions come from a hybrid clock moved past every received version, and
+//   VersionedCache drops a value loaded before an invalidation: no stale entry is brought back.
+// - Appointment changes are published as AVAILABILITY of their doctor by the node dispatching the outbox.
+// The lag (publish to receive) is in getStats.
+@Service
+public class CacheInvalidationService implements AppointmentEventSubscriber {
+
+	private final static Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+	public static final String DOCTOR = "doctor";
+	public static final String PATIENT = "patient";
+	public static final String ADMIN = "admin";
+	public static final String AVAILABILITY = "availability";
+	public static final String WAITLIST = "waitlist";
+	// not a cache: the id is a patient whose held slots changed (see WaitlistOffersHub)
+	public static final String WAITLIST_OFFER = "waitlist-offer";
+
+	private final InvalidationTransport transport;
+	private final String nodeId;
+	private final VersionClock clock = new VersionClock();
+	private final List<VersionedCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+	private final Map<String, List<LongConsumer>> listeners = new ConcurrentHashMap<>();
+	private final Map<String, List<LongConsumer>> remoteListeners = new ConcurrentHashMap<>();
+
+	private final AtomicLong published = new AtomicLong();
+	private final AtomicLong publishFailures = new AtomicLong();
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong lagTotalMillis = new AtomicLong();
+	private final AtomicLong lagMaxMillis = new AtomicLong();
+	private volatile long lagLastMillis;
+
+	public CacheInvalidationService(InvalidationTransport transport, ClusterService clusterService) {
+		this.transport = transport;
+		this.nodeId = clusterService.getNodeId();
+	}
+
+	public <K, V> VersionedCache<K, V> newCache(String name, int maxEntries, long ttlMillis) {
+		VersionedCache<K, V> cache = new VersionedCache<>(name, maxEntries, ttlMillis, clock);
+		caches.add(cache);
+		return cache;
+	}
+
+	// `handler` gets the id of every invalidation of `entityType`, from this node or another one.
+	public void listen(String entityType, LongConsumer handler) {
+		listeners.computeIfAbsent(entityType, t -> new CopyOnWriteArrayList<>()).add(handler);
+	}
+
+	// Only the invalidations of the other nodes: for state this node already updates itself.
+	public void listenRemote(String entityType, LongConsumer handler) {
+		remoteListeners.computeIfAbsent(entityType, t -> new CopyOnWriteArrayList<>()).add(handler);
+	}
+
+	// Within a transaction, nothing is invalidated before the commit (a reload would still read the old rows).
+	public void publish(String entityType, long id) {
+		if( TransactionSynchronizationManager.isSynchronizationActive() ) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					send(entityType, id);
+				}
+			});
+		} else {
+			send(entityType, id);
+		}
+	}
+
+	private void send(String entityType, long id) {
+		long version = clock.tick();
+		apply(entityType, id, listeners);
+		try {
+			transport.publish(new Invalidation(entityType, id, version, nodeId, System.currentTimeMillis()));
+			published.incrementAndGet();
+		} catch(RuntimeException e) {
+			// the other nodes keep the entry until its TTL
+			publishFailures.incrementAndGet();
+			log.warn("Can not publish the invalidation of {} {}", entityType, id, e);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${cache.invalidation.poll-ms:500}")
+	public void poll() {
+		List<Invalidation> invalidations;
+		try {
+			invalidations = transport.receive();
+		} catch(RuntimeException e) {
+			log.warn("Can not receive the cache invalidations", e);
+			return;
+		}
+		long now = System.currentTimeMillis();
+		for(Invalidation invalidation : invalidations) {
+			if( nodeId.equals(invalidation.origin()) ) {
+				continue;
+			}
+			clock.witness(invalidation.version());
+			received.incrementAndGet();
+			long lag = Math.max(0, now - invalidation.publishedAt());
+			lagLastMillis = lag;
+			lagTotalMillis.addAndGet(lag);
+			lagMaxMillis.accumulateAndGet(lag, Math::max);
+			apply(invalidation.entityType(), invalidation.id(), listeners);
+			apply(invalidation.entityType(), invalidation.id(), remoteListeners);
+		}
+	}
+
+	private void apply(String entityType, long id, Map<String, List<LongConsumer>> handlers) {
+		for(LongConsumer handler : handlers.getOrDefault(entityType, List.of())) {
+			try {
+				handler.accept(id);
+			} catch(RuntimeException e) {
+				log.warn("Invalidation of {} {} failed", entityType, id, e);
+			}
+		}
+	}
+
+	@Override
+	public void onAppointmentEvents(List<AppointmentChangedEvent> events) {
+		Set<Long> doctors = new LinkedHashSet<>();
+		for(AppointmentChangedEvent event : events) {
+			if( event.getDoctorId() != null ) {
+				doctors.add(event.getDoctorId());
+			}
+			if( event.getPreviousDoctorId() != null ) {
+				doctors.add(event.getPreviousDoctorId());
+			}
+		}
+		for(Long doctorId : doctors) {
+			publish(AVAILABILITY, doctorId);
+		}
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("nodeId", nodeId);
+		stats.put("transport", transport.getClass().getSimpleName());
+		stats.put("published", published.get());
+		stats.put("publishFailures", publishFailures.get());
+		stats.put("received", received.get());
+		long count = received.get();
+		stats.put("lagMeanMillis", count == 0 ? 0 : lagTotalMillis.get() / count);
+		stats.put("lagMaxMillis", lagMaxMillis.get());
+		stats.put("lagLastMillis", lagLastMillis);
+		Map<String, Object> cacheStats = new LinkedHashMap<>();
+		for(VersionedCache<?, ?> cache : caches) {
+			cacheStats.put(cache.getName(), cache.getStats());
+		}
+		stats.put("caches", cacheStats);
+		return stats;
+	}
+}
@@ -0,0 +1,114 @@
+package com.project.back_end.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.calendar.ICalendarWriter;
+import com.project.back_end.repo.AppointmentRepository;
+
+// The iCalendar feeds of a doctor's and of a patient's appointments, from `calendar.past-days` days ago on.
+// - The rows are streamed from the database and written as they come: memory does not grow with the history.
+// - The version (the ETag) is the number of rows and their latest `updatedAt`, from one aggregate query:
+//   a booking, a change or a cancellation (a deleted row) changes it, so a client polling an unchanged
+//   feed gets a 304 without the feed being generated. The window starts at midnight, so the version
+//   only moves at a day change.
+// - Appointment times are local times of `calendar.time-zone` (the server's by default), written in UTC.
+@Service
+public class CalendarService {
+
+	private static final String PRODUCT_ID = "-//Smart Clinic//Appointments//EN";
+	private static final int CANCELLED = 2;
+
+	private final AppointmentRepository appointmentRepository;
+	private final int pastDays;
+	private final ZoneId zone;
+	private final String uidDomain;
+
+	public CalendarService(AppointmentRepository appointmentRepository,
+			@Value("${calendar.past-days:30}") int pastDays,
+			@Value("${calendar.time-zone:}") String zone,
+			@Value("${calendar.uid-domain:smartclinic}") String uidDomain) {
+		this.appointmentRepository = appointmentRepository;
+		this.pastDays = pastDays;
+		this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+		this.uidDomain = uidDomain;
+	}
+
+	@Transactional(readOnly = true)
+	public String doctorVersion(Long doctorId) {
+		LocalDateTime from = windowStart();
+		return version("d" + doctorId, from, appointmentRepository.doctorCalendarVersion(doctorId, from));
+	}
+
+	@Transactional(readOnly = true)
+	public String patientVersion(Long patientId) {
+		LocalDateTime from = windowStart();
+		return version("p" + patientId, from, appointmentRepository.patientCalendarVersion(patientId, from));
+	}
+
+	@Transactional(readOnly = true)
+	public void writeDoctorCalendar(Long doctorId, String doctorName, OutputStream out) throws IOException {
+		try( Stream<Object[]> rows = appointmentRepository.streamDoctorCalendar(doctorId, windowStart()) ) {
+			write(rows, "Appointments of " + doctorName, "Appointment: ", "Patient phone: ", out);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public void writePatientCalendar(Long patientId, OutputStream out) throws IOException {
+		try( Stream<Object[]> rows = appointmentRepository.streamPatientCalendar(patientId, windowStart()) ) {
+			write(rows, "My clinic appointments", "Appointment with Dr. ", "Specialty: ", out);
+		}
+	}
+
+	private void write(Stream<Object[]> rows, String name, String summary, String detail, OutputStream out) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+		ICalendarWriter calendar = new ICalendarWriter(writer);
+		calendar.begin(PRODUCT_ID, name);
+		Instant now = Instant.now();
+		try {
+			rows.forEach(row -> {
+				LocalDateTime time = (LocalDateTime) row[1];
+				LocalDateTime updated = (LocalDateTime) row[3];
+				try {
+					calendar.event("appointment-" + row[0] + "@" + uidDomain,
+							updated == null ? now : updated.atZone(zone).toInstant(),
+							time.atZone(zone).toInstant(), time.plusHours(1).atZone(zone).toInstant(),
+							summary + row[4], row[5] == null ? null : detail + row[5],
+							((Number) row[2]).intValue() == CANCELLED);
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+		calendar.end();
+	}
+
+	private LocalDateTime windowStart() {
+		return LocalDate.now(zone).minusDays(pastDays).atStartOfDay();
+	}
+
+	private static String version(String owner, LocalDateTime from, List<Object[]> result) {
+		Object[] row = result.isEmpty() ? new Object[] { 0L, null } : result.get(0);
+		Object updated = row[1];
+		long updatedMillis = updated instanceof LocalDateTime t ? Timestamp.valueOf(t).getTime()
+				: updated instanceof Timestamp t ? t.getTime() : 0;
+		return "v1-" + owner + "-" + from.toLocalDate() + "-" + row[0] + "-" + updatedMillis;
+	}
+}
@@ -0,0 +1,260 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.cluster.ClusterCoordinator;
+import com.project.back_end.cluster.Member;
+import com.project.back_end.cluster.PartitionTable;
+import com.project.back_end.models.Appointment;
+
+import jakarta.annotation.PreDestroy;
+
+// Multi-node booking (cluster.enabled=true).
+// - Doctor ids are partitioned across the live nodes (PartitionTable), the membership coming from the
+//   ClusterCoordinator (by default the cluster_member lease table, renewed every heartbeat).
+// - Only the owner of a doctor's partition books for that doctor: it serializes the bookings of a
+//   doctor with an in-process lock, which is enough since no other node writes them. The other nodes
+//   forward the booking request to the owner (with the Idempotency-Key, so retries meet on the owner).
+//   Moving an appointment (PATCH) is routed the same way, so that a move and a booking never check the same slot at once.
+// - A node only starts booking for a partition it gained `handover-ms` after, so that the previous
+//   owner has seen the new table; it stops booking altogether when it could not renew its lease.
+// Single node (the default): every booking is local, still serialized per doctor.
+@Service
+public class ClusterService {
+
+	private final static Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+	public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+	private static final int LOCK_STRIPES = 256;
+
+	public enum RouteKind { LOCAL, FORWARD, UNAVAILABLE }
+
+	public record Route(RouteKind kind, Member owner) {
+	}
+
+	private final ClusterCoordinator coordinator;
+	private final ObjectMapper mapper;
+	private final boolean enabled;
+	private final Member self;
+	private final int partitions;
+	private final long leaseMillis;
+	private final long handoverMillis;
+	private final String secret;
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+	private final HttpClient http;
+	private final Duration forwardTimeout;
+
+	private volatile PartitionTable table;
+	private volatile long[] ownedSince;
+	private volatile long leaseValidUntil;
+
+	public ClusterService(ClusterCoordinator coordinator, ObjectMapper mapper,
+			@Value("${cluster.enabled:false}") boolean enabled,
+			@Value("${cluster.node-id:}") String nodeId,
+			@Value("${cluster.base-url:http://localhost:${server.port:8080}}") String baseUrl,
+			@Value("${cluster.partitions:64}") int partitions,
+			@Value("${cluster.lease-ms:10000}") long leaseMillis,
+			@Value("${cluster.handover-ms:4000}") long handoverMillis,
+			@Value("${cluster.forward-timeout-ms:5000}") long forwardTimeoutMillis,
+			@Value("${cluster.secret:}") String secret) {
+		if( enabled && secret.isBlank() ) {
+			throw new IllegalStateException("cluster.secret must be set (the same on every node) when cluster.enabled=true");
+		}
+		this.coordinator = coordinator;
+		this.mapper = mapper;
+		this.enabled = enabled;
+		this.self = new Member(nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId, baseUrl);
+		this.partitions = partitions;
+		this.leaseMillis = leaseMillis;
+		this.handoverMillis = handoverMillis;
+		this.secret = secret;
+		this.forwardTimeout = Duration.ofMillis(forwardTimeoutMillis);
+		this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+		for(int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void join() {
+		if( enabled ) {
+			log.info("Joining the booking cluster as {} ({})", self.nodeId(), self.baseUrl());
+			heartbeat();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${cluster.heartbeat-ms:2000}")
+	public synchronized void heartbeat() {
+		if( !enabled ) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<Member> members;
+		try {
+			members = new ArrayList<>(coordinator.heartbeat(self));
+		} catch(RuntimeException e) {
+			log.warn("Cluster heartbeat failed, bookings stop at the end of the lease", e);
+			return;
+		}
+		leaseValidUntil = now + leaseMillis;
+		if( !members.contains(self) ) {
+			members.add(self);
+		}
+		PartitionTable next = PartitionTable.of(members, partitions);
+		PartitionTable previous = table;
+		long[] since = new long[partitions];
+		for(int p = 0; p < partitions; p++) {
+			boolean owned = self.equals(next.ownerOf(p));
+			boolean ownedBefore = previous != null && self.equals(previous.ownerOf(p));
+			since[p] = !owned ? 0 : ownedBefore ? ownedSince[p] : now;
+		}
+		if( previous == null || !previous.members().equals(next.members()) ) {
+			log.info("Booking cluster: {} members, this node owns {} of {} partitions",
+					next.members().size(), next.countOwnedBy(self), partitions);
+		}
+		ownedSince = since;
+		table = next;
+	}
+
+	@PreDestroy
+	public void leave() {
+		if( enabled ) {
+			try {
+				coordinator.leave(self);
+			} catch(RuntimeException e) {
+				log.warn("Can not leave the booking cluster, the lease will expire", e);
+			}
+		}
+	}
+
+	// Where a booking for this doctor must run. `forwarded` requests are never forwarded again.
+	public Route route(Long doctorId, boolean forwarded) {
+		if( !enabled || doctorId == null ) {
+			return new Route(RouteKind.LOCAL, self);
+		}
+		PartitionTable current = table;
+		long now = System.currentTimeMillis();
+		if( current == null || now > leaseValidUntil ) {
+			return new Route(RouteKind.UNAVAILABLE, null);
+		}
+		Member owner = current.owner(doctorId);
+		if( !self.equals(owner) ) {
+			return forwarded ? new Route(RouteKind.UNAVAILABLE, owner) : new Route(RouteKind.FORWARD, owner);
+		}
+		long since = ownedSince[PartitionTable.partition(doctorId, partitions)];
+		return now - since >= handoverMillis ? new Route(RouteKind.LOCAL, self) : new Route(RouteKind.UNAVAILABLE, self);
+	}
+
+	public String getNodeId() {
+		return self.nodeId();
+	}
+
+	public boolean isForwarded(String header) {
+		return enabled && header != null && header.equals(secret);
+	}
+
+	// Runs `action` holding the booking lock of the doctor (a stripe shared by 1/256 of the doctors).
+	public <T> T withDoctorLock(Long doctorId, Supplier<T> action) {
+		ReentrantLock lock = locks[doctorId == null ? 0 : Math.floorMod(Long.hashCode(doctorId), LOCK_STRIPES)];
+		lock.lock();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public ResponseEntity<String> forwardBooking(Member owner, String token, String idempotencyKey, Appointment appointment) {
+		try {
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("doctor", Map.of("id", appointment.getDoctor().getId()));
+			if( appointment.getPatient() != null ) {
+				body.put("patient", Map.of("id", appointment.getPatient().getId()));
+			}
+			body.put("appointmentTime", appointment.getAppointmentTime());
+			body.put("status", appointment.getStatus());
+			HttpResponse<String> response = send(owner, "POST", "/appointments/" + token, idempotencyKey, body);
+			ResponseEntity.BodyBuilder result = ResponseEntity.status(response.statusCode());
+			response.headers().firstValue("Idempotent-Replayed").ifPresent(v -> result.header("Idempotent-Replayed", v));
+			response.headers().firstValue("Retry-After").ifPresent(v -> result.header("Retry-After", v));
+			return result.body(response.body());
+		} catch(IOException e) {
+			log.warn("Can not forward a booking to {} ({})", owner.nodeId(), owner.baseUrl(), e);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body("Booking node unavailable, retry");
+	}
+
+	// Forwards another request that must run on the owner of the doctor's partition (a move, an accepted waitlist offer)
+	// and answers with its JSON response. `body` may be null.
+	@SuppressWarnings("unchecked")
+	public ResponseEntity<Map<String, Object>> forward(Member owner, String method, String path, Object body) {
+		try {
+			HttpResponse<String> response = send(owner, method, path, null, body);
+			ResponseEntity.BodyBuilder result = ResponseEntity.status(response.statusCode());
+			response.headers().firstValue("Retry-After").ifPresent(v -> result.header("Retry-After", v));
+			return response.body() == null || response.body().isBlank() ? result.build()
+					: result.body(mapper.readValue(response.body(), Map.class));
+		} catch(IOException e) {
+			log.warn("Can not forward {} {} to {} ({})", method, path.replaceAll("/[^/]*$", "/..."), owner.nodeId(), owner.baseUrl(), e);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+				.body(Map.of("success",false,"message","Booking node unavailable, retry"));
+	}
+
+	private HttpResponse<String> send(Member owner, String method, String path, String idempotencyKey, Object body)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(owner.baseUrl() + path))
+				.timeout(forwardTimeout)
+				.header("Content-Type", "application/json")
+				.header(FORWARDED_HEADER, secret)
+				.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+						: HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+		if( idempotencyKey != null ) {
+			request.header("Idempotency-Key", idempotencyKey);
+		}
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("nodeId", self.nodeId());
+		PartitionTable current = table;
+		if( current != null ) {
+			List<Map<String, Object>> members = new ArrayList<>();
+			for(Member m : current.members()) {
+				members.add(Map.of("nodeId", m.nodeId(), "baseUrl", m.baseUrl(), "partitions", current.countOwnedBy(m)));
+			}
+			stats.put("members", members);
+			stats.put("leaseValid", System.currentTimeMillis() <= leaseValidUntil);
+		}
+		return stats;
+	}
+}
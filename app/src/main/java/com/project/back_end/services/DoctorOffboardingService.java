@@ -0,0 +1,252 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.DoctorOffboardingJob;
+import com.project.back_end.models.DoctorOffboardingJob.Status;
+import com.project.back_end.repo.AppointmentArchiveRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.AppointmentStatsRepository;
+import com.project.back_end.repo.DoctorOffboardingJobRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Deletes a doctor with all their history as a background job (see DoctorOffboardingJob).
+// - Works in chunks of `chunk-size` appointments (current, then archived): the chunk's prescriptions are removed from Mongo with one
+//   deleteMany, then the appointments with one bulk `delete ... where id in (...)` in a short transaction
+//   that also records the progress. Locks are only held for one chunk, with a pause between chunks.
+// - Prescriptions go first: after a crash the appointments are still there and the chunk is simply redone,
+//   there are never prescriptions left pointing to deleted appointments.
+// - Each deleted appointment gets its CANCELLED event, written to the outbox in the chunk's transaction: the
+//   reminders, the dashboards and the slot index drop it like a cancellation. The doctor's waitlist is
+//   closed when the job starts, so the freed slots are not offered to anybody.
+// - The doctor row, their availability and their statistics are deleted last, once no appointment is left.
+// - Jobs left PENDING or RUNNING by a restart are resumed when the application is ready.
+@Service
+public class DoctorOffboardingService {
+
+	private final static Logger log = LoggerFactory.getLogger(DoctorOffboardingService.class);
+	private final static EnumSet<Status> ACTIVE = EnumSet.of(Status.PENDING, Status.RUNNING);
+
+	private final DoctorOffboardingJobRepository jobRepository;
+	private final DoctorRepository doctorRepository;
+	private final AppointmentRepository appointmentRepository;
+	private final AppointmentArchiveRepository archiveRepository;
+	private final PrescriptionRepository prescriptionRepository;
+	private final AppointmentStatsRepository statsRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final SlotSearchService slotSearchService;
+	private final CacheInvalidationService invalidations;
+	private final WaitlistService waitlistService;
+	private final ApplicationEventPublisher events;
+	private final int chunkSize;
+	private final long pauseMillis;
+	private final ExecutorService executor;
+
+	public DoctorOffboardingService(DoctorOffboardingJobRepository jobRepository,
+			DoctorRepository doctorRepository,
+			AppointmentRepository appointmentRepository,
+			AppointmentArchiveRepository archiveRepository,
+			PrescriptionRepository prescriptionRepository,
+			AppointmentStatsRepository statsRepository,
+			TransactionTemplate transactionTemplate,
+			SlotSearchService slotSearchService,
+			CacheInvalidationService invalidations,
+			WaitlistService waitlistService,
+			ApplicationEventPublisher events,
+			@Value("${doctor.offboarding.chunk-size:500}") int chunkSize,
+			@Value("${doctor.offboarding.pause-ms:50}") long pauseMillis) {
+		this.jobRepository = jobRepository;
+		this.doctorRepository = doctorRepository;
+		this.appointmentRepository = appointmentRepository;
+		this.archiveRepository = archiveRepository;
+		this.prescriptionRepository = prescriptionRepository;
+		this.statsRepository = statsRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.slotSearchService = slotSearchService;
+		this.invalidations = invalidations;
+		this.waitlistService = waitlistService;
+		this.events = events;
+		this.chunkSize = chunkSize;
+		this.pauseMillis = pauseMillis;
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "doctor-offboarding");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	// Starts (or returns the already running) deletion job of a doctor; null when the doctor does not exist.
+	public DoctorOffboardingJob start(Long doctorId) {
+		DoctorOffboardingJob job = transactionTemplate.execute(status -> {
+			DoctorOffboardingJob active = jobRepository.findFirstByDoctorIdAndStatusIn(doctorId, ACTIVE);
+			if( active != null ) {
+				return active;
+			}
+			if( !doctorRepository.existsById(doctorId) ) {
+				return null;
+			}
+			DoctorOffboardingJob created = new DoctorOffboardingJob();
+			created.setDoctorId(doctorId);
+			created.setStatus(Status.PENDING);
+			created.setTotalAppointments(appointmentRepository.countByDoctorId(doctorId) + archiveRepository.countByDoctorId(doctorId));
+			created.setCreatedAt(LocalDateTime.now());
+			return jobRepository.save(created);
+		});
+		if( job != null && job.getStatus() == Status.PENDING ) {
+			slotSearchService.removeDoctor(doctorId); // no new bookings for a doctor being deleted
+			invalidations.publish(CacheInvalidationService.DOCTOR, doctorId);
+			waitlistService.removeDoctor(doctorId);
+			submit(job.getId());
+		}
+		return job;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void resume() {
+		for(DoctorOffboardingJob job : jobRepository.findByStatusInOrderByIdAsc(ACTIVE)) {
+			log.info("Resuming deletion of doctor {} (job {})", job.getDoctorId(), job.getId());
+			submit(job.getId());
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// an interrupted job stays RUNNING and is resumed at the next start
+		executor.shutdownNow();
+	}
+
+	private void submit(Long jobId) {
+		executor.execute(() -> run(jobId));
+	}
+
+	private void run(Long jobId) {
+		DoctorOffboardingJob job = jobRepository.findById(jobId).orElse(null);
+		if( job == null || !ACTIVE.contains(job.getStatus()) ) {
+			return;
+		}
+		job.setStatus(Status.RUNNING);
+		job = save(job);
+		try {
+			for(;;) {
+				if( Thread.currentThread().isInterrupted() ) {
+					return;
+				}
+				// current appointments first, then the archived ones
+				boolean archived = false;
+				List<Long> ids = appointmentRepository.findIdsByDoctorId(job.getDoctorId(), PageRequest.of(0, chunkSize));
+				if( ids.isEmpty() ) {
+					archived = true;
+					ids = archiveRepository.findIdsByDoctorId(job.getDoctorId(), PageRequest.of(0, chunkSize));
+				}
+				if( ids.isEmpty() ) {
+					if( finish(job) ) {
+						slotSearchService.removeDoctor(job.getDoctorId());
+						invalidations.publish(CacheInvalidationService.DOCTOR, job.getDoctorId());
+						waitlistService.removeDoctor(job.getDoctorId());
+						break;
+					}
+					continue; // booked in the meantime
+				}
+				List<Long> chunk = ids;
+				boolean fromArchive = archived;
+				long prescriptions = prescriptionRepository.deleteByAppointmentIdIn(chunk);
+				DoctorOffboardingJob current = job;
+				Long doctorId = job.getDoctorId();
+				job = transactionTemplate.execute(status -> {
+					int deleted = fromArchive ? archiveRepository.deleteByIdIn(chunk) : deleteAppointments(doctorId, chunk);
+					current.setAppointmentsDeleted(current.getAppointmentsDeleted() + deleted);
+					current.setPrescriptionsDeleted(current.getPrescriptionsDeleted() + prescriptions);
+					current.setUpdatedAt(LocalDateTime.now());
+					return jobRepository.save(current);
+				});
+				Thread.sleep(pauseMillis);
+			}
+			log.info("Doctor {} deleted: {} appointments, {} prescriptions (job {})",
+					job.getDoctorId(), job.getAppointmentsDeleted(), job.getPrescriptionsDeleted(), job.getId());
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch(Exception e) {
+			log.error("Deletion of doctor {} failed (job {})", job.getDoctorId(), job.getId(), e);
+			job.setStatus(Status.FAILED);
+			String error = String.valueOf(e.getMessage());
+			job.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+			job.setFinishedAt(LocalDateTime.now());
+			save(job);
+		}
+	}
+
+	// Deletes a chunk of current appointments and records a CANCELLED event for each, in the caller's transaction.
+	private int deleteAppointments(Long doctorId, List<Long> ids) {
+		List<Object[]> snapshots = appointmentRepository.findEventSnapshots(ids);
+		int deleted = appointmentRepository.deleteByIdIn(ids);
+		LocalDateTime now = LocalDateTime.now();
+		for(Object[] row : snapshots) {
+			events.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Kind.CANCELLED, (Long) row[0], doctorId,
+					null, null, (Long) row[1], (LocalDateTime) row[2], ((Number) row[3]).intValue(), now));
+		}
+		return deleted;
+	}
+
+	// Deletes the doctor once no appointment references them; false if some were booked meanwhile.
+	private boolean finish(DoctorOffboardingJob job) {
+		Boolean done = transactionTemplate.execute(status -> {
+			if( appointmentRepository.countByDoctorId(job.getDoctorId()) > 0 || archiveRepository.countByDoctorId(job.getDoctorId()) > 0 ) {
+				return false;
+			}
+			statsRepository.deleteDoctor(job.getDoctorId());
+			doctorRepository.findById(job.getDoctorId()).ifPresent(doctorRepository::delete);
+			job.setStatus(Status.COMPLETED);
+			job.setFinishedAt(LocalDateTime.now());
+			job.setUpdatedAt(job.getFinishedAt());
+			jobRepository.save(job);
+			return true;
+		});
+		return Boolean.TRUE.equals(done);
+	}
+
+	private DoctorOffboardingJob save(DoctorOffboardingJob job) {
+		return transactionTemplate.execute(status -> jobRepository.save(job));
+	}
+
+	public Map<String, Object> getProgress(Long doctorId) {
+		DoctorOffboardingJob job = jobRepository.findFirstByDoctorIdOrderByIdDesc(doctorId);
+		if( job == null ) {
+			return null;
+		}
+		Map<String, Object> progress = new LinkedHashMap<>();
+		progress.put("jobId", job.getId());
+		progress.put("doctorId", job.getDoctorId());
+		progress.put("status", job.getStatus().name());
+		progress.put("totalAppointments", job.getTotalAppointments());
+		progress.put("appointmentsDeleted", job.getAppointmentsDeleted());
+		progress.put("prescriptionsDeleted", job.getPrescriptionsDeleted());
+		progress.put("percent", job.getTotalAppointments() == 0 ? (job.getStatus() == Status.COMPLETED ? 100 : 0)
+				: Math.min(100, job.getAppointmentsDeleted() * 100 / job.getTotalAppointments()));
+		progress.put("createdAt", job.getCreatedAt());
+		progress.put("finishedAt", job.getFinishedAt());
+		if( job.getLastError() != null ) {
+			progress.put("lastError", job.getLastError());
+		}
+		return progress;
+	}
+}
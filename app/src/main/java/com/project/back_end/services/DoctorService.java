@@ -1,29 +1,38 @@
 package com.project.back_end.services;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.DoctorPatch;
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.cache.VersionedCache;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DoctorService {
 
-    private final Service service;
-
 	private final DoctorRepository  doctorRepository;
 	private final AppointmentRepository appointmentRepository;
 	private final TokenService tokenService;
+	private final DoctorOffboardingService offboardingService;
+	private final SlotSearchService slotSearchService;
+	private final CacheInvalidationService invalidations;
+	// the doctor list of the patient and admin dashboards, invalidated by any doctor change
+	private final VersionedCache<String, List<DoctorSummary>> doctorList;
 
 // 1. **Add @Service Annotation**:
 //    - This class should be annotated with `@Service` to indicate that it is a service layer class.
@@ -32,12 +41,19 @@ public class DoctorService {
 
 	public DoctorService(DoctorRepository  doctorRepository,
 			AppointmentRepository appointmentRepository,
-			TokenService tokenService
-			, Service service) {
+			TokenService tokenService,
+			DoctorOffboardingService offboardingService,
+			SlotSearchService slotSearchService,
+			CacheInvalidationService invalidations,
+			@Value("${cache.doctors.ttl-ms:300000}") long doctorsTtlMillis) {
 		this.doctorRepository = doctorRepository;
 		this.appointmentRepository = appointmentRepository;
 		this.tokenService = tokenService;
-		this.service = service;
+		this.offboardingService = offboardingService;
+		this.slotSearchService = slotSearchService;
+		this.invalidations = invalidations;
+		this.doctorList = invalidations.newCache("doctors", 1, doctorsTtlMillis);
+		invalidations.listen(CacheInvalidationService.DOCTOR, id -> doctorList.invalidateAll());
 	}
 	
 // 2. **Constructor Injection for Dependencies**:
@@ -72,6 +88,8 @@ public class DoctorService {
 		if( doctor == null ) {
 	 		try {
 				doctorRepository.save(doctor);
+				slotSearchService.refreshDoctor(doctor.getId());
+				invalidations.publish(CacheInvalidationService.DOCTOR, doctor.getId());
 				return 1;
 			} catch(Exception e) {
 			}
@@ -88,6 +106,8 @@ public class DoctorService {
 		if( opt.isPresent() ) {
 	 		try {
 				doctorRepository.save(doctor);
+				slotSearchService.refreshDoctor(doctor.getId());
+				invalidations.publish(CacheInvalidationService.DOCTOR, doctor.getId());
 				return 1;
 			} catch(Exception e) {
 				return 0;
@@ -99,25 +119,23 @@ public class DoctorService {
 // 7. **getDoctors Method**:
 //    - Fetches all doctors from the database. It is marked with `@Transactional` to ensure that the collection is properly loaded.
 //    - Instruction: Ensure that the collection is eagerly loaded, especially if dealing with lazy-loaded relationships (e.g., available times). 
-	public List<Doctor> getDoctors() {
-		return doctorRepository.findAll();
+//    - Served from the `doctors` cache; a miss reads the primary, a lagging replica could put an old list back.
+//    - Cached as DoctorSummary records, built within the transaction: nothing lazy is left to load afterwards.
+	@Transactional
+	public List<DoctorSummary> getDoctors() {
+		return doctorList.get("all", k -> doctorRepository.findAllWithAvailableTimes().stream().map(DoctorSummary::of).toList());
 	}
 // 8. **deleteDoctor Method**:
 //    - Deletes a doctor from the system along with all appointments associated with that doctor.
 //    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments.
 //    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
-	@Transactional
+//    - The deletion runs in the background, in chunks (see `DoctorOffboardingService`): `1` means it is started.
 	public int deleteDoctor(long doctorId) {
-		Optional<Doctor> opt = doctorRepository.findById(doctorId);
-		if( opt.isPresent() ) {
-	 		try {
-				doctorRepository.delete(opt.get());
-				return 1;
-			} catch(Exception e) {
-				return 0;
-			}
+		try {
+			return offboardingService.start(doctorId) == null ? -1 : 1;
+		} catch(Exception e) {
+			return 0;
 		}
-		return -1;
 	}
 
 // 9. **validateDoctor Method**:
@@ -129,15 +147,16 @@ public class DoctorService {
 		if( d != null ) {
 			if( d.getPassword().equals(login.getPassword()) ) {
 				String token = tokenService.generateToken(login.getIdentifier());
-				return ResponseEntity.status(500).body(Map.of("success","true","token",token));
+				return ResponseEntity.ok(Map.of("success","true","token",token));
 			}
 		}
-		return ResponseEntity.status(500).body(Map.of("success","false","message","Invalid credentials!"));
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success","false","message","Invalid credentials!"));
 	}
 // 10. **findDoctorByName Method**:
 //    - Finds doctors based on partial name matching and returns the list of doctors with their available times.
 //    - This method is annotated with `@Transactional` to ensure that the database query and data retrieval are properly managed within a transaction.
 //    - Instruction: Ensure that available times are eagerly loaded for the doctors.
+	@Transactional(readOnly = true)
 	public Map<String, Object> findDoctorByName(String name) {
 		return doctorRepository.findByNameLike(name).stream().collect(
 				Collectors.toMap( o -> o.getName() , o -> o )
@@ -149,6 +168,7 @@ public class DoctorService {
 //    - Filters doctors based on their name, specialty, and availability during a specific time (AM/PM).
 //    - The method fetches doctors matching the name and specialty criteria, then filters them based on their availability during the specified time period.
 //    - Instruction: Ensure proper filtering based on both the name and specialty as well as the specified time period.
+	@Transactional(readOnly = true)
 	public Map<String, Object> filterDoctorsByNameSpecilityandTime(String name, String specialty, String amOrPm) {
 		return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name,specialty)
 				.stream()
@@ -167,6 +187,7 @@ public class DoctorService {
 //    - Fetches doctors based on partial name matching and filters the results to include only those available during the specified time period.
 //    - Instruction: Ensure that the method correctly filters doctors based on the given name and time of day (AM/PM).
 	
+	@Transactional(readOnly = true)
 	public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
 		return doctorRepository.findByNameLike(name)
 				.stream()
@@ -179,6 +200,7 @@ public class DoctorService {
 //    - Filters doctors by name and specialty.
 //    - It ensures that the resulting list of doctors matches both the name (case-insensitive) and the specified specialty.
 //    - Instruction: Ensure that both name and specialty are considered when filtering doctors.
+	@Transactional(readOnly = true)
 	public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specialty) {
 		return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name,specialty)
 				.stream()
@@ -192,6 +214,7 @@ public class DoctorService {
 //    - Filters doctors based on their specialty and availability during a specific time period (AM/PM).
 //    - Fetches doctors based on the specified specialty and filters them based on their available time slots for AM/PM.
 //    - Instruction: Ensure the time filtering is accurately applied based on the given specialty and time period (AM/PM).
+	@Transactional(readOnly = true)
 	public Map<String, Object> filterDoctorByTimeAndSpecility(String specialty, String amOrPm) {
 		return doctorRepository.findBySpecialtyIgnoreCase(specialty)
 				.stream()
@@ -228,5 +251,45 @@ public class DoctorService {
 		return docs.filter( d -> true );
 	}
 
-   
+// 18. **patchDoctor Method**:
+//    - Changes only the fields given in the patch, on the managed doctor: the UPDATE only contains the changed
+//      columns (@DynamicUpdate), and only the added/removed slots are inserted/deleted.
+//    - Returns `-1` when the doctor does not exist, `1` otherwise (also when nothing changed).
+	@Transactional
+	public int patchDoctor(Long id, DoctorPatch patch) {
+		Optional<Doctor> opt = doctorRepository.findById(id);
+		if( opt.isEmpty() ) {
+			return -1;
+		}
+		Doctor doctor = opt.get();
+		boolean changed = false;
+		boolean phoneChanged = false;
+		if( patch.getName() != null && !patch.getName().equals(doctor.getName()) ) {
+			doctor.setName(patch.getName());
+			changed = true;
+		}
+		if( patch.getSpecialty() != null && !patch.getSpecialty().equals(doctor.getSpecialty()) ) {
+			doctor.setSpecialty(patch.getSpecialty());
+			changed = true;
+		}
+		if( patch.getPhone() != null && !patch.getPhone().equals(doctor.getPhone()) ) {
+			doctor.setPhone(patch.getPhone());
+			phoneChanged = true;
+		}
+		if( patch.getAvailableTimes() != null
+				&& !new LinkedHashSet<>(patch.getAvailableTimes()).equals(new LinkedHashSet<>(doctor.getAvailableTimes())) ) {
+			doctor.replaceAvailableTimes(patch.getAvailableTimes());
+			changed = true;
+		}
+		if( changed ) {
+			// name, specialty and slots are what the slot search index holds
+			doctorRepository.flush();
+			slotSearchService.refreshDoctor(id);
+		}
+		if( changed || phoneChanged ) {
+			invalidations.publish(CacheInvalidationService.DOCTOR, id);
+		}
+		return 1;
+	}
+
 }
@@ -0,0 +1,328 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.PatientRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Pushes appointment changes to the doctors' dashboards over Server-Sent Events.
+// - Each open dashboard holds an SseEmitter (async servlet request): an idle connection costs
+//   no thread, only the emitter and a small queue.
+// - Changes are received from the outbox relay after the transaction commits and fanned out by a
+//   small dispatcher pool, so neither the booking request nor the relay waits on a client.
+// - Each subscriber has a bounded queue and at most one send in flight. A client too slow to keep
+//   up loses its queued deltas and gets a single `resync` event asking it to reload the day instead.
+// - A send still blocked after `send-timeout-ms` (a client that stopped reading) ends that client's
+//   stream, so the dispatcher thread it holds is released for the other doctors.
+// - A heartbeat comment is sent periodically so proxies keep idle connections open and dead
+//   clients are detected.
+@Service
+public class DoctorUpdatesHub implements AppointmentEventSubscriber {
+
+	private final static Logger log = LoggerFactory.getLogger(DoctorUpdatesHub.class);
+
+	private final PatientRepository patientRepository;
+	private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final AtomicLong resyncs = new AtomicLong();
+	private final AtomicLong slowClients = new AtomicLong();
+	private final ExecutorService dispatcher;
+
+	private final long timeoutMillis;
+	private final int queueSize;
+	private final int maxConnections;
+	private final int maxPerDoctor;
+	private final long sendTimeoutNanos;
+
+	public DoctorUpdatesHub(PatientRepository patientRepository,
+			@Value("${appointments.stream.timeout-ms:1800000}") long timeoutMillis,
+			@Value("${appointments.stream.queue-size:64}") int queueSize,
+			@Value("${appointments.stream.max-connections:10000}") int maxConnections,
+			@Value("${appointments.stream.max-per-doctor:8}") int maxPerDoctor,
+			@Value("${appointments.stream.dispatch-threads:4}") int dispatchThreads,
+			@Value("${appointments.stream.send-timeout-ms:5000}") long sendTimeoutMillis) {
+		this.patientRepository = patientRepository;
+		this.timeoutMillis = timeoutMillis;
+		this.queueSize = queueSize;
+		this.maxConnections = maxConnections;
+		this.maxPerDoctor = maxPerDoctor;
+		this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+		AtomicInteger n = new AtomicInteger();
+		this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+			Thread t = new Thread(r, "appointment-stream-" + n.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	// Returns null when the connection limits are reached.
+	public SseEmitter subscribe(Long doctorId) {
+		if( connections.incrementAndGet() > maxConnections ) {
+			connections.decrementAndGet();
+			return null;
+		}
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(doctorId, emitter);
+		AtomicBoolean added = new AtomicBoolean();
+		// the per-doctor check and the add are one step: concurrent subscribes can not exceed the cap
+		subscribers.compute(doctorId, (k, doctorSubscribers) -> {
+			if( doctorSubscribers == null ) {
+				doctorSubscribers = ConcurrentHashMap.newKeySet();
+			}
+			if( doctorSubscribers.size() < maxPerDoctor ) {
+				added.set(doctorSubscribers.add(subscriber));
+			}
+			return doctorSubscribers.isEmpty() ? null : doctorSubscribers;
+		});
+		if( !added.get() ) {
+			connections.decrementAndGet();
+			return null;
+		}
+		emitter.onCompletion(() -> remove(subscriber));
+		emitter.onTimeout(() -> remove(subscriber));
+		emitter.onError(e -> remove(subscriber));
+		subscriber.offer(SseEmitter.event().name("connected").data(Map.of("doctorId", doctorId)));
+		return emitter;
+	}
+
+	@Override
+	public void onAppointmentEvents(List<AppointmentChangedEvent> events) {
+		for(AppointmentChangedEvent event : events) {
+			onAppointmentChanged(event);
+		}
+	}
+
+	private void onAppointmentChanged(AppointmentChangedEvent event) {
+		boolean watched = hasSubscribers(event.getDoctorId()) || hasSubscribers(event.getPreviousDoctorId());
+		if( !watched ) {
+			return;
+		}
+		dispatcher.execute(() -> {
+			AppointmentDTO delta = toDelta(event);
+			String name = event.getKind().name().toLowerCase();
+			publish(event.getDoctorId(), name, delta);
+			if( event.getPreviousDoctorId() != null && !event.getPreviousDoctorId().equals(event.getDoctorId()) ) {
+				// moved to another doctor: it disappears from the previous doctor's schedule
+				publish(event.getPreviousDoctorId(), "cancelled", delta);
+			}
+		});
+	}
+
+	@Scheduled(fixedRateString = "${appointments.stream.heartbeat-ms:20000}")
+	public void heartbeat() {
+		for(Set<Subscriber> doctorSubscribers : subscribers.values()) {
+			for(Subscriber subscriber : doctorSubscribers) {
+				subscriber.offer(SseEmitter.event().comment("heartbeat"));
+			}
+		}
+	}
+
+	// Ends the streams of the clients whose current send has been blocked for more than `send-timeout-ms`.
+	@Scheduled(fixedRateString = "${appointments.stream.send-check-ms:1000}")
+	public void dropSlowClients() {
+		long now = System.nanoTime();
+		for(Set<Subscriber> doctorSubscribers : subscribers.values()) {
+			for(Subscriber subscriber : doctorSubscribers) {
+				long since = subscriber.sendingSince;
+				if( since != 0 && now - since > sendTimeoutNanos && !subscriber.closed.get() ) {
+					slowClients.incrementAndGet();
+					log.debug("Appointment stream of doctor {} closed: send blocked for more than {} ms",
+							subscriber.doctorId, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+					remove(subscriber);
+					subscriber.queue.clear();
+					// the container closes the connection, which fails the blocked write
+					subscriber.emitter.completeWithError(new IOException("Send timeout"));
+				}
+			}
+		}
+	}
+
+	public int getConnections() {
+		return connections.get();
+	}
+
+	public long getResyncs() {
+		return resyncs.get();
+	}
+
+	public long getSlowClients() {
+		return slowClients.get();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		for(Set<Subscriber> doctorSubscribers : subscribers.values()) {
+			for(Subscriber subscriber : doctorSubscribers) {
+				subscriber.emitter.complete();
+			}
+		}
+		dispatcher.shutdownNow();
+	}
+
+	private boolean hasSubscribers(Long doctorId) {
+		if( doctorId == null ) {
+			return false;
+		}
+		Set<Subscriber> doctorSubscribers = subscribers.get(doctorId);
+		return doctorSubscribers != null && !doctorSubscribers.isEmpty();
+	}
+
+	private void publish(Long doctorId, String name, AppointmentDTO delta) {
+		Set<Subscriber> doctorSubscribers = subscribers.get(doctorId);
+		if( doctorSubscribers == null ) {
+			return;
+		}
+		for(Subscriber subscriber : doctorSubscribers) {
+			subscriber.offer(SseEmitter.event().name(name).id(String.valueOf(delta.getId())).data(delta));
+		}
+	}
+
+	private AppointmentDTO toDelta(AppointmentChangedEvent event) {
+		AppointmentDTO dto = new AppointmentDTO();
+		dto.setId(event.getAppointmentId());
+		dto.setDoctorId(event.getDoctorId());
+		dto.setPatientId(event.getPatientId());
+		dto.setStatus(event.getStatus());
+		if( event.getAppointmentTime() != null ) {
+			dto.setAppointmentTime(event.getAppointmentTime());
+			dto.setAppointmentDate(event.getAppointmentTime().toLocalDate());
+			dto.setAppointmentTimeOnly(event.getAppointmentTime().toLocalTime());
+			dto.setEndTime(event.getAppointmentTime().plusHours(1));
+		}
+		if( event.getPatientId() != null ) {
+			try {
+				Patient p = patientRepository.findById(event.getPatientId()).orElse(null);
+				if( p != null ) {
+					dto.setPatientName(p.getName());
+					dto.setPatientEmail(p.getEmail());
+					dto.setPatientPhone(p.getPhone());
+					dto.setPatientAddress(p.getAddress());
+				}
+			} catch(Exception e) {
+				log.warn("Can not load patient {} for appointment {}", event.getPatientId(), event.getAppointmentId(), e);
+			}
+		}
+		return dto;
+	}
+
+	private void remove(Subscriber subscriber) {
+		if( subscriber.closed.compareAndSet(false, true) ) {
+			// the last stream of a doctor takes the doctor out of the map
+			subscribers.computeIfPresent(subscriber.doctorId, (k, doctorSubscribers) -> {
+				doctorSubscribers.remove(subscriber);
+				return doctorSubscribers.isEmpty() ? null : doctorSubscribers;
+			});
+			connections.decrementAndGet();
+		}
+	}
+
+	private class Subscriber {
+
+		private final Long doctorId;
+		private final SseEmitter emitter;
+		private final Queue<SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger pending = new AtomicInteger();
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private volatile boolean overflowed;
+		private volatile long sendingSince;
+
+		Subscriber(Long doctorId, SseEmitter emitter) {
+			this.doctorId = doctorId;
+			this.emitter = emitter;
+		}
+
+		void offer(SseEventBuilder event) {
+			if( closed.get() ) {
+				return;
+			}
+			if( pending.incrementAndGet() > queueSize ) {
+				pending.decrementAndGet();
+				overflowed = true;
+			} else {
+				queue.offer(event);
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if( draining.compareAndSet(false, true) ) {
+				try {
+					dispatcher.execute(this::drain);
+				} catch(RuntimeException e) {
+					draining.set(false); // shutting down
+				}
+			}
+		}
+
+		private void drain() {
+			try {
+				for(;;) {
+					if( overflowed ) {
+						overflowed = false;
+						int dropped = 0;
+						while( queue.poll() != null ) {
+							dropped++;
+						}
+						pending.addAndGet(-dropped);
+						resyncs.incrementAndGet();
+						send(SseEmitter.event().name("resync").data(Map.of("doctorId", doctorId)));
+					}
+					SseEventBuilder event = queue.poll();
+					if( event == null ) {
+						break;
+					}
+					pending.decrementAndGet();
+					send(event);
+				}
+			} catch(IOException | IllegalStateException e) {
+				// client gone: the container reports the error/completion too, remove right away anyway
+				remove(this);
+				queue.clear();
+				return;
+			} finally {
+				draining.set(false);
+			}
+			if( !queue.isEmpty() || overflowed ) {
+				schedule();
+			}
+		}
+
+		private void send(SseEventBuilder event) throws IOException {
+			if( closed.get() ) {
+				throw new IOException("Closed");
+			}
+			sendingSince = System.nanoTime() | 1; // never 0 while sending
+			try {
+				emitter.send(event);
+			} finally {
+				sendingSince = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.idempotency.IdempotencyCache;
+import com.project.back_end.idempotency.StoredResponse;
+import com.project.back_end.models.IdempotencyRecord;
+import com.project.back_end.repo.IdempotencyRecordRepository;
+
+// Idempotency-Key handling for the non-idempotent endpoints (appointment booking).
+// - The first request with a key executes; its response (2xx or 4xx) is kept for `ttl-ms` and replayed
+//   to every retry with the same key, which then costs a map lookup instead of a transaction.
+// - Duplicates arriving while the first one is running wait for its response (up to `wait-ms`).
+// - A 5xx response or an exception is not kept: the client may retry and execute again.
+// - A key reused with a different request body is refused with 422.
+// With `shared=true` the keys are also claimed in the idempotency_key table, so that retries landing on
+// another instance are de-duplicated too; the in-memory cache stays in front of it.
+@Service
+public class IdempotencyService {
+
+	private final static Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+	public static final int MAX_KEY_LENGTH = 100;
+	private static final long POLL_MILLIS = 50;
+
+	// The response to send back, and whether it is a replay of an earlier execution.
+	public record Outcome(StoredResponse response, boolean replayed) {
+	}
+
+	private final IdempotencyRecordRepository repository;
+	private final IdempotencyCache cache;
+	private final boolean shared;
+	private final long ttlMillis;
+	private final long waitMillis;
+
+	public IdempotencyService(IdempotencyRecordRepository repository,
+			@Value("${appointments.idempotency.max-entries:10000}") int maxEntries,
+			@Value("${appointments.idempotency.ttl-ms:86400000}") long ttlMillis,
+			@Value("${appointments.idempotency.wait-ms:10000}") long waitMillis,
+			@Value("${appointments.idempotency.shared:false}") boolean shared) {
+		this.repository = repository;
+		this.cache = new IdempotencyCache(maxEntries, ttlMillis, System::currentTimeMillis);
+		this.shared = shared;
+		this.ttlMillis = ttlMillis;
+		this.waitMillis = waitMillis;
+	}
+
+	public static String fingerprint(String request) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// `scope` separates the callers (and endpoints) so that two clients can not collide on a key.
+	public Outcome execute(String scope, String key, String fingerprint, Supplier<StoredResponse> action) {
+		if( key.isBlank() || key.length() > MAX_KEY_LENGTH ) {
+			return new Outcome(error(HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key"), false);
+		}
+		String id = fingerprint(scope) + ":" + key;
+		long deadline = System.currentTimeMillis() + waitMillis;
+		for(;;) {
+			IdempotencyCache.Entry existing = cache.claim(id, fingerprint);
+			if( existing == null ) {
+				break;
+			}
+			if( !existing.getFingerprint().equals(fingerprint) ) {
+				return new Outcome(error(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key already used for another request"), false);
+			}
+			try {
+				StoredResponse response = existing.getResponse().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				if( response != null ) {
+					return new Outcome(response, true);
+				}
+				// the first request failed without a response: claim the key again
+			} catch(TimeoutException e) {
+				return new Outcome(error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed"), false);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return new Outcome(error(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted"), false);
+			} catch(ExecutionException e) {
+				// not completed exceptionally: abandon() completes with null
+			}
+		}
+
+		if( shared ) {
+			Outcome other = claimShared(id, fingerprint, deadline);
+			if( other != null ) {
+				return other;
+			}
+		}
+		StoredResponse response;
+		try {
+			response = action.get();
+		} catch(RuntimeException e) {
+			release(id, null);
+			throw e;
+		}
+		if( response.status() >= 500 ) {
+			release(id, response);
+			return new Outcome(response, false);
+		}
+		cache.complete(id, response);
+		if( shared ) {
+			try {
+				repository.complete(id, response.status(), response.body());
+			} catch(RuntimeException e) {
+				log.warn("Can not store the response of idempotency key {}", key, e);
+			}
+		}
+		return new Outcome(response, false);
+	}
+
+	// null when this instance owns the key; otherwise the outcome of another instance's execution.
+	private Outcome claimShared(String id, String fingerprint, long deadline) {
+		LocalDateTime now = LocalDateTime.now();
+		if( repository.claim(id, fingerprint, now, now.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis))) == 1 ) {
+			return null;
+		}
+		for(;;) {
+			Optional<IdempotencyRecord> record = repository.findById(id);
+			if( record.isEmpty() ) {
+				// released by the other instance: let the client retry
+				cache.abandon(id, null);
+				return new Outcome(error(HttpStatus.CONFLICT, "A request with this Idempotency-Key failed, retry it"), false);
+			}
+			if( !record.get().getFingerprint().equals(fingerprint) ) {
+				cache.abandon(id, null);
+				return new Outcome(error(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key already used for another request"), false);
+			}
+			if( record.get().getStatus() != 0 ) {
+				StoredResponse response = new StoredResponse(record.get().getStatus(), record.get().getBody());
+				cache.complete(id, response);
+				return new Outcome(response, true);
+			}
+			if( System.currentTimeMillis() >= deadline ) {
+				cache.abandon(id, null);
+				return new Outcome(error(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed"), false);
+			}
+			try {
+				Thread.sleep(POLL_MILLIS);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cache.abandon(id, null);
+				return new Outcome(error(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted"), false);
+			}
+		}
+	}
+
+	private void release(String id, StoredResponse response) {
+		cache.abandon(id, response);
+		if( shared ) {
+			try {
+				repository.deleteById(id);
+			} catch(RuntimeException e) {
+				log.warn("Can not release idempotency key {}", id, e);
+			}
+		}
+	}
+
+	private static StoredResponse error(HttpStatus status, String message) {
+		return new StoredResponse(status.value(), message);
+	}
+
+	@Scheduled(fixedDelayString = "${appointments.idempotency.purge-ms:60000}")
+	public void purge() {
+		cache.purgeExpired();
+		if( shared ) {
+			LocalDateTime now = LocalDateTime.now();
+			// an in-flight row this old belongs to an instance that died during the request
+			LocalDateTime stale = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(waitMillis * 6));
+			int deleted;
+			do {
+				deleted = repository.deleteExpired(now, stale, 1000);
+			} while( deleted == 1000 );
+		}
+	}
+}
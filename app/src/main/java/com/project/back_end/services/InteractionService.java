@@ -0,0 +1,114 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.DTO.DrugInteraction;
+import com.project.back_end.interactions.InteractionGraph;
+import com.project.back_end.models.Prescription;
+
+// Checks a new prescription against the patient's active ones with the in-memory InteractionGraph.
+// - The dataset (`interactions.dataset`, the bundled reference by default) is loaded when the application is ready.
+// - A dataset that is a file is reloaded when its modification time changes (checked every `reload-check-ms`),
+//   an admin can also reload it (/admin/interactions/reload). The new graph is built aside and swapped in:
+//   checks never wait for a load, and a dataset that does not parse leaves the previous graph in place.
+//   Such a file is not read again until its modification time changes once more.
+@Service
+public class InteractionService {
+
+	private final static Logger log = LoggerFactory.getLogger(InteractionService.class);
+
+	private final Resource dataset;
+	private volatile Loaded loaded = new Loaded(InteractionGraph.EMPTY, -1, null);
+	private volatile String lastError;
+	// modification time of the last version read, loaded or not
+	private volatile long attemptedModified = -1;
+
+	private record Loaded(InteractionGraph graph, long lastModified, LocalDateTime at) {
+	}
+
+	public InteractionService(@Value("${interactions.dataset:classpath:interactions/drug-interactions.txt}") Resource dataset) {
+		this.dataset = dataset;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		reload();
+	}
+
+	@Scheduled(fixedDelayString = "${interactions.reload-check-ms:30000}", initialDelayString = "${interactions.reload-check-ms:30000}")
+	public void reloadIfChanged() {
+		try {
+			if( dataset.isFile() && dataset.lastModified() != attemptedModified ) {
+				reload();
+			}
+		} catch(IOException e) {
+			log.warn("Can not check the drug interaction dataset {}", dataset, e);
+		}
+	}
+
+	// Loads the dataset again; false (and the previous graph kept) when it can not be read or parsed.
+	public synchronized boolean reload() {
+		try {
+			long lastModified = dataset.isFile() ? dataset.lastModified() : -1;
+			attemptedModified = lastModified;
+			InteractionGraph graph;
+			try( Reader reader = new InputStreamReader(dataset.getInputStream(), StandardCharsets.UTF_8) ) {
+				graph = InteractionGraph.parse(reader);
+			}
+			loaded = new Loaded(graph, lastModified, LocalDateTime.now());
+			lastError = null;
+			log.info("Drug interactions loaded from {}: {} drugs, {} interactions", dataset, graph.drugCount(), graph.interactionCount());
+			return true;
+		} catch(IOException e) {
+			lastError = e.getMessage();
+			log.warn("Can not load the drug interaction dataset {}, keeping the previous one", dataset, e);
+			return false;
+		}
+	}
+
+	public InteractionGraph getGraph() {
+		return loaded.graph();
+	}
+
+	// The interactions between a new medication and the patient's active prescriptions.
+	public List<DrugInteraction> check(String medication, List<Prescription> active) {
+		InteractionGraph graph = loaded.graph();
+		int[] drugs = graph.drugsIn(medication);
+		if( drugs.length == 0 || active.isEmpty() ) {
+			return List.of();
+		}
+		List<DrugInteraction> found = new ArrayList<>();
+		for(Prescription p : active) {
+			found.addAll(graph.between(drugs, graph.drugsIn(p.getMedication()), p.getId()));
+		}
+		return found;
+	}
+
+	public Map<String, Object> getStats() {
+		Loaded current = loaded;
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("dataset", dataset.getDescription());
+		stats.put("drugs", current.graph().drugCount());
+		stats.put("interactions", current.graph().interactionCount());
+		stats.put("loadedAt", current.at());
+		stats.put("lastError", lastError);
+		return stats;
+	}
+}
@@ -0,0 +1,322 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxEventRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Transactional outbox for the appointment lifecycle events.
+// - record: the AppointmentChangedEvent published by AppointmentService is stored in `outbox_event`
+//   inside the booking/update/cancel transaction, so it is committed (or rolled back) with the change.
+// - relay: a background thread reads the committed events in batches, in id order, and hands each
+//   batch to every AppointmentEventSubscriber. It is woken right after a commit and otherwise polls
+//   every `poll-interval-ms`, so events left behind by a crash are picked up at the next start.
+// - A subscriber failure is isolated to the events it failed on: they are retried with an exponential
+//   delay, and given up (with `last_error` kept) after `max-attempts`.
+// - Order is kept per appointment (the aggregate id), not across appointments: the later events of an
+//   appointment whose event failed are not delivered again until that event is delivered or given up
+//   (held back in the batch, then by claimBatch). Events of other appointments go on meanwhile.
+// - getStats exposes the backlog, the relay lag (commit to dispatch) and the throughput.
+@Service
+public class OutboxRelay {
+
+	private final static Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+	private final static String RELAY_THREAD = "outbox-relay";
+	private final static long MAX_RETRY_DELAY_SECONDS = 600;
+	private final static int PURGE_CHUNK = 1000;
+
+	private final OutboxEventRepository outboxRepository;
+	private final List<AppointmentEventSubscriber> subscribers;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+
+	private final boolean enabled;
+	private final int batchSize;
+	private final long pollIntervalMillis;
+	private final int maxAttempts;
+	private final int retentionDays;
+
+	private volatile boolean running;
+	private Thread relay;
+
+	private final AtomicLong dispatched = new AtomicLong();
+	private final AtomicLong failedAttempts = new AtomicLong();
+	private final AtomicLong abandoned = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private volatile long lastLagMillis;
+	private volatile long maxLagMillis;
+	private volatile double eventsPerSecond;
+	private long windowStart = System.nanoTime();
+	private long windowCount;
+
+	public OutboxRelay(OutboxEventRepository outboxRepository,
+			List<AppointmentEventSubscriber> subscribers,
+			TransactionTemplate transactionTemplate,
+			ObjectMapper objectMapper,
+			@Value("${outbox.relay.enabled:true}") boolean enabled,
+			@Value("${outbox.relay.batch-size:100}") int batchSize,
+			@Value("${outbox.relay.poll-interval-ms:500}") long pollIntervalMillis,
+			@Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+			@Value("${outbox.retention-days:7}") int retentionDays) {
+		this.outboxRepository = outboxRepository;
+		this.subscribers = subscribers;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.maxAttempts = maxAttempts;
+		this.retentionDays = retentionDays;
+	}
+
+	// Runs in the publisher's transaction.
+	@EventListener
+	public void record(AppointmentChangedEvent event) {
+		OutboxEvent row = new OutboxEvent();
+		row.setEventType(event.getKind().name());
+		row.setAggregateId(event.getAppointmentId());
+		row.setCreatedAt(LocalDateTime.now());
+		try {
+			row.setPayload(objectMapper.writeValueAsString(event));
+		} catch(JsonProcessingException e) {
+			throw new IllegalStateException("Can not serialize " + event.getKind() + " event", e);
+		}
+		outboxRepository.save(row);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void committed(AppointmentChangedEvent event) {
+		Thread t = relay;
+		if( t != null ) {
+			LockSupport.unpark(t);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if( !enabled || running ) {
+			return;
+		}
+		running = true;
+		relay = new Thread(this::relayLoop, RELAY_THREAD);
+		relay.setDaemon(true);
+		relay.start();
+		log.info("Outbox relay started for {} subscribers", subscribers.size());
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if( relay != null ) {
+			LockSupport.unpark(relay);
+			try {
+				relay.join(pollIntervalMillis * 4);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void relayLoop() {
+		long backoff = 0;
+		while( running ) {
+			int relayed;
+			try {
+				relayed = relayBatch();
+				backoff = 0;
+			} catch(Exception e) {
+				// database unavailable: keep the events in the outbox and retry later
+				backoff = backoff == 0 ? pollIntervalMillis : Math.min(backoff * 2, 30_000);
+				log.warn("Outbox relay failed, retrying in {} ms", backoff, e);
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+				continue;
+			}
+			if( relayed < batchSize ) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis));
+			}
+		}
+	}
+
+	// Dispatches one batch; returns the number of outbox rows handled.
+	int relayBatch() {
+		Integer handled = transactionTemplate.execute(status -> {
+			LocalDateTime now = LocalDateTime.now();
+			List<OutboxEvent> claimed = outboxRepository.claimBatch(now, batchSize);
+			if( claimed.isEmpty() ) {
+				return 0;
+			}
+			List<OutboxEvent> rows = new ArrayList<>(claimed.size());
+			List<AppointmentChangedEvent> events = new ArrayList<>(claimed.size());
+			for(OutboxEvent row : claimed) {
+				try {
+					events.add(objectMapper.readValue(row.getPayload(), AppointmentChangedEvent.class));
+					rows.add(row);
+				} catch(JsonProcessingException e) {
+					giveUp(row, now, "Unreadable payload: " + e.getOriginalMessage());
+				}
+			}
+			String[] errors = new String[rows.size()];
+			boolean[] heldBack = new boolean[rows.size()];
+			for(AppointmentEventSubscriber subscriber : subscribers) {
+				dispatch(subscriber, events, errors, heldBack);
+			}
+			for(int i = 0; i < rows.size(); i++) {
+				OutboxEvent row = rows.get(i);
+				if( heldBack[i] && errors[i] == null ) {
+					// left pending, no attempt counted: claimed again once the earlier event is done
+					continue;
+				}
+				if( errors[i] == null ) {
+					row.setPublishedAt(now);
+					row.setLastError(null);
+					recordLag(row, now);
+				} else {
+					retryLater(row, now, errors[i]);
+				}
+			}
+			return claimed.size();
+		});
+		int n = handled == null ? 0 : handled;
+		if( n > 0 ) {
+			batches.incrementAndGet();
+		}
+		updateThroughput(n);
+		return n;
+	}
+
+	// Delivers the batch; when the subscriber fails on it, redelivers event by event to find the failing ones.
+	// After a failure, the later events of the same appointment are held back instead of delivered.
+	private void dispatch(AppointmentEventSubscriber subscriber, List<AppointmentChangedEvent> events, String[] errors,
+			boolean[] heldBack) {
+		try {
+			subscriber.onAppointmentEvents(events);
+			return;
+		} catch(RuntimeException e) {
+			if( events.size() == 1 ) {
+				errors[0] = describe(subscriber, e);
+				return;
+			}
+		}
+		Set<Long> failed = new HashSet<>();
+		for(int i = 0; i < events.size(); i++) {
+			Long appointmentId = events.get(i).getAppointmentId();
+			if( appointmentId != null && failed.contains(appointmentId) ) {
+				heldBack[i] = true;
+				continue;
+			}
+			try {
+				subscriber.onAppointmentEvents(List.of(events.get(i)));
+			} catch(RuntimeException e) {
+				errors[i] = describe(subscriber, e);
+				if( appointmentId != null ) {
+					failed.add(appointmentId);
+				}
+			}
+		}
+	}
+
+	private String describe(AppointmentEventSubscriber subscriber, RuntimeException e) {
+		return subscriber.getClass().getSimpleName() + ": " + e;
+	}
+
+	private void retryLater(OutboxEvent row, LocalDateTime now, String error) {
+		failedAttempts.incrementAndGet();
+		row.setAttempts(row.getAttempts() + 1);
+		if( row.getAttempts() >= maxAttempts ) {
+			giveUp(row, now, error);
+			return;
+		}
+		long delay = Math.min(1L << Math.min(row.getAttempts(), 20), MAX_RETRY_DELAY_SECONDS);
+		row.setNextAttemptAt(now.plusSeconds(delay));
+		row.setLastError(truncate(error));
+		log.warn("Outbox event {} ({}) failed, attempt {}, retrying in {}s: {}",
+				row.getId(), row.getEventType(), row.getAttempts(), delay, error);
+	}
+
+	private void giveUp(OutboxEvent row, LocalDateTime now, String error) {
+		abandoned.incrementAndGet();
+		row.setPublishedAt(now);
+		row.setLastError(truncate(error));
+		log.error("Outbox event {} ({}) given up after {} attempts: {}",
+				row.getId(), row.getEventType(), row.getAttempts(), error);
+	}
+
+	private static String truncate(String error) {
+		return error == null || error.length() <= 500 ? error : error.substring(0, 500);
+	}
+
+	private void recordLag(OutboxEvent row, LocalDateTime now) {
+		dispatched.incrementAndGet();
+		long lag = Math.max(0, Duration.between(row.getCreatedAt(), now).toMillis());
+		lastLagMillis = lag;
+		if( lag > maxLagMillis ) {
+			maxLagMillis = lag;
+		}
+	}
+
+	// Events per second over ~10 second windows; only called from the relay thread.
+	private void updateThroughput(int n) {
+		windowCount += n;
+		long elapsed = System.nanoTime() - windowStart;
+		if( elapsed >= TimeUnit.SECONDS.toNanos(10) ) {
+			eventsPerSecond = windowCount * 1e9 / elapsed;
+			windowCount = 0;
+			windowStart = System.nanoTime();
+		}
+	}
+
+	// Dispatched events are only kept `retention-days` for troubleshooting.
+	@Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+	public void purge() {
+		LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+		long deleted = 0;
+		int n;
+		do {
+			n = outboxRepository.deletePublishedBefore(before, PURGE_CHUNK);
+			deleted += n;
+		} while( n == PURGE_CHUNK );
+		log.info("Outbox purge: {} dispatched events older than {} deleted", deleted, before);
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		LocalDateTime oldest = outboxRepository.findOldestPending();
+		stats.put("running", running);
+		stats.put("pending", outboxRepository.countPending());
+		stats.put("oldestPendingSeconds", oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+		stats.put("dispatched", dispatched.get());
+		stats.put("failedAttempts", failedAttempts.get());
+		stats.put("abandoned", abandoned.get());
+		stats.put("batches", batches.get());
+		stats.put("lastLagMillis", lastLagMillis);
+		stats.put("maxLagMillis", maxLagMillis);
+		stats.put("eventsPerSecond", Math.round(eventsPerSecond * 10) / 10.0);
+		return stats;
+	}
+}
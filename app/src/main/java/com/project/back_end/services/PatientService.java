@@ -1,22 +1,26 @@
 package com.project.back_end.services;
 
+import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.HistoryEntry;
+import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PatientService {
 	
-	private final static Log log = LogFactory.getLog(PatientService.class);
+	private final static Logger log = LoggerFactory.getLogger(PatientService.class);
 	
 // 1. **Add @Service Annotation**:
 //    - The `@Service` annotation is used to mark this class as a Spring service component. 
@@ -25,11 +29,17 @@ public class PatientService {
 
 	private final PatientRepository patientRepository;
 	private final TokenService tokenService;
+	private final AppointmentArchiveService archiveService;
+	private final DoctorRepository doctorRepository;
 	
 	public PatientService(PatientRepository patientRepository,
-			TokenService tokenService) {
+			TokenService tokenService,
+			AppointmentArchiveService archiveService,
+			DoctorRepository doctorRepository) {
 		this.patientRepository = patientRepository;
 		this.tokenService = tokenService;
+		this.archiveService = archiveService;
+		this.doctorRepository = doctorRepository;
 	}
 	
 // 2. **Constructor Injection for Dependencies**:
@@ -47,7 +57,7 @@ public class PatientService {
 			patientRepository.save(patient);
 			return 1;
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not create patient {}", patient.getEmail(), e);
 		}
 		return 0;
 	}
@@ -57,12 +67,38 @@ public class PatientService {
 //    - The appointments are then converted into `AppointmentDTO` objects for easier consumption by the API client.
 //    - This method is marked as `@Transactional` to ensure database consistency during the transaction.
 //    - Instruction: Ensure that appointment data is properly converted into DTOs and the method handles errors gracefully.
-	@Transactional
+//    - Reads both the current appointments and the archived ones (see `AppointmentArchiveService`).
+//    - Only the patient of the token: another `id` is refused with 403.
+	@Transactional(readOnly = true)
 	public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
 		try {
-			return ResponseEntity.ok(Map.of());
+			Patient patient = patientRepository.findByEmail(tokenService.extractEmail(token));
+			if( patient == null || !patient.getId().equals(id) ) {
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			return ResponseEntity.ok(Map.of("appointments",archiveService.getPatientHistory(patient.getId())));
+		} catch(Exception e) {
+			log.warn("Can not load appointments of patient {}", id, e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(Map.of("success",false,"message","Can not load apointments"));
+		}
+	}
+
+//    - **getDoctorPatientAppointment**: the patient record of the doctor dashboard. The doctor of the token gets only
+//      their own appointments with the patient, current and archived, never those with other doctors.
+	@Transactional(readOnly = true)
+	public ResponseEntity<Map<String, Object>> getDoctorPatientAppointment(Long patientId, String token) {
+		try {
+			Doctor doctor = doctorRepository.findByEmail(tokenService.extractEmail(token));
+			if( doctor == null ) {
+				return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success",false,"message","Not Authorized"));
+			}
+			List<HistoryEntry> appointments = archiveService.getPatientHistory(patientId).stream()
+					.filter(entry -> doctor.getId().equals(entry.doctorId()))
+					.toList();
+			return ResponseEntity.ok(Map.of("appointments",appointments));
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not load appointments of patient {}", patientId, e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can not load apointments"));
 		}
@@ -74,24 +110,26 @@ public class PatientService {
 //    - Converts the appointments into `AppointmentDTO` and returns them in the response.
 //    - Instruction: Ensure the method correctly handles "past" and "future" conditions, and that invalid conditions are caught and returned as errors.
 	
+	@Transactional(readOnly = true)
 	public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
 		if( "past".equals(condition) ) {
-			
+			return ResponseEntity.ok(Map.of("appointments",archiveService.getPatientHistory(id, 1)));
 		} else if( "future".equals(condition) ) {
-			
+			return ResponseEntity.ok(Map.of("appointments",archiveService.getPatientHistory(id, 0)));
 		}
-		return ResponseEntity.ok(Map.of());
+		return ResponseEntity.badRequest().body(Map.of("success",false,"message","Unknown condition " + condition));
 	}
 
 // 6. **filterByDoctor Method**:
 //    - Filters appointments for a patient based on the doctor's name.
 //    - It retrieves appointments where the doctor’s name matches the given value, and the patient ID matches the provided ID.
 //    - Instruction: Ensure that the method correctly filters by doctor's name and patient ID and handles any errors or invalid cases.
+	@Transactional(readOnly = true)
 	public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
 		try {
 			return ResponseEntity.ok(Map.of());
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not filter appointments of patient {} by doctor {}", patientId, name, e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can filter by doctor"));
 		}
@@ -102,11 +140,12 @@ public class PatientService {
 //    - This method combines filtering by doctor name and appointment status (past or future).
 //    - Converts the appointments into `AppointmentDTO` objects and returns them in the response.
 //    - Instruction: Ensure that the filter handles both doctor name and condition properly, and catches errors for invalid input.
+	@Transactional(readOnly = true)
 	public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name, long patientId) {
 		try {
 			return ResponseEntity.ok(Map.of());
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not filter appointments of patient {} by doctor {} and condition {}", patientId, name, condition, e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can not filter"));
 		}
@@ -123,7 +162,7 @@ public class PatientService {
 			Patient p = patientRepository.findByEmail(email);
 			return ResponseEntity.ok(Map.of("id",p.getId(),"email",p.getEmail(),"address",p.getAddress(),"name",p.getName(),"phone",p.getPhone()));
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not get patient details", e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can not get patient details"));
 		}
@@ -0,0 +1,122 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentArchiveRepository;
+import com.project.back_end.repo.AppointmentRepository;
+
+// Sets patientId, doctorId and prescribedAt on the prescriptions saved before they existed, from their
+// appointment (current or archived), so that they show in the medication timeline.
+// - Enabled by `prescriptions.backfill.enabled` (the migrate profile); a property and not a condition, so that
+//   the AOT build of the prod profile still has the bean.
+// - Runs once the application is ready, in chunks of `chunk-size` prescriptions ordered by id, each written with
+//   one unordered bulk update. Prescriptions whose appointment no longer exists are left as they are.
+@Service
+public class PrescriptionBackfill {
+
+	private final static Logger log = LoggerFactory.getLogger(PrescriptionBackfill.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final AppointmentRepository appointmentRepository;
+	private final AppointmentArchiveRepository archiveRepository;
+	private final boolean enabled;
+	private final int chunkSize;
+
+	public PrescriptionBackfill(MongoTemplate mongoTemplate,
+			AppointmentRepository appointmentRepository,
+			AppointmentArchiveRepository archiveRepository,
+			@Value("${prescriptions.backfill.enabled:false}") boolean enabled,
+			@Value("${prescriptions.backfill.chunk-size:500}") int chunkSize) {
+		this.mongoTemplate = mongoTemplate;
+		this.appointmentRepository = appointmentRepository;
+		this.archiveRepository = archiveRepository;
+		this.enabled = enabled;
+		this.chunkSize = chunkSize;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if( enabled ) {
+			Thread t = new Thread(this::run, "prescription-backfill");
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+
+	void run() {
+		try {
+			long updated = 0;
+			String lastId = null;
+			for(;;) {
+				Criteria criteria = Criteria.where("patientId").exists(false);
+				if( lastId != null ) {
+					criteria = criteria.and("_id").gt(lastId);
+				}
+				Query query = Query.query(criteria).with(Sort.by("_id")).limit(chunkSize);
+				query.fields().include("appointmentId");
+				List<Prescription> chunk = mongoTemplate.find(query, Prescription.class);
+				if( chunk.isEmpty() ) {
+					break;
+				}
+				lastId = chunk.get(chunk.size() - 1).getId();
+				updated += update(chunk);
+			}
+			if( updated > 0 ) {
+				log.info("Prescription backfill: {} prescriptions linked to their patient", updated);
+			}
+		} catch(Exception e) {
+			log.warn("Prescription backfill stopped, it resumes at the next start", e);
+		}
+	}
+
+	private int update(List<Prescription> chunk) {
+		List<Long> appointmentIds = new ArrayList<>(chunk.size());
+		for(Prescription p : chunk) {
+			if( p.getAppointmentId() != null ) {
+				appointmentIds.add(p.getAppointmentId());
+			}
+		}
+		Map<Long, Object[]> owners = new HashMap<>();
+		for(Object[] row : archiveRepository.findPrescriptionOwners(appointmentIds)) {
+			owners.put((Long) row[0], row);
+		}
+		for(Object[] row : appointmentRepository.findPrescriptionOwners(appointmentIds)) {
+			owners.put((Long) row[0], row);
+		}
+
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+		int count = 0;
+		for(Prescription p : chunk) {
+			Object[] owner = owners.get(p.getAppointmentId());
+			if( owner != null ) {
+				bulk.updateOne(Query.query(Criteria.where("_id").is(p.getId())), new Update()
+						.set("patientId", owner[1])
+						.set("doctorId", owner[2])
+						.set("prescribedAt", (LocalDateTime) owner[3]));
+				count++;
+			}
+		}
+		if( count > 0 ) {
+			bulk.execute();
+		}
+		return count;
+	}
+}
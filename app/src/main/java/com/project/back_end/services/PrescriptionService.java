@@ -1,14 +1,21 @@
 package com.project.back_end.services;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.DrugInteraction;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PrescriptionRepository;
@@ -16,7 +23,7 @@ import com.project.back_end.repo.PrescriptionRepository;
 @Service
 public class PrescriptionService {
 
-	private final static Log log = LogFactory.getLog(PrescriptionService.class);
+	private final static Logger log = LoggerFactory.getLogger(PrescriptionService.class);
 	
  // 1. **Add @Service Annotation**:
 //    - The `@Service` annotation marks this class as a Spring service component, allowing Spring's container to manage it.
@@ -27,9 +34,19 @@ public class PrescriptionService {
 //    - The `PrescriptionService` class depends on the `PrescriptionRepository` to interact with the database.
 //    - It is injected through the constructor, ensuring proper dependency management and enabling testing.
 //    - Instruction: Constructor injection is a good practice, ensuring that all necessary dependencies are available at the time of service initialization.
+	private final static int MAX_PAGE_SIZE = 100;
+
 	private final PrescriptionRepository prescriptionRepository;
-	public PrescriptionService(PrescriptionRepository prescriptionRepository, AppointmentRepository appointmentRepository) {
+	private final AppointmentRepository appointmentRepository;
+	private final InteractionService interactionService;
+	private final int activeDays;
+	public PrescriptionService(PrescriptionRepository prescriptionRepository, AppointmentRepository appointmentRepository,
+			InteractionService interactionService,
+			@Value("${interactions.active-days:90}") int activeDays) {
 		this.prescriptionRepository = prescriptionRepository;
+		this.appointmentRepository = appointmentRepository;
+		this.interactionService = interactionService;
+		this.activeDays = activeDays;
 	}
 	
 // 3. **savePrescription Method**:
@@ -38,13 +55,27 @@ public class PrescriptionService {
 //    - If a prescription exists, it returns a `400 Bad Request` with a message stating the prescription already exists.
 //    - If no prescription exists, it saves the new prescription and returns a `201 Created` status with a success message.
 //    - Instruction: Handle errors by providing appropriate status codes and messages, ensuring that multiple prescriptions for the same appointment are not saved.
+//    - The patient and the doctor are taken from the appointment (never from the request), for the medication timeline.
+//    - The interactions with the patient's prescriptions of the last `interactions.active-days` are returned with it:
+//      they are flagged to the doctor, the prescription is saved anyway.
 	public ResponseEntity<Map<String, Object>> savePrescription(Prescription p ) {
 		try {
+			List<Object[]> owner = p.getAppointmentId() == null ? List.of()
+					: appointmentRepository.findPrescriptionOwners(List.of(p.getAppointmentId()));
+			if( owner.isEmpty() ) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+						.body(Map.of("success",false,"message","Appointment not found"));
+			}
+			p.setPatientId((Long) owner.get(0)[1]);
+			p.setDoctorId((Long) owner.get(0)[2]);
+			p.setPrescribedAt(LocalDateTime.now());
+			List<DrugInteraction> interactions = interactionService.check(p.getMedication(),
+					prescriptionRepository.findByPatientIdAndPrescribedAtAfter(p.getPatientId(), p.getPrescribedAt().minusDays(activeDays)));
 			prescriptionRepository.save(p);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body(Map.of("success",true,"message","prescription saved"));
+			return ResponseEntity.status(HttpStatus.CREATED)
+					.body(Map.of("success",true,"message","prescription saved","interactions",interactions));
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not save prescription for appointment {}", p.getAppointmentId(), e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can not sasve"));
 		}
@@ -57,16 +88,44 @@ public class PrescriptionService {
 	public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
 		try {
 			List<Prescription> prescrs = prescriptionRepository.findByAppointmentId(appointmentId);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body(Map.of("success",true,"prescriptions",prescrs));
+			return ResponseEntity.ok(Map.of("success",true,"prescriptions",prescrs));
 		} catch(Exception e) {
-			log.warn(e.getMessage(),e);
+			log.warn("Can not load prescriptions of appointment {}", appointmentId, e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("success",false,"message","Can not sasve"));
 		}
 	}
 
-// 5. **Exception Handling and Error Responses**:
+// 5. **getMedicationTimeline Method**:
+//    - A page of a patient's prescriptions, latest first, for the doctor about to prescribe.
+//    - `text` (words or "quoted phrase", null for all) restricts it to the prescriptions whose medication or notes match.
+//    - Pages are slices: `hasNext` instead of a total, so no count query is run.
+	public ResponseEntity<Map<String, Object>> getMedicationTimeline(Long patientId, String text, int page, int size) {
+		if( page < 0 || size < 1 ) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(Map.of("success",false,"message","Invalid page"));
+		}
+		PageRequest request = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+		try {
+			Slice<Prescription> slice = text == null || text.isBlank()
+					? prescriptionRepository.findByPatientIdOrderByPrescribedAtDesc(patientId, request)
+					: prescriptionRepository.findByPatientIdOrderByPrescribedAtDesc(patientId,
+							TextCriteria.forDefaultLanguage().matching(text), request);
+			Map<String, Object> body = new HashMap<>();
+			body.put("success", true);
+			body.put("prescriptions", slice.getContent());
+			body.put("page", page);
+			body.put("size", request.getPageSize());
+			body.put("hasNext", slice.hasNext());
+			return ResponseEntity.ok(body);
+		} catch(Exception e) {
+			log.warn("Can not load the medication timeline of patient {}", patientId, e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(Map.of("success",false,"message","Can not load prescriptions"));
+		}
+	}
+
+// 6. **Exception Handling and Error Responses**:
 //    - Both methods (`savePrescription` and `getPrescription`) contain try-catch blocks to handle exceptions that may occur during database interaction.
 //    - If an error occurs, the method logs the error and returns an HTTP `500 Internal Server Error` response with a corresponding error message.
 //    - Instruction: Ensure that all potential exceptions are handled properly, and meaningful responses are returned to the client.
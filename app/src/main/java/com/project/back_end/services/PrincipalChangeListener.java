@@ -0,0 +1,35 @@
+package com.project.back_end.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Patient;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Entity listener of Patient and Admin: an updated (e.g. new email) or deleted account is published as a
+// PATIENT / ADMIN invalidation, so every node drops the principal TokenService cached for its tokens.
+// Doctors are published by DoctorService and DoctorOffboardingService.
+// - Created by Hibernate through Spring's bean container; the service is looked up on first use, as the
+//   entity manager factory is built before it.
+@Component
+public class PrincipalChangeListener {
+
+	private final ObjectProvider<CacheInvalidationService> invalidations;
+
+	public PrincipalChangeListener(ObjectProvider<CacheInvalidationService> invalidations) {
+		this.invalidations = invalidations;
+	}
+
+	@PostUpdate
+	@PostRemove
+	public void changed(Object entity) {
+		if( entity instanceof Patient patient && patient.getId() != null ) {
+			invalidations.getObject().publish(CacheInvalidationService.PATIENT, patient.getId());
+		} else if( entity instanceof Admin admin && admin.getId() != null ) {
+			invalidations.getObject().publish(CacheInvalidationService.ADMIN, admin.getId());
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.project.back_end.datasource.ReadYourWrites;
+import com.project.back_end.ratelimit.RateLimitProperties;
+import com.project.back_end.ratelimit.RateLimiter;
+import com.project.back_end.repo.RateLimitBucketRepository;
+
+// Per-route request budgets (the `ratelimit.routes.*` properties), checked by RateLimitInterceptor.
+// - Each caller (user or IP) of a route has its own token bucket, kept in memory (RateLimiter).
+// - With `ratelimit.shared=true` a request allowed locally is also counted in the rate_limit_bucket
+//   table, so that the budget holds across instances. The local bucket still rejects a flooding
+//   client without touching the database. When the table can not be reached, requests are allowed.
+//   These writes do not make the client sticky to the primary (ReadYourWrites.untracked): a limited
+//   GET still reads from the replica.
+@Service
+public class RateLimitService {
+
+	private final static Logger log = LoggerFactory.getLogger(RateLimitService.class);
+
+	public record Rule(String name, List<PathPattern> paths, Set<String> methods, int capacity,
+			long intervalNanos, RateLimitProperties.Key key) {
+		boolean matches(String method, PathContainer path) {
+			if( !methods.isEmpty() && !methods.contains(method) ) {
+				return false;
+			}
+			for(PathPattern pattern : paths) {
+				if( pattern.matches(path) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private final RateLimitBucketRepository repository;
+	private final boolean shared;
+	private final List<Rule> rules = new ArrayList<>();
+	private final RateLimiter limiter = new RateLimiter();
+	private final Map<String, LongAdder> allowed = new LinkedHashMap<>();
+	private final Map<String, LongAdder> rejected = new LinkedHashMap<>();
+	private final LongAdder sharedFailures = new LongAdder();
+	private volatile boolean sharedFailing;
+
+	public RateLimitService(RateLimitBucketRepository repository, RateLimitProperties properties) {
+		this.repository = repository;
+		this.shared = properties.isShared();
+		if( properties.isEnabled() ) {
+			properties.getRoutes().forEach((name, route) -> {
+				List<PathPattern> paths = route.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+				Set<String> methods = route.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+				long interval = (long) (TimeUnit.MINUTES.toNanos(1) / route.getPerMinute());
+				rules.add(new Rule(name, paths, methods, Math.max(1, route.getCapacity()), interval, route.getKey()));
+				allowed.put(name, new LongAdder());
+				rejected.put(name, new LongAdder());
+			});
+		}
+	}
+
+	// The first rule for this request, null when it is not limited.
+	public Rule match(String method, String path) {
+		if( rules.isEmpty() ) {
+			return null;
+		}
+		PathContainer container = PathContainer.parsePath(path);
+		for(Rule rule : rules) {
+			if( rule.matches(method, container) ) {
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	// 0 when the request may proceed, otherwise the nanoseconds before the caller gets a token again.
+	public long tryAcquire(Rule rule, String caller) {
+		String bucket = rule.name() + ":" + caller;
+		long wait = limiter.tryAcquire(bucket, rule.intervalNanos(), rule.capacity(), System.nanoTime());
+		if( wait == 0 && shared ) {
+			wait = tryAcquireShared(rule, bucket);
+		}
+		(wait == 0 ? allowed : rejected).get(rule.name()).increment();
+		return wait;
+	}
+
+	private long tryAcquireShared(Rule rule, String bucket) {
+		long now = System.currentTimeMillis();
+		long interval = Math.max(1, TimeUnit.NANOSECONDS.toMillis(rule.intervalNanos()));
+		long tolerance = interval * (rule.capacity() - 1L);
+		try {
+			int updated = ReadYourWrites.untracked(() -> {
+				int n = repository.tryAcquire(bucket, now, interval, tolerance);
+				if( n == 0 ) {
+					// no bucket yet, or exhausted: retried whether this node or another one created it
+					repository.create(bucket, now);
+					n = repository.tryAcquire(bucket, now, interval, tolerance);
+				}
+				return n;
+			});
+			if( sharedFailing ) {
+				log.info("Shared rate limit buckets reachable again");
+				sharedFailing = false;
+			}
+			return updated == 1 ? 0 : TimeUnit.MILLISECONDS.toNanos(interval);
+		} catch(RuntimeException e) {
+			sharedFailures.increment();
+			if( !sharedFailing ) {
+				log.warn("Shared rate limit buckets unreachable, only the local limits apply", e);
+				sharedFailing = true;
+			}
+			return 0;
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${ratelimit.evict-ms:60000}")
+	public void evictIdle() {
+		limiter.evictIdle(System.nanoTime());
+		if( shared ) {
+			try {
+				long now = System.currentTimeMillis();
+				while( repository.deleteIdle(now, 1000) == 1000 ) {
+					// next chunk
+				}
+			} catch(RuntimeException e) {
+				log.warn("Can not purge the shared rate limit buckets", e);
+			}
+		}
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> routes = new LinkedHashMap<>();
+		for(Rule rule : rules) {
+			routes.put(rule.name(), Map.of("allowed", allowed.get(rule.name()).sum(), "rejected", rejected.get(rule.name()).sum()));
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("routes", routes);
+		stats.put("buckets", limiter.size());
+		stats.put("shared", shared);
+		stats.put("sharedFailures", sharedFailures.sum());
+		return stats;
+	}
+}
@@ -0,0 +1,157 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.reminders.Reminder;
+import com.project.back_end.reminders.ReminderSender;
+import com.project.back_end.reminders.TimingWheel;
+import com.project.back_end.repo.AppointmentRepository;
+
+// Sends a reminder `lead-minutes` before each scheduled appointment.
+// - The reminders of the appointments up to `horizon` (now + lead + `window-hours`) are kept in a
+//   hierarchical timing wheel keyed by their firing time; a tick every `tick-ms` fires the due ones.
+// - The table is never rescanned: at startup the window is loaded once, then every `refill-ms` only
+//   the slice between the previous horizon and the new one is read.
+// - Bookings, updates and cancellations arrive from the outbox relay and add, move or drop the
+//   reminder of that appointment (appointments beyond the horizon are left to the next refill).
+// - Memory stays bounded by the window (one small node per reminder) and by `max-pending`.
+@Service
+public class ReminderScheduler implements AppointmentEventSubscriber {
+
+	private final static Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+
+	private final AppointmentRepository appointmentRepository;
+	private final ReminderSender sender;
+	private final long leadMinutes;
+	private final long windowHours;
+	private final int maxPending;
+	private final ZoneId zone = ZoneId.systemDefault();
+
+	private final TimingWheel<Reminder> wheel;
+	private final Map<Long, TimingWheel.Timer<Reminder>> byAppointment = new HashMap<>();
+	private LocalDateTime horizon;
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+
+	public ReminderScheduler(AppointmentRepository appointmentRepository,
+			ReminderSender sender,
+			@Value("${appointments.reminders.lead-minutes:1440}") long leadMinutes,
+			@Value("${appointments.reminders.window-hours:24}") long windowHours,
+			@Value("${appointments.reminders.max-pending:500000}") int maxPending,
+			@Value("${appointments.reminders.tick-ms:1000}") long tickMillis) {
+		this.appointmentRepository = appointmentRepository;
+		this.sender = sender;
+		this.leadMinutes = leadMinutes;
+		this.windowHours = windowHours;
+		this.maxPending = maxPending;
+		// 64 buckets per level, 4 levels: 64^4 ticks (194 days at one second) ahead
+		this.wheel = new TimingWheel<>(tickMillis, 64, 4, System.currentTimeMillis());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		synchronized( this ) {
+			// reminders that should have fired while the application was down are not sent late
+			horizon = LocalDateTime.now().plusMinutes(leadMinutes);
+		}
+		refill();
+	}
+
+	// Loads the appointments between the previous horizon and the new one. Holds the lock while
+	// reading so that a change committed meanwhile is applied after the slice, not lost.
+	@Scheduled(fixedRateString = "${appointments.reminders.refill-ms:600000}", initialDelayString = "${appointments.reminders.refill-ms:600000}")
+	public synchronized void refill() {
+		if( horizon == null ) {
+			return;
+		}
+		LocalDateTime to = LocalDateTime.now().plusMinutes(leadMinutes).plusHours(windowHours);
+		if( !to.isAfter(horizon) ) {
+			return;
+		}
+		List<Reminder> slice = appointmentRepository.findReminders(horizon, to);
+		for(Reminder reminder : slice) {
+			schedule(reminder);
+		}
+		log.debug("Reminders loaded up to {}: {} new, {} pending", to, slice.size(), wheel.size());
+		horizon = to;
+	}
+
+	@Scheduled(fixedRateString = "${appointments.reminders.tick-ms:1000}")
+	public void tick() {
+		List<Reminder> due = new ArrayList<>();
+		synchronized( this ) {
+			wheel.advance(System.currentTimeMillis(), due::add);
+			for(Reminder reminder : due) {
+				byAppointment.remove(reminder.appointmentId());
+			}
+		}
+		for(Reminder reminder : due) {
+			try {
+				sender.send(reminder);
+				sent.incrementAndGet();
+			} catch(RuntimeException e) {
+				failed.incrementAndGet();
+				log.warn("Reminder for appointment {} not sent", reminder.appointmentId(), e);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void onAppointmentEvents(List<AppointmentChangedEvent> events) {
+		if( horizon == null ) {
+			return; // not loaded yet: the initial load reads the committed state
+		}
+		for(AppointmentChangedEvent event : events) {
+			TimingWheel.Timer<Reminder> previous = byAppointment.remove(event.getAppointmentId());
+			wheel.cancel(previous);
+			if( event.getKind() == AppointmentChangedEvent.Kind.CANCELLED || event.getStatus() != 0
+					|| event.getAppointmentTime() == null || event.getAppointmentTime().isAfter(horizon) ) {
+				continue;
+			}
+			schedule(new Reminder(event.getAppointmentId(), event.getDoctorId(), event.getPatientId(), event.getAppointmentTime()));
+		}
+	}
+
+	private void schedule(Reminder reminder) {
+		TimingWheel.Timer<Reminder> previous = byAppointment.remove(reminder.appointmentId());
+		wheel.cancel(previous);
+		long fireAt = reminder.appointmentTime().minusMinutes(leadMinutes).atZone(zone).toInstant().toEpochMilli();
+		if( fireAt < wheel.currentMillis() ) {
+			return; // too late for a reminder
+		}
+		if( wheel.size() >= maxPending || fireAt > wheel.maxDeadline() ) {
+			rejected.incrementAndGet();
+			return;
+		}
+		byAppointment.put(reminder.appointmentId(), wheel.add(fireAt, reminder));
+	}
+
+	public synchronized Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("pending", wheel.size());
+		stats.put("horizon", horizon == null ? null : horizon.toString());
+		stats.put("sent", sent.get());
+		stats.put("failed", failed.get());
+		stats.put("rejected", rejected.get());
+		return stats;
+	}
+}
@@ -1,12 +1,15 @@
 package com.project.back_end.services;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
@@ -89,11 +92,13 @@ public class Service {
 // - It supports various combinations of the three filters.
 // - If none of the filters are provided, it returns all available doctors.
 // This flexible filtering mechanism allows the frontend or consumers of the API to search and narrow down doctors based on user criteria.
+// The doctors are copied into DoctorSummary records within the transaction (their available times are lazy).
+	@Transactional(readOnly = true)
 	public Map<String,Object> filterDoctor(String name, String specialty,
 				String time) {
 		try {
 			return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty).stream()
-				.collect(Collectors.toMap( Doctor::getName , o -> o));
+				.collect(Collectors.toMap( Doctor::getName , DoctorSummary::of, (a, b) -> a, LinkedHashMap::new));
 		} catch(Exception e) {
 			// 
 		}
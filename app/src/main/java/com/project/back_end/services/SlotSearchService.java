@@ -0,0 +1,193 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.DTO.AvailableSlot;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.DoctorOffboardingJob;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorOffboardingJobRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.slots.DoctorSlots;
+import com.project.back_end.slots.SlotSearch;
+
+// "Next available appointment" search answered from memory.
+// - The index holds, per doctor, the daily slots and the booked start times from today on,
+//   grouped by specialty. It is built at startup and rebuilt every `refresh-ms` (drift, new doctors).
+// - Bookings, moves and cancellations arrive from the outbox relay and update the booked sets in place;
+//   doctor changes are applied through refreshDoctor/removeDoctor.
+// - Changes made on another node arrive as cache invalidations: the doctor or their bookings are reloaded.
+// - A search merges the free-slot cursors of the specialty's doctors (SlotSearch): no query per doctor or day.
+// Reads are lock-free on the current snapshot; updates are serialized.
+@Service
+public class SlotSearchService implements AppointmentEventSubscriber {
+
+	private final static Logger log = LoggerFactory.getLogger(SlotSearchService.class);
+
+	private final DoctorRepository doctorRepository;
+	private final AppointmentRepository appointmentRepository;
+	private final DoctorOffboardingJobRepository offboardingRepository;
+	private volatile Index index = new Index(Map.of(), Map.of());
+
+	private record Index(Map<Long, DoctorSlots> byId, Map<String, List<DoctorSlots>> bySpecialty) {
+	}
+
+	public SlotSearchService(DoctorRepository doctorRepository,
+			AppointmentRepository appointmentRepository,
+			DoctorOffboardingJobRepository offboardingRepository,
+			CacheInvalidationService invalidations) {
+		this.doctorRepository = doctorRepository;
+		this.appointmentRepository = appointmentRepository;
+		this.offboardingRepository = offboardingRepository;
+		invalidations.listenRemote(CacheInvalidationService.DOCTOR, this::reloadDoctor);
+		invalidations.listenRemote(CacheInvalidationService.AVAILABILITY, this::reloadBookings);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${appointments.slots.refresh-ms:900000}", initialDelayString = "${appointments.slots.refresh-ms:900000}")
+	public synchronized void rebuild() {
+		Map<Long, DoctorSlots> byId = new HashMap<>();
+		for(Doctor d : doctorRepository.findAllWithAvailableTimes()) {
+			byId.put(d.getId(), new DoctorSlots(d.getId(), d.getName(), d.getSpecialty(), d.getAvailableTimes()));
+		}
+		// doctors being deleted take no new bookings
+		for(DoctorOffboardingJob job : offboardingRepository.findByStatusInOrderByIdAsc(
+				EnumSet.of(DoctorOffboardingJob.Status.PENDING, DoctorOffboardingJob.Status.RUNNING))) {
+			byId.remove(job.getDoctorId());
+		}
+		int booked = 0;
+		for(Object[] row : appointmentRepository.findBookedTimes(LocalDate.now().atStartOfDay())) {
+			DoctorSlots doctor = byId.get((Long) row[0]);
+			if( doctor != null ) {
+				doctor.book((LocalDateTime) row[1]);
+				booked++;
+			}
+		}
+		index = build(byId);
+		log.info("Slot search index built: {} doctors, {} booked slots", byId.size(), booked);
+	}
+
+	public List<AvailableSlot> findEarliest(String specialty, LocalDate from, LocalDate to, String period, int limit) {
+		List<DoctorSlots> doctors = index.bySpecialty().getOrDefault(key(specialty), List.of());
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime start = from.atStartOfDay().isBefore(now) ? now : from.atStartOfDay();
+		return SlotSearch.earliest(doctors, start, to.plusDays(1).atStartOfDay(), DoctorSlots.Period.of(period), limit);
+	}
+
+	@Override
+	public synchronized void onAppointmentEvents(List<AppointmentChangedEvent> events) {
+		Map<Long, DoctorSlots> byId = index.byId();
+		for(AppointmentChangedEvent event : events) {
+			DoctorSlots doctor = event.getDoctorId() == null ? null : byId.get(event.getDoctorId());
+			switch( event.getKind() ) {
+				case BOOKED -> {
+					if( doctor != null && event.getAppointmentTime() != null ) {
+						doctor.book(event.getAppointmentTime());
+					}
+				}
+				case UPDATED -> {
+					Long previousDoctorId = event.getPreviousDoctorId() != null ? event.getPreviousDoctorId() : event.getDoctorId();
+					DoctorSlots previous = previousDoctorId == null ? null : byId.get(previousDoctorId);
+					if( previous != null && event.getPreviousAppointmentTime() != null ) {
+						previous.release(event.getPreviousAppointmentTime());
+					}
+					if( doctor != null && event.getAppointmentTime() != null && event.getStatus() != 2 ) {
+						doctor.book(event.getAppointmentTime());
+					}
+				}
+				case CANCELLED -> {
+					if( doctor != null && event.getAppointmentTime() != null ) {
+						doctor.release(event.getAppointmentTime());
+					}
+				}
+			}
+		}
+	}
+
+	// A doctor was created or their specialty/available times changed.
+	public synchronized void refreshDoctor(Long doctorId) {
+		Doctor d = doctorRepository.findWithAvailableTimes(doctorId);
+		Map<Long, DoctorSlots> byId = new HashMap<>(index.byId());
+		if( d == null ) {
+			byId.remove(doctorId);
+		} else {
+			DoctorSlots slots = new DoctorSlots(d.getId(), d.getName(), d.getSpecialty(), d.getAvailableTimes());
+			DoctorSlots old = byId.get(doctorId);
+			if( old != null ) {
+				slots.copyBookings(old);
+			}
+			byId.put(doctorId, slots);
+		}
+		index = build(byId);
+	}
+
+	public synchronized void removeDoctor(Long doctorId) {
+		Map<Long, DoctorSlots> byId = new HashMap<>(index.byId());
+		if( byId.remove(doctorId) != null ) {
+			index = build(byId);
+		}
+	}
+
+	// The doctor changed on another node: reloaded with their bookings, or removed when deleted or being deleted.
+	public synchronized void reloadDoctor(long doctorId) {
+		Doctor d = doctorRepository.findWithAvailableTimes(doctorId);
+		Map<Long, DoctorSlots> byId = new HashMap<>(index.byId());
+		if( d == null || offboardingRepository.findFirstByDoctorIdAndStatusIn(doctorId,
+				EnumSet.of(DoctorOffboardingJob.Status.PENDING, DoctorOffboardingJob.Status.RUNNING)) != null ) {
+			if( byId.remove(doctorId) == null ) {
+				return;
+			}
+		} else {
+			DoctorSlots slots = new DoctorSlots(d.getId(), d.getName(), d.getSpecialty(), d.getAvailableTimes());
+			slots.replaceBookings(appointmentRepository.findBookedTimesOfDoctor(doctorId, LocalDate.now().atStartOfDay()));
+			byId.put(doctorId, slots);
+		}
+		index = build(byId);
+	}
+
+	// Another node booked, moved or cancelled appointments of the doctor.
+	public synchronized void reloadBookings(long doctorId) {
+		DoctorSlots doctor = index.byId().get(doctorId);
+		if( doctor != null ) {
+			doctor.replaceBookings(appointmentRepository.findBookedTimesOfDoctor(doctorId, LocalDate.now().atStartOfDay()));
+		}
+	}
+
+	// Booked slots in the past are never searched again.
+	@Scheduled(cron = "${appointments.slots.prune-cron:0 5 0 * * *}")
+	public void prune() {
+		LocalDateTime today = LocalDate.now().atStartOfDay();
+		for(DoctorSlots doctor : index.byId().values()) {
+			doctor.forgetBefore(today);
+		}
+	}
+
+	private static Index build(Map<Long, DoctorSlots> byId) {
+		Map<String, List<DoctorSlots>> bySpecialty = new HashMap<>();
+		for(DoctorSlots doctor : byId.values()) {
+			bySpecialty.computeIfAbsent(key(doctor.getSpecialty()), k -> new ArrayList<>()).add(doctor);
+		}
+		bySpecialty.replaceAll((k, v) -> List.copyOf(v));
+		return new Index(Map.copyOf(byId), Map.copyOf(bySpecialty));
+	}
+
+	private static String key(String specialty) {
+		return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -3,11 +3,16 @@ package com.project.back_end.services;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import com.project.back_end.cache.VersionedCache;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -24,6 +29,9 @@ public class TokenService {
     private final AdminRepository adminRepository;
 
     private final DoctorRepository doctorRepository;
+
+	// "role:email" -> id of the existing users, so that checking a token is not a query per request
+	private final VersionedCache<String, Long> principals;
 // 1. **@Component Annotation**
 // The @Component annotation marks this class as a Spring component, meaning Spring will manage it as a bean within its application context.
 // This allows the class to be injected into other Spring-managed components (like services or controllers) where it's needed.
@@ -32,10 +40,18 @@ public class TokenService {
 	private String jwtSecret = null;
 	private long jwtExpirationMs = 7 * 24 * 60 * 60 * 1000;
 	
-	public TokenService(DoctorRepository doctorRepository, AdminRepository adminRepository, PatientRepository patientRepository) {
+	public TokenService(DoctorRepository doctorRepository, AdminRepository adminRepository, PatientRepository patientRepository,
+			CacheInvalidationService invalidations,
+			@Value("${cache.principals.max-entries:10000}") int principalsMaxEntries,
+			@Value("${cache.principals.ttl-ms:300000}") long principalsTtlMillis) {
         this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
         this.patientRepository = patientRepository;
+		this.principals = invalidations.newCache("principals", principalsMaxEntries, principalsTtlMillis);
+		// a deleted user or a changed email must not keep a valid token
+		invalidations.listen(CacheInvalidationService.DOCTOR, id -> evict("doctor:", id));
+		invalidations.listen(CacheInvalidationService.PATIENT, id -> evict("patient:", id));
+		invalidations.listen(CacheInvalidationService.ADMIN, id -> evict("admin:", id));
 
     }
 // 2. **Constructor Injection for Dependencies**
@@ -102,13 +118,31 @@ public class TokenService {
 	public boolean validateToken(String token, String role) {
 		String email = this.extractEmail(token);
 		if( "doctor".equals(role)) {
-			return doctorRepository.findByEmail(email) != null;
+			return exists("doctor:" + email, () -> {
+				Doctor d = doctorRepository.findByEmail(email);
+				return d == null ? null : d.getId();
+			});
 		} else if( "admin".equals(role)) {
-			return adminRepository.findByUsername(email) != null;
+			return exists("admin:" + email, () -> {
+				Admin a = adminRepository.findByUsername(email);
+				return a == null ? null : a.getId();
+			});
 			
 		} else if( "patient".equals(role)) {
-			return patientRepository.findByEmail(email) != null;
+			return exists("patient:" + email, () -> {
+				Patient p = patientRepository.findByEmail(email);
+				return p == null ? null : p.getId();
+			});
 		}
 		return false;
 	}
+
+	private void evict(String role, long id) {
+		principals.invalidateIf((key, value) -> value == id && key.startsWith(role));
+	}
+
+	// Only the users found are cached: a new account is usable right away.
+	private boolean exists(String key, Supplier<Long> lookup) {
+		return principals.get(key, k -> lookup.get()) != null;
+	}
 }
@@ -0,0 +1,184 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.models.WaitlistEntry.Status;
+import com.project.back_end.repo.WaitlistEntryRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Pushes the slots held for a waitlisted patient to their open pages over Server-Sent Events, so that
+// they see an offer as soon as it is made instead of polling GET /waitlist.
+// - WaitlistService publishes every change of a patient's offers (offered, expired, booked, left) as a
+//   WAITLIST_OFFER invalidation of the patient. Every node receives it, the offering one right away and
+//   the others on their next poll, and the node holding the patient's stream sends them their current offers.
+// - Only ids travel on the bus: the offers are read again by the node sending them, so a push received
+//   twice or late still shows the current state.
+// - The sends run on a small daemon pool, never on the invalidation poller or the outbox relay thread.
+@Service
+public class WaitlistOffersHub {
+
+	private final static Logger log = LoggerFactory.getLogger(WaitlistOffersHub.class);
+	private static final EnumSet<Status> OFFERED = EnumSet.of(Status.OFFERED);
+
+	private final WaitlistEntryRepository waitlistRepository;
+	private final Map<Long, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final AtomicLong pushed = new AtomicLong();
+	private final ExecutorService dispatcher;
+
+	private final long timeoutMillis;
+	private final int maxConnections;
+	private final int maxPerPatient;
+
+	public WaitlistOffersHub(WaitlistEntryRepository waitlistRepository,
+			CacheInvalidationService invalidations,
+			@Value("${waitlist.stream.timeout-ms:1800000}") long timeoutMillis,
+			@Value("${waitlist.stream.max-connections:10000}") int maxConnections,
+			@Value("${waitlist.stream.max-per-patient:4}") int maxPerPatient,
+			@Value("${waitlist.stream.dispatch-threads:2}") int dispatchThreads) {
+		this.waitlistRepository = waitlistRepository;
+		this.timeoutMillis = timeoutMillis;
+		this.maxConnections = maxConnections;
+		this.maxPerPatient = maxPerPatient;
+		AtomicInteger n = new AtomicInteger();
+		this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+			Thread t = new Thread(r, "waitlist-stream-" + n.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		invalidations.listen(CacheInvalidationService.WAITLIST_OFFER, this::offersChanged);
+	}
+
+	// Returns null when the connection limits are reached. The current offers are sent right away.
+	public SseEmitter subscribe(Long patientId) {
+		if( connections.incrementAndGet() > maxConnections ) {
+			connections.decrementAndGet();
+			return null;
+		}
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		AtomicBoolean added = new AtomicBoolean();
+		streams.compute(patientId, (k, patientStreams) -> {
+			if( patientStreams == null ) {
+				patientStreams = ConcurrentHashMap.newKeySet();
+			}
+			if( patientStreams.size() < maxPerPatient ) {
+				added.set(patientStreams.add(emitter));
+			}
+			return patientStreams.isEmpty() ? null : patientStreams;
+		});
+		if( !added.get() ) {
+			connections.decrementAndGet();
+			return null;
+		}
+		emitter.onCompletion(() -> remove(patientId, emitter));
+		emitter.onTimeout(() -> remove(patientId, emitter));
+		emitter.onError(e -> remove(patientId, emitter));
+		offersChanged(patientId);
+		return emitter;
+	}
+
+	// A WAITLIST_OFFER invalidation: sends the patient's offers if their stream is open on this node.
+	void offersChanged(long patientId) {
+		if( !streams.containsKey(patientId) ) {
+			return;
+		}
+		try {
+			dispatcher.execute(() -> push(patientId));
+		} catch(RuntimeException e) {
+			// shutting down
+		}
+	}
+
+	@Scheduled(fixedRateString = "${appointments.stream.heartbeat-ms:20000}")
+	public void heartbeat() {
+		streams.forEach((patientId, patientStreams) -> {
+			for(SseEmitter emitter : patientStreams) {
+				send(patientId, emitter, SseEmitter.event().comment("heartbeat"));
+			}
+		});
+	}
+
+	public int getConnections() {
+		return connections.get();
+	}
+
+	public long getPushed() {
+		return pushed.get();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		for(Set<SseEmitter> patientStreams : streams.values()) {
+			for(SseEmitter emitter : patientStreams) {
+				emitter.complete();
+			}
+		}
+		dispatcher.shutdownNow();
+	}
+
+	private void push(long patientId) {
+		Set<SseEmitter> patientStreams = streams.get(patientId);
+		if( patientStreams == null ) {
+			return;
+		}
+		List<WaitlistEntry> offers;
+		try {
+			LocalDateTime now = LocalDateTime.now();
+			offers = waitlistRepository.findByPatientIdAndStatusInOrderByIdAsc(patientId, OFFERED).stream()
+					.filter(entry -> entry.getOfferExpiresAt() != null && entry.getOfferExpiresAt().isAfter(now))
+					.toList();
+		} catch(RuntimeException e) {
+			log.warn("Can not load the waitlist offers of patient {}", patientId, e);
+			return;
+		}
+		for(SseEmitter emitter : patientStreams) {
+			if( send(patientId, emitter, SseEmitter.event().name("offers").data(offers)) ) {
+				pushed.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean send(long patientId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+		try {
+			synchronized( emitter ) {
+				emitter.send(event);
+			}
+			return true;
+		} catch(IOException | IllegalStateException e) {
+			// client gone: the container reports the error/completion too, remove right away anyway
+			remove(patientId, emitter);
+			return false;
+		}
+	}
+
+	private void remove(Long patientId, SseEmitter emitter) {
+		AtomicBoolean removed = new AtomicBoolean();
+		streams.computeIfPresent(patientId, (k, patientStreams) -> {
+			removed.set(patientStreams.remove(emitter));
+			return patientStreams.isEmpty() ? null : patientStreams;
+		});
+		if( removed.get() ) {
+			connections.decrementAndGet();
+		}
+	}
+}
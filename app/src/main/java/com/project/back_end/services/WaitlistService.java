@@ -0,0 +1,505 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.DoctorOffboardingJob;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.models.WaitlistEntry.Status;
+import com.project.back_end.repo.DoctorOffboardingJobRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.WaitlistEntryRepository;
+import com.project.back_end.waitlist.DoctorWaitlist;
+import com.project.back_end.waitlist.WaitlistNotifier;
+import com.project.back_end.waitlist.WaitlistOffer;
+
+// Waitlist of fully booked doctors: a patient registers for a doctor and a range of days, and a slot
+// freed in that range is offered to them instead of being left to whoever polls first.
+// - The entries are rows of `waitlist_entry`; the waiting ones are also kept in memory, one DoctorWaitlist
+//   (a priority queue per day) per doctor, rebuilt at startup and every `refresh-ms`. Registrations on
+//   another node arrive as WAITLIST invalidations and reload that doctor.
+// - Cancellations, moves away and status changes to cancelled arrive from the outbox relay: the freed slot
+//   is held for the first waiting patient of its day (a conditional update, so one node wins) for
+//   `hold-minutes`, and the patient is notified once (WaitlistNotifier), after the relay's transaction commits. Every change of an offer is also
+//   published as a WAITLIST_OFFER invalidation of the patient, which the node holding the patient's open
+//   stream pushes to them (WaitlistOffersHub).
+// - While held, booking the slot or moving an appointment to it is refused to everybody else (isHeld, checked
+//   by the booking, the PUT and the PATCH of an appointment under the doctor's lock). The patient accepts, which books it, or leaves; an offer not accepted in time expires
+//   (checked every `sweep-ms`) and the slot goes to the next patient.
+@Service
+public class WaitlistService implements AppointmentEventSubscriber {
+
+	private final static Logger log = LoggerFactory.getLogger(WaitlistService.class);
+	private static final EnumSet<Status> ACTIVE = EnumSet.of(Status.WAITING, Status.OFFERED);
+	private static final int CANCELLED = 2;
+	private static final EnumSet<DoctorOffboardingJob.Status> OFFBOARDING = EnumSet.of(DoctorOffboardingJob.Status.PENDING,
+			DoctorOffboardingJob.Status.RUNNING);
+
+	private final WaitlistEntryRepository waitlistRepository;
+	private final DoctorRepository doctorRepository;
+	private final DoctorOffboardingJobRepository offboardingRepository;
+	private final PatientRepository patientRepository;
+	private final AppointmentService appointmentService;
+	private final CacheInvalidationService invalidations;
+	private final WaitlistNotifier notifier;
+	private final long holdMinutes;
+	private final int maxDays;
+	private final int maxPerPatient;
+
+	private final Map<Long, DoctorWaitlist> byDoctor = new HashMap<>();
+	private final Set<Slot> offering = ConcurrentHashMap.newKeySet();
+	// the changes of `byDoctor` made while `loading` loads read the entries outside the monitor
+	private final List<Consumer<Map<Long, DoctorWaitlist>>> changedDuringLoad = new ArrayList<>();
+	private int loading;
+	private volatile boolean loaded;
+
+	private final AtomicLong offered = new AtomicLong();
+	private final AtomicLong booked = new AtomicLong();
+	private final AtomicLong expired = new AtomicLong();
+	private final AtomicLong notifyFailures = new AtomicLong();
+
+	public WaitlistService(WaitlistEntryRepository waitlistRepository,
+			DoctorRepository doctorRepository,
+			DoctorOffboardingJobRepository offboardingRepository,
+			PatientRepository patientRepository,
+			AppointmentService appointmentService,
+			CacheInvalidationService invalidations,
+			WaitlistNotifier notifier,
+			@Value("${waitlist.hold-minutes:15}") long holdMinutes,
+			@Value("${waitlist.max-days:31}") int maxDays,
+			@Value("${waitlist.max-per-patient:5}") int maxPerPatient) {
+		this.waitlistRepository = waitlistRepository;
+		this.doctorRepository = doctorRepository;
+		this.offboardingRepository = offboardingRepository;
+		this.patientRepository = patientRepository;
+		this.appointmentService = appointmentService;
+		this.invalidations = invalidations;
+		this.notifier = notifier;
+		this.holdMinutes = holdMinutes;
+		this.maxDays = maxDays;
+		this.maxPerPatient = maxPerPatient;
+		invalidations.listenRemote(CacheInvalidationService.WAITLIST, this::reloadDoctor);
+	}
+
+	// The entries are read outside the monitor; the queues changed meanwhile are replayed on the loaded ones before they replace them.
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${waitlist.refresh-ms:900000}", initialDelayString = "${waitlist.refresh-ms:900000}")
+	public void rebuild() {
+		int from = startLoad();
+		try {
+			LocalDate today = LocalDate.now();
+			List<WaitlistEntry> waiting = waitlistRepository.findByStatusAndToDateGreaterThanEqual(Status.WAITING, today);
+			Map<Long, DoctorWaitlist> queues = new HashMap<>();
+			for(WaitlistEntry entry : waiting) {
+				add(entry.getDoctorId(), waiter(entry, today)).accept(queues);
+			}
+			synchronized( this ) {
+				replay(queues, from);
+				byDoctor.clear();
+				byDoctor.putAll(queues);
+				loaded = true;
+			}
+			log.debug("Waitlist loaded: {} patients waiting for {} doctors", waiting.size(), queues.size());
+		} finally {
+			endLoad();
+		}
+	}
+
+	public void reloadDoctor(long doctorId) {
+		if( !loaded ) {
+			return;
+		}
+		int from = startLoad();
+		try {
+			LocalDate today = LocalDate.now();
+			Map<Long, DoctorWaitlist> queues = new HashMap<>();
+			for(WaitlistEntry entry : waitlistRepository.findByDoctorIdAndStatusAndToDateGreaterThanEqual(doctorId, Status.WAITING, today)) {
+				add(doctorId, waiter(entry, today)).accept(queues);
+			}
+			synchronized( this ) {
+				replay(queues, from);
+				DoctorWaitlist waitlist = queues.get(doctorId);
+				if( waitlist == null ) {
+					byDoctor.remove(doctorId);
+				} else {
+					byDoctor.put(doctorId, waitlist);
+				}
+			}
+		} finally {
+			endLoad();
+		}
+	}
+
+	// Registers the patient for the doctor's slots freed between `from` and `to` (at most `max-days` days, from today on).
+	public ResponseEntity<Map<String, Object>> join(Long patientId, Long doctorId, LocalDate from, LocalDate to) {
+		LocalDate today = LocalDate.now();
+		if( doctorId == null || from == null || to == null || to.isBefore(from) || to.isBefore(today) ) {
+			return ResponseEntity.badRequest().body(Map.of("success",false,"message","Invalid doctor or dates"));
+		}
+		if( from.isBefore(today) ) {
+			from = today;
+		}
+		if( ChronoUnit.DAYS.between(from, to) >= maxDays ) {
+			return ResponseEntity.badRequest().body(Map.of("success",false,"message","At most " + maxDays + " days"));
+		}
+		if( !doctorRepository.existsById(doctorId)
+				|| offboardingRepository.findFirstByDoctorIdAndStatusIn(doctorId, OFFBOARDING) != null ) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Doctor not found"));
+		}
+		if( waitlistRepository.existsByDoctorIdAndPatientIdAndStatusIn(doctorId, patientId, ACTIVE) ) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","Already on this doctor's waitlist"));
+		}
+		if( waitlistRepository.countByPatientIdAndStatusIn(patientId, ACTIVE) >= maxPerPatient ) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","At most " + maxPerPatient + " waitlists"));
+		}
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setDoctorId(doctorId);
+		entry.setPatientId(patientId);
+		entry.setFromDate(from);
+		entry.setToDate(to);
+		entry.setStatus(Status.WAITING);
+		entry.setCreatedAt(LocalDateTime.now());
+		entry = waitlistRepository.save(entry);
+		synchronized( this ) {
+			if( loaded ) {
+				change(add(doctorId, waiter(entry, today)));
+			}
+		}
+		invalidations.publish(CacheInvalidationService.WAITLIST, doctorId);
+		return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success",true,"id",entry.getId()));
+	}
+
+	// A doctor being deleted: their waitlist is closed (entries cancelled, held slots released to nobody).
+	public void removeDoctor(Long doctorId) {
+		waitlistRepository.closeDoctor(doctorId, ACTIVE, Status.CANCELLED, LocalDateTime.now());
+		synchronized( this ) {
+			change(queues -> queues.remove(doctorId));
+		}
+		invalidations.publish(CacheInvalidationService.WAITLIST, doctorId);
+	}
+
+	// The patient's waiting entries and held offers.
+	public List<WaitlistEntry> getEntries(Long patientId) {
+		return waitlistRepository.findByPatientIdAndStatusInOrderByIdAsc(patientId, ACTIVE);
+	}
+
+	// Leaves the waitlist; a slot held for the patient goes to the next one.
+	public ResponseEntity<Map<String, Object>> leave(Long patientId, Long entryId) {
+		WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+		if( entry == null || !entry.getPatientId().equals(patientId) || !ACTIVE.contains(entry.getStatus()) ) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Waitlist entry not found"));
+		}
+		if( waitlistRepository.transition(entryId, entry.getStatus(), Status.CANCELLED, LocalDateTime.now()) == 0 ) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","The entry has changed, reload"));
+		}
+		synchronized( this ) {
+			change(remove(entry.getDoctorId(), entryId));
+		}
+		invalidations.publish(CacheInvalidationService.WAITLIST, entry.getDoctorId());
+		if( entry.getStatus() == Status.OFFERED ) {
+			invalidations.publish(CacheInvalidationService.WAITLIST_OFFER, patientId);
+			offerNext(entry.getDoctorId(), entry.getOfferedTime(), patientId);
+		}
+		return ResponseEntity.ok(Map.of("success",true,"message","Left the waitlist"));
+	}
+
+	// Books the slot held for the patient. Runs under the doctor's booking lock (see AppointmentController.book).
+	@Transactional
+	public ResponseEntity<Map<String, Object>> accept(Long patientId, Long entryId) {
+		WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+		if( entry == null || !entry.getPatientId().equals(patientId) ) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success",false,"message","Waitlist entry not found"));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		if( entry.getStatus() != Status.OFFERED || !entry.getOfferExpiresAt().isAfter(now) ) {
+			return ResponseEntity.status(HttpStatus.GONE).body(Map.of("success",false,"message","No slot is held for this entry"));
+		}
+		if( appointmentService.isSlotTaken(entry.getDoctorId(), entry.getOfferedTime()) ) {
+			// booked before the hold was taken: the patient keeps their place for the next slot
+			if( waitlistRepository.transition(entryId, Status.OFFERED, Status.WAITING, now) == 1 ) {
+				synchronized( this ) {
+					if( loaded ) {
+						change(add(entry.getDoctorId(), waiter(entry, now.toLocalDate())));
+					}
+				}
+				invalidations.publish(CacheInvalidationService.WAITLIST, entry.getDoctorId());
+				invalidations.publish(CacheInvalidationService.WAITLIST_OFFER, patientId);
+			}
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false,"message","This time is not available anymore"));
+		}
+		if( waitlistRepository.transition(entryId, Status.OFFERED, Status.BOOKED, now) == 0 ) {
+			return ResponseEntity.status(HttpStatus.GONE).body(Map.of("success",false,"message","No slot is held for this entry"));
+		}
+		Doctor doctor = doctorRepository.findById(entry.getDoctorId()).orElse(null);
+		Patient patient = patientRepository.findById(patientId).orElse(null);
+		if( doctor == null || patient == null ) {
+			throw new IllegalStateException("Doctor or patient of waitlist entry " + entryId + " not found");
+		}
+		Appointment appointment = new Appointment();
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		appointment.setAppointmentTime(entry.getOfferedTime());
+		appointment.setStatus(0);
+		if( !appointmentService.bookAppointment(appointment) ) {
+			throw new IllegalStateException("Can not book the slot of waitlist entry " + entryId);
+		}
+		booked.incrementAndGet();
+		invalidations.publish(CacheInvalidationService.WAITLIST_OFFER, patientId);
+		return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success",true,"message","Appointment created",
+				"appointmentId",appointment.getId()));
+	}
+
+	// Whether the slot is held for another patient than `patientId`.
+	public boolean isHeld(Long doctorId, LocalDateTime time, Long patientId) {
+		return waitlistRepository.existsHold(doctorId, time, LocalDateTime.now(), patientId, Status.OFFERED);
+	}
+
+	@Override
+	public void onAppointmentEvents(List<AppointmentChangedEvent> events) {
+		for(AppointmentChangedEvent event : events) {
+			switch( event.getKind() ) {
+				case CANCELLED -> offerNext(event.getDoctorId(), event.getAppointmentTime(), event.getPatientId());
+				case UPDATED -> {
+					Long previousDoctorId = event.getPreviousDoctorId() != null ? event.getPreviousDoctorId() : event.getDoctorId();
+					LocalDateTime previousTime = event.getPreviousAppointmentTime();
+					if( previousTime != null && (!Objects.equals(previousDoctorId, event.getDoctorId()) || !previousTime.equals(event.getAppointmentTime())) ) {
+						offerNext(previousDoctorId, previousTime, event.getPatientId());
+					}
+					if( event.getStatus() == CANCELLED ) {
+						offerNext(event.getDoctorId(), event.getAppointmentTime(), event.getPatientId());
+					}
+				}
+				case BOOKED -> {
+				}
+			}
+		}
+	}
+
+	// Offers that were not accepted in time go to the next patient; entries whose range is over expire.
+	@Scheduled(fixedDelayString = "${waitlist.sweep-ms:15000}", initialDelayString = "${waitlist.sweep-ms:15000}")
+	public void expireOffers() {
+		LocalDateTime now = LocalDateTime.now();
+		for(WaitlistEntry entry : waitlistRepository.findByStatusAndOfferExpiresAtLessThanEqual(Status.OFFERED, now)) {
+			if( waitlistRepository.transition(entry.getId(), Status.OFFERED, Status.EXPIRED, now) == 1 ) {
+				expired.incrementAndGet();
+				invalidations.publish(CacheInvalidationService.WAITLIST_OFFER, entry.getPatientId());
+				offerNext(entry.getDoctorId(), entry.getOfferedTime(), entry.getPatientId());
+			}
+		}
+		LocalDate today = now.toLocalDate();
+		expired.addAndGet(waitlistRepository.expireEnded(today, Status.WAITING, Status.EXPIRED, now));
+		synchronized( this ) {
+			byDoctor.values().removeIf(waitlist -> {
+				waitlist.forgetBefore(today);
+				return waitlist.isEmpty();
+			});
+		}
+	}
+
+	// Holds the freed slot for the first waiting patient of its day, if it is still free and not held already
+	// (the events are delivered at least once). `excludedPatientId` is the patient who freed it.
+	// Only the queue is read and changed under the monitor: the checks and the conditional updates run
+	// outside, and `offering` keeps two threads from offering the same slot at once.
+	// Called by the outbox relay inside its transaction: see SlotOffer for what waits for the commit.
+	private void offerNext(Long doctorId, LocalDateTime time, Long excludedPatientId) {
+		LocalDateTime now = LocalDateTime.now();
+		if( doctorId == null || time == null || !time.isAfter(now) ) {
+			return;
+		}
+		if( !loaded ) {
+			rebuild();
+		}
+		LocalDate day = time.toLocalDate();
+		Slot slot = new Slot(doctorId, time);
+		if( !hasWaiter(doctorId, day, excludedPatientId) || !offering.add(slot) ) {
+			return;
+		}
+		SlotOffer pending = new SlotOffer(slot);
+		boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+		if( inTransaction ) {
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		boolean done = false;
+		try {
+			if( !appointmentService.isSlotTaken(doctorId, time) && !waitlistRepository.existsHold(doctorId, time, now, null, Status.OFFERED) ) {
+				LocalDateTime expiresAt = now.plusMinutes(holdMinutes);
+				DoctorWaitlist.Waiter next;
+				while( pending.offer == null && (next = takeWaiter(doctorId, day, excludedPatientId)) != null ) {
+					pending.taken = next;
+					// 0: the entry left or was offered another slot meanwhile (on another node)
+					if( waitlistRepository.offer(next.entryId(), time, expiresAt, now, Status.WAITING, Status.OFFERED) == 1 ) {
+						pending.offer = new WaitlistOffer(next.entryId(), doctorId, next.patientId(), time, expiresAt);
+					} else {
+						pending.taken = null;
+					}
+				}
+			}
+			done = true;
+		} finally {
+			if( !inTransaction ) {
+				if( done ) {
+					pending.afterCommit();
+				}
+				pending.afterCompletion(done ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_UNKNOWN);
+			}
+		}
+		if( pending.offer != null ) {
+			// sent after the commit
+			invalidations.publish(CacheInvalidationService.WAITLIST, doctorId);
+			invalidations.publish(CacheInvalidationService.WAITLIST_OFFER, pending.offer.patientId());
+		}
+	}
+
+	// An offer of a slot in progress, completed with the transaction it runs in (or right away without one):
+	// - the patient is notified only once the hold is committed;
+	// - when it is not committed, the patient taken out of the queue goes back to it (their entry is still waiting);
+	// - the slot stays in `offering` until then, since other threads can not see the uncommitted hold.
+	private final class SlotOffer implements TransactionSynchronization {
+
+		private final Slot slot;
+		private DoctorWaitlist.Waiter taken;
+		private WaitlistOffer offer;
+
+		SlotOffer(Slot slot) {
+			this.slot = slot;
+		}
+
+		@Override
+		public void afterCommit() {
+			if( offer == null ) {
+				return;
+			}
+			offered.incrementAndGet();
+			try {
+				notifier.offered(offer);
+			} catch(RuntimeException e) {
+				notifyFailures.incrementAndGet();
+				log.warn("Waitlist offer of entry {} not notified", offer.entryId(), e);
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			// taken without an offer: the conditional update failed
+			if( taken != null && (status != STATUS_COMMITTED || offer == null) ) {
+				synchronized( WaitlistService.this ) {
+					if( loaded ) {
+						change(add(slot.doctorId(), taken));
+					}
+				}
+			}
+			offering.remove(slot);
+		}
+	}
+
+	private synchronized boolean hasWaiter(Long doctorId, LocalDate day, Long excludedPatientId) {
+		DoctorWaitlist waitlist = byDoctor.get(doctorId);
+		return waitlist != null && waitlist.next(day, excludedPatientId) != null;
+	}
+
+	// Takes the first patient waiting for `day` out of the doctor's queues.
+	private synchronized DoctorWaitlist.Waiter takeWaiter(Long doctorId, LocalDate day, Long excludedPatientId) {
+		DoctorWaitlist waitlist = byDoctor.get(doctorId);
+		DoctorWaitlist.Waiter next = waitlist == null ? null : waitlist.next(day, excludedPatientId);
+		if( next != null ) {
+			change(remove(doctorId, next.entryId()));
+		}
+		return next;
+	}
+
+	private record Slot(Long doctorId, LocalDateTime time) {
+	}
+
+	private static DoctorWaitlist.Waiter waiter(WaitlistEntry entry, LocalDate today) {
+		LocalDate from = entry.getFromDate().isBefore(today) ? today : entry.getFromDate();
+		return new DoctorWaitlist.Waiter(entry.getId(), entry.getPatientId(), from, entry.getToDate());
+	}
+
+	private static Consumer<Map<Long, DoctorWaitlist>> add(Long doctorId, DoctorWaitlist.Waiter waiter) {
+		return queues -> queues.computeIfAbsent(doctorId, id -> new DoctorWaitlist()).add(waiter);
+	}
+
+	private static Consumer<Map<Long, DoctorWaitlist>> remove(Long doctorId, long entryId) {
+		return queues -> {
+			DoctorWaitlist waitlist = queues.get(doctorId);
+			if( waitlist != null ) {
+				waitlist.remove(entryId);
+				if( waitlist.isEmpty() ) {
+					queues.remove(doctorId);
+				}
+			}
+		};
+	}
+
+	// Under the monitor: applies a change to the queues, and keeps it for the loads in progress.
+	private void change(Consumer<Map<Long, DoctorWaitlist>> change) {
+		change.accept(byDoctor);
+		if( loading > 0 ) {
+			changedDuringLoad.add(change);
+		}
+	}
+
+	// Under the monitor: the changes made since the load started at `from`.
+	private void replay(Map<Long, DoctorWaitlist> queues, int from) {
+		for(Consumer<Map<Long, DoctorWaitlist>> change : changedDuringLoad.subList(from, changedDuringLoad.size())) {
+			change.accept(queues);
+		}
+	}
+
+	private synchronized int startLoad() {
+		loading++;
+		return changedDuringLoad.size();
+	}
+
+	private synchronized void endLoad() {
+		if( --loading == 0 ) {
+			changedDuringLoad.clear();
+		}
+	}
+
+	public synchronized Map<String, Object> getStats() {
+		int waiting = 0;
+		for(DoctorWaitlist waitlist : byDoctor.values()) {
+			waiting += waitlist.size();
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("waiting", waiting);
+		stats.put("doctors", byDoctor.size());
+		stats.put("offered", offered.get());
+		stats.put("booked", booked.get());
+		stats.put("expired", expired.get());
+		stats.put("notifyFailures", notifyFailures.get());
+		return stats;
+	}
+}
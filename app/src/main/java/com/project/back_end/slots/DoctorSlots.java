@@ -0,0 +1,164 @@
+package com.project.back_end.slots;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// What the slot search knows about one doctor: the daily one-hour slots from `availableTimes`
+// ("09:00-10:00", sorted by start) and the start times already booked from now on.
+// The booked set is updated in place from the appointment events; the rest is immutable.
+public class DoctorSlots {
+
+	private final Long doctorId;
+	private final String doctorName;
+	private final String specialty;
+	private final List<LocalTime> dailyStarts;
+	private final NavigableSet<LocalDateTime> booked = new ConcurrentSkipListSet<>();
+
+	public DoctorSlots(Long doctorId, String doctorName, String specialty, List<String> availableTimes) {
+		this.doctorId = doctorId;
+		this.doctorName = doctorName;
+		this.specialty = specialty;
+		this.dailyStarts = availableTimes == null ? List.of() : availableTimes.stream()
+				.map(DoctorSlots::parseStart)
+				.filter(t -> t != null)
+				.distinct()
+				.sorted()
+				.toList();
+	}
+
+	// "09:00-10:00" or "09:00" -> 09:00; null when unreadable
+	static LocalTime parseStart(String slot) {
+		if( slot == null ) {
+			return null;
+		}
+		int dash = slot.indexOf('-');
+		try {
+			return LocalTime.parse((dash < 0 ? slot : slot.substring(0, dash)).trim());
+		} catch(RuntimeException e) {
+			return null;
+		}
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public String getDoctorName() {
+		return doctorName;
+	}
+
+	public String getSpecialty() {
+		return specialty;
+	}
+
+	public List<LocalTime> getDailyStarts() {
+		return dailyStarts;
+	}
+
+	public void book(LocalDateTime time) {
+		booked.add(time);
+	}
+
+	public void release(LocalDateTime time) {
+		booked.remove(time);
+	}
+
+	public boolean isBooked(LocalDateTime time) {
+		return booked.contains(time);
+	}
+
+	public void copyBookings(DoctorSlots other) {
+		booked.addAll(other.booked);
+	}
+
+	// The bookings as read from the database (another node booked or cancelled).
+	public void replaceBookings(Collection<LocalDateTime> times) {
+		booked.retainAll(times);
+		booked.addAll(times);
+	}
+
+	public void forgetBefore(LocalDateTime time) {
+		booked.headSet(time).clear();
+	}
+
+	public int bookedCount() {
+		return booked.size();
+	}
+
+	// Iterates the free slots of this doctor in [from, to), day by day, keeping those accepted by `period`.
+	public Cursor cursor(LocalDateTime from, LocalDateTime to, Period period) {
+		return new Cursor(from, to, period);
+	}
+
+	public enum Period {
+		ALL, AM, PM;
+
+		boolean accepts(LocalTime start) {
+			return this == ALL || (this == AM) == start.isBefore(LocalTime.NOON);
+		}
+
+		public static Period of(String value) {
+			if( value == null ) {
+				return ALL;
+			}
+			return switch( value.toUpperCase() ) {
+				case "AM" -> AM;
+				case "PM" -> PM;
+				default -> ALL;
+			};
+		}
+	}
+
+	public class Cursor {
+
+		private final LocalDateTime from;
+		private final LocalDateTime to;
+		private final Period period;
+		private LocalDate day;
+		private int index = -1;
+		private LocalDateTime current;
+
+		private Cursor(LocalDateTime from, LocalDateTime to, Period period) {
+			this.from = from;
+			this.to = to;
+			this.period = period;
+			this.day = from.toLocalDate();
+		}
+
+		public DoctorSlots getDoctor() {
+			return DoctorSlots.this;
+		}
+
+		public LocalDateTime current() {
+			return current;
+		}
+
+		// Moves to the next free slot; false when there is none before `to`.
+		public boolean advance() {
+			if( dailyStarts.isEmpty() ) {
+				return false;
+			}
+			for(;;) {
+				index++;
+				if( index == dailyStarts.size() ) {
+					index = 0;
+					day = day.plusDays(1);
+				}
+				LocalDateTime slot = day.atTime(dailyStarts.get(index));
+				if( !slot.isBefore(to) ) {
+					current = null;
+					return false;
+				}
+				if( !slot.isBefore(from) && period.accepts(slot.toLocalTime()) && !isBooked(slot) ) {
+					current = slot;
+					return true;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.project.back_end.slots;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.project.back_end.DTO.AvailableSlot;
+
+// Earliest free slots across several doctors: a k-way merge of the doctors' free-slot cursors
+// through a min-heap on the next slot time, so only k + (number of doctors) slots are looked at.
+public final class SlotSearch {
+
+	private static final Comparator<DoctorSlots.Cursor> EARLIEST = Comparator
+			.comparing(DoctorSlots.Cursor::current)
+			.thenComparing(c -> c.getDoctor().getDoctorId());
+
+	private SlotSearch() {
+	}
+
+	public static List<AvailableSlot> earliest(Collection<DoctorSlots> doctors, LocalDateTime from, LocalDateTime to,
+			DoctorSlots.Period period, int limit) {
+		PriorityQueue<DoctorSlots.Cursor> heap = new PriorityQueue<>(Math.max(1, doctors.size()), EARLIEST);
+		for(DoctorSlots doctor : doctors) {
+			DoctorSlots.Cursor cursor = doctor.cursor(from, to, period);
+			if( cursor.advance() ) {
+				heap.add(cursor);
+			}
+		}
+		List<AvailableSlot> slots = new ArrayList<>(Math.min(limit, 64));
+		while( slots.size() < limit && !heap.isEmpty() ) {
+			DoctorSlots.Cursor cursor = heap.poll();
+			DoctorSlots doctor = cursor.getDoctor();
+			slots.add(new AvailableSlot(doctor.getDoctorId(), doctor.getDoctorName(), doctor.getSpecialty(), cursor.current()));
+			if( cursor.advance() ) {
+				heap.add(cursor);
+			}
+		}
+		return slots;
+	}
+}
@@ -0,0 +1,89 @@
+package com.project.back_end.waitlist;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// The waiting patients of one doctor, as one priority queue per day.
+// - A patient is in the queue of every day of their range, ordered by registration (the entry id).
+// - The patient offered a slot freed on a day is the head of that day's queue: O(log n), whatever
+//   the number of patients waiting on other days.
+// - Removing a patient takes them out of the queues of their whole range at once.
+// The ranges are short (WaitlistService caps them), so a patient costs a few set nodes.
+// Not thread-safe: WaitlistService synchronizes.
+public class DoctorWaitlist {
+
+	public record Waiter(long entryId, long patientId, LocalDate from, LocalDate to) {
+	}
+
+	private static final Comparator<Waiter> PRIORITY = Comparator.comparingLong(Waiter::entryId);
+
+	private final NavigableMap<LocalDate, NavigableSet<Waiter>> byDay = new TreeMap<>();
+	private final Map<Long, Waiter> byEntry = new HashMap<>();
+
+	public void add(Waiter waiter) {
+		remove(waiter.entryId());
+		byEntry.put(waiter.entryId(), waiter);
+		for(LocalDate day = waiter.from(); !day.isAfter(waiter.to()); day = day.plusDays(1)) {
+			byDay.computeIfAbsent(day, d -> new TreeSet<>(PRIORITY)).add(waiter);
+		}
+	}
+
+	public Waiter remove(long entryId) {
+		Waiter waiter = byEntry.remove(entryId);
+		if( waiter != null ) {
+			for(LocalDate day = waiter.from(); !day.isAfter(waiter.to()); day = day.plusDays(1)) {
+				NavigableSet<Waiter> queue = byDay.get(day);
+				if( queue != null && queue.remove(waiter) && queue.isEmpty() ) {
+					byDay.remove(day);
+				}
+			}
+		}
+		return waiter;
+	}
+
+	// The first patient waiting for `day` other than `excludedPatientId` (the one who just freed the slot), or null.
+	public Waiter next(LocalDate day, Long excludedPatientId) {
+		NavigableSet<Waiter> queue = byDay.get(day);
+		if( queue != null ) {
+			for(Waiter waiter : queue) {
+				if( excludedPatientId == null || waiter.patientId() != excludedPatientId ) {
+					return waiter;
+				}
+			}
+		}
+		return null;
+	}
+
+	// Drops the days before `day`, and the patients whose range ended before it.
+	public void forgetBefore(LocalDate day) {
+		NavigableMap<LocalDate, NavigableSet<Waiter>> past = byDay.headMap(day, false);
+		List<Waiter> ended = new ArrayList<>();
+		for(NavigableSet<Waiter> queue : past.values()) {
+			for(Waiter waiter : queue) {
+				if( waiter.to().isBefore(day) ) {
+					ended.add(waiter);
+				}
+			}
+		}
+		past.clear();
+		for(Waiter waiter : ended) {
+			byEntry.remove(waiter.entryId());
+		}
+	}
+
+	public int size() {
+		return byEntry.size();
+	}
+
+	public boolean isEmpty() {
+		return byEntry.isEmpty();
+	}
+}
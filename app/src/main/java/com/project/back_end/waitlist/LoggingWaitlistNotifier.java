@@ -0,0 +1,17 @@
+package com.project.back_end.waitlist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Default notifier until a mail or SMS channel is configured: only logs the offer. Patients with an open
+// page get it pushed anyway (WaitlistOffersHub).
+public class LoggingWaitlistNotifier implements WaitlistNotifier {
+
+	private final static Logger log = LoggerFactory.getLogger(LoggingWaitlistNotifier.class);
+
+	@Override
+	public void offered(WaitlistOffer offer) {
+		log.info("Waitlist: slot of doctor {} at {} held for patient {} until {} (entry {})",
+				offer.doctorId(), offer.appointmentTime(), offer.patientId(), offer.expiresAt(), offer.entryId());
+	}
+}
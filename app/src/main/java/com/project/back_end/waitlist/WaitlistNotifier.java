@@ -0,0 +1,9 @@
+package com.project.back_end.waitlist;
+
+// Tells a waitlisted patient that a slot is held for them (mail, SMS...), so that they do not have to poll.
+// Patients with an open page are pushed the offer by WaitlistOffersHub whatever the notifier.
+// Called on the outbox relay or the expiry sweep thread: implementations that do slow I/O should hand off to their own executor.
+public interface WaitlistNotifier {
+
+	void offered(WaitlistOffer offer);
+}
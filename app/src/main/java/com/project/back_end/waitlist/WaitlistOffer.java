@@ -0,0 +1,7 @@
+package com.project.back_end.waitlist;
+
+import java.time.LocalDateTime;
+
+// A freed slot held for a waitlisted patient until `expiresAt`; only ids, the notifier loads what it needs.
+public record WaitlistOffer(Long entryId, Long doctorId, Long patientId, LocalDateTime appointmentTime, LocalDateTime expiresAt) {
+}
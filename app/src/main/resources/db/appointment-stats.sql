@@ -0,0 +1,20 @@
+-- Monthly usage report for the admin (see user_stories.md, "Admin Get statistics").
+-- Reads the appointment_daily_stats aggregate maintained by the application
+-- instead of grouping the whole appointment table.
+--
+--   mysql> CALL GetMonthlyAppointmentReport('2025-01-01', '2025-12-31', NULL);
+--   mysql> CALL GetMonthlyAppointmentReport('2025-01-01', '2025-12-31', 'Cardiologist');
+
+DROP PROCEDURE IF EXISTS GetMonthlyAppointmentReport;
+
+DELIMITER //
+CREATE PROCEDURE GetMonthlyAppointmentReport(IN from_day DATE, IN to_day DATE, IN for_specialty VARCHAR(50))
+BEGIN
+	SELECT YEAR(stats_day) AS year, MONTH(stats_day) AS month, SUM(appointment_count) AS appointments
+	FROM appointment_daily_stats
+	WHERE stats_day BETWEEN from_day AND to_day
+	  AND (for_specialty IS NULL OR specialty = for_specialty)
+	GROUP BY YEAR(stats_day), MONTH(stats_day)
+	ORDER BY year, month;
+END //
+DELIMITER ;
@@ -68,10 +68,13 @@ document.addEventListener('DOMContentLoaded', async () => {
       appointmentId
     };
 
-    const { success, message } = await savePrescription(prescription, token);
+    const { success, message, interactions } = await savePrescription(prescription, token);
 
     if (success) {
-      alert("✅ Prescription saved successfully.");
+      // saved anyway: the doctor decides, with the interactions in front of them
+      const warnings = interactions.map(i => `- ${i.drug} + ${i.interactsWith} (${i.severity.toLowerCase()}): ${i.description}`);
+      alert("✅ Prescription saved successfully."
+        + (warnings.length ? "\n\n⚠️ Interactions with the patient's active prescriptions:\n" + warnings.join("\n") : ""));
       selectRole('doctor');
     } else {
       alert("❌ Failed to save prescription. " + message);
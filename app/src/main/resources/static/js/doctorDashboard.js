@@ -1,5 +1,6 @@
-import { getAllAppointments } from "../services/appointmentRecordService.js";
-import { createPatientRow } from "../components/patientRows.js";
+import { getAllAppointments } from "./services/appointmentRecordService.js";
+import { createPatientRow } from "./components/patientRows.js";
+import { API_BASE_URL } from "./config/config.js";
 
 const patientTableBody = document.getElementById("patientTableBody");
 const datePicker = document.getElementById("datePicker");
@@ -23,14 +24,14 @@ document.getElementById("todayBtn").addEventListener("change", e=>{
 
 async function loadAppointments() {
 	try {
-		const apps = await getAllAppointments(selectedDate, patientName, token);
+		// the backend answers with the day's appointments keyed by time
+		const apps = Object.values(await getAllAppointments(selectedDate, patientName, token));
 		patientTableBody.innerHTML = "";
 		if( apps.length == 0 ) {
 			patientTableBody.appendChild( createRow( "No Appointments found for today" ) );
 		} else {
 			for(const app of apps ) {
-				const row = gcreatePatientRow(app);
-				patientTableBody.appendChild( row );
+				patientTableBody.appendChild( createAppointmentRow(app) );
 			}
 		}
 	} catch(e) {
@@ -39,6 +40,57 @@ async function loadAppointments() {
 	}
 }
 
+function createAppointmentRow(app) {
+	const patient = { id: app.patientId, name: app.patientName, phone: app.patientPhone, email: app.patientEmail };
+	const row = createPatientRow(patient, app.id, app.doctorId);
+	row.dataset.appointmentId = app.id;
+	return row;
+}
+
+// Live updates: the backend pushes each booked/updated/cancelled appointment of this doctor,
+// so only the changed row is touched. On "resync" (we fell behind) the day is reloaded.
+function isShown(app) {
+	const day = new Date(selectedDate).toISOString().slice(0, 10);
+	return String(app.appointmentDate) == day
+		&& (patientName == null || (app.patientName || "").toLowerCase().includes(patientName.toLowerCase()));
+}
+
+function removeAppointmentRow(id) {
+	const row = patientTableBody.querySelector(`tr[data-appointment-id="${id}"]`);
+	if( row ) {
+		row.remove();
+	}
+}
+
+function applyDelta(app, removed) {
+	removeAppointmentRow(app.id);
+	if( !removed && isShown(app) ) {
+		if( !patientTableBody.querySelector("tr[data-appointment-id]") ) {
+			patientTableBody.innerHTML = "";
+		}
+		patientTableBody.appendChild( createAppointmentRow(app) );
+	}
+}
+
+function openAppointmentStream() {
+	if( !token || !window.EventSource ) {
+		return;
+	}
+	// EventSource reconnects by itself; reload after a reconnect since deltas may have been missed
+	const stream = new EventSource(`${API_BASE_URL}/appointments/stream/${token}`);
+	let connectedOnce = false;
+	stream.addEventListener("connected", () => {
+		if( connectedOnce ) {
+			loadAppointments();
+		}
+		connectedOnce = true;
+	});
+	stream.addEventListener("booked", e => applyDelta(JSON.parse(e.data), false));
+	stream.addEventListener("updated", e => applyDelta(JSON.parse(e.data), false));
+	stream.addEventListener("cancelled", e => applyDelta(JSON.parse(e.data), true));
+	stream.addEventListener("resync", () => loadAppointments());
+}
+
 function createRow(msg) {
 	const tr = document.createElement("tr");
 	const td = document.createElement("td");
@@ -49,6 +101,7 @@ function createRow(msg) {
 
 document.addEventListener("DOMContentLoaded", (event) => { 
 	loadAppointments();
+	openAppointmentStream();
 });
 
 /*
@@ -59,6 +59,8 @@ export function showBookingOverlay(e, doctor, patient) {
 
   setTimeout(() => modalApp.classList.add("active"), 600);
 
+  // one key per booking dialog: double clicks and retries do not book twice
+  const idempotencyKey = crypto.randomUUID();
   modalApp.querySelector(".confirm-booking").addEventListener("click", async () => {
     const date = modalApp.querySelector("#appointment-date").value;
     const time = modalApp.querySelector("#appointment-time").value;
@@ -72,7 +74,7 @@ export function showBookingOverlay(e, doctor, patient) {
     };
 
 
-    const { success, message } = await bookAppointment(appointment, token);
+    const { success, message } = await bookAppointment(appointment, token, idempotencyKey);
 
     if (success) {
       alert("Appointment Booked successfully");
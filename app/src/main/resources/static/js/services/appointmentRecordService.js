@@ -13,13 +13,15 @@ export async function getAllAppointments(date, patientName, token) {
   return await response.json();
 }
 
-export async function bookAppointment(appointment, token) {
+export async function bookAppointment(appointment, token, idempotencyKey) {
   try {
+    const headers = { "Content-Type": "application/json" };
+    if (idempotencyKey) {
+      headers["Idempotency-Key"] = idempotencyKey;
+    }
     const response = await fetch(`${APPOINTMENT_API}/${token}`, {
       method: "POST",
-      headers: {
-        "Content-Type": "application/json"
-      },
+      headers,
       body: JSON.stringify(appointment)
     });
 
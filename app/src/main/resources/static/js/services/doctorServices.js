@@ -1,7 +1,7 @@
 import { API_BASE_URL } from "../config/config.js";
 const DOCTOR_API = API_BASE_URL + '/doctor'
 
-async function getDoctors() {
+export async function getDoctors() {
 	try {
 		const response = await fetch(DOCTOR_API);
 		const json = await response.json();
@@ -12,20 +12,20 @@ async function getDoctors() {
 	return [];
 }
 
-async function deleteDoctor(id, token) {
+export async function deleteDoctor(id, token) {
 	try {
-		const response = await fetch(DOCTOR_API + "/" + token + "/" + id,{
+		const response = await fetch(DOCTOR_API + "/" + id + "/" + token,{
 			"method": "DELETE",
 		});
 		const json = await response.json();
-		return { "success": true , "message" : "Doctor successfully deleted!" };
+		return { "success": response.ok , "message" : json.message || "Doctor deletion started" };
 	} catch(e) {
 		console.error(e);
 		return { "success": false , "message" : "Doctor deletion failed!", error: e };
 	}
 }
 
-async function saveDoctor(doctor, token) {
+export async function saveDoctor(doctor, token) {
 	try {
 		const response = await fetch(DOCTOR_API + "/" + token,{
 			"method": "POST",
@@ -40,7 +40,7 @@ async function saveDoctor(doctor, token) {
 }
 
 
-async function filterDoctors(name ,time ,specialty) {
+export async function filterDoctors(name ,time ,specialty) {
 	let url = DOCTOR_API + "/" + token;
 	let params = [];
 	if( name && name.trim() != "" ) {
@@ -44,8 +44,10 @@ async function doctorLoginHandler() {
 		});
 		if( response && response.ok ) {
 			const json = await response.json();
-			localStorage.setItem("token", json);
+			localStorage.setItem("token", json.token);
 			selectRole("doctor");
+		} else {
+			window.alert("Invalid credentials!");
 		}
 	} catch(e) {
 		console.error(e);
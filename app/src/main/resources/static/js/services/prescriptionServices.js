@@ -12,7 +12,7 @@ export async function savePrescription(prescription, token) {
       body: JSON.stringify(prescription)
     });
     const result = await response.json();
-    return { success: response.ok, message: result.message }
+    return { success: response.ok, message: result.message, interactions: result.interactions || [] }
   }
   catch (error) {
     console.error("Error :: savePrescription :: ", error)
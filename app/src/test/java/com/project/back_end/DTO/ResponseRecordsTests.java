@@ -0,0 +1,103 @@
+package com.project.back_end.DTO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+// The hand-written writers must produce what Jackson would for the same fields (the frontend
+// reads them), with the application's settings: dates as ISO strings.
+class ResponseRecordsTests {
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+	@Test
+	void doctorSummaryIsWrittenLikeJackson() throws Exception {
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		doctor.setName("Dr. \"Quote\" Émile");
+		doctor.setSpecialty("Cardiologist");
+		doctor.setEmail("emile@clinic.com");
+		doctor.setPhone(null);
+		doctor.setPassword("secret12");
+		doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("id", 7L);
+		expected.put("name", "Dr. \"Quote\" Émile");
+		expected.put("specialty", "Cardiologist");
+		expected.put("email", "emile@clinic.com");
+		expected.put("phone", null);
+		expected.put("availableTimes", List.of("09:00-10:00", "10:00-11:00"));
+		assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(DoctorSummary.of(doctor)));
+	}
+
+	@Test
+	void historyEntryIsWrittenLikeJackson() throws Exception {
+		Patient patient = new Patient();
+		patient.setId(3L);
+		patient.setName("Ann");
+		LocalDateTime time = LocalDateTime.of(2025, 3, 4, 9, 30);
+		HistoryEntry entry = HistoryEntry.of(11L, null, patient, time, 1);
+
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("id", 11L);
+		expected.put("doctorId", null);
+		expected.put("doctorName", null);
+		expected.put("patientId", 3L);
+		expected.put("patientName", "Ann");
+		expected.put("appointmentTime", time);
+		expected.put("appointmentDate", time.toLocalDate());
+		expected.put("appointmentTimeOnly", time.toLocalTime());
+		expected.put("endTime", time.plusHours(1));
+		expected.put("status", 1);
+		assertEquals(mapper.writeValueAsString(Map.of("appointments", List.of(expected))),
+				mapper.writeValueAsString(Map.of("appointments", List.of(entry))));
+	}
+
+	@Test
+	void scheduleEntryIsWrittenLikeJackson() throws Exception {
+		LocalDateTime time = LocalDateTime.of(2025, 3, 4, 14, 0, 0, 500_000_000);
+		ScheduleEntry entry = new ScheduleEntry(5L, 7L, 3L, "Ann", "ann@mail.com", "0123456789", time, 0);
+
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("id", 5L);
+		expected.put("doctorId", 7L);
+		expected.put("patientId", 3L);
+		expected.put("patientName", "Ann");
+		expected.put("patientEmail", "ann@mail.com");
+		expected.put("patientPhone", "0123456789");
+		expected.put("appointmentTime", time);
+		expected.put("appointmentDate", time.toLocalDate());
+		expected.put("appointmentTimeOnly", time.toLocalTime());
+		expected.put("status", 0);
+		assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(entry));
+	}
+
+	@Test
+	void timesAreWrittenLikeJackson() throws Exception {
+		for(LocalDateTime time : List.of(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_999_999),
+				LocalDateTime.of(1, 1, 1, 0, 0, 0, 1_000), LocalDateTime.of(2025, 1, 1, 0, 0, 7, 120_000_000),
+				LocalDateTime.of(12025, 1, 1, 8, 0), LocalDateTime.of(-5, 6, 7, 8, 9))) {
+			ScheduleEntry entry = new ScheduleEntry(1L, null, null, null, null, null, time, 0);
+			Map<String, Object> expected = new LinkedHashMap<>();
+			expected.put("appointmentTime", time);
+			expected.put("appointmentDate", time.toLocalDate());
+			expected.put("appointmentTimeOnly", time.toLocalTime());
+			String json = mapper.writeValueAsString(entry);
+			String times = json.substring(json.indexOf("\"appointmentTime\""), json.indexOf(",\"status\""));
+			assertEquals(mapper.writeValueAsString(expected), "{" + times + "}", time.toString());
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.project.back_end.DTO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+// Bytes and microseconds per response of the doctor directory, the daily schedule and the patient
+// history, written as before (maps of entities, AppointmentDTO for the history) and as response
+// records with their hand-written writers, by an ObjectMapper configured like the application's:
+//   mvn -Pbenchmark test [-Dbenchmark.iterations=10000 -Dbenchmark.rounds=5]
+// Printed and written to target/serialization-benchmark.txt.
+@Tag("benchmark")
+class SerializationBenchmarkTest {
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+	@Test
+	void entitiesAgainstRecords() throws Exception {
+		int iterations = Integer.parseInt(System.getProperty("benchmark.iterations", "10000"));
+		List<Doctor> doctors = new ArrayList<>();
+		for(long id = 1; id <= 50; id++) {
+			Doctor doctor = new Doctor();
+			doctor.setId(id);
+			doctor.setName("Doctor " + id);
+			doctor.setSpecialty(id % 2 == 0 ? "Cardiologist" : "Dermatologist");
+			doctor.setEmail("doctor" + id + "@clinic.com");
+			doctor.setPhone("0123456789");
+			doctor.setPassword("secret12");
+			doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00", "14:00-15:00", "15:00-16:00", "16:00-17:00"));
+			doctors.add(doctor);
+		}
+		List<Patient> patients = new ArrayList<>();
+		for(long id = 1; id <= 40; id++) {
+			Patient patient = new Patient();
+			patient.setId(id);
+			patient.setName("Patient " + id);
+			patient.setEmail("patient" + id + "@mail.com");
+			patient.setPhone("0987654321");
+			patient.setAddress(id + " Main Street, Springfield");
+			patient.setPassword("secret12");
+			patients.add(patient);
+		}
+
+		// a day of one doctor: 8 appointments
+		LocalDate day = LocalDate.of(2025, 3, 4);
+		Map<String, Object> scheduleEntities = new LinkedHashMap<>();
+		Map<String, Object> scheduleRecords = new LinkedHashMap<>();
+		for(int i = 0; i < 8; i++) {
+			Appointment appointment = appointment(i + 1L, doctors.get(0), patients.get(i), day.atTime(9 + i, 0));
+			scheduleEntities.put(appointment.getAppointmentTimeOnly().toString(), appointment);
+			scheduleRecords.put(appointment.getAppointmentTimeOnly().toString(), ScheduleEntry.of(appointment));
+		}
+
+		// a patient with 30 appointments
+		List<AppointmentDTO> historyDtos = new ArrayList<>();
+		List<HistoryEntry> historyRecords = new ArrayList<>();
+		for(int i = 0; i < 30; i++) {
+			Doctor doctor = doctors.get(i % doctors.size());
+			Patient patient = patients.get(0);
+			LocalDateTime time = day.minusDays(i * 7L).atTime(10, 0);
+			AppointmentDTO dto = new AppointmentDTO();
+			dto.setId(100L + i);
+			dto.setDoctorId(doctor.getId());
+			dto.setDoctorName(doctor.getName());
+			dto.setPatientId(patient.getId());
+			dto.setPatientName(patient.getName());
+			dto.setPatientEmail(patient.getEmail());
+			dto.setPatientPhone(patient.getPhone());
+			dto.setPatientAddress(patient.getAddress());
+			dto.setStatus(1);
+			dto.setAppointmentTime(time);
+			dto.setAppointmentDate(time.toLocalDate());
+			dto.setAppointmentTimeOnly(time.toLocalTime());
+			dto.setEndTime(time.plusHours(1));
+			historyDtos.add(dto);
+			historyRecords.add(HistoryEntry.of(100L + i, doctor, patient, time, 1));
+		}
+
+		Map<String, Object> cases = new LinkedHashMap<>();
+		cases.put("doctor directory|entities", Map.of("success", true, "doctors", doctors));
+		cases.put("doctor directory|records", Map.of("success", true, "doctors", doctors.stream().map(DoctorSummary::of).toList()));
+		cases.put("daily schedule|entities", scheduleEntities);
+		cases.put("daily schedule|records", scheduleRecords);
+		cases.put("patient history|dto", Map.of("appointments", historyDtos));
+		cases.put("patient history|records", Map.of("appointments", historyRecords));
+
+		// the cases take turns, `rounds` times, against the noise of a shared machine: the median round is reported
+		int rounds = Integer.parseInt(System.getProperty("benchmark.rounds", "5"));
+		Map<String, double[]> micros = new LinkedHashMap<>();
+		cases.keySet().forEach(name -> micros.put(name, new double[rounds]));
+		for(Object body : cases.values()) {
+			run(body, iterations);
+		}
+		for(int round = 0; round < rounds; round++) {
+			for(Map.Entry<String, Object> c : cases.entrySet()) {
+				micros.get(c.getKey())[round] = run(c.getValue(), iterations);
+			}
+		}
+
+		StringBuilder report = new StringBuilder(String.format("%-20s %-10s %10s %10s%n", "response", "as", "bytes", "us"));
+		for(Map.Entry<String, Object> c : cases.entrySet()) {
+			String[] name = c.getKey().split("\\|");
+			double[] times = micros.get(c.getKey());
+			Arrays.sort(times);
+			report.append(String.format("%-20s %-10s %10d %10.1f%n", name[0], name[1],
+					mapper.writeValueAsBytes(c.getValue()).length, times[rounds / 2]));
+		}
+		System.out.print(report);
+		Files.createDirectories(Path.of("target"));
+		Files.writeString(Path.of("target", "serialization-benchmark.txt"), report);
+	}
+
+	// microseconds per response
+	private double run(Object body, int iterations) throws Exception {
+		long bytes = 0;
+		long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			bytes += mapper.writeValueAsBytes(body).length;
+		}
+		double micros = (System.nanoTime() - start) / 1e3 / iterations;
+		return bytes > 0 ? micros : Double.NaN;
+	}
+
+	private static Appointment appointment(Long id, Doctor doctor, Patient patient, LocalDateTime time) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		appointment.setAppointmentTime(time);
+		appointment.setStatus(0);
+		return appointment;
+	}
+}
@@ -0,0 +1,57 @@
+package com.project.back_end.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.repo.CacheInvalidationRepository;
+
+class DbPollingInvalidationTransportTests {
+
+	@Test
+	void aRowCommittedLateIsStillReceived() {
+		CacheInvalidationRepository repository = mock(CacheInvalidationRepository.class);
+		when(repository.deletePublishedBefore(anyLong(), anyInt())).thenReturn(0);
+		DbPollingInvalidationTransport transport = new DbPollingInvalidationTransport(repository,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), 10_000, 600_000);
+
+		when(repository.findMaxId()).thenReturn(10L);
+		assertTrue(transport.receive().isEmpty());
+
+		// 11 is allocated but not committed yet when 12 is read
+		when(repository.findTop500ByIdGreaterThanOrderByIdAsc(10L)).thenReturn(List.of(row(12, 2)));
+		List<Invalidation> first = transport.receive();
+		assertEquals(1, first.size());
+		assertEquals(2, first.get(0).id());
+		assertEquals(1, transport.getPendingGaps());
+
+		when(repository.findByIdIn(anyCollection())).thenReturn(List.of(row(11, 1)));
+		when(repository.findTop500ByIdGreaterThanOrderByIdAsc(12L)).thenReturn(List.of());
+		List<Invalidation> second = transport.receive();
+		assertEquals(1, second.size());
+		assertEquals(1, second.get(0).id());
+		assertEquals(0, transport.getPendingGaps());
+	}
+
+	private static CacheInvalidation row(long id, long doctorId) {
+		CacheInvalidation row = new CacheInvalidation();
+		row.setId(id);
+		row.setEntityType("doctor");
+		row.setEntityId(doctorId);
+		row.setVersion(id);
+		row.setOrigin("node-b");
+		row.setPublishedAt(System.currentTimeMillis());
+		return row;
+	}
+}
@@ -0,0 +1,50 @@
+package com.project.back_end.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class VersionedCacheTests {
+
+	@Test
+	void aLoadStartedBeforeAnInvalidationIsNotCached() {
+		VersionedCache<Long, String> cache = new VersionedCache<>("doctors", 10, 60_000, new VersionClock(() -> 1000));
+		long before = cache.beginLoad();
+		cache.invalidate(1L);
+		assertFalse(cache.put(1L, "old name", before));
+		assertNull(cache.get(1L));
+
+		long after = cache.beginLoad();
+		assertTrue(cache.put(1L, "new name", after));
+		assertEquals("new name", cache.get(1L));
+
+		long running = cache.beginLoad();
+		cache.invalidateIf((id, name) -> name.startsWith("new"));
+		assertNull(cache.get(1L));
+		assertFalse(cache.put(2L, "other", running));
+	}
+
+	@Test
+	void invalidationsFromAnotherNodeMoveTheClockForward() {
+		// this node's clock is 5 seconds behind the publisher's
+		VersionClock clock = new VersionClock(() -> 1000);
+		VersionedCache<Long, String> cache = new VersionedCache<>("doctors", 10, 60_000, clock);
+		clock.witness(6000);
+		cache.invalidate(1L);
+		assertTrue(cache.beginLoad() > 6000);
+		assertTrue(cache.put(1L, "reloaded", cache.beginLoad()));
+	}
+
+	@Test
+	void nodesOfOneJvmReceiveEveryInvalidation() {
+		InJvmInvalidationTransport a = new InJvmInvalidationTransport();
+		InJvmInvalidationTransport b = a.join();
+		a.publish(new Invalidation("doctor", 7, 1, "a", 0));
+		assertEquals(1, b.receive().size());
+		assertEquals(1, a.receive().size());
+		assertTrue(b.receive().isEmpty());
+	}
+}
@@ -0,0 +1,67 @@
+package com.project.back_end.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class ICalendarWriterTests {
+
+	@Test
+	void eventsAreWrittenInUtcWithCrlf() throws IOException {
+		StringWriter out = new StringWriter();
+		ICalendarWriter calendar = new ICalendarWriter(out);
+		calendar.begin("-//Test//EN", "Appointments");
+		calendar.event("appointment-7@test", Instant.parse("2025-03-01T08:00:00Z"), Instant.parse("2025-03-04T09:30:00Z"),
+				Instant.parse("2025-03-04T10:30:00Z"), "Appointment: Jane Doe", null, true);
+		calendar.end();
+
+		assertEquals(String.join("\r\n",
+				"BEGIN:VCALENDAR",
+				"VERSION:2.0",
+				"PRODID:-//Test//EN",
+				"CALSCALE:GREGORIAN",
+				"METHOD:PUBLISH",
+				"X-WR-CALNAME:Appointments",
+				"BEGIN:VEVENT",
+				"UID:appointment-7@test",
+				"DTSTAMP:20250301T080000Z",
+				"DTSTART:20250304T093000Z",
+				"DTEND:20250304T103000Z",
+				"SUMMARY:Appointment: Jane Doe",
+				"STATUS:CANCELLED",
+				"END:VEVENT",
+				"END:VCALENDAR", ""), out.toString());
+	}
+
+	@Test
+	void textIsEscaped() {
+		assertEquals("Smith\\, John\\; Jr. \\\\ line\\nnext", ICalendarWriter.escape("Smith, John; Jr. \\ line\r\nnext"));
+	}
+
+	@Test
+	void longLinesAreFoldedAt75OctetsBetweenCharacters() throws IOException {
+		StringWriter out = new StringWriter();
+		ICalendarWriter calendar = new ICalendarWriter(out);
+		String name = "é".repeat(30) + "x".repeat(100); // 2-octet characters first
+		calendar.begin("-//Test//EN", name);
+
+		String line = out.toString().split("\r\n(?! )")[5];
+		String[] parts = line.split("\r\n");
+		assertTrue(parts.length > 1);
+		StringBuilder unfolded = new StringBuilder(parts[0]);
+		for(int i = 0; i < parts.length; i++) {
+			assertTrue(parts[i].getBytes(StandardCharsets.UTF_8).length <= 75, parts[i]);
+			if( i > 0 ) {
+				assertTrue(parts[i].startsWith(" "));
+				unfolded.append(parts[i].substring(1));
+			}
+		}
+		assertEquals("X-WR-CALNAME:" + name, unfolded.toString());
+	}
+}
@@ -0,0 +1,42 @@
+package com.project.back_end.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PartitionTableTests {
+
+	private final Member a = new Member("node-a", "http://localhost:8081");
+	private final Member b = new Member("node-b", "http://localhost:8082");
+	private final Member c = new Member("node-c", "http://localhost:8083");
+
+	@Test
+	void everyNodeComputesTheSameBalancedTable() {
+		PartitionTable one = PartitionTable.of(List.of(a, b, c), 64);
+		PartitionTable other = PartitionTable.of(List.of(c, a, b), 64);
+		for(long doctorId = 1; doctorId < 500; doctorId++) {
+			assertEquals(one.owner(doctorId), other.owner(doctorId));
+		}
+		for(Member m : List.of(a, b, c)) {
+			int owned = one.countOwnedBy(m);
+			assertTrue(owned > 10 && owned < 35, m.nodeId() + " owns " + owned);
+		}
+		assertNull(PartitionTable.of(List.of(), 8).owner(1));
+	}
+
+	@Test
+	void aLeavingNodeOnlyMovesItsOwnPartitions() {
+		PartitionTable before = PartitionTable.of(List.of(a, b, c), 64);
+		PartitionTable after = PartitionTable.of(List.of(a, c), 64);
+		for(int p = 0; p < 64; p++) {
+			if( !before.ownerOf(p).equals(b) ) {
+				assertEquals(before.ownerOf(p), after.ownerOf(p));
+			}
+		}
+		assertEquals(64, after.countOwnedBy(a) + after.countOwnedBy(c));
+	}
+}
@@ -0,0 +1,52 @@
+package com.project.back_end.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import com.project.back_end.DTO.MonthlyAppointmentStats;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Prescription;
+
+class NativeHintsConfigTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	NativeHintsConfigTests() {
+		new NativeHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void bindingTypesAreRegistered() throws Exception {
+		for(Class<?> type : new Class<?>[] { Doctor.class, Prescription.class }) {
+			assertTrue(RuntimeHintsPredicates.reflection().onMethod(type.getMethod("getId")).test(hints), type.getName());
+		}
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(AppointmentChangedEvent.class.getMethod("getDoctorId")).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection()
+				.onConstructor(MonthlyAppointmentStats.class.getConstructor(Integer.class, Integer.class, Long.class)).test(hints));
+	}
+
+	@Test
+	void jjwtClassesExist() {
+		// they are only named in strings: a jjwt upgrade renaming one must fail here, not in the native image
+		for(String name : NativeHintsConfig.JJWT_CLASSES) {
+			assertTrue(ClassUtils.isPresent(name, getClass().getClassLoader()), name);
+			assertTrue(RuntimeHintsPredicates.reflection().onType(ClassUtils.resolveClassName(name, null)).test(hints), name);
+		}
+	}
+
+	@Test
+	void proxiesAndResourcesAreRegistered() {
+		assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("templates/doctor/doctorDashboard.html").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("static/index.html").test(hints));
+	}
+}
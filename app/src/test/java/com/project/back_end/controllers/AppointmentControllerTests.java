@@ -0,0 +1,229 @@
+package com.project.back_end.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.project.back_end.cluster.Member;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.CalendarService;
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import com.project.back_end.services.WaitlistService;
+
+class AppointmentControllerTests {
+
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+	private final AppointmentService appointmentService = mock(AppointmentService.class);
+	private final ClusterService clusterService = mock(ClusterService.class);
+	private final WaitlistService waitlistService = mock(WaitlistService.class);
+	private AppointmentController controller;
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		controller = new AppointmentController(doctorRepository, mock(DoctorService.class));
+		controller.service = mock(Service.class);
+		controller.tokenService = mock(TokenService.class);
+		controller.patientRepository = mock(PatientRepository.class);
+		controller.calendarService = new CalendarService(appointmentRepository, 30, "UTC", "smartclinic");
+		controller.appointmentService = appointmentService;
+		controller.clusterService = clusterService;
+		controller.waitlistService = waitlistService;
+		when(clusterService.withDoctorLock(any(), any())).thenAnswer(call -> ((Supplier<?>) call.getArgument(1)).get());
+		when(controller.service.validateToken("doctor-token", "doctor")).thenReturn(true);
+		when(controller.tokenService.extractEmail("doctor-token")).thenReturn("doctor@example.com");
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		doctor.setName("Ada");
+		when(doctorRepository.findByEmail("doctor@example.com")).thenReturn(doctor);
+		when(appointmentRepository.streamDoctorCalendar(eq(7L), any())).thenAnswer(call -> Stream.<Object[]>of(
+				new Object[] { 1L, LocalDateTime.of(2025, 3, 3, 9, 0), 0, null, "Grace", null }));
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	// count and last update of the doctor's appointments in the window
+	private void version(long count, LocalDateTime updated) {
+		when(appointmentRepository.doctorCalendarVersion(eq(7L), any())).thenReturn(List.<Object[]>of(new Object[] { count, updated }));
+	}
+
+	private String fetch(String ifNoneMatch) throws Exception {
+		MvcResult result = mvc.perform(get("/appointments/calendar/doctor-token").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.containsString("BEGIN:VCALENDAR")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void matchingIfNoneMatchAnswers304WithoutReadingTheFeed() throws Exception {
+		version(2, LocalDateTime.of(2025, 3, 1, 8, 0));
+
+		MvcResult first = mvc.perform(get("/appointments/calendar/doctor-token"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String etag = mvc.perform(asyncDispatch(first))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, Matchers.startsWith("text/calendar")))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, Matchers.containsString("no-cache")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+
+		for(String ifNoneMatch : new String[] { etag, "W/" + etag, "\"other\", " + etag, "*" }) {
+			mvc.perform(get("/appointments/calendar/doctor-token").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, etag))
+					.andExpect(content().string(""));
+		}
+		// only the first request streamed the appointments
+		verify(appointmentRepository, times(1)).streamDoctorCalendar(eq(7L), any());
+	}
+
+	@Test
+	void etagChangesWhenAnAppointmentChanges() throws Exception {
+		LocalDateTime updated = LocalDateTime.of(2025, 3, 1, 8, 0);
+		version(2, updated);
+		String etag = fetch("\"other\"");
+
+		// an appointment is updated: same count, later last update
+		version(2, updated.plusSeconds(1));
+		String afterUpdate = fetch(etag);
+		assertNotEquals(etag, afterUpdate);
+
+		// an appointment is deleted: fewer rows, the last update may stay the same
+		version(1, updated.plusSeconds(1));
+		String afterDelete = fetch(afterUpdate);
+		assertNotEquals(afterUpdate, afterDelete);
+
+		mvc.perform(get("/appointments/calendar/doctor-token").header(HttpHeaders.IF_NONE_MATCH, afterDelete))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void invalidTokenIsRefusedBeforeAnythingIsRead() throws Exception {
+		mvc.perform(get("/appointments/calendar/other-token"))
+				.andExpect(status().isUnauthorized());
+		verify(appointmentRepository, never()).doctorCalendarVersion(any(), any());
+		verify(appointmentRepository, never()).patientCalendarVersion(any(), any());
+		verify(doctorRepository, never()).findByEmail(anyString());
+	}
+
+	// appointment 1 of doctor 7 with patient 20
+	private Appointment appointment() {
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		Patient patient = new Patient();
+		patient.setId(20L);
+		Appointment appointment = new Appointment();
+		appointment.setId(1L);
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		when(appointmentService.findAppointment(1L)).thenReturn(appointment);
+		return appointment;
+	}
+
+	private static final String MOVE = "{\"appointmentTime\":\"2030-03-04T10:00:00\"}";
+
+	@Test
+	void aMoveRunsUnderTheDoctorsBookingLock() throws Exception {
+		appointment();
+		when(clusterService.route(7L, false)).thenReturn(new ClusterService.Route(ClusterService.RouteKind.LOCAL, null));
+		when(appointmentService.patchAppointment(eq(1L), any(), isNull(), eq(7L))).thenReturn(ResponseEntity.ok(Map.of("success",true,"changed",true)));
+
+		mvc.perform(patch("/appointments/1/doctor-token").contentType(MediaType.APPLICATION_JSON).content(MOVE))
+				.andExpect(status().isOk());
+		verify(clusterService).withDoctorLock(eq(7L), any());
+		verify(appointmentService).patchAppointment(eq(1L), any(), isNull(), eq(7L));
+	}
+
+	@Test
+	void aMoveIsForwardedToTheOwnerOfTheDoctorsPartition() throws Exception {
+		Member owner = new Member("node-2", "http://node-2:8080");
+		appointment();
+		when(clusterService.route(7L, false)).thenReturn(new ClusterService.Route(ClusterService.RouteKind.FORWARD, owner));
+		when(clusterService.forward(eq(owner), eq("PATCH"), eq("/appointments/1/doctor-token"), any()))
+				.thenReturn(ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success",false)));
+
+		mvc.perform(patch("/appointments/1/doctor-token").contentType(MediaType.APPLICATION_JSON).content(MOVE))
+				.andExpect(status().isConflict());
+		verify(clusterService, never()).withDoctorLock(any(), any());
+		verify(appointmentService, never()).patchAppointment(any(), any(), any(), any());
+	}
+
+	@Test
+	void aMoveOfAnUnknownAppointmentIsRefusedBeforeLocking() throws Exception {
+		mvc.perform(patch("/appointments/1/doctor-token").contentType(MediaType.APPLICATION_JSON).content(MOVE))
+				.andExpect(status().isNotFound());
+		// another doctor's appointment
+		appointment().getDoctor().setId(8L);
+		mvc.perform(patch("/appointments/1/doctor-token").contentType(MediaType.APPLICATION_JSON).content(MOVE))
+				.andExpect(status().isNotFound());
+		verify(clusterService, never()).route(any(), anyBoolean());
+		verify(clusterService, never()).withDoctorLock(any(), any());
+	}
+
+	@Test
+	void aSlotHeldForAWaitlistedPatientIsRefusedToMovesAndUpdates() throws Exception {
+		appointment();
+		LocalDateTime time = LocalDateTime.of(2030, 3, 4, 10, 0);
+		when(clusterService.route(7L, false)).thenReturn(new ClusterService.Route(ClusterService.RouteKind.LOCAL, null));
+		when(waitlistService.isHeld(7L, time, 20L)).thenReturn(true);
+
+		mvc.perform(patch("/appointments/1/doctor-token").contentType(MediaType.APPLICATION_JSON).content(MOVE))
+				.andExpect(status().isConflict());
+		verify(appointmentService, never()).patchAppointment(any(), any(), any(), any());
+
+		when(controller.service.validateToken("patient-token", "patient")).thenReturn(true);
+		when(controller.service.validateAppointment(any())).thenReturn(1);
+		mvc.perform(put("/appointments/patient-token").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"id\":1,\"doctor\":{\"id\":7},\"patient\":{\"id\":20},\"appointmentTime\":\"2030-03-04T10:00:00\",\"status\":0}"))
+				.andExpect(status().isConflict());
+		verify(clusterService, times(2)).withDoctorLock(eq(7L), any());
+		verify(appointmentService, never()).updateAppointment(any());
+	}
+}
@@ -0,0 +1,91 @@
+package com.project.back_end.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.project.back_end.DTO.HistoryEntry;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.AppointmentArchiveService;
+import com.project.back_end.services.PatientService;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+
+class PatientControllerTests {
+
+	private final PatientRepository patientRepository = mock(PatientRepository.class);
+	private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+	private final AppointmentArchiveService archiveService = mock(AppointmentArchiveService.class);
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		PatientController controller = new PatientController();
+		controller.service = mock(Service.class);
+		controller.tokenService = mock(TokenService.class);
+		controller.patientService = new PatientService(patientRepository, controller.tokenService, archiveService, doctorRepository);
+		when(controller.service.validateToken("patient-token", "patient")).thenReturn(true);
+		when(controller.service.validateToken("doctor-token", "doctor")).thenReturn(true);
+		when(controller.service.validateToken("admin-token", "admin")).thenReturn(true);
+		when(controller.tokenService.extractEmail("patient-token")).thenReturn("patient@example.com");
+		when(controller.tokenService.extractEmail("doctor-token")).thenReturn("doctor@example.com");
+		Patient patient = new Patient();
+		patient.setId(20L);
+		when(patientRepository.findByEmail("patient@example.com")).thenReturn(patient);
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		when(doctorRepository.findByEmail("doctor@example.com")).thenReturn(doctor);
+		LocalDateTime time = LocalDateTime.of(2025, 3, 3, 9, 0);
+		when(archiveService.getPatientHistory(20L)).thenReturn(List.of(
+				new HistoryEntry(1L, 7L, "Ada", 20L, "Grace", time, 1),
+				new HistoryEntry(2L, 8L, "Alan", 20L, "Grace", time.plusDays(1), 0)));
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void aPatientReadsOnlyTheirOwnAppointments() throws Exception {
+		mvc.perform(get("/patient/20/patient-token"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.appointments.length()").value(2));
+
+		mvc.perform(get("/patient/21/patient-token"))
+				.andExpect(status().isForbidden());
+		verify(archiveService, never()).getPatientHistory(21L);
+	}
+
+	@Test
+	void aDoctorReadsOnlyTheirAppointmentsWithThePatient() throws Exception {
+		mvc.perform(get("/patient/20/doctor-token"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.appointments.length()").value(1))
+				.andExpect(jsonPath("$.appointments[0].doctorId").value(7));
+	}
+
+	@Test
+	void otherTokensAndTheOldRouteAreRefused() throws Exception {
+		mvc.perform(get("/patient/20/admin-token"))
+				.andExpect(status().isUnauthorized());
+		mvc.perform(get("/patient/20/unknown-token"))
+				.andExpect(status().isUnauthorized());
+		// the role is no longer taken from the path
+		mvc.perform(get("/patient/20/doctor/patient-token"))
+				.andExpect(status().isNotFound());
+		verify(archiveService, never()).getPatientHistory(any());
+	}
+}
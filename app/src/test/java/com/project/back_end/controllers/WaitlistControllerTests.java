@@ -0,0 +1,106 @@
+package com.project.back_end.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.project.back_end.cluster.Member;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.WaitlistEntryRepository;
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import com.project.back_end.services.WaitlistService;
+
+class WaitlistControllerTests {
+
+	private final WaitlistService waitlistService = mock(WaitlistService.class);
+	private final WaitlistEntryRepository waitlistRepository = mock(WaitlistEntryRepository.class);
+	private final ClusterService clusterService = mock(ClusterService.class);
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		WaitlistController controller = new WaitlistController();
+		controller.waitlistService = waitlistService;
+		controller.waitlistRepository = waitlistRepository;
+		controller.clusterService = clusterService;
+		controller.service = mock(Service.class);
+		controller.tokenService = mock(TokenService.class);
+		controller.patientRepository = mock(PatientRepository.class);
+		controller.apiPath = "/";
+		when(controller.service.validateToken("patient-token", "patient")).thenReturn(true);
+		when(controller.tokenService.extractEmail("patient-token")).thenReturn("patient@example.com");
+		Patient patient = new Patient();
+		patient.setId(20L);
+		when(controller.patientRepository.findByEmail("patient@example.com")).thenReturn(patient);
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setId(1L);
+		entry.setDoctorId(7L);
+		entry.setPatientId(20L);
+		when(waitlistRepository.findById(1L)).thenReturn(Optional.of(entry));
+		when(clusterService.withDoctorLock(any(), any())).thenAnswer(call -> ((Supplier<?>) call.getArgument(1)).get());
+		mvc = MockMvcBuilders.standaloneSetup(controller).addPlaceholderValue("api.path", "/").build();
+	}
+
+	@Test
+	void anOfferIsAcceptedUnderTheDoctorsBookingLock() throws Exception {
+		when(clusterService.route(7L, false)).thenReturn(new ClusterService.Route(ClusterService.RouteKind.LOCAL, null));
+		when(waitlistService.accept(20L, 1L)).thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success",true)));
+
+		mvc.perform(post("/waitlist/accept/1/patient-token"))
+				.andExpect(status().isCreated());
+		verify(clusterService).withDoctorLock(eq(7L), any());
+	}
+
+	@Test
+	void anOfferIsAcceptedOnTheOwnerOfTheDoctorsPartition() throws Exception {
+		Member owner = new Member("node-2", "http://node-2:8080");
+		when(clusterService.route(7L, false)).thenReturn(new ClusterService.Route(ClusterService.RouteKind.FORWARD, owner));
+		when(clusterService.forward(owner, "POST", "/waitlist/accept/1/patient-token", null))
+				.thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success",true)));
+
+		mvc.perform(post("/waitlist/accept/1/patient-token"))
+				.andExpect(status().isCreated());
+		verify(clusterService, never()).withDoctorLock(any(), any());
+		verify(waitlistService, never()).accept(anyLong(), anyLong());
+	}
+
+	@Test
+	void anUnknownOrOtherPatientsEntryIsRefusedBeforeLocking() throws Exception {
+		mvc.perform(post("/waitlist/accept/2/patient-token"))
+				.andExpect(status().isNotFound());
+		WaitlistEntry other = new WaitlistEntry();
+		other.setId(3L);
+		other.setDoctorId(7L);
+		other.setPatientId(21L);
+		when(waitlistRepository.findById(3L)).thenReturn(Optional.of(other));
+		mvc.perform(post("/waitlist/accept/3/patient-token"))
+				.andExpect(status().isNotFound());
+
+		verify(clusterService, never()).route(any(), anyBoolean());
+		verify(clusterService, never()).withDoctorLock(any(), any());
+		verify(clusterService, never()).forward(any(), any(), any(), isNull());
+	}
+}
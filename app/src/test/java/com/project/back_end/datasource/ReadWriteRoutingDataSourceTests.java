@@ -0,0 +1,156 @@
+package com.project.back_end.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.ratelimit.RateLimitProperties;
+import com.project.back_end.repo.RateLimitBucketRepository;
+import com.project.back_end.services.RateLimitService;
+
+import jakarta.servlet.http.Cookie;
+
+class ReadWriteRoutingDataSourceTests {
+
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaConnection = mock(Connection.class);
+
+	private DataSource dataSource(Connection connection) throws Exception {
+		DataSource ds = mock(DataSource.class);
+		when(ds.getConnection()).thenReturn(connection);
+		when(connection.createStatement()).thenReturn(mock(Statement.class));
+		when(connection.isValid(anyInt())).thenReturn(true);
+		return ds;
+	}
+
+	private ReadWriteRoutingDataSource routing(String lagQuery) throws Exception {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(dataSource(primaryConnection),
+				dataSource(replicaConnection), 5, lagQuery, "Seconds_Behind_Source", 0);
+		routing.afterPropertiesSet();
+		return routing;
+	}
+
+	// The physical connection used by a transaction, as the application would see it.
+	private Connection used(ReadWriteRoutingDataSource routing, boolean readOnly) {
+		DataSource proxy = new LazyConnectionDataSourceProxy(routing);
+		TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> {
+			try {
+				Connection c = DataSourceUtils.getConnection(proxy);
+				c.createStatement();
+				return ((ConnectionProxy) c).getTargetConnection();
+			} catch(Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplicaAndOthersThePrimary() throws Exception {
+		ReadWriteRoutingDataSource routing = routing("");
+
+		assertEquals(replicaConnection, used(routing, true));
+		assertEquals(primaryConnection, used(routing, false));
+		assertEquals(1, routing.getReplicaConnections());
+	}
+
+	@Test
+	void laggingReplicaIsSkippedUntilItCatchesUp() throws Exception {
+		ResultSet status = mock(ResultSet.class);
+		Statement statement = mock(Statement.class);
+		when(statement.executeQuery(anyString())).thenReturn(status);
+		when(status.next()).thenReturn(true);
+		when(status.getLong("Seconds_Behind_Source")).thenReturn(30L, 1L);
+		ReadWriteRoutingDataSource routing = routing("SHOW REPLICA STATUS");
+		when(replicaConnection.createStatement()).thenReturn(statement);
+
+		routing.checkReplica();
+		assertFalse(routing.isReplicaUsable());
+		assertEquals(primaryConnection, used(routing, true));
+
+		routing.checkReplica();
+		assertTrue(routing.isReplicaUsable());
+		assertEquals(replicaConnection, used(routing, true));
+	}
+
+	@Test
+	void readsFollowTheClientsWritesToThePrimary() throws Exception {
+		ReadWriteRoutingDataSource routing = routing("");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		ReadYourWrites.begin(new MockHttpServletRequest(), response, 5000);
+		try {
+			assertEquals(replicaConnection, used(routing, true));
+			assertEquals(primaryConnection, used(routing, false));
+			assertEquals(primaryConnection, used(routing, true));
+		} finally {
+			ReadYourWrites.end();
+		}
+		Cookie cookie = response.getCookie(ReadYourWrites.COOKIE);
+		assertNotNull(cookie);
+
+		// the next request of the same client
+		MockHttpServletRequest next = new MockHttpServletRequest();
+		next.setCookies(cookie);
+		ReadYourWrites.begin(next, new MockHttpServletResponse(), 5000);
+		try {
+			assertEquals(primaryConnection, used(routing, true));
+		} finally {
+			ReadYourWrites.end();
+		}
+		assertEquals(replicaConnection, used(routing, true));
+	}
+
+	@Test
+	void rateLimitedGetStillReadsFromTheReplica() throws Exception {
+		ReadWriteRoutingDataSource routing = routing("");
+		RateLimitBucketRepository buckets = mock(RateLimitBucketRepository.class);
+		// the bucket update is a read-write transaction on the primary
+		when(buckets.tryAcquire(anyString(), anyLong(), anyLong(), anyLong())).thenAnswer(call -> {
+			assertEquals(primaryConnection, used(routing, false));
+			return 1;
+		});
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setShared(true);
+		RateLimitProperties.Route route = new RateLimitProperties.Route();
+		route.setPaths(List.of("/doctor/**"));
+		properties.getRoutes().put("reads", route);
+		RateLimitService rateLimits = new RateLimitService(buckets, properties);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		ReadYourWrites.begin(new MockHttpServletRequest(), response, 5000);
+		try {
+			assertEquals(0, rateLimits.tryAcquire(rateLimits.match("GET", "/doctor/1"), "127.0.0.1"));
+			assertEquals(replicaConnection, used(routing, true));
+		} finally {
+			ReadYourWrites.end();
+		}
+		verify(buckets).tryAcquire(anyString(), anyLong(), anyLong(), anyLong());
+		assertNull(response.getCookie(ReadYourWrites.COOKIE));
+	}
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTests {
+
+	@Test
+	void statementsOverTheThresholdAreCounted() throws Exception {
+		DataSource target = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		when(target.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(rs);
+
+		SlowQueryLog everything = new SlowQueryLog(target, 0, 10);
+		try( Connection c = everything.getConnection(); PreparedStatement ps = c.prepareStatement("select * from doctor where id = ?") ) {
+			ps.setLong(1, 42L);
+			assertSame(rs, ps.executeQuery());
+		}
+		assertEquals(1, everything.getSlowQueries());
+		verify(statement).setLong(1, 42L);
+
+		SlowQueryLog nothing = new SlowQueryLog(target, 60_000, 10);
+		try( Connection c = nothing.getConnection(); PreparedStatement ps = c.prepareStatement("select 1") ) {
+			ps.executeQuery();
+		}
+		assertEquals(0, nothing.getSlowQueries());
+	}
+
+	@Test
+	void poolSizeFollowsTheMeasuredConcurrency() {
+		// 200 acquires/s held 50 ms each: 10 connections busy on average, plus 25%
+		assertEquals(13, PoolMetrics.recommendedSize(12_000, 60, 50, 4, 0.25));
+		// bursts above the average
+		assertEquals(20, PoolMetrics.recommendedSize(12_000, 60, 50, 16, 0.25));
+		// idle
+		assertEquals(2, PoolMetrics.recommendedSize(0, 60, 0, 0, 0.25));
+	}
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class IdempotencyCacheTests {
+
+	private final AtomicLong now = new AtomicLong(1_000);
+
+	@Test
+	void duplicatesWaitForTheFirstResponse() throws Exception {
+		IdempotencyCache cache = new IdempotencyCache(10, 60_000, now::get);
+
+		assertNull(cache.claim("k", "f"));
+		IdempotencyCache.Entry duplicate = cache.claim("k", "f");
+		assertNotNull(duplicate);
+		CompletableFuture<StoredResponse> waiting = duplicate.getResponse();
+
+		StoredResponse created = new StoredResponse(201, "Appointment created");
+		cache.complete("k", created);
+		assertSame(created, waiting.get(1, TimeUnit.SECONDS));
+		assertSame(created, cache.claim("k", "f").getResponse().getNow(null));
+	}
+
+	@Test
+	void abandonedKeysCanBeClaimedAgain() throws Exception {
+		IdempotencyCache cache = new IdempotencyCache(10, 60_000, now::get);
+
+		assertNull(cache.claim("k", "f"));
+		CompletableFuture<StoredResponse> waiting = cache.claim("k", "f").getResponse();
+		cache.abandon("k", null);
+
+		assertNull(waiting.get(1, TimeUnit.SECONDS));
+		assertNull(cache.claim("k", "f"));
+	}
+
+	@Test
+	void keysExpireAndTheOldestAreEvicted() {
+		IdempotencyCache cache = new IdempotencyCache(2, 60_000, now::get);
+		for(String key : new String[] { "a", "b", "c" }) {
+			assertNull(cache.claim(key, "f"));
+			cache.complete(key, new StoredResponse(201, key));
+		}
+		// "a" was the oldest: claimed again
+		assertEquals(2, cache.size());
+		assertNull(cache.claim("a", "f"));
+		cache.complete("a", new StoredResponse(201, "a"));
+
+		// in-flight keys are kept past the limit
+		assertNull(cache.claim("d", "f"));
+		assertNotNull(cache.claim("d", "f"));
+
+		now.addAndGet(60_000);
+		assertNull(cache.claim("c", "f"));
+	}
+}
@@ -0,0 +1,83 @@
+package com.project.back_end.interactions;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.models.Prescription;
+
+// Microseconds per interaction check of a new prescription against 50 active ones, with a reference of
+// 20000 drugs and 500000 interactions, and the time to load that reference:
+//   mvn -Pbenchmark test [-Dbenchmark.iterations=100000]
+// Printed and written to target/interaction-benchmark.txt.
+@Tag("benchmark")
+class InteractionBenchmarkTest {
+
+	@Test
+	void checkAgainstActivePrescriptions() throws Exception {
+		int iterations = Integer.parseInt(System.getProperty("benchmark.iterations", "100000"));
+		Random random = new Random(42);
+		StringBuilder dataset = new StringBuilder();
+		for(int d = 0; d < 20_000; d++) {
+			dataset.append("D;drug").append(d).append(";brand").append(d).append(" forte\n");
+		}
+		Set<Long> pairs = new HashSet<>();
+		while( pairs.size() < 500_000 ) {
+			int a = random.nextInt(20_000), b = random.nextInt(20_000);
+			if( a < b && pairs.add((long) a << 32 | b) ) {
+				dataset.append("I;drug").append(a).append(";drug").append(b).append(";major;description ").append(pairs.size() % 100).append('\n');
+			}
+		}
+
+		long start = System.nanoTime();
+		InteractionGraph graph = InteractionGraph.parse(new StringReader(dataset.toString()));
+		double loadMillis = (System.nanoTime() - start) / 1e6;
+
+		List<Prescription> active = new ArrayList<>();
+		for(int i = 0; i < 50; i++) {
+			Prescription p = new Prescription();
+			p.setId("p" + i);
+			p.setMedication("Brand" + random.nextInt(20_000) + " Forte 20mg, twice a day");
+			active.add(p);
+		}
+		String[] medications = new String[1024];
+		for(int i = 0; i < medications.length; i++) {
+			medications[i] = "drug" + random.nextInt(20_000) + " 500mg";
+		}
+
+		long found = 0;
+		for(int i = 0; i < iterations / 10; i++) {
+			found += check(graph, medications[i & 1023], active);
+		}
+		start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			found += check(graph, medications[i & 1023], active);
+		}
+		double micros = (System.nanoTime() - start) / 1e3 / iterations;
+
+		String report = String.format("Drug interactions: %d drugs, %d interactions loaded in %.0f ms%n"
+				+ "Check against %d active prescriptions: %.2f us (%d interactions found)%n",
+				graph.drugCount(), graph.interactionCount(), loadMillis, active.size(), micros, found);
+		System.out.print(report);
+		Files.createDirectories(Path.of("target"));
+		Files.writeString(Path.of("target", "interaction-benchmark.txt"), report);
+	}
+
+	// InteractionService.check, on the given graph
+	private static int check(InteractionGraph graph, String medication, List<Prescription> active) {
+		int[] drugs = graph.drugsIn(medication);
+		int found = 0;
+		for(Prescription p : active) {
+			found += graph.between(drugs, graph.drugsIn(p.getMedication()), p.getId()).size();
+		}
+		return found;
+	}
+}
@@ -0,0 +1,99 @@
+package com.project.back_end.interactions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.DTO.DrugInteraction;
+import com.project.back_end.DTO.DrugInteraction.Severity;
+
+class InteractionGraphTests {
+
+	private static final String DATASET = """
+			# comment
+			D;aspirin;acetylsalicylic acid;ASA
+			D;warfarin;coumadin
+			I;warfarin;aspirin;major;Bleeding   # trailing comment
+			I;warfarin;ibuprofen;major;Bleeding
+			I;aspirin;ibuprofen;moderate;Less antiplatelet effect
+			""";
+
+	@Test
+	void medicationTextIsMatchedByNameAndAlias() throws IOException {
+		InteractionGraph graph = InteractionGraph.parse(new StringReader(DATASET));
+		assertEquals(3, graph.drugCount());
+		assertEquals(3, graph.interactionCount());
+
+		int[] aspirin = graph.drugsIn("Acetylsalicylic acid 75mg");
+		assertEquals(1, aspirin.length);
+		assertEquals("aspirin", graph.name(aspirin[0]));
+		// same drug twice: one id
+		assertEquals(1, graph.drugsIn("ASA / aspirin").length);
+		assertEquals(2, graph.drugsIn("Coumadin 5mg, Ibuprofen 400mg").length);
+		assertArrayEquals(new int[0], graph.drugsIn("Paracetamol 500mg"));
+	}
+
+	@Test
+	void interactionsGoBothWays() throws IOException {
+		InteractionGraph graph = InteractionGraph.parse(new StringReader(DATASET));
+		int warfarin = graph.drugsIn("warfarin")[0];
+		int aspirin = graph.drugsIn("aspirin")[0];
+		int ibuprofen = graph.drugsIn("ibuprofen")[0];
+		assertEquals(Severity.MAJOR, graph.severity(warfarin, aspirin));
+		assertEquals(Severity.MAJOR, graph.severity(aspirin, warfarin));
+		assertEquals(Severity.MODERATE, graph.severity(ibuprofen, aspirin));
+
+		List<DrugInteraction> found = graph.between(graph.drugsIn("Coumadin"), graph.drugsIn("Aspirin + ibuprofen"), "p1");
+		assertEquals(List.of(new DrugInteraction("warfarin", "aspirin", Severity.MAJOR, "Bleeding", "p1"),
+				new DrugInteraction("warfarin", "ibuprofen", Severity.MAJOR, "Bleeding", "p1")), found);
+	}
+
+	@Test
+	void largeGraphRowsAreSorted() throws IOException {
+		// 2000 drugs, each interacting with the next 50: rows filled out of order
+		StringBuilder dataset = new StringBuilder();
+		for(int d = 0; d < 2000; d++) {
+			for(int k = 1; k <= 50; k++) {
+				dataset.append("I;drug").append((d + k) % 2000).append(";drug").append(d).append(";minor;x\n");
+			}
+		}
+		InteractionGraph graph = InteractionGraph.parse(new StringReader(dataset.toString()));
+		assertEquals(2000, graph.drugCount());
+		assertEquals(100_000, graph.interactionCount());
+		int a = graph.drugsIn("drug10")[0];
+		assertEquals(Severity.MINOR, graph.severity(a, graph.drugsIn("drug60")[0]));
+		assertEquals(Severity.MINOR, graph.severity(a, graph.drugsIn("drug1970")[0]));
+		assertNull(graph.severity(a, graph.drugsIn("drug61")[0]));
+	}
+
+	@Test
+	void invalidDatasetsAreRejected() {
+		assertThrows(IOException.class, () -> InteractionGraph.parse(new StringReader("I;warfarin;aspirin;severe;x")));
+		assertThrows(IOException.class, () -> InteractionGraph.parse(new StringReader("I;warfarin;aspirin;major;x\nI;aspirin;warfarin;minor;y")));
+		assertThrows(IOException.class, () -> InteractionGraph.parse(new StringReader("D;aspirin;asa\nD;ibuprofen;asa")));
+		IOException e = assertThrows(IOException.class, () -> InteractionGraph.parse(new StringReader("D;aspirin\nX;y")));
+		assertTrue(e.getMessage().startsWith("Line 2"), e.getMessage());
+	}
+
+	@Test
+	void bundledDatasetParses() throws IOException {
+		try( Reader reader = new InputStreamReader(
+				getClass().getResourceAsStream("/interactions/drug-interactions.txt"), StandardCharsets.UTF_8) ) {
+			InteractionGraph graph = InteractionGraph.parse(reader);
+			assertTrue(graph.interactionCount() > 0);
+			assertEquals(Severity.CONTRAINDICATED,
+					graph.severity(graph.drugsIn("Viagra")[0], graph.drugsIn("glyceryl trinitrate spray")[0]));
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.project.back_end.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// Clinic traffic against a running instance (see "Load tests" in schema-architecture.md):
+//   mvn -Pload-test test -Dload.base-url=http://localhost:8080 -Dload.patients=1:<token>,2:<token> -Dload.doctor=<email>:<password>
+// Default rates are a morning peak: patients browsing and filtering doctors, probing free slots and
+// booking, a burst of bookings when the slots `load.burst.days-ahead` days ahead open, doctors
+// refreshing their dashboard and writing prescriptions. Every rate is a `load.rate.*` property.
+// Prints throughput, p50/p99/p999 latency and error rate per scenario, also written to
+// target/load-test-report.txt, and fails above `load.max-error-rate` (5xx and transport errors).
+@Tag("load")
+class ClinicLoadTest {
+
+	@Test
+	void morningPeak() throws Exception {
+		String baseUrl = property("load.base-url", "http://localhost:8080");
+		Duration timeout = Duration.ofMillis(Long.parseLong(property("load.timeout-ms", "5000")));
+		int concurrency = Integer.parseInt(property("load.concurrency", "200"));
+		LoadClient client = new LoadClient(baseUrl, timeout, concurrency);
+
+		String specialty = property("load.specialty", "Cardiologist");
+		List<Long> doctorIds = longs(property("load.doctor-ids", "1"));
+		List<Long> appointmentIds = longs(property("load.appointment-ids", ""));
+		List<String[]> patients = new ArrayList<>();
+		for(String patient : split(property("load.patients", ""))) {
+			patients.add(patient.split(":", 2)); // id:token
+		}
+		String doctorToken = property("load.doctor-token", "");
+		String doctor = property("load.doctor", "");
+		if( doctorToken.isEmpty() && doctor.contains(":") ) {
+			String[] credentials = doctor.split(":", 2);
+			doctorToken = client.login("/doctor/login", Map.of("identifier", credentials[0], "password", credentials[1]));
+		}
+		assumeTrue(!patients.isEmpty() || (doctorToken != null && !doctorToken.isEmpty()),
+				"No load.patients nor doctor credentials: nothing to run");
+
+		List<Scenario> scenarios = new ArrayList<>();
+		List<Scenario.Burst> bursts = new ArrayList<>();
+		scenarios.add(new Scenario("browse doctors", rate("browse", 40), (c, n) -> n % 3 == 2
+				? c.get("/doctor/filter/null/" + (n % 2 == 0 ? "AM" : "PM") + "/" + specialty)
+				: c.get("/doctor")));
+		if( !patients.isEmpty() ) {
+			scenarios.add(new Scenario("availability probe", rate("availability", 25), (c, n) -> {
+				String token = patients.get((int) (n % patients.size()))[1];
+				LocalDate from = LocalDate.now().plusDays(n % 7);
+				return c.get("/doctor/slots/" + specialty + "/" + from + "/" + from.plusDays(14) + "/all/5/" + token);
+			}));
+			scenarios.add(new Scenario("booking", rate("booking", 2), (c, n) -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				LocalDateTime time = LocalDate.now().plusDays(1 + random.nextInt(30)).atTime(9 + random.nextInt(8), 0);
+				return book(c, patients.get(random.nextInt(patients.size())), doctorIds.get(random.nextInt(doctorIds.size())), time);
+			}));
+			// many patients after the same few slots: one booking each, the others get 409
+			int slots = Integer.parseInt(property("load.burst.slots", "4"));
+			LocalDate released = LocalDate.now().plusDays(Long.parseLong(property("load.burst.days-ahead", "14")));
+			Scenario burst = new Scenario("booking burst", 0, (c, n) -> book(c, patients.get((int) (n % patients.size())),
+					doctorIds.get((int) (n % doctorIds.size())), released.atTime(LocalTime.of(9, 0)).plusHours(n % slots)));
+			scenarios.add(burst);
+			bursts.add(new Scenario.Burst(burst, Long.parseLong(property("load.burst.at-seconds", "20")),
+					Integer.parseInt(property("load.burst.requests", "300"))));
+		}
+		if( doctorToken != null && !doctorToken.isEmpty() ) {
+			String token = doctorToken;
+			scenarios.add(new Scenario("doctor dashboard", rate("dashboard", 5),
+					(c, n) -> c.get("/appointments/" + LocalDate.now() + "/null/" + token)));
+			if( !appointmentIds.isEmpty() ) {
+				scenarios.add(new Scenario("prescription write", rate("prescription", 2), (c, n) -> {
+					Map<String, Object> prescription = new LinkedHashMap<>();
+					prescription.put("patientName", "Load test patient");
+					prescription.put("appointmentId", appointmentIds.get((int) (n % appointmentIds.size())));
+					prescription.put("medication", "Paracetamol");
+					prescription.put("dosage", "500mg, 3 times a day");
+					prescription.put("doctorNotes", "Load test " + n);
+					return c.post("/prescription/" + token, prescription, Map.of());
+				}));
+			}
+		}
+
+		LoadRunner runner = new LoadRunner(client, concurrency,
+				Duration.ofSeconds(Long.parseLong(property("load.warmup-seconds", "10"))),
+				Duration.ofSeconds(Long.parseLong(property("load.duration-seconds", "60"))),
+				Long.parseLong(property("load.seed", "42")));
+		Map<String, ScenarioStats> stats = runner.run(scenarios, bursts);
+
+		StringBuilder report = new StringBuilder();
+		report.append("Load test against ").append(baseUrl).append(", ")
+				.append((long) runner.measuredSeconds()).append("s measured\n")
+				.append(ScenarioStats.HEADER).append('\n');
+		double maxErrorRate = Double.parseDouble(property("load.max-error-rate", "0.01"));
+		List<String> failing = new ArrayList<>();
+		for(Map.Entry<String, ScenarioStats> e : stats.entrySet()) {
+			report.append(e.getValue().row(runner.measuredSeconds())).append('\n');
+			if( e.getValue().errorRate() > maxErrorRate ) {
+				failing.add(e.getKey());
+			}
+		}
+		System.out.print(report);
+		Files.createDirectories(Path.of("target"));
+		Files.writeString(Path.of("target", "load-test-report.txt"), report);
+		assertTrue(failing.isEmpty(), "Error rate above " + maxErrorRate + " for " + failing);
+	}
+
+	private static int book(LoadClient client, String[] patient, Long doctorId, LocalDateTime time) throws Exception {
+		Map<String, Object> appointment = new LinkedHashMap<>();
+		appointment.put("doctor", Map.of("id", doctorId));
+		appointment.put("patient", Map.of("id", Long.parseLong(patient[0])));
+		appointment.put("appointmentTime", time);
+		appointment.put("status", 0);
+		return client.post("/appointments/" + patient[1], appointment, Map.of("Idempotency-Key", UUID.randomUUID().toString()));
+	}
+
+	private static double rate(String scenario, double perSecond) {
+		return Double.parseDouble(property("load.rate." + scenario, String.valueOf(perSecond)));
+	}
+
+	private static String property(String name, String defaultValue) {
+		return System.getProperty(name, defaultValue).trim();
+	}
+
+	private static List<String> split(String value) {
+		return Arrays.stream(value.split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList();
+	}
+
+	private static List<Long> longs(String value) {
+		return split(value).stream().map(Long::valueOf).toList();
+	}
+}
@@ -0,0 +1,70 @@
+package com.project.back_end.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Latencies in microseconds, recorded from many threads without locking.
+//
+// Log-linear buckets: exact below 128us, then 64 buckets per power of two, so a percentile is
+// within 1/64 (1.6%) of the real value from 1us up to about 9 minutes, in a fixed 3KB array.
+class LatencyHistogram {
+
+	private static final int LINEAR = 128;
+	private static final int SUB_BUCKETS = 64;
+	private static final int MAX_EXPONENT = 38;
+
+	private final AtomicLongArray counts = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 6) * SUB_BUCKETS);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	void recordMicros(long micros) {
+		long value = Math.max(0, micros);
+		counts.incrementAndGet(index(value));
+		total.incrementAndGet();
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	static int index(long value) {
+		if( value < LINEAR ) {
+			return (int) value;
+		}
+		int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+		int sub = (int) ((value >>> (exponent - 6)) & (SUB_BUCKETS - 1));
+		return LINEAR + (exponent - 7) * SUB_BUCKETS + sub;
+	}
+
+	// Highest value counted in the bucket.
+	static long upperBound(int index) {
+		if( index < LINEAR ) {
+			return index;
+		}
+		int exponent = (index - LINEAR) / SUB_BUCKETS + 7;
+		long sub = (index - LINEAR) % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << (exponent - 6)) - 1;
+	}
+
+	// The value below which `quantile` (0.5, 0.99, 0.999) of the recorded latencies are.
+	long percentileMicros(double quantile) {
+		long n = total.get();
+		if( n == 0 ) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * n));
+		long seen = 0;
+		for(int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if( seen >= rank ) {
+				return Math.min(upperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	long count() {
+		return total.get();
+	}
+
+	long maxMicros() {
+		return max.get();
+	}
+}
@@ -0,0 +1,36 @@
+package com.project.back_end.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTests {
+
+	@Test
+	void percentilesAreWithinTheBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(long micros = 1; micros <= 100_000; micros++) {
+			histogram.recordMicros(micros);
+		}
+		assertEquals(100_000, histogram.count());
+		assertNear(50_000, histogram.percentileMicros(0.5));
+		assertNear(99_000, histogram.percentileMicros(0.99));
+		assertNear(99_900, histogram.percentileMicros(0.999));
+		assertEquals(100_000, histogram.percentileMicros(1.0));
+		assertEquals(0, new LatencyHistogram().percentileMicros(0.99));
+	}
+
+	@Test
+	void everyValueFallsInTheBucketEndingAtOrAboveIt() {
+		for(long value = 0; value < 10_000_000; value = value * 3 / 2 + 1) {
+			int index = LatencyHistogram.index(value);
+			assertTrue(LatencyHistogram.upperBound(index) >= value, "bucket of " + value);
+			assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value, "bucket of " + value);
+		}
+	}
+
+	private static void assertNear(long expected, long actual) {
+		assertTrue(Math.abs(actual - expected) <= expected / 64 + 1, "expected about " + expected + " but was " + actual);
+	}
+}
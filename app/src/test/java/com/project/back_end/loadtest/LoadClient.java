@@ -0,0 +1,67 @@
+package com.project.back_end.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+// The HTTP calls of the scenarios, against the running application at `baseUrl`.
+class LoadClient {
+
+	private final HttpClient http;
+	private final String baseUrl;
+	private final Duration timeout;
+	private final ObjectMapper mapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	LoadClient(String baseUrl, Duration timeout, int maxConnections) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.timeout = timeout;
+		this.http = HttpClient.newBuilder()
+				.connectTimeout(timeout)
+				.executor(Executors.newFixedThreadPool(Math.max(2, maxConnections / 8)))
+				.build();
+	}
+
+	int get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+		return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	int post(String path, Object body, Map<String, String> headers) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(timeout)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+		headers.forEach(request::header);
+		return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	// The token of the response of a login endpoint, null when the login failed.
+	String login(String path, Object credentials) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(timeout)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(credentials)))
+				.build();
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		if( response.statusCode() != 200 ) {
+			return null;
+		}
+		try {
+			Object token = mapper.readValue(response.body(), Map.class).get("token");
+			return token == null ? null : token.toString();
+		} catch(IOException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.project.back_end.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: the arrivals follow the scenario rates whatever the response times, as real
+// patients do not wait for each other. A latency is counted from the time the request was due, not
+// from when a worker picked it up, so the time spent queued behind slow requests is not hidden.
+// The requests due during the warmup are run but not counted.
+class LoadRunner {
+
+	private final LoadClient client;
+	private final int concurrency;
+	private final long warmupNanos;
+	private final long durationNanos;
+	private final long seed;
+
+	LoadRunner(LoadClient client, int concurrency, Duration warmup, Duration duration, long seed) {
+		this.client = client;
+		this.concurrency = concurrency;
+		this.warmupNanos = warmup.toNanos();
+		this.durationNanos = duration.toNanos();
+		this.seed = seed;
+	}
+
+	Map<String, ScenarioStats> run(List<Scenario> scenarios, List<Scenario.Burst> bursts) throws InterruptedException {
+		Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+		Map<String, AtomicLong> sequences = new LinkedHashMap<>();
+		for(Scenario scenario : scenarios) {
+			stats.put(scenario.name(), new ScenarioStats(scenario.name()));
+			sequences.put(scenario.name(), new AtomicLong());
+		}
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		long start = System.nanoTime();
+		long measureFrom = start + warmupNanos;
+		long end = measureFrom + durationNanos;
+		List<Thread> arrivals = new ArrayList<>();
+		for(int i = 0; i < scenarios.size(); i++) {
+			Scenario scenario = scenarios.get(i);
+			if( scenario.perSecond() <= 0 ) {
+				continue;
+			}
+			Random random = new Random(seed + i);
+			arrivals.add(new Thread(() -> {
+				long due = start;
+				while( due < end ) {
+					sleepUntil(due);
+					long intended = due;
+					workers.execute(() -> execute(scenario, stats, sequences, intended, measureFrom));
+					due += (long) (-Math.log(1 - random.nextDouble()) / scenario.perSecond() * 1e9);
+				}
+			}, "load-" + scenario.name()));
+		}
+		for(Scenario.Burst burst : bursts) {
+			arrivals.add(new Thread(() -> {
+				long due = measureFrom + TimeUnit.SECONDS.toNanos(burst.atSeconds());
+				if( due >= end ) {
+					return;
+				}
+				sleepUntil(due);
+				for(int n = 0; n < burst.requests(); n++) {
+					workers.execute(() -> execute(burst.scenario(), stats, sequences, due, measureFrom));
+				}
+			}, "load-burst-" + burst.scenario().name()));
+		}
+		arrivals.forEach(Thread::start);
+		for(Thread t : arrivals) {
+			t.join();
+		}
+		workers.shutdown();
+		if( !workers.awaitTermination(1, TimeUnit.MINUTES) ) {
+			workers.shutdownNow();
+		}
+		return stats;
+	}
+
+	double measuredSeconds() {
+		return durationNanos / 1e9;
+	}
+
+	private void execute(Scenario scenario, Map<String, ScenarioStats> stats, Map<String, AtomicLong> sequences,
+			long intended, long measureFrom) {
+		int status;
+		try {
+			status = scenario.action().run(client, sequences.get(scenario.name()).getAndIncrement());
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch(Exception e) {
+			status = -1;
+		}
+		if( intended >= measureFrom ) {
+			stats.get(scenario.name()).record(status, (System.nanoTime() - intended) / 1000);
+		}
+	}
+
+	private static void sleepUntil(long nanoTime) {
+		long wait;
+		while( (wait = nanoTime - System.nanoTime()) > 0 ) {
+			LockSupport.parkNanos(wait);
+		}
+	}
+}
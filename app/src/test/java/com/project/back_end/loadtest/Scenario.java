@@ -0,0 +1,15 @@
+package com.project.back_end.loadtest;
+
+// A kind of user traffic: `perSecond` arrivals per second on average (Poisson), each running `action`.
+// A scenario with no rate only runs in bursts.
+record Scenario(String name, double perSecond, Action action) {
+
+	interface Action {
+		// The HTTP status of the call; `sequence` numbers the runs of the scenario.
+		int run(LoadClient client, long sequence) throws Exception;
+	}
+
+	// `requests` runs at once, `atSeconds` after the warmup: patients waiting for new slots to open.
+	record Burst(Scenario scenario, long atSeconds, int requests) {
+	}
+}
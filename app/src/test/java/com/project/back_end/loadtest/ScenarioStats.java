@@ -0,0 +1,52 @@
+package com.project.back_end.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outcomes of one scenario: 2xx are ok, 4xx rejected (taken slot, rate limit, bad token),
+// 5xx and transport failures (connection, timeout) are errors.
+class ScenarioStats {
+
+	static final String HEADER = String.format("%-22s %9s %9s %9s %9s %9s %9s %9s %9s %8s",
+			"scenario", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "rejected", "errors", "error %");
+
+	private final String name;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private final AtomicLong ok = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+
+	ScenarioStats(String name) {
+		this.name = name;
+	}
+
+	// `status` < 0 when the call failed before getting a response.
+	void record(int status, long micros) {
+		latencies.recordMicros(micros);
+		if( status >= 200 && status < 300 ) {
+			ok.incrementAndGet();
+		} else if( status >= 400 && status < 500 ) {
+			rejected.incrementAndGet();
+		} else {
+			errors.incrementAndGet();
+		}
+	}
+
+	long requests() {
+		return latencies.count();
+	}
+
+	double errorRate() {
+		long n = requests();
+		return n == 0 ? 0 : (double) errors.get() / n;
+	}
+
+	String row(double seconds) {
+		return String.format("%-22s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %9d %9d %8.2f",
+				name, requests(), requests() / seconds,
+				latencies.percentileMicros(0.5) / 1000.0,
+				latencies.percentileMicros(0.99) / 1000.0,
+				latencies.percentileMicros(0.999) / 1000.0,
+				latencies.maxMicros() / 1000.0,
+				rejected.get(), errors.get(), errorRate() * 100);
+	}
+}
@@ -0,0 +1,79 @@
+package com.project.back_end.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class LogRingBufferTests {
+
+	@Test
+	void rejectsWhenFullAndReusesSlots() {
+		LogRingBuffer<Integer> buffer = new LogRingBuffer<>(3);
+		assertEquals(4, buffer.capacity());
+		for(int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(4));
+		assertEquals(0, buffer.poll());
+		assertTrue(buffer.offer(4));
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(4, buffer.drainTo(drained, 10));
+		assertEquals(List.of(1, 2, 3, 4), drained);
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	void concurrentProducersLoseNothing() throws InterruptedException {
+		LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1024);
+		int producers = 4;
+		int perProducer = 50_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for(int p = 0; p < producers; p++) {
+			int base = p * perProducer;
+			Thread t = new Thread(() -> {
+				try {
+					start.await();
+				} catch(InterruptedException e) {
+					return;
+				}
+				for(int i = 0; i < perProducer; i++) {
+					while( !buffer.offer(base + i) ) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+			t.start();
+			threads.add(t);
+		}
+		start.countDown();
+		Set<Integer> seen = new HashSet<>();
+		while( seen.size() < producers * perProducer ) {
+			Integer e = buffer.poll();
+			if( e != null ) {
+				assertTrue(seen.add(e));
+			}
+		}
+		for(Thread t : threads) {
+			t.join();
+		}
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	void numbersPlaceholdersLikeTheLogsSchema() {
+		assertEquals("The file $1 is not missing in $2",
+				MongoLogAppender.numberPlaceholders("The file {} is not missing in {}"));
+		assertEquals("no parameters", MongoLogAppender.numberPlaceholders("no parameters"));
+	}
+}
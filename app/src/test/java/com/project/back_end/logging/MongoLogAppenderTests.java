@@ -0,0 +1,79 @@
+package com.project.back_end.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.client.MongoCollection;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+class MongoLogAppenderTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void entryThatCanNotBeFormattedIsSkippedAndTheFlusherKeepsRunning() throws Exception {
+		List<Document> inserted = new CopyOnWriteArrayList<>();
+		MongoCollection<Document> logs = mock(MongoCollection.class);
+		doAnswer(call -> {
+			inserted.addAll(call.getArgument(0));
+			return null;
+		}).when(logs).insertMany(any(List.class), any());
+
+		LoggerContext context = new LoggerContext();
+		MongoLogAppender appender = new MongoLogAppender();
+		appender.setContext(context);
+		appender.setFlushIntervalMillis(10);
+		appender.startFlusher(logs);
+		Logger logger = context.getLogger("test");
+		Object broken = new Object() {
+			@Override
+			public String toString() {
+				throw new IllegalStateException("no toString");
+			}
+		};
+		try {
+			appender.doAppend(event(logger, "first {}", 1));
+			appender.doAppend(event(logger, "broken {}", broken));
+			appender.doAppend(event(logger, "after {}", 2));
+			waitFor(() -> inserted.size() == 2);
+			// a later batch is still written
+			appender.doAppend(event(logger, "later {}", 3));
+			waitFor(() -> inserted.size() == 3);
+		} finally {
+			appender.stop();
+		}
+
+		assertEquals(List.of("first $1", "after $1", "later $1"),
+				inserted.stream().map(d -> ((Document) d.get("message")).getString("text")).toList());
+		assertEquals(1, appender.getDroppedEvents());
+		assertEquals(3, appender.getWrittenEvents());
+	}
+
+	private static LoggingEvent event(Logger logger, String pattern, Object argument) {
+		LoggingEvent event = new LoggingEvent(null, logger, Level.INFO, pattern, null, new Object[] { argument });
+		event.setMDCPropertyMap(Map.of());
+		return event;
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while( !condition.getAsBoolean() && System.currentTimeMillis() < deadline ) {
+			Thread.sleep(10);
+		}
+		assertTrue(condition.getAsBoolean(), "not flushed in time");
+	}
+}
@@ -0,0 +1,39 @@
+package com.project.back_end.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+class PrescriptionIndexesTests {
+
+	@Test
+	void timelineAndTextIndexesStartWithThePatient() {
+		MongoMappingContext context = new MongoMappingContext();
+		// java.time as simple values, as with the Spring Boot mapping context
+		context.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+		Map<String, IndexDefinition> indexes = new HashMap<>();
+		new MongoPersistentEntityIndexResolver(context).resolveIndexFor(Prescription.class)
+				.forEach(holder -> indexes.put((String) holder.getIndexOptions().get("name"), holder));
+
+		Document timeline = indexes.get("patient_timeline").getIndexKeys();
+		assertEquals(List.of("patientId", "prescribedAt"), List.copyOf(timeline.keySet()));
+		assertEquals(-1, timeline.get("prescribedAt"));
+
+		// Mongo only uses a text index with a prefix for queries with an equality on the prefix
+		Document text = indexes.get("patient_text").getIndexKeys();
+		assertEquals(List.of("patientId", "medication", "doctorNotes"), List.copyOf(text.keySet()));
+		assertEquals("text", text.get("medication"));
+
+		assertNotNull(indexes.get("appointmentId"));
+	}
+}
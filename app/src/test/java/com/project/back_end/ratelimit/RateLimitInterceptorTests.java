@@ -0,0 +1,83 @@
+package com.project.back_end.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.project.back_end.repo.RateLimitBucketRepository;
+import com.project.back_end.services.ClusterService;
+import com.project.back_end.services.RateLimitService;
+import com.project.back_end.services.TokenService;
+
+class RateLimitInterceptorTests {
+
+	// The routes as configured in application.properties.
+	private static RateLimitService configuredService() throws Exception {
+		Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+		RateLimitProperties rateLimits = new Binder(new MapConfigurationPropertySource(properties))
+				.bind("ratelimit", RateLimitProperties.class).get();
+		rateLimits.setShared(false);
+		return new RateLimitService(mock(RateLimitBucketRepository.class), rateLimits);
+	}
+
+	private static MockHttpServletRequest post(String path, String ip) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(ip);
+		return request;
+	}
+
+	@Test
+	void everyLoginEndpointSharesTheLoginBudgetPerIp() throws Exception {
+		RateLimitService service = configuredService();
+		for(String path : new String[] { "/doctor/login", "/patient/login", "/admin" }) {
+			assertEquals("login", service.match("POST", path).name(), path);
+		}
+		assertNull(service.match("GET", "/patient/login"));
+
+		RateLimitInterceptor interceptor = new RateLimitInterceptor(service, mock(TokenService.class), mock(ClusterService.class));
+		// capacity 10: the burst is allowed, the next attempt is refused
+		for(int i = 0; i < 10; i++) {
+			assertTrue(interceptor.preHandle(post("/patient/login", "10.0.0.1"), new MockHttpServletResponse(), new Object()));
+		}
+		MockHttpServletResponse refused = new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(post("/patient/login", "10.0.0.1"), refused, new Object()));
+		assertEquals(429, refused.getStatus());
+		assertTrue(Long.parseLong(refused.getHeader("Retry-After")) >= 1);
+		// the same IP trying another login endpoint, and another IP
+		assertFalse(interceptor.preHandle(post("/doctor/login", "10.0.0.1"), new MockHttpServletResponse(), new Object()));
+		assertTrue(interceptor.preHandle(post("/patient/login", "10.0.0.2"), new MockHttpServletResponse(), new Object()));
+	}
+
+	@Test
+	void theFirstSharedRequestIsAllowedWhenAnotherNodeCreatedTheBucket() throws Exception {
+		Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+		RateLimitProperties rateLimits = new Binder(new MapConfigurationPropertySource(properties))
+				.bind("ratelimit", RateLimitProperties.class).get();
+		rateLimits.setShared(true);
+		RateLimitBucketRepository repository = mock(RateLimitBucketRepository.class);
+		RateLimitService service = new RateLimitService(repository, rateLimits);
+		// no bucket yet, and another node inserts it first: the insert is ignored here
+		when(repository.tryAcquire(eq("login:10.0.0.1"), anyLong(), anyLong(), anyLong())).thenReturn(0, 1);
+		when(repository.create(eq("login:10.0.0.1"), anyLong())).thenReturn(0);
+
+		assertEquals(0, service.tryAcquire(service.match("POST", "/patient/login"), "10.0.0.1"));
+		verify(repository, times(2)).tryAcquire(eq("login:10.0.0.1"), anyLong(), anyLong(), anyLong());
+	}
+}
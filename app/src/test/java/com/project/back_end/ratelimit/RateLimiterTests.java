@@ -0,0 +1,58 @@
+package com.project.back_end.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void burstThenSustainedRate() {
+		RateLimiter limiter = new RateLimiter();
+		long now = 1_000 * SECOND;
+
+		// capacity 3, one token per second
+		for(int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("login:ip:1", SECOND, 3, now));
+		}
+		assertEquals(SECOND, limiter.tryAcquire("login:ip:1", SECOND, 3, now));
+		// another caller has its own bucket
+		assertEquals(0, limiter.tryAcquire("login:ip:2", SECOND, 3, now));
+
+		assertEquals(SECOND / 2, limiter.tryAcquire("login:ip:1", SECOND, 3, now + SECOND / 2));
+		assertEquals(0, limiter.tryAcquire("login:ip:1", SECOND, 3, now + SECOND));
+		assertTrue(limiter.tryAcquire("login:ip:1", SECOND, 3, now + SECOND) > 0);
+
+		// full again after 3 seconds of silence: nothing to keep
+		assertEquals(1, limiter.evictIdle(now + 3 * SECOND));
+		assertEquals(1, limiter.size());
+		assertEquals(1, limiter.evictIdle(now + 10 * SECOND));
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void concurrentCallersNeverExceedTheCapacity() throws Exception {
+		RateLimiter limiter = new RateLimiter();
+		long now = System.nanoTime();
+		AtomicInteger granted = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for(int i = 0; i < 1000; i++) {
+			pool.execute(() -> {
+				if( limiter.tryAcquire("booking:user:a", SECOND * 60, 50, now) == 0 ) {
+					granted.incrementAndGet();
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(50, granted.get());
+	}
+}
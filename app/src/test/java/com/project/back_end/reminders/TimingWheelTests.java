@@ -0,0 +1,65 @@
+package com.project.back_end.reminders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTests {
+
+	@Test
+	void firesEachTimerAtItsTickAcrossLevels() {
+		TimingWheel<Long> wheel = new TimingWheel<>(1, 8, 4, 0);
+		Random random = new Random(42);
+		List<Long> deadlines = new ArrayList<>();
+		for(int i = 0; i < 2000; i++) {
+			long deadline = 1 + random.nextInt(4000);
+			deadlines.add(deadline);
+			wheel.add(deadline, deadline);
+		}
+		List<long[]> fired = new ArrayList<>();
+		for(long now = 1; now <= 4096; now += 1 + random.nextInt(5)) {
+			long at = now;
+			wheel.advance(now, d -> fired.add(new long[] { d, at }));
+		}
+		wheel.advance(4096, d -> fired.add(new long[] { d, 4096 }));
+		assertEquals(deadlines.size(), fired.size());
+		assertEquals(0, wheel.size());
+		long last = 0;
+		for(long[] f : fired) {
+			assertTrue(f[0] <= f[1], "fired before its deadline");
+			assertTrue(f[0] >= last, "fired out of order");
+			last = f[0];
+		}
+	}
+
+	@Test
+	void cancelledTimersDoNotFire() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 64, 3, 0);
+		TimingWheel.Timer<String> kept = wheel.add(5_000, "kept");
+		TimingWheel.Timer<String> cancelled = wheel.add(300_000, "cancelled");
+		assertTrue(wheel.cancel(cancelled));
+		assertFalse(wheel.cancel(cancelled));
+		assertEquals(1, wheel.size());
+		List<String> fired = new ArrayList<>();
+		wheel.advance(400_000, fired::add);
+		assertEquals(List.of("kept"), fired);
+		assertFalse(kept.isPending());
+	}
+
+	@Test
+	void pastDeadlinesFireAtNextAdvanceAndSpanIsBounded() {
+		TimingWheel<String> wheel = new TimingWheel<>(1, 4, 2, 100);
+		wheel.add(50, "late");
+		List<String> fired = new ArrayList<>();
+		wheel.advance(101, fired::add);
+		assertEquals(List.of("late"), fired);
+		assertThrows(IllegalArgumentException.class, () -> wheel.add(wheel.maxDeadline() + 1, "too far"));
+	}
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.repo.AppointmentArchiveRepository;
+import com.project.back_end.repo.AppointmentRepository;
+
+class AppointmentArchiveServiceTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void scheduledAndUpcomingAppointmentsAreNeverMoved() {
+		AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+		AppointmentArchiveRepository archiveRepository = mock(AppointmentArchiveRepository.class);
+		when(appointmentRepository.findArchivableIds(any(), any(), any())).thenReturn(List.of(1L, 2L), List.of());
+		when(appointmentRepository.deleteArchivedByIdIn(any(), any(), any())).thenReturn(2);
+		// a horizon of -1 days would reach into tomorrow
+		AppointmentArchiveService service = new AppointmentArchiveService(appointmentRepository, archiveRepository,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), -1, 100);
+
+		assertEquals(2L, service.archive().get("archived"));
+
+		ArgumentCaptor<List<Integer>> statuses = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(appointmentRepository, times(2)).findArchivableIds(statuses.capture(), before.capture(), any());
+		// completed and cancelled only, and nothing from today on
+		assertEquals(List.of(1, 2), statuses.getValue());
+		assertFalse(before.getValue().isAfter(LocalDate.now().atStartOfDay()));
+		// the copy and the delete repeat both conditions
+		verify(archiveRepository).copyFromAppointments(eq(List.of(1L, 2L)), eq(List.of(1, 2)), eq(before.getValue()), any());
+		verify(appointmentRepository).deleteArchivedByIdIn(List.of(1L, 2L), List.of(1, 2), before.getValue());
+	}
+}
@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.project.back_end.DTO.AppointmentPatch;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+
+class AppointmentServiceTests {
+
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final AppointmentStatsService statsService = mock(AppointmentStatsService.class);
+	private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+
+	private AppointmentService service(int maxBatchSize) {
+		return new AppointmentService(appointmentRepository, mock(PatientRepository.class), mock(DoctorRepository.class),
+				mock(TokenService.class), statsService, events, maxBatchSize);
+	}
+
+	@Test
+	void batchStatusUpdateChangesOnlyTheDoctorsAppointmentsWithAnotherStatus() {
+		LocalDateTime time = LocalDateTime.of(2025, 3, 3, 9, 0);
+		// 3 belongs to another doctor: not locked, so not found
+		when(appointmentRepository.lockStatusRows(any(), any())).thenReturn(List.of(
+				new Object[] { 1L, 20L, time, 0 },
+				new Object[] { 2L, 21L, time.plusHours(1), 1 }));
+		when(appointmentRepository.updateStatus(any(), any(), anyInt(), any())).thenReturn(1);
+
+		Map<String, Object> result = service(200).updateStatuses(7L, List.of(1L, 2L, 3L), 1);
+
+		assertEquals(true, result.get("success"));
+		assertEquals(1, result.get("updated"));
+		assertEquals(Map.of(1L, "updated", 2L, "unchanged", 3L, "not_found"), result.get("results"));
+		verify(appointmentRepository).updateStatus(eq(List.of(1L)), eq(7L), eq(1), any());
+		ArgumentCaptor<AppointmentChangedEvent> published = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+		verify(events).publishEvent(published.capture());
+		assertEquals(AppointmentChangedEvent.Kind.UPDATED, published.getValue().getKind());
+		assertEquals(1L, published.getValue().getAppointmentId());
+		assertEquals(20L, published.getValue().getPatientId());
+		assertEquals(1, published.getValue().getStatus());
+		// the aggregate moves the appointment from the scheduled to the completed bucket of its day
+		verify(statsService).increment(new AppointmentStatsService.Bucket(7L, time.toLocalDate(), 0), -1);
+		verify(statsService).increment(new AppointmentStatsService.Bucket(7L, time.toLocalDate(), 1), 1);
+	}
+
+	@Test
+	void batchStatusUpdateRejectsTooManyIdsAndUnknownStatuses() {
+		AppointmentService service = service(2);
+
+		assertEquals(false, service.updateStatuses(7L, List.of(1L, 2L, 3L), 1).get("success"));
+		assertEquals(false, service.updateStatuses(7L, List.of(), 1).get("success"));
+		assertEquals(false, service.updateStatuses(7L, List.of(1L), 3).get("success"));
+		verify(appointmentRepository, never()).lockStatusRows(any(), anyLong());
+		verifyNoInteractions(events, statsService);
+	}
+
+	private Appointment appointment(LocalDateTime time) {
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+		Patient patient = new Patient();
+		patient.setId(20L);
+		Appointment appointment = new Appointment();
+		appointment.setId(1L);
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		appointment.setAppointmentTime(time);
+		appointment.setStatus(0);
+		when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+		return appointment;
+	}
+
+	private static AppointmentPatch patch(LocalDateTime time, Integer status) {
+		AppointmentPatch patch = new AppointmentPatch();
+		patch.setAppointmentTime(time);
+		patch.setStatus(status);
+		return patch;
+	}
+
+	@Test
+	void patientMovesTheirAppointmentToAFreeSlot() {
+		LocalDateTime nine = LocalDate.now().plusDays(1).atTime(9, 0);
+		Appointment appointment = appointment(nine);
+
+		ResponseEntity<Map<String, Object>> response = service(200).patchAppointment(1L, patch(nine.plusHours(1), null), 20L, null);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(true, response.getBody().get("changed"));
+		assertEquals(nine.plusHours(1), appointment.getAppointmentTime());
+		assertEquals(0, appointment.getStatus());
+		verify(statsService).moved(new AppointmentStatsService.Bucket(7L, nine.toLocalDate(), 0), appointment);
+		ArgumentCaptor<AppointmentChangedEvent> published = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+		verify(events).publishEvent(published.capture());
+		assertEquals(AppointmentChangedEvent.Kind.UPDATED, published.getValue().getKind());
+		assertEquals(nine, published.getValue().getPreviousAppointmentTime());
+		assertEquals(nine.plusHours(1), published.getValue().getAppointmentTime());
+	}
+
+	@Test
+	void patchIsRefusedForTakenOrPastSlotsOtherPatientsAndPatientStatusChanges() {
+		LocalDateTime nine = LocalDate.now().plusDays(1).atTime(9, 0);
+		Appointment appointment = appointment(nine);
+		when(appointmentRepository.existsByDoctorIdAndAppointmentTimeAndStatusNotAndIdNot(7L, nine.plusHours(1), 2, 1L)).thenReturn(true);
+		AppointmentService service = service(200);
+
+		assertEquals(HttpStatus.CONFLICT, service.patchAppointment(1L, patch(nine.plusHours(1), null), 20L, null).getStatusCode());
+		// not one of the doctor's slots
+		assertEquals(HttpStatus.CONFLICT, service.patchAppointment(1L, patch(nine.plusMinutes(30), null), 20L, null).getStatusCode());
+		// not in the future
+		assertEquals(HttpStatus.BAD_REQUEST, service.patchAppointment(1L, patch(nine.minusDays(2), null), 20L, null).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, service.patchAppointment(1L, patch(nine.plusHours(1), null), 21L, null).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, service.patchAppointment(1L, patch(null, 1), null, 8L).getStatusCode());
+		assertEquals(HttpStatus.FORBIDDEN, service.patchAppointment(1L, patch(null, 1), 20L, null).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, service.patchAppointment(1L, patch(null, 5), null, 7L).getStatusCode());
+		assertEquals(nine, appointment.getAppointmentTime());
+		assertEquals(0, appointment.getStatus());
+		verifyNoInteractions(events, statsService);
+	}
+
+	@Test
+	void doctorChangesTheStatusAndAnUnchangedPatchPublishesNothing() {
+		LocalDateTime nine = LocalDate.now().plusDays(1).atTime(9, 0);
+		Appointment appointment = appointment(nine);
+		AppointmentService service = service(200);
+
+		assertEquals(false, service.patchAppointment(1L, patch(nine, 0), null, 7L).getBody().get("changed"));
+		verifyNoInteractions(events, statsService);
+
+		assertEquals(true, service.patchAppointment(1L, patch(null, 1), null, 7L).getBody().get("changed"));
+		assertEquals(1, appointment.getStatus());
+		verify(statsService).moved(new AppointmentStatsService.Bucket(7L, nine.toLocalDate(), 0), appointment);
+		verify(events).publishEvent(any(AppointmentChangedEvent.class));
+	}
+}
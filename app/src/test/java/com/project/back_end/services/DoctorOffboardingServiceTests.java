@@ -0,0 +1,96 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.DoctorOffboardingJob;
+import com.project.back_end.repo.AppointmentArchiveRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.AppointmentStatsRepository;
+import com.project.back_end.repo.DoctorOffboardingJobRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+class DoctorOffboardingServiceTests {
+
+	@Test
+	void everyDeletedAppointmentIsCancelledThroughTheOutboxAndTheWaitlistIsClosed() {
+		DoctorOffboardingJobRepository jobRepository = mock(DoctorOffboardingJobRepository.class);
+		DoctorRepository doctorRepository = mock(DoctorRepository.class);
+		AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+		AppointmentArchiveRepository archiveRepository = mock(AppointmentArchiveRepository.class);
+		AppointmentStatsRepository statsRepository = mock(AppointmentStatsRepository.class);
+		WaitlistService waitlistService = mock(WaitlistService.class);
+		ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+
+		DoctorOffboardingJob[] saved = new DoctorOffboardingJob[1];
+		when(jobRepository.save(any())).thenAnswer(call -> {
+			DoctorOffboardingJob job = call.getArgument(0);
+			if( job.getId() == null ) {
+				job.setId(1L);
+			}
+			saved[0] = job;
+			return job;
+		});
+		when(jobRepository.findById(1L)).thenAnswer(call -> Optional.of(saved[0]));
+		when(doctorRepository.existsById(7L)).thenReturn(true);
+		when(appointmentRepository.countByDoctorId(7L)).thenReturn(2L, 0L);
+		when(appointmentRepository.findIdsByDoctorId(eq(7L), any())).thenReturn(List.of(10L, 11L), List.of());
+		when(archiveRepository.findIdsByDoctorId(eq(7L), any())).thenReturn(List.of());
+		LocalDateTime time = LocalDateTime.now().plusDays(2);
+		when(appointmentRepository.findEventSnapshots(List.of(10L, 11L))).thenReturn(List.of(
+				new Object[] { 10L, 20L, time, 0 },
+				new Object[] { 11L, 21L, time.plusHours(1), 0 }));
+		when(appointmentRepository.deleteByIdIn(List.of(10L, 11L))).thenReturn(2);
+
+		DoctorOffboardingService service = new DoctorOffboardingService(jobRepository, doctorRepository, appointmentRepository,
+				archiveRepository, mock(PrescriptionRepository.class), statsRepository,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(SlotSearchService.class),
+				mock(CacheInvalidationService.class), waitlistService, events, 500, 0);
+		try {
+			service.start(7L);
+			// closed when the job starts and again once the doctor is gone
+			verify(waitlistService, timeout(5000).times(2)).removeDoctor(7L);
+		} finally {
+			service.shutdown();
+		}
+
+		ArgumentCaptor<AppointmentChangedEvent> published = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+		verify(events, times(2)).publishEvent(published.capture());
+		List<AppointmentChangedEvent> cancelled = published.getAllValues();
+		assertEquals(List.of(10L, 11L), cancelled.stream().map(AppointmentChangedEvent::getAppointmentId).toList());
+		assertEquals(List.of(20L, 21L), cancelled.stream().map(AppointmentChangedEvent::getPatientId).toList());
+		for(AppointmentChangedEvent event : cancelled) {
+			assertEquals(AppointmentChangedEvent.Kind.CANCELLED, event.getKind());
+			assertEquals(7L, event.getDoctorId());
+		}
+		assertEquals(time, cancelled.get(0).getAppointmentTime());
+		// the rows are read before the delete, in the chunk's transaction
+		InOrder order = inOrder(appointmentRepository);
+		order.verify(appointmentRepository).findEventSnapshots(List.of(10L, 11L));
+		order.verify(appointmentRepository).deleteByIdIn(List.of(10L, 11L));
+		verify(statsRepository).deleteDoctor(7L);
+		verify(archiveRepository, times(0)).deleteByIdIn(any());
+		assertEquals(DoctorOffboardingJob.Status.COMPLETED, saved[0].getStatus());
+		assertEquals(2, saved[0].getAppointmentsDeleted());
+	}
+}
@@ -0,0 +1,107 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.project.back_end.DTO.DoctorPatch;
+import com.project.back_end.DTO.Login;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+class DoctorServiceTests {
+
+	private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+	private final SlotSearchService slotSearchService = mock(SlotSearchService.class);
+	private final CacheInvalidationService invalidations = mock(CacheInvalidationService.class);
+	private final TokenService tokenService = mock(TokenService.class);
+
+	private DoctorService service() {
+		return new DoctorService(doctorRepository, mock(AppointmentRepository.class), tokenService,
+				mock(DoctorOffboardingService.class), slotSearchService, invalidations, 300000);
+	}
+
+	private Doctor doctor() {
+		Doctor doctor = new Doctor();
+		doctor.setId(7L);
+		doctor.setName("Dr Adams");
+		doctor.setSpecialty("Cardiology");
+		doctor.setPhone("5551234567");
+		doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+		when(doctorRepository.findById(7L)).thenReturn(Optional.of(doctor));
+		return doctor;
+	}
+
+	@Test
+	void patchChangesOnlyTheGivenFieldsAndRefreshesTheSlotIndex() {
+		Doctor doctor = doctor();
+		DoctorPatch patch = new DoctorPatch();
+		patch.setSpecialty("Neurology");
+		patch.setAvailableTimes(List.of("10:00-11:00", "14:00-15:00"));
+
+		assertEquals(1, service().patchDoctor(7L, patch));
+
+		assertEquals("Dr Adams", doctor.getName());
+		assertEquals("Neurology", doctor.getSpecialty());
+		assertEquals("5551234567", doctor.getPhone());
+		assertEquals(List.of("10:00-11:00", "14:00-15:00"), doctor.getAvailableTimes());
+		verify(slotSearchService).refreshDoctor(7L);
+		verify(invalidations).publish(CacheInvalidationService.DOCTOR, 7L);
+	}
+
+	@Test
+	void phoneOnlyPatchLeavesTheSlotIndexAlone() {
+		Doctor doctor = doctor();
+		DoctorPatch patch = new DoctorPatch();
+		patch.setPhone("5559876543");
+		// the same slots in another order are no change
+		patch.setAvailableTimes(List.of("10:00-11:00", "09:00-10:00"));
+
+		assertEquals(1, service().patchDoctor(7L, patch));
+
+		assertEquals("5559876543", doctor.getPhone());
+		verify(slotSearchService, never()).refreshDoctor(anyLong());
+		verify(invalidations).publish(CacheInvalidationService.DOCTOR, 7L);
+	}
+
+	@Test
+	void patchOfAnUnknownDoctorIsRefused() {
+		assertEquals(-1, service().patchDoctor(8L, new DoctorPatch()));
+		verify(invalidations, never()).publish(CacheInvalidationService.DOCTOR, 8L);
+	}
+
+	@Test
+	void loginAnswers200WithATokenOr401() {
+		Doctor doctor = doctor();
+		doctor.setEmail("adams@example.com");
+		doctor.setPassword("secret1");
+		when(doctorRepository.findByEmail("adams@example.com")).thenReturn(doctor);
+		when(tokenService.generateToken("adams@example.com")).thenReturn("token");
+		DoctorService service = service();
+
+		ResponseEntity<Map<String, String>> ok = service.validateDoctor(login("adams@example.com", "secret1"));
+		assertEquals(HttpStatus.OK, ok.getStatusCode());
+		assertEquals("token", ok.getBody().get("token"));
+		assertEquals(HttpStatus.UNAUTHORIZED, service.validateDoctor(login("adams@example.com", "wrong")).getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, service.validateDoctor(login("nobody@example.com", "secret1")).getStatusCode());
+	}
+
+	private static Login login(String identifier, String password) {
+		Login login = new Login();
+		login.setIdentifier(identifier);
+		login.setPassword(password);
+		return login;
+	}
+}
@@ -0,0 +1,46 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.back_end.repo.PatientRepository;
+
+class DoctorUpdatesHubTests {
+
+	@Test
+	void concurrentSubscribesDoNotExceedThePerDoctorCap() throws Exception {
+		DoctorUpdatesHub hub = new DoctorUpdatesHub(mock(PatientRepository.class), 60_000, 64, 10_000, 8, 2, 5000);
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		try {
+			List<Callable<SseEmitter>> subscribes = new ArrayList<>();
+			for(int i = 0; i < 64; i++) {
+				subscribes.add(() -> hub.subscribe(7L));
+			}
+			int accepted = 0;
+			for(Future<SseEmitter> emitter : pool.invokeAll(subscribes)) {
+				if( emitter.get() != null ) {
+					accepted++;
+				}
+			}
+			assertEquals(8, accepted);
+			assertEquals(8, hub.getConnections());
+			// another doctor has their own cap
+			assertNotNull(hub.subscribe(8L));
+			assertEquals(9, hub.getConnections());
+		} finally {
+			pool.shutdownNow();
+			hub.shutdown();
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+class InteractionServiceTests {
+
+	private static final String DATASET = """
+			D;warfarin;coumadin
+			I;warfarin;aspirin;major;Bleeding
+			""";
+
+	@Test
+	void datasetThatDoesNotParseIsOnlyReadAgainOnceItChanges(@TempDir Path dir) throws Exception {
+		File file = dir.resolve("interactions.txt").toFile();
+		Files.writeString(file.toPath(), "I;warfarin;aspirin;unknown-severity;Bleeding\n", StandardCharsets.UTF_8);
+		long broken = file.lastModified();
+		InteractionService service = new InteractionService(new FileSystemResource(file));
+
+		assertFalse(service.reload());
+		assertNotNull(service.getStats().get("lastError"));
+
+		// fixed in place with the same modification time: not read again
+		Files.writeString(file.toPath(), DATASET, StandardCharsets.UTF_8);
+		file.setLastModified(broken);
+		service.reloadIfChanged();
+		assertEquals(0, service.getGraph().drugCount());
+
+		file.setLastModified(broken + 2000);
+		service.reloadIfChanged();
+		assertEquals(2, service.getGraph().drugCount());
+		assertNull(service.getStats().get("lastError"));
+	}
+}
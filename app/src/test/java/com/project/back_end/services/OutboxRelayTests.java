@@ -0,0 +1,125 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.AppointmentEventSubscriber;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxEventRepository;
+
+class OutboxRelayTests {
+
+	private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private OutboxEvent row(long appointmentId) throws Exception {
+		return row(appointmentId, appointmentId, AppointmentChangedEvent.Kind.BOOKED);
+	}
+
+	private OutboxEvent row(long id, long appointmentId, AppointmentChangedEvent.Kind kind) throws Exception {
+		AppointmentChangedEvent event = new AppointmentChangedEvent(kind,
+				appointmentId, 1L, null, null, 2L, LocalDateTime.now().plusDays(1), 0, LocalDateTime.now());
+		OutboxEvent row = new OutboxEvent();
+		row.setId(id);
+		row.setEventType(event.getKind().name());
+		row.setAggregateId(appointmentId);
+		row.setPayload(mapper.writeValueAsString(event));
+		row.setCreatedAt(LocalDateTime.now());
+		return row;
+	}
+
+	private OutboxRelay relay(OutboxEventRepository repository, List<AppointmentEventSubscriber> subscribers) {
+		return new OutboxRelay(repository, subscribers, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				mapper, false, 100, 500, 3, 7);
+	}
+
+	@Test
+	void dispatchesBatchInOrderAndMarksPublished() throws Exception {
+		List<OutboxEvent> rows = List.of(row(1), row(2), row(3));
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.claimBatch(any(), anyInt())).thenReturn(rows);
+		List<Long> received = new ArrayList<>();
+		AppointmentEventSubscriber subscriber = events -> events.forEach(e -> received.add(e.getAppointmentId()));
+
+		assertEquals(3, relay(repository, List.of(subscriber)).relayBatch());
+		assertEquals(List.of(1L, 2L, 3L), received);
+		rows.forEach(r -> assertNotNull(r.getPublishedAt()));
+	}
+
+	@Test
+	void retriesOnlyTheEventsASubscriberFailedOn() throws Exception {
+		List<OutboxEvent> rows = List.of(row(1), row(2), row(3));
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.claimBatch(any(), anyInt())).thenReturn(rows);
+		AppointmentEventSubscriber failing = events -> {
+			if( events.stream().anyMatch(e -> e.getAppointmentId() == 2L) ) {
+				throw new IllegalStateException("boom");
+			}
+		};
+
+		relay(repository, List.of(failing)).relayBatch();
+		assertNotNull(rows.get(0).getPublishedAt());
+		assertNull(rows.get(1).getPublishedAt());
+		assertEquals(1, rows.get(1).getAttempts());
+		assertNotNull(rows.get(1).getNextAttemptAt());
+		assertNotNull(rows.get(2).getPublishedAt());
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() throws Exception {
+		OutboxEvent row = row(1);
+		row.setAttempts(2);
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.claimBatch(any(), anyInt())).thenReturn(List.of(row));
+		AppointmentEventSubscriber failing = events -> {
+			throw new IllegalStateException("boom");
+		};
+
+		relay(repository, List.of(failing)).relayBatch();
+		assertEquals(3, row.getAttempts());
+		assertNotNull(row.getPublishedAt());
+		assertNotNull(row.getLastError());
+	}
+
+	@Test
+	void laterEventsOfAFailedAppointmentAreHeldBack() throws Exception {
+		// appointment 10: booked (fails), then cancelled; appointment 20: booked
+		List<OutboxEvent> rows = List.of(row(1, 10, AppointmentChangedEvent.Kind.BOOKED),
+				row(2, 20, AppointmentChangedEvent.Kind.BOOKED), row(3, 10, AppointmentChangedEvent.Kind.CANCELLED));
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.claimBatch(any(), anyInt())).thenReturn(rows);
+		List<String> received = new ArrayList<>();
+		AppointmentEventSubscriber failing = events -> {
+			if( events.stream().anyMatch(e -> e.getAppointmentId() == 10L && e.getKind() == AppointmentChangedEvent.Kind.BOOKED) ) {
+				throw new IllegalStateException("boom");
+			}
+			events.forEach(e -> received.add(e.getAppointmentId() + " " + e.getKind()));
+		};
+
+		relay(repository, List.of(failing)).relayBatch();
+		// the cancellation of 10 is not delivered before its booking
+		assertEquals(List.of("20 BOOKED"), received);
+		assertNull(rows.get(0).getPublishedAt());
+		assertNotNull(rows.get(0).getNextAttemptAt());
+		assertNotNull(rows.get(1).getPublishedAt());
+		// left pending without an attempt: claimBatch skips it until the booking is dispatched
+		assertNull(rows.get(2).getPublishedAt());
+		assertEquals(0, rows.get(2).getAttempts());
+		assertNull(rows.get(2).getNextAttemptAt());
+	}
+}
@@ -0,0 +1,48 @@
+package com.project.back_end.services;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Patient;
+
+class PrincipalChangeListenerTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void changedPatientsAndAdminsArePublishedToEveryNode() {
+		CacheInvalidationService invalidations = mock(CacheInvalidationService.class);
+		ObjectProvider<CacheInvalidationService> provider = mock(ObjectProvider.class);
+		when(provider.getObject()).thenReturn(invalidations);
+		PrincipalChangeListener listener = new PrincipalChangeListener(provider);
+		Patient patient = new Patient();
+		patient.setId(20L);
+		Admin admin = new Admin();
+		admin.setId(3L);
+
+		listener.changed(patient);
+		listener.changed(admin);
+
+		verify(invalidations).publish(CacheInvalidationService.PATIENT, 20L);
+		verify(invalidations).publish(CacheInvalidationService.ADMIN, 3L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void unsavedAccountsAreNotPublished() {
+		CacheInvalidationService invalidations = mock(CacheInvalidationService.class);
+		ObjectProvider<CacheInvalidationService> provider = mock(ObjectProvider.class);
+		when(provider.getObject()).thenReturn(invalidations);
+
+		new PrincipalChangeListener(provider).changed(new Patient());
+
+		verify(invalidations, never()).publish(anyString(), anyLong());
+	}
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.project.back_end.repo.WaitlistEntryRepository;
+
+class WaitlistOffersHubTests {
+
+	@Test
+	void anOfferPublishedOnTheBusIsPushedByTheNodeHoldingThePatientsStream() {
+		WaitlistEntryRepository waitlistRepository = mock(WaitlistEntryRepository.class);
+		CacheInvalidationService invalidations = mock(CacheInvalidationService.class);
+		WaitlistOffersHub hub = new WaitlistOffersHub(waitlistRepository, invalidations, 60_000, 10_000, 2, 2);
+		ArgumentCaptor<LongConsumer> listener = ArgumentCaptor.forClass(LongConsumer.class);
+		verify(invalidations).listen(eq(CacheInvalidationService.WAITLIST_OFFER), listener.capture());
+		try {
+			assertNotNull(hub.subscribe(20L));
+			assertNotNull(hub.subscribe(20L));
+			assertNull(hub.subscribe(20L));
+			assertEquals(2, hub.getConnections());
+			// the current offers are sent when a stream opens
+			verify(waitlistRepository, timeout(5000).times(2)).findByPatientIdAndStatusInOrderByIdAsc(eq(20L), any());
+
+			// an offer made on this node or another one
+			listener.getValue().accept(20L);
+			verify(waitlistRepository, timeout(5000).times(3)).findByPatientIdAndStatusInOrderByIdAsc(eq(20L), any());
+			// nobody to push to on this node: nothing is read
+			listener.getValue().accept(21L);
+			verify(waitlistRepository, never()).findByPatientIdAndStatusInOrderByIdAsc(eq(21L), any());
+			verify(waitlistRepository, times(3)).findByPatientIdAndStatusInOrderByIdAsc(any(), any());
+		} finally {
+			hub.shutdown();
+		}
+	}
+}
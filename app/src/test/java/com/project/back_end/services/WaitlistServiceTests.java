@@ -0,0 +1,187 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.WaitlistEntry;
+import com.project.back_end.models.WaitlistEntry.Status;
+import com.project.back_end.repo.DoctorOffboardingJobRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.WaitlistEntryRepository;
+import com.project.back_end.waitlist.WaitlistNotifier;
+import com.project.back_end.waitlist.WaitlistOffer;
+
+class WaitlistServiceTests {
+
+	private final WaitlistEntryRepository waitlistRepository = mock(WaitlistEntryRepository.class);
+	private final AppointmentService appointmentService = mock(AppointmentService.class);
+	private final CacheInvalidationService invalidations = mock(CacheInvalidationService.class);
+	private final WaitlistNotifier notifier = mock(WaitlistNotifier.class);
+	private final LocalDateTime time = LocalDate.now().plusDays(1).atTime(9, 0);
+	private WaitlistService service;
+
+	private static WaitlistEntry entry(long id, long patientId, Status status) {
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setId(id);
+		entry.setDoctorId(7L);
+		entry.setPatientId(patientId);
+		entry.setFromDate(LocalDate.now());
+		entry.setToDate(LocalDate.now().plusDays(5));
+		entry.setStatus(status);
+		return entry;
+	}
+
+	@BeforeEach
+	void setUp() {
+		// patient 20 registered first, then 21
+		when(waitlistRepository.findByStatusAndToDateGreaterThanEqual(eq(Status.WAITING), any()))
+				.thenReturn(List.of(entry(1L, 20L, Status.WAITING), entry(2L, 21L, Status.WAITING)));
+		when(waitlistRepository.offer(anyLong(), any(), any(), any(), eq(Status.WAITING), eq(Status.OFFERED))).thenReturn(1);
+		service = new WaitlistService(waitlistRepository, mock(DoctorRepository.class), mock(DoctorOffboardingJobRepository.class),
+				mock(PatientRepository.class), appointmentService, invalidations, notifier, 15, 31, 5);
+		service.rebuild();
+	}
+
+	// The appointment of patient 30 at `time` is cancelled: the slot is held for patient 20.
+	private void cancelled() {
+		service.onAppointmentEvents(List.of(new AppointmentChangedEvent(AppointmentChangedEvent.Kind.CANCELLED, 100L, 7L, null, null,
+				30L, time, 2, LocalDateTime.now())));
+	}
+
+	private WaitlistEntry held(long id, long patientId, LocalDateTime expiresAt) {
+		WaitlistEntry entry = entry(id, patientId, Status.OFFERED);
+		entry.setOfferedTime(time);
+		entry.setOfferExpiresAt(expiresAt);
+		when(waitlistRepository.findById(id)).thenReturn(Optional.of(entry));
+		return entry;
+	}
+
+	@Test
+	void anExpiredOfferGoesToTheNextPatient() {
+		// the event is delivered twice: the second one finds the hold
+		when(waitlistRepository.existsHold(eq(7L), eq(time), any(), isNull(), eq(Status.OFFERED))).thenReturn(false, true, false);
+		cancelled();
+		cancelled();
+		verify(waitlistRepository, times(1)).offer(anyLong(), any(), any(), any(), any(), any());
+		verify(waitlistRepository).offer(eq(1L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+		verify(invalidations).publish(CacheInvalidationService.WAITLIST_OFFER, 20L);
+
+		WaitlistEntry offer = held(1L, 20L, LocalDateTime.now().minusSeconds(1));
+		when(waitlistRepository.findByStatusAndOfferExpiresAtLessThanEqual(eq(Status.OFFERED), any())).thenReturn(List.of(offer));
+		when(waitlistRepository.transition(eq(1L), eq(Status.OFFERED), eq(Status.EXPIRED), any())).thenReturn(1);
+		service.expireOffers();
+
+		verify(waitlistRepository).offer(eq(2L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+		ArgumentCaptor<WaitlistOffer> notified = ArgumentCaptor.forClass(WaitlistOffer.class);
+		verify(notifier, times(2)).offered(notified.capture());
+		assertEquals(List.of(20L, 21L), notified.getAllValues().stream().map(WaitlistOffer::patientId).toList());
+		// patient 20's page drops the offer, patient 21's shows it
+		verify(invalidations, times(2)).publish(CacheInvalidationService.WAITLIST_OFFER, 20L);
+		verify(invalidations).publish(CacheInvalidationService.WAITLIST_OFFER, 21L);
+		assertEquals(1L, service.getStats().get("expired"));
+	}
+
+	@Test
+	void acceptingAnExpiredOfferBooksNothing() {
+		held(1L, 20L, LocalDateTime.now().minusSeconds(1));
+		assertEquals(HttpStatus.GONE, service.accept(20L, 1L).getStatusCode());
+
+		// not swept yet when read, but expired by the sweep before the transition
+		held(1L, 20L, LocalDateTime.now().plusMinutes(1));
+		when(waitlistRepository.transition(eq(1L), eq(Status.OFFERED), eq(Status.BOOKED), any())).thenReturn(0);
+		assertEquals(HttpStatus.GONE, service.accept(20L, 1L).getStatusCode());
+
+		verify(appointmentService, never()).bookAppointment(any());
+		verify(waitlistRepository, times(1)).transition(anyLong(), any(), any(), any());
+	}
+
+	@Test
+	void leavingWhileAnOfferIsHeldPassesTheSlotOn() {
+		cancelled();
+		held(1L, 20L, LocalDateTime.now().plusMinutes(15));
+		when(waitlistRepository.transition(eq(1L), eq(Status.OFFERED), eq(Status.CANCELLED), any())).thenReturn(1);
+
+		assertEquals(HttpStatus.OK, service.leave(20L, 1L).getStatusCode());
+
+		verify(waitlistRepository).offer(eq(2L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+		verify(invalidations, times(2)).publish(CacheInvalidationService.WAITLIST_OFFER, 20L);
+		verify(invalidations).publish(CacheInvalidationService.WAITLIST_OFFER, 21L);
+		// another patient can not leave it for them
+		assertEquals(HttpStatus.NOT_FOUND, service.leave(21L, 1L).getStatusCode());
+	}
+
+	@Test
+	void anOfferIsNotifiedAfterTheCommitAndMadeAgainAfterARollback() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cancelled();
+			verify(waitlistRepository).offer(eq(1L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+			verify(notifier, never()).offered(any());
+			// the relay's transaction rolls back: the hold of patient 20 is undone
+			TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+					TransactionSynchronization.STATUS_ROLLED_BACK);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		verify(notifier, never()).offered(any());
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			// redelivered: patient 20 is still first in line
+			cancelled();
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+			TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		verify(waitlistRepository, times(2)).offer(eq(1L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+		ArgumentCaptor<WaitlistOffer> notified = ArgumentCaptor.forClass(WaitlistOffer.class);
+		verify(notifier).offered(notified.capture());
+		assertEquals(20L, notified.getValue().patientId());
+		assertEquals(1L, service.getStats().get("offered"));
+	}
+
+	@Test
+	void aRebuildReadsOutsideTheLockAndKeepsTheChangesMadeMeanwhile() {
+		// patient 22's offer finds the slot booked: they go back to the queue while the entries are being read
+		held(3L, 22L, LocalDateTime.now().plusMinutes(15));
+		when(appointmentService.isSlotTaken(7L, time)).thenReturn(true);
+		when(waitlistRepository.transition(eq(3L), eq(Status.OFFERED), eq(Status.WAITING), any())).thenReturn(1);
+		when(waitlistRepository.findByStatusAndToDateGreaterThanEqual(eq(Status.WAITING), any())).thenAnswer(call -> {
+			assertEquals(HttpStatus.CONFLICT, CompletableFuture.supplyAsync(() -> service.accept(22L, 3L)).get(5, TimeUnit.SECONDS).getStatusCode());
+			return List.of();
+		});
+		service.rebuild();
+		assertEquals(1, service.getStats().get("waiting"));
+
+		when(appointmentService.isSlotTaken(7L, time)).thenReturn(false);
+		cancelled();
+		verify(waitlistRepository).offer(eq(3L), eq(time), any(), any(), eq(Status.WAITING), eq(Status.OFFERED));
+	}
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.slots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.DTO.AvailableSlot;
+
+class SlotSearchTests {
+
+	private final LocalDateTime monday = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+	@Test
+	void mergesDoctorsInTimeOrderSkippingBookedSlots() {
+		DoctorSlots a = new DoctorSlots(1L, "A", "cardiologist", List.of("09:00-10:00", "14:00-15:00"));
+		DoctorSlots b = new DoctorSlots(2L, "B", "cardiologist", List.of("10:00-11:00", "09:00-10:00"));
+		a.book(monday.withHour(9));
+
+		List<AvailableSlot> slots = SlotSearch.earliest(List.of(a, b), monday, monday.plusDays(2), DoctorSlots.Period.ALL, 4);
+		assertEquals(4, slots.size());
+		assertEquals(2L, slots.get(0).getDoctorId());
+		assertEquals(monday.withHour(9), slots.get(0).getSlotTime());
+		assertEquals(monday.withHour(10), slots.get(1).getSlotTime());
+		assertEquals(1L, slots.get(2).getDoctorId());
+		assertEquals(monday.withHour(14), slots.get(2).getSlotTime());
+		// next day, both doctors at 9, lower doctor id first
+		assertEquals(monday.plusDays(1).withHour(9), slots.get(3).getSlotTime());
+		assertEquals(1L, slots.get(3).getDoctorId());
+	}
+
+	@Test
+	void appliesPeriodAndWindow() {
+		DoctorSlots a = new DoctorSlots(1L, "A", "dentist", List.of("09:00-10:00", "14:00-15:00", "bad"));
+		List<AvailableSlot> pm = SlotSearch.earliest(List.of(a), monday.withHour(12), monday.plusDays(3), DoctorSlots.Period.PM, 10);
+		assertEquals(3, pm.size());
+		assertTrue(pm.stream().allMatch(s -> s.getSlotTime().getHour() == 14));
+
+		DoctorSlots none = new DoctorSlots(2L, "N", "dentist", List.of());
+		assertTrue(SlotSearch.earliest(List.of(none), monday, monday.plusDays(30), DoctorSlots.Period.ALL, 5).isEmpty());
+	}
+}
@@ -0,0 +1,100 @@
+package com.project.back_end.smoketest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// The paths that break in a native executable when reachability metadata is missing (JPA entities
+// and Jackson, jjwt, Thymeleaf, static resources, Mongo), against a running instance:
+//   mvn -Psmoke-test test -Dsmoke.base-url=http://localhost:8080 -Dsmoke.doctor=<email>:<password> -Dsmoke.appointment-id=<id>
+// The doctor tests are skipped without `smoke.doctor`, the prescription one without `smoke.appointment-id`.
+@Tag("smoke")
+class NativeSmokeTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static HttpClient http;
+	private static String baseUrl;
+
+	@BeforeAll
+	static void client() {
+		baseUrl = System.getProperty("smoke.base-url", "http://localhost:8080").replaceAll("/$", "");
+		http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	}
+
+	@Test
+	void doctorsAreSerialized() throws Exception {
+		HttpResponse<String> response = get("/doctor");
+		assertEquals(200, response.statusCode());
+		assertNotNull(mapper.readValue(response.body(), Map.class).get("doctors"), response.body());
+
+		assertEquals(200, get("/doctor/filter/null/AM/Cardiologist").statusCode());
+	}
+
+	@Test
+	void staticFilesAreServed() throws Exception {
+		assertEquals(200, get("/").statusCode());
+		assertEquals(200, get("/assets/css/style.css").statusCode());
+	}
+
+	@Test
+	void invalidTokenIsRejected() throws Exception {
+		// jjwt parses and rejects it: a redirect, not an error of the native image
+		assertEquals(302, get("/adminDashboard/not-a-token").statusCode());
+	}
+
+	@Test
+	void doctorTokenIsSignedAndParsed() throws Exception {
+		String token = doctorToken();
+		assertEquals(200, get("/appointments/" + LocalDate.now() + "/null/" + token).statusCode());
+
+		HttpResponse<String> dashboard = get("/doctorDashboard/" + token);
+		assertEquals(200, dashboard.statusCode());
+		assertTrue(dashboard.body().contains("doctorDashboard.js"), "Thymeleaf template not rendered");
+	}
+
+	@Test
+	void prescriptionIsRead() throws Exception {
+		String appointmentId = System.getProperty("smoke.appointment-id", "");
+		assumeTrue(!appointmentId.isEmpty(), "No smoke.appointment-id");
+		HttpResponse<String> response = get("/prescription/" + appointmentId + "/" + doctorToken());
+		assertTrue(response.statusCode() == 200 || response.statusCode() == 404, response.body());
+	}
+
+	private static String doctorToken() throws IOException, InterruptedException {
+		String doctor = System.getProperty("smoke.doctor", "");
+		assumeTrue(doctor.contains(":"), "No smoke.doctor credentials");
+		String[] credentials = doctor.split(":", 2);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/doctor/login"))
+				.timeout(Duration.ofSeconds(10))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(
+						Map.of("identifier", credentials[0], "password", credentials[1]))))
+				.build();
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		Object token = mapper.readValue(response.body(), Map.class).get("token");
+		assertNotNull(token, response.body());
+		return token.toString();
+	}
+
+	private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(10)).GET().build();
+		return http.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.waitlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.waitlist.DoctorWaitlist.Waiter;
+
+class DoctorWaitlistTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+	@Test
+	void firstRegisteredPatientCoveringTheDayIsNext() {
+		DoctorWaitlist waitlist = new DoctorWaitlist();
+		waitlist.add(new Waiter(12, 2, MONDAY.plusDays(2), MONDAY.plusDays(4)));
+		waitlist.add(new Waiter(10, 1, MONDAY, MONDAY.plusDays(1)));
+		waitlist.add(new Waiter(11, 3, MONDAY, MONDAY.plusDays(6)));
+
+		assertEquals(10, waitlist.next(MONDAY, null).entryId());
+		assertEquals(11, waitlist.next(MONDAY.plusDays(3), null).entryId());
+		assertEquals(11, waitlist.next(MONDAY.plusDays(6), null).entryId());
+		assertNull(waitlist.next(MONDAY.plusDays(7), null));
+		// the patient who freed the slot is skipped
+		assertEquals(11, waitlist.next(MONDAY, 1L).entryId());
+	}
+
+	@Test
+	void removedPatientLeavesEveryDayOfTheRange() {
+		DoctorWaitlist waitlist = new DoctorWaitlist();
+		waitlist.add(new Waiter(1, 1, MONDAY, MONDAY.plusDays(3)));
+		waitlist.add(new Waiter(2, 2, MONDAY.plusDays(2), MONDAY.plusDays(3)));
+
+		assertEquals(1, waitlist.remove(1).entryId());
+		assertNull(waitlist.next(MONDAY, null));
+		assertEquals(2, waitlist.next(MONDAY.plusDays(3), null).entryId());
+		assertNull(waitlist.remove(1));
+		assertEquals(1, waitlist.size());
+
+		// added again (e.g. reloaded): one place only
+		waitlist.add(new Waiter(2, 2, MONDAY.plusDays(2), MONDAY.plusDays(3)));
+		waitlist.remove(2);
+		assertTrue(waitlist.isEmpty());
+		assertNull(waitlist.next(MONDAY.plusDays(2), null));
+	}
+
+	@Test
+	void pastDaysAndEndedRangesAreForgotten() {
+		DoctorWaitlist waitlist = new DoctorWaitlist();
+		waitlist.add(new Waiter(1, 1, MONDAY, MONDAY.plusDays(1)));
+		waitlist.add(new Waiter(2, 2, MONDAY, MONDAY.plusDays(5)));
+
+		waitlist.forgetBefore(MONDAY.plusDays(2));
+		assertEquals(1, waitlist.size());
+		assertNull(waitlist.next(MONDAY.plusDays(1), null));
+		assertEquals(2, waitlist.next(MONDAY.plusDays(2), null).entryId());
+		waitlist.remove(2);
+		assertTrue(waitlist.isEmpty());
+	}
+}